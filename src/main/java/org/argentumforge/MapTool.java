@@ -0,0 +1,131 @@
+package org.argentumforge;
+
+import org.argentumforge.engine.utils.MapBatchProcessor;
+import org.argentumforge.engine.utils.MapBatchProcessor.Operation;
+import org.argentumforge.engine.utils.MapManager.MapSaveOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Punto de entrada sin interfaz para procesar directorios de mapas por lotes.
+ * <p>
+ * No crea ventana ni contexto OpenGL (no pasa por {@link Main} ni por el
+ * motor), por lo que puede correr en un servidor. Uso:
+ *
+ * <pre>
+ * MapTool convert  &lt;dir&gt; &lt;formato&gt; [--out &lt;dir&gt;] [--threads N]
+ * MapTool validate &lt;dir&gt; [--dats &lt;dir&gt;] [--threads N]
+ * MapTool resave   &lt;dir&gt; [--out &lt;dir&gt;] [--threads N]
+ * </pre>
+ *
+ * Formatos: {@code standard}, {@code v1}, {@code aolibre}, {@code extended}. Sin
+ * {@code --out} los archivos se sobrescriben en su lugar. {@code --dats} indica
+ * la carpeta con OBJ.dat: sin ella la validación no conoce los tipos de
+ * objeto y avisa de todos los objetos en tiles bloqueados.
+ * <p>
+ * Código de salida: 0 si todo se procesó sin errores, 1 si algún mapa falló o
+ * tiene errores de validación, 2 si los argumentos son inválidos.
+ */
+public final class MapTool {
+
+    private MapTool() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        if (args.length < 2) {
+            printUsage();
+            return 2;
+        }
+
+        Operation operation;
+        try {
+            operation = Operation.valueOf(args[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Operación desconocida: " + args[0]);
+            printUsage();
+            return 2;
+        }
+
+        Path inputDir = Path.of(args[1]);
+        if (!Files.isDirectory(inputDir)) {
+            System.err.println("No es un directorio: " + inputDir.toAbsolutePath());
+            return 2;
+        }
+
+        int next = 2;
+        MapSaveOptions target = null;
+        if (operation == Operation.CONVERT) {
+            if (args.length < 3 || (target = parseFormat(args[2])) == null) {
+                System.err.println("Formato de destino inválido o ausente");
+                printUsage();
+                return 2;
+            }
+            next = 3;
+        }
+
+        Path outputDir = null;
+        Path datsDir = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = next; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--out") && i + 1 < args.length && operation != Operation.VALIDATE) {
+                outputDir = Path.of(args[++i]);
+            } else if (arg.equals("--dats") && i + 1 < args.length && operation == Operation.VALIDATE) {
+                datsDir = Path.of(args[++i]);
+            } else if (arg.equals("--threads") && i + 1 < args.length) {
+                try {
+                    threads = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Cantidad de hilos inválida: " + args[i]);
+                    return 2;
+                }
+            } else {
+                System.err.println("Argumento desconocido: " + arg);
+                printUsage();
+                return 2;
+            }
+        }
+
+        try {
+            if (datsDir != null)
+                MapBatchProcessor.loadObjects(datsDir);
+            else if (operation == Operation.VALIDATE)
+                System.err.println("Sin --dats: se avisará de todos los objetos en tiles bloqueados");
+
+            MapBatchProcessor processor = new MapBatchProcessor(operation, target, outputDir, threads);
+            MapBatchProcessor.Report report = processor.run(inputDir);
+            System.out.print(report.format());
+            return report.isClean() ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Error al procesar " + inputDir.toAbsolutePath() + ": " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * @return Las opciones del formato, o {@code null} si el nombre no es válido.
+     */
+    static MapSaveOptions parseFormat(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "standard", "v2" -> MapSaveOptions.standard();
+            case "v1", "legacy", "v1legacy" -> MapSaveOptions.v1Legacy();
+            case "aolibre" -> MapSaveOptions.aoLibre();
+            case "extended" -> MapSaveOptions.extended();
+            default -> null;
+        };
+    }
+
+    private static void printUsage() {
+        System.err.println("Uso:");
+        System.err.println("  MapTool convert  <dir> <standard|v1|aolibre|extended> [--out <dir>] [--threads N]");
+        System.err.println("  MapTool validate <dir> [--dats <dir>] [--threads N]");
+        System.err.println("  MapTool resave   <dir> [--out <dir>] [--threads N]");
+    }
+}
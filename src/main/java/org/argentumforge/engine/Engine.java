@@ -2,14 +2,21 @@ package org.argentumforge.engine;
 
 import imgui.ImGui;
 import org.argentumforge.engine.audio.Sound;
+import org.argentumforge.engine.gui.DialogManager;
 import org.argentumforge.engine.gui.ImGUISystem;
+import org.argentumforge.engine.gui.components.LoadingModal;
+import org.argentumforge.engine.i18n.I18n;
 import org.argentumforge.engine.listeners.MouseListener;
 import org.argentumforge.engine.managers.RenderManager;
 import org.argentumforge.engine.managers.SceneManager;
 import org.argentumforge.engine.renderer.BatchRenderer;
 import org.argentumforge.engine.renderer.Surface;
+import org.argentumforge.engine.renderer.TextureAtlas;
 import org.argentumforge.engine.scenes.Scene;
 import org.argentumforge.engine.scenes.SceneType;
+import org.argentumforge.engine.utils.AnimationClock;
+import org.argentumforge.engine.utils.FrameProfiler;
+import org.argentumforge.engine.utils.FrameProfiler.Section;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.Time;
 import org.lwjgl.Version;
@@ -141,8 +148,25 @@ public final class Engine {
         // En este punto, GameData ya ha sido inicializado por el formulario
         // correspondiente
         // y Window/GUI ya están inicializados por init()
-        GameData.init();
+        // Los recursos se cargan en paralelo fuera del hilo principal para que la UI
+        // siga respondiendo y el modal muestre el avance de cada etapa
+        LoadingModal.getInstance().show(I18n.INSTANCE.get("loading.resources"));
+        GameData.initAsync().whenComplete((ignored, error) -> runOnMainThread(() -> {
+            LoadingModal.getInstance().hide();
+            if (error != null) {
+                Logger.error(error, "Error al cargar los recursos");
+                DialogManager.getInstance().showError("Error",
+                        "Error al cargar los recursos.\nDetalle: " + error.getMessage());
+            }
+            GameData.endInit();
+            finishInitialization();
+        }));
+    }
 
+    /**
+     * Continúa la inicialización una vez cargados los recursos (hilo principal).
+     */
+    private void finishInitialization() {
         // Aplicar configuraciones de pantalla cargadas del perfil
         window.setVSync(options.isVsync());
         window.updateResolution(options.getScreenWidth(), options.getScreenHeight());
@@ -225,12 +249,19 @@ public final class Engine {
      * - Renderizar escena y GUI si la ventana está activa.
      * - Actualizar timers y deltaTime.
      * - Gestionar eventos de mouse y teclado.
+     * Cada etapa se mide con {@link FrameProfiler} cuando está activo.
      */
     private void loop() {
         Time.initTime();
 
+        FrameProfiler profiler = FrameProfiler.INSTANCE;
+
         while (prgRun) {
+            profiler.beginFrame();
+
+            profiler.begin(Section.POLL_EVENTS);
             glfwPollEvents();
+            profiler.end(Section.POLL_EVENTS);
 
             if (!window.isMinimized()) {
                 Scene currentScene = getCurrentScene();
@@ -250,20 +281,30 @@ public final class Engine {
                     org.argentumforge.engine.gui.ImGUISystem.INSTANCE.startFrame();
 
                     if (currentScene != null) {
+                        profiler.begin(Section.UPLOADS);
                         Surface.INSTANCE.dispatchUploads();
+                        TextureAtlas.INSTANCE.dispatchUploads();
+                        profiler.end(Section.UPLOADS);
+
+                        profiler.begin(Section.RENDER);
                         RenderManager.INSTANCE.render(window);
+                        profiler.end(Section.RENDER);
                     }
 
+                    profiler.begin(Section.IMGUI);
                     org.argentumforge.engine.gui.ImGUISystem.INSTANCE.endFrame();
+                    profiler.end(Section.IMGUI);
                 }
 
                 glfwSwapBuffers(window.getWindow());
                 Time.updateTime();
+                AnimationClock.INSTANCE.tick(Time.deltaTime);
             }
 
             MouseListener.resetReleasedButtons();
 
             // Procesar tareas del hilo principal
+            profiler.begin(Section.TASKS);
             synchronized (taskQueue) {
                 while (!taskQueue.isEmpty()) {
                     try {
@@ -273,7 +314,9 @@ public final class Engine {
                     }
                 }
             }
+            profiler.end(Section.TASKS);
 
+            profiler.endFrame();
         }
     }
 
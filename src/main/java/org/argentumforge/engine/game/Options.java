@@ -40,6 +40,8 @@ public enum Options {
     private static final int MAX_RECENT_MAPS = 10;
     private boolean autoSaveEnabled = false;
     private int autoSaveIntervalMinutes = 5;
+    /** Memoria de video máxima para las texturas de gráficos, en MB. */
+    private int textureBudgetMB = 512;
     private java.util.Set<Integer> ignoredObjTypes = new java.util.HashSet<>(
             java.util.Arrays.asList(4, 6, 8, 10, 15, 20, 22, 27, 28));
 
@@ -149,6 +151,7 @@ public enum Options {
         moveSpeedWalk = 8;
         autoSaveEnabled = false;
         autoSaveIntervalMinutes = 5;
+        textureBudgetMB = 512;
 
         // User
         userBody = 1;
@@ -260,6 +263,7 @@ public enum Options {
 
             write(writer, "AutoSaveEnabled", autoSaveEnabled);
             write(writer, "AutoSaveInterval", autoSaveIntervalMinutes);
+            write(writer, "TextureBudgetMB", textureBudgetMB);
 
             write(writer, "MoveSpeedNormal", moveSpeedNormal);
             write(writer, "MoveSpeedWalk", moveSpeedWalk);
@@ -579,6 +583,7 @@ public enum Options {
                     org.argentumforge.engine.renderer.RenderSettings.IndicatorStyle.valueOf(value));
             case "AutoSaveEnabled" -> autoSaveEnabled = Boolean.parseBoolean(value);
             case "AutoSaveInterval" -> autoSaveIntervalMinutes = Integer.parseInt(value);
+            case "TextureBudgetMB" -> textureBudgetMB = Integer.parseInt(value);
             case "IgnoredObjTypes" -> {
                 ignoredObjTypes.clear();
                 if (!value.isEmpty()) {
@@ -699,6 +704,14 @@ public enum Options {
         this.autoSaveIntervalMinutes = autoSaveIntervalMinutes;
     }
 
+    public int getTextureBudgetMB() {
+        return textureBudgetMB;
+    }
+
+    public void setTextureBudgetMB(int textureBudgetMB) {
+        this.textureBudgetMB = textureBudgetMB;
+    }
+
     public String getVisualTheme() {
         return visualTheme;
     }
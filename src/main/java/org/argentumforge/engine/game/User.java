@@ -62,44 +62,39 @@ public enum User {
         org.tinylog.Logger.info("refreshUserCharacter START: Index=" + userCharIndex);
 
         // Asegurar que el slot esta activo y configurado
-        charList[userCharIndex].setActive(true);
-        charList[userCharIndex].getPos().setX(userPos.getX());
-        charList[userCharIndex].getPos().setY(userPos.getY());
+        org.argentumforge.engine.game.models.Character userChar = charList.activate(userCharIndex);
+        userChar.getPos().setX(userPos.getX());
+        userChar.getPos().setY(userPos.getY());
 
         // Preserve heading if valid, otherwise default to DOWN
-        if (charList[userCharIndex].getHeading() == null) {
-            charList[userCharIndex].setHeading(Direction.DOWN);
+        if (userChar.getHeading() == null) {
+            userChar.setHeading(Direction.DOWN);
         }
         // else: mantener dirección actual para evitar animaciones de "salto" durante el
         // refresco
 
         // Aplicar apariencia persistente
-        charList[userCharIndex].setiBody(userBody);
-        charList[userCharIndex].setiHead(userHead);
+        userChar.setiBody(userBody);
+        userChar.setiHead(userHead);
 
         // Actualizar objetos de datos (Importante para renderizado!)
         if (AssetRegistry.bodyData != null && userBody < AssetRegistry.bodyData.length
                 && AssetRegistry.bodyData[userBody] != null) {
-            charList[userCharIndex].setBody(new BodyData(AssetRegistry.bodyData[userBody]));
+            userChar.setBody(new BodyData(AssetRegistry.bodyData[userBody]));
         } else {
-            charList[userCharIndex].setBody(new BodyData());
+            userChar.setBody(new BodyData());
         }
 
         if (AssetRegistry.headData != null && userHead < AssetRegistry.headData.length
                 && AssetRegistry.headData[userHead] != null) {
-            charList[userCharIndex].setHead(new HeadData(AssetRegistry.headData[userHead]));
+            userChar.setHead(new HeadData(AssetRegistry.headData[userHead]));
         } else {
-            charList[userCharIndex].setHead(new HeadData());
+            userChar.setHead(new HeadData());
         }
 
-        charList[userCharIndex].setHelmet(new HeadData()); // Dummy
-        charList[userCharIndex].setWeapon(new WeaponData());
-        charList[userCharIndex].setShield(new ShieldData());
-
-        // Actualizar lastChar por si acaso
-        if (userCharIndex > org.argentumforge.engine.game.models.Character.lastChar) {
-            org.argentumforge.engine.game.models.Character.lastChar = userCharIndex;
-        }
+        userChar.setHelmet(new HeadData()); // Dummy
+        userChar.setWeapon(new WeaponData());
+        userChar.setShield(new ShieldData());
 
         // Actualizar mapa
         if (mapData != null) {
@@ -208,8 +203,8 @@ public enum User {
             underCeiling = checkUnderCeiling();
 
             // 3. Actualizar Entrada CharList
-            if (userCharIndex > 0 && userCharIndex < charList.length) {
-                org.argentumforge.engine.game.models.Character chr = charList[userCharIndex];
+            org.argentumforge.engine.game.models.Character chr = charList.get(userCharIndex);
+            if (chr != null) {
 
                 // Sincronizar Posición
                 chr.getPos().setX(tX);
@@ -260,7 +255,9 @@ public enum User {
         var context = GameData.getActiveContext();
         if (context == null)
             return;
-        var charList = context.getCharList();
+        var chr = context.getCharList().get(charIndex);
+        if (chr == null)
+            return;
         var mapData = context.getMapData();
 
         int addX = 0, addY = 0;
@@ -279,8 +276,8 @@ public enum User {
                 break;
         }
 
-        final int x = charList[charIndex].getPos().getX();
-        final int y = charList[charIndex].getPos().getY();
+        final int x = chr.getPos().getX();
+        final int y = chr.getPos().getY();
         final int nX = x + addX;
         final int nY = y + addY;
 
@@ -294,17 +291,17 @@ public enum User {
             mapData[x][y].setCharIndex(0);
         }
 
-        charList[charIndex].getPos().setX(nX);
-        charList[charIndex].getPos().setY(nY);
+        chr.getPos().setX(nX);
+        chr.getPos().setY(nY);
 
-        charList[charIndex].setMoveOffsetX(-1.0f * addX);
-        charList[charIndex].setMoveOffsetY(-1.0f * addY);
+        chr.setMoveOffsetX(-1.0f * addX);
+        chr.setMoveOffsetY(-1.0f * addY);
 
-        charList[charIndex].setMoving(true);
-        charList[charIndex].setHeading(nDirection);
+        chr.setMoving(true);
+        chr.setHeading(nDirection);
 
-        charList[charIndex].setScrollDirectionX(addX);
-        charList[charIndex].setScrollDirectionY(addY);
+        chr.setScrollDirectionX(addX);
+        chr.setScrollDirectionY(addY);
     }
 
     /**
@@ -340,39 +337,41 @@ public enum User {
         var context = GameData.getActiveContext();
         if (context == null)
             return;
-        var charList = context.getCharList();
+        var chr = context.getCharList().get(charIndex);
+        if (chr == null)
+            return;
         var mapData = context.getMapData();
 
-        final int x = charList[charIndex].getPos().getX();
-        final int y = charList[charIndex].getPos().getY();
+        final int x = chr.getPos().getX();
+        final int y = chr.getPos().getY();
 
         final int addX = nX - x;
         final int addY = nY - y;
 
         if (sgn(addX) == 1)
-            charList[charIndex].setHeading(RIGHT);
+            chr.setHeading(RIGHT);
         else if (sgn(addX) == -1)
-            charList[charIndex].setHeading(LEFT);
+            chr.setHeading(LEFT);
         else if (sgn(addY) == -1)
-            charList[charIndex].setHeading(UP);
+            chr.setHeading(UP);
         else if (sgn(addY) == 1)
-            charList[charIndex].setHeading(DOWN);
+            chr.setHeading(DOWN);
 
         if (mapData != null) {
             mapData[nX][nY].setCharIndex(charIndex);
             mapData[x][y].setCharIndex(0);
         }
 
-        charList[charIndex].getPos().setX(nX);
-        charList[charIndex].getPos().setY(nY);
+        chr.getPos().setX(nX);
+        chr.getPos().setY(nY);
 
-        charList[charIndex].setMoveOffsetX(-1.0f * addX);
-        charList[charIndex].setMoveOffsetY(-1.0f * addY);
+        chr.setMoveOffsetX(-1.0f * addX);
+        chr.setMoveOffsetY(-1.0f * addY);
 
-        charList[charIndex].setMoving(true);
+        chr.setMoving(true);
 
-        charList[charIndex].setScrollDirectionX(sgn(addX));
-        charList[charIndex].setScrollDirectionY(sgn(addY));
+        chr.setScrollDirectionX(sgn(addX));
+        chr.setScrollDirectionY(sgn(addY));
 
     }
 
@@ -402,9 +401,10 @@ public enum User {
                 // Verificación duplicada de Trigger 1 eliminada. Manejada por
                 // EditorInputManager.
             }
-        } else if (walkingmode && userCharIndex > 0 && charList[userCharIndex].getHeading() != direction) {
+        } else if (walkingmode && charList.isActive(userCharIndex)
+                && charList.get(userCharIndex).getHeading() != direction) {
             // Solo cambiar el rumbo en modo caminata
-            charList[userCharIndex].setHeading(direction);
+            charList.get(userCharIndex).setHeading(direction);
         }
 
     }
@@ -480,8 +480,8 @@ public enum User {
         underCeiling = checkUnderCeiling();
 
         // 3. Actualizar Entidad de Personaje y Nueva Posición en Mapa
-        if (userCharIndex > 0 && userCharIndex < charList.length) {
-            org.argentumforge.engine.game.models.Character chr = charList[userCharIndex];
+        org.argentumforge.engine.game.models.Character chr = charList.get(userCharIndex);
+        if (chr != null) {
 
             // Sincronizar Posición
             chr.getPos().setX(x);
@@ -544,10 +544,11 @@ public enum User {
             if (userCharIndex <= 0) {
                 org.tinylog.Logger.warn("WalkingMode enabled with invalid UserCharIdx. Forcing refresh.");
                 refreshUserCharacter();
-            } else if (charList != null && userCharIndex < charList.length) {
+            } else if (charList != null
+                    && org.argentumforge.engine.game.models.CharacterRegistry.isValidIndex(userCharIndex)) {
                 // Verificar si el slot de personaje está activo/válido
-                if (!charList[userCharIndex].isActive()
-                        || charList[userCharIndex].getBody() == null) {
+                if (!charList.isActive(userCharIndex)
+                        || charList.get(userCharIndex).getBody() == null) {
                     org.tinylog.Logger.warn("WalkingMode enabled but CharInx " + userCharIndex
                             + " is inactive/empty. Forcing refresh.");
                     refreshUserCharacter();
@@ -610,8 +611,8 @@ public enum User {
             return;
         var charList = context.getCharList();
 
-        if (userCharIndex > 0 && charList != null && userCharIndex < charList.length) {
-            org.argentumforge.engine.game.models.Character chr = charList[userCharIndex];
+        org.argentumforge.engine.game.models.Character chr = charList != null ? charList.get(userCharIndex) : null;
+        if (chr != null) {
             boolean onWater = hayAgua(userPos.getX(), userPos.getY());
 
             // Lógica para cambio de apariencia
@@ -649,14 +650,14 @@ public enum User {
         var context = GameData.getActiveContext();
         if (context == null)
             return;
-        var charList = context.getCharList();
+        var chr = context.getCharList().get(userCharIndex);
 
-        if (userCharIndex > 0 && userCharIndex < charList.length) {
-            charList[userCharIndex].setMoveOffsetX(0);
-            charList[userCharIndex].setMoveOffsetY(0);
-            charList[userCharIndex].setMoving(false);
-            charList[userCharIndex].setScrollDirectionX(0);
-            charList[userCharIndex].setScrollDirectionY(0);
+        if (chr != null) {
+            chr.setMoveOffsetX(0);
+            chr.setMoveOffsetY(0);
+            chr.setMoving(false);
+            chr.setScrollDirectionX(0);
+            chr.setScrollDirectionY(0);
         }
     }
 
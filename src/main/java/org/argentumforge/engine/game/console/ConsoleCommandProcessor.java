@@ -1,11 +1,15 @@
 package org.argentumforge.engine.game.console;
 
+import org.argentumforge.engine.Engine;
 import org.argentumforge.engine.game.console.Console.MessageType;
 import org.argentumforge.engine.gui.ImGUISystem;
 import org.argentumforge.engine.gui.forms.FHelpCommands;
+import org.argentumforge.engine.gui.forms.FProfiler;
+import org.argentumforge.engine.renderer.Surface;
 import org.argentumforge.engine.game.User;
 import org.argentumforge.engine.game.Options;
 import org.argentumforge.engine.scenes.Camera;
+import org.argentumforge.engine.utils.FrameProfiler;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.i18n.I18n;
 
@@ -138,6 +142,26 @@ public class ConsoleCommandProcessor {
                         .filter(t -> t.getObjGrh().getGrhIndex() > 0).count();
                 Console.INSTANCE.addMsgToConsole("NPCs: " + npcCount + " | Objetos: " + objCount, MessageType.INFO);
             }
+            if (Engine.batch != null) {
+                Console.INSTANCE.addMsgToConsole("Draw calls: " + Engine.batch.getLastFrameDrawCalls()
+                        + " | Quads: " + Engine.batch.getLastFrameQuads() + " (último frame)", MessageType.INFO);
+            }
+            Console.INSTANCE.addMsgToConsole("Texturas en VRAM: " + Surface.INSTANCE.getResidentCount() + " | "
+                    + Surface.INSTANCE.getResidentBytes() / (1024 * 1024) + "/"
+                    + Options.INSTANCE.getTextureBudgetMB() + " MB", MessageType.INFO);
+        });
+
+        register("/profiler", "command.profiler.desc", args -> {
+            if (args.length > 0 && args[0].equalsIgnoreCase("trace")) {
+                String path = FrameProfiler.INSTANCE.dumpTrace();
+                if (path == null) {
+                    Console.INSTANCE.addMsgToConsole(I18n.INSTANCE.get("console.cmd.profiler.empty"), MessageType.WARNING);
+                } else {
+                    Console.INSTANCE.addMsgToConsole(I18n.INSTANCE.get("profiler.trace.saved", path), MessageType.INFO);
+                }
+                return;
+            }
+            FProfiler.toggle();
         });
 
         // --- System/Edit Commands ---
@@ -40,8 +40,6 @@ import static org.argentumforge.engine.utils.Time.timerTicksPerFrame;
 
 public final class Character {
 
-    // ultimo personaje del array
-    public static int lastChar = 0;
     private boolean active;
     private Direction direction;
     private Position pos;
@@ -67,18 +65,32 @@ public final class Character {
     private float moveOffsetY;
 
     public Character() {
+        this.pos = new Position();
+        reset();
+    }
+
+    /**
+     * Devuelve el personaje al estado de recién creado, para que
+     * {@link CharacterRegistry} pueda reutilizarlo.
+     */
+    void reset() {
         body = new BodyData();
         head = new HeadData();
         helmet = new HeadData();
         weapon = new WeaponData();
         shield = new ShieldData();
-        this.pos = new Position();
         this.fX = new GrhInfo();
 
         this.direction = DOWN;
         this.active = false;
         this.fxIndex = 0;
+        this.iHead = 0;
+        this.iBody = 0;
         this.moving = false;
+        this.moveOffsetX = 0;
+        this.moveOffsetY = 0;
+        this.scrollDirectionX = 0;
+        this.scrollDirectionY = 0;
         this.pos.setX(0);
         this.pos.setY(0);
 
@@ -96,12 +108,8 @@ public final class Character {
         var context = org.argentumforge.engine.utils.GameData.getActiveContext();
         if (context == null)
             return;
-        var charList = context.getCharList();
         var mapData = context.getMapData();
-
-        // apuntamos al último char
-        if (charIndex > lastChar)
-            lastChar = charIndex;
+        Character character = context.getCharList().activate(charIndex);
 
         if (weapon == 0)
             weapon = 2;
@@ -110,43 +118,40 @@ public final class Character {
         if (helmet == 0)
             helmet = 2;
 
-        charList[charIndex].setiHead(head);
-        charList[charIndex].setiBody(body);
+        character.setiHead(head);
+        character.setiBody(body);
 
-        charList[charIndex].setHead(new HeadData(AssetRegistry.headData[head]));
-        charList[charIndex].setBody(new BodyData(AssetRegistry.bodyData[body]));
+        character.setHead(new HeadData(AssetRegistry.headData[head]));
+        character.setBody(new BodyData(AssetRegistry.bodyData[body]));
 
         if (AssetRegistry.weaponData != null && weapon < AssetRegistry.weaponData.length
                 && AssetRegistry.weaponData[weapon] != null)
-            charList[charIndex].setWeapon(new WeaponData(AssetRegistry.weaponData[weapon]));
+            character.setWeapon(new WeaponData(AssetRegistry.weaponData[weapon]));
         else
-            charList[charIndex].setWeapon(new WeaponData(new WeaponData()));
+            character.setWeapon(new WeaponData(new WeaponData()));
 
         if (AssetRegistry.shieldData != null && shield < AssetRegistry.shieldData.length
                 && AssetRegistry.shieldData[shield] != null)
-            charList[charIndex].setShield(new ShieldData(AssetRegistry.shieldData[shield]));
+            character.setShield(new ShieldData(AssetRegistry.shieldData[shield]));
         else
-            charList[charIndex].setShield(new ShieldData(new ShieldData()));
+            character.setShield(new ShieldData(new ShieldData()));
 
         if (AssetRegistry.helmetsData != null && helmet < AssetRegistry.helmetsData.length
                 && AssetRegistry.helmetsData[helmet] != null)
-            charList[charIndex].setHelmet(new HeadData(AssetRegistry.helmetsData[helmet]));
+            character.setHelmet(new HeadData(AssetRegistry.helmetsData[helmet]));
         else
-            charList[charIndex].setHelmet(new HeadData(new HeadData()));
+            character.setHelmet(new HeadData(new HeadData()));
 
-        charList[charIndex].setHeading(direction);
+        character.setHeading(direction);
 
         // reiniciar estadísticas de movimiento
-        charList[charIndex].setMoving(false);
-        charList[charIndex].setMoveOffsetX(0);
-        charList[charIndex].setMoveOffsetY(0);
+        character.setMoving(false);
+        character.setMoveOffsetX(0);
+        character.setMoveOffsetY(0);
 
         // actualizar posición
-        charList[charIndex].getPos().setX(x);
-        charList[charIndex].getPos().setY(y);
-
-        // Hacer activo
-        charList[charIndex].setActive(true);
+        character.getPos().setX(x);
+        character.getPos().setY(y);
 
         // trazar en el mapa
         mapData[x][y].setCharIndex(charIndex);
@@ -161,26 +166,18 @@ public final class Character {
         if (context == null)
             return;
         var charList = context.getCharList();
-        var mapData = context.getMapData();
-
-        charList[charIndex].setActive(false);
-
-        if (charIndex == lastChar) {
-            while (!charList[lastChar].isActive()) {
-                lastChar--;
-                if (lastChar == 0)
-                    break;
-            }
-        }
+        Character character = charList.get(charIndex);
+        if (character == null)
+            return;
 
-        mapData[charList[charIndex].getPos().getX()][charList[charIndex].getPos().getY()].setCharIndex(0);
+        context.getMapData()[character.getPos().getX()][character.getPos().getY()].setCharIndex(0);
 
         /*
          * 'Eliminar diálogo del personaje
          * Llamar Dialogos.RemoveDialog(CharIndex)
          */
 
-        resetCharInfo(charIndex);
+        charList.release(charIndex);
     }
 
     /**
@@ -193,24 +190,9 @@ public final class Character {
         var charList = context.getCharList();
         var mapData = context.getMapData();
 
-        for (int i = 1; i < charList.length; i++) {
-            if (charList[i] != null && charList[i].isActive()) {
-                mapData[charList[i].getPos().getX()][charList[i].getPos().getY()].setCharIndex(0);
-            }
-            resetCharInfo(i);
-        }
-        lastChar = 0;
-    }
-
-    /**
-     * @param charIndex Numero de identificador del personaje
-     *                  Resetea los atributos del personaje.
-     */
-    private static void resetCharInfo(int charIndex) {
-        var context = org.argentumforge.engine.utils.GameData.getActiveContext();
-        if (context != null) {
-            context.getCharList()[charIndex] = new Character();
-        }
+        charList.forEach((character, index) -> mapData[character.getPos().getX()][character.getPos().getY()]
+                .setCharIndex(0));
+        charList.clear();
     }
 
     /**
@@ -220,12 +202,10 @@ public final class Character {
         var context = org.argentumforge.engine.utils.GameData.getActiveContext();
         if (context == null)
             return;
-        var charList = context.getCharList();
         var mapData = context.getMapData();
 
-        for (int loopC = 1; loopC <= lastChar; loopC++)
-            if (charList[loopC] != null && charList[loopC].isActive())
-                mapData[charList[loopC].getPos().getX()][charList[loopC].getPos().getY()].setCharIndex(loopC);
+        context.getCharList().forEach((character, index) -> mapData[character.getPos().getX()][character.getPos()
+                .getY()].setCharIndex(index));
     }
 
     public static void drawCharacter(int charIndex, int PixelOffsetX, int PixelOffsetY, float alpha,
@@ -243,7 +223,9 @@ public final class Character {
         var context = org.argentumforge.engine.utils.GameData.getActiveContext();
         if (context == null)
             return;
-        var charList = context.getCharList();
+        Character character = context.getCharList().get(charIndex);
+        if (character == null)
+            return;
 
         boolean moved = false;
 
@@ -254,91 +236,91 @@ public final class Character {
             breathingScale = 1.0f + (float) (Math.sin(System.currentTimeMillis() / 200.0) * 0.025f);
         }
 
-        if (updateState && charList[charIndex].getMoving()) {
-            if (charList[charIndex].getScrollDirectionX() != 0) {
+        if (updateState && character.getMoving()) {
+            if (character.getScrollDirectionX() != 0) {
 
-                charList[charIndex].setMoveOffsetX(charList[charIndex].getMoveOffsetX() +
-                        (charList[charIndex].getWalkingSpeed() / 32.0f)
-                                * sgn(charList[charIndex].getScrollDirectionX())
+                character.setMoveOffsetX(character.getMoveOffsetX() +
+                        (character.getWalkingSpeed() / 32.0f)
+                                * sgn(character.getScrollDirectionX())
                                 * timerTicksPerFrame);
 
-                if (charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).getSpeed() > 0.0f) {
-                    charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).setStarted(true);
+                if (character.getBody().getWalk(character.getHeading().getId()).getSpeed() > 0.0f) {
+                    character.getBody().getWalk(character.getHeading().getId()).setStarted(true);
                 }
 
-                charList[charIndex].getWeapon().getWeaponWalk(charList[charIndex].getHeading().getId())
+                character.getWeapon().getWeaponWalk(character.getHeading().getId())
                         .setStarted(true);
-                charList[charIndex].getShield().getShieldWalk(charList[charIndex].getHeading().getId())
+                character.getShield().getShieldWalk(character.getHeading().getId())
                         .setStarted(true);
 
                 moved = true;
 
-                if ((sgn(charList[charIndex].getScrollDirectionX()) == 1 && charList[charIndex].getMoveOffsetX() >= 0)
+                if ((sgn(character.getScrollDirectionX()) == 1 && character.getMoveOffsetX() >= 0)
                         ||
-                        (sgn(charList[charIndex].getScrollDirectionX()) == -1
-                                && charList[charIndex].getMoveOffsetX() <= 0)) {
+                        (sgn(character.getScrollDirectionX()) == -1
+                                && character.getMoveOffsetX() <= 0)) {
 
-                    charList[charIndex].setMoveOffsetX(0);
-                    charList[charIndex].setScrollDirectionX(0);
+                    character.setMoveOffsetX(0);
+                    character.setScrollDirectionX(0);
                 }
             }
 
-            if (charList[charIndex].getScrollDirectionY() != 0) {
-                charList[charIndex].setMoveOffsetY(charList[charIndex].getMoveOffsetY()
-                        + (charList[charIndex].getWalkingSpeed() / 32.0f)
-                                * sgn(charList[charIndex].getScrollDirectionY())
+            if (character.getScrollDirectionY() != 0) {
+                character.setMoveOffsetY(character.getMoveOffsetY()
+                        + (character.getWalkingSpeed() / 32.0f)
+                                * sgn(character.getScrollDirectionY())
                                 * timerTicksPerFrame);
 
-                if (charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).getSpeed() > 0.0f) {
-                    charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).setStarted(true);
+                if (character.getBody().getWalk(character.getHeading().getId()).getSpeed() > 0.0f) {
+                    character.getBody().getWalk(character.getHeading().getId()).setStarted(true);
                 }
 
-                charList[charIndex].getWeapon().getWeaponWalk(charList[charIndex].getHeading().getId())
+                character.getWeapon().getWeaponWalk(character.getHeading().getId())
                         .setStarted(true);
-                charList[charIndex].getShield().getShieldWalk(charList[charIndex].getHeading().getId())
+                character.getShield().getShieldWalk(character.getHeading().getId())
                         .setStarted(true);
 
                 moved = true;
 
-                if ((sgn(charList[charIndex].getScrollDirectionY()) == 1 && charList[charIndex].getMoveOffsetY() >= 0)
-                        || (sgn(charList[charIndex].getScrollDirectionY()) == -1
-                                && charList[charIndex].getMoveOffsetY() <= 0)) {
-                    charList[charIndex].setMoveOffsetY(0);
-                    charList[charIndex].setScrollDirectionY(0);
+                if ((sgn(character.getScrollDirectionY()) == 1 && character.getMoveOffsetY() >= 0)
+                        || (sgn(character.getScrollDirectionY()) == -1
+                                && character.getMoveOffsetY() <= 0)) {
+                    character.setMoveOffsetY(0);
+                    character.setScrollDirectionY(0);
                 }
             }
         }
 
         if (updateState && !moved) {
-            charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).setStarted(false);
-            charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).setFrameCounter(1);
+            character.getBody().getWalk(character.getHeading().getId()).setStarted(false);
+            character.getBody().getWalk(character.getHeading().getId()).setFrameCounter(1);
 
-            charList[charIndex].getWeapon().getWeaponWalk(charList[charIndex].getHeading().getId()).setStarted(false);
-            charList[charIndex].getWeapon().getWeaponWalk(charList[charIndex].getHeading().getId()).setFrameCounter(1);
+            character.getWeapon().getWeaponWalk(character.getHeading().getId()).setStarted(false);
+            character.getWeapon().getWeaponWalk(character.getHeading().getId()).setFrameCounter(1);
 
-            charList[charIndex].getShield().getShieldWalk(charList[charIndex].getHeading().getId()).setStarted(false);
-            charList[charIndex].getShield().getShieldWalk(charList[charIndex].getHeading().getId()).setFrameCounter(1);
+            character.getShield().getShieldWalk(character.getHeading().getId()).setStarted(false);
+            character.getShield().getShieldWalk(character.getHeading().getId()).setFrameCounter(1);
 
-            charList[charIndex].setMoving(false);
+            character.setMoving(false);
         }
 
-        PixelOffsetX += (int) (charList[charIndex].getMoveOffsetX()
+        PixelOffsetX += (int) (character.getMoveOffsetX()
                 * org.argentumforge.engine.scenes.Camera.TILE_PIXEL_SIZE);
-        PixelOffsetY += (int) (charList[charIndex].getMoveOffsetY()
+        PixelOffsetY += (int) (character.getMoveOffsetY()
                 * org.argentumforge.engine.scenes.Camera.TILE_PIXEL_SIZE);
 
-        if (charList[charIndex].getHead().getHead(charList[charIndex].getHeading().getId()).getGrhIndex() != 0) {
+        if (character.getHead().getHead(character.getHeading().getId()).getGrhIndex() != 0) {
 
             float scale = org.argentumforge.engine.scenes.Camera.getZoomScale();
 
-            if (charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId())
+            if (character.getBody().getWalk(character.getHeading().getId())
                     .getGrhIndex() != 0) {
-                drawTexture(charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()),
+                drawTexture(character.getBody().getWalk(character.getHeading().getId()),
                         PixelOffsetX, PixelOffsetY, true, updateState, false, alpha, ambientcolor, scaleX,
                         breathingScale * scaleY, skewX);
             }
 
-            if (charList[charIndex].getHead().getHead(charList[charIndex].getHeading().getId())
+            if (character.getHead().getHead(character.getHeading().getId())
                     .getGrhIndex() != 0) {
                 // La cabeza también respira (aunque menos notorio si solo se mueve, pero si el
                 // cuerpo se estira, la cabeza debe acompañar)
@@ -347,52 +329,52 @@ public final class Character {
                 // 1.0f, 1.0f).
                 // Opcional: breathingScale también para la cabeza? Queda raro (cara larga).
                 // Mejor solo desplazar.
-                drawTexture(charList[charIndex].getHead().getHead(charList[charIndex].getHeading().getId()),
-                        PixelOffsetX + (int) (charList[charIndex].getBody().getHeadOffset().getX() * scale * scaleX),
+                drawTexture(character.getHead().getHead(character.getHeading().getId()),
+                        PixelOffsetX + (int) (character.getBody().getHeadOffset().getX() * scale * scaleX),
                         PixelOffsetY
-                                + (int) (charList[charIndex].getBody().getHeadOffset().getY() * scale * breathingScale
+                                + (int) (character.getBody().getHeadOffset().getY() * scale * breathingScale
                                         * scaleY),
                         true, false, false, alpha, ambientcolor, scaleX, scaleY, skewX);
 
-                drawTexture(charList[charIndex].getHelmet().getHead(charList[charIndex].getHeading().getId()),
-                        PixelOffsetX + (int) (charList[charIndex].getBody().getHeadOffset().getX() * scale * scaleX),
+                drawTexture(character.getHelmet().getHead(character.getHeading().getId()),
+                        PixelOffsetX + (int) (character.getBody().getHeadOffset().getX() * scale * scaleX),
                         PixelOffsetY
-                                + (int) (charList[charIndex].getBody().getHeadOffset().getY() * scale
+                                + (int) (character.getBody().getHeadOffset().getY() * scale
                                         * breathingScale * scaleY)
                                 - (int) (34 * scale * scaleY),
                         true, false, false, alpha, ambientcolor, scaleX, scaleY, skewX);
 
                 drawTexture(
-                        charList[charIndex].getWeapon().getWeaponWalk(charList[charIndex].getHeading().getId()),
+                        character.getWeapon().getWeaponWalk(character.getHeading().getId()),
                         PixelOffsetX, PixelOffsetY, true, updateState, false, alpha, ambientcolor, scaleX,
                         breathingScale * scaleY, skewX);
 
                 drawTexture(
-                        charList[charIndex].getShield().getShieldWalk(charList[charIndex].getHeading().getId()),
+                        character.getShield().getShieldWalk(character.getHeading().getId()),
                         PixelOffsetX, PixelOffsetY, true, updateState, false, alpha, ambientcolor, scaleX,
                         breathingScale * scaleY, skewX);
 
             }
 
         } else {
-            if (charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()).getGrhIndex() > 0) {
-                drawTexture(charList[charIndex].getBody().getWalk(charList[charIndex].getHeading().getId()),
+            if (character.getBody().getWalk(character.getHeading().getId()).getGrhIndex() > 0) {
+                drawTexture(character.getBody().getWalk(character.getHeading().getId()),
                         PixelOffsetX, PixelOffsetY, true, updateState, false, alpha, ambientcolor, scaleX,
                         breathingScale * scaleY, skewX);
             }
         }
 
         // Dibujar FX (sin respiración)
-        if (charList[charIndex].fxIndex != 0) {
+        if (character.fxIndex != 0) {
             float scale = org.argentumforge.engine.scenes.Camera.getZoomScale();
-            drawTexture(charList[charIndex].fX,
-                    PixelOffsetX + (int) (fxData[charList[charIndex].fxIndex].getOffsetX() * scale),
-                    PixelOffsetY + (int) (fxData[charList[charIndex].fxIndex].getOffsetY() * scale),
+            drawTexture(character.fX,
+                    PixelOffsetX + (int) (fxData[character.fxIndex].getOffsetX() * scale),
+                    PixelOffsetY + (int) (fxData[character.fxIndex].getOffsetY() * scale),
                     true, updateState, true, 1.0f, ambientcolor);
 
             // Comprobar si la animación ha terminado
-            if (!charList[charIndex].fX.isStarted())
-                charList[charIndex].setFxIndex(0);
+            if (!character.fX.isStarted())
+                character.setFxIndex(0);
         }
     }
 
@@ -0,0 +1,224 @@
+package org.argentumforge.engine.game.models;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Lista de personajes de un mapa, indexada por {@code charIndex}.
+ * <p>
+ * Reemplaza al arreglo de 10.001 {@link Character} precreados: los slots se
+ * crean recién al ocuparse, los índices libres se reparten desde una pila de
+ * enteros y los personajes liberados vuelven a un pool compartido para
+ * reutilizarse en el próximo mapa. Un mapa típico tiene unas decenas de NPCs,
+ * así que cargar un mapa crea decenas de objetos en lugar de cientos de miles.
+ * <p>
+ * Solo los slots ocupados tienen personaje: {@link #get(int)} devuelve
+ * {@code null} para cualquier índice libre. El índice 0 está reservado (en los
+ * tiles significa "sin personaje").
+ * <p>
+ * No es thread-safe: cada lista pertenece a un único hilo a la vez (el de
+ * carga mientras se lee el mapa, luego el principal).
+ */
+public final class CharacterRegistry {
+
+    /** Cantidad de índices, incluido el 0 reservado. */
+    public static final int CAPACITY = 10000 + 1;
+
+    private static final int INITIAL_SLOTS = 64;
+    /** Personajes liberados que se conservan para reutilizar. */
+    private static final int POOL_LIMIT = 512;
+    private static final ArrayDeque<Character> POOL = new ArrayDeque<>();
+
+    private Character[] slots = new Character[INITIAL_SLOTS];
+
+    /** Índices liberados por debajo de {@link #high}, listos para reutilizar. */
+    private int[] free = new int[16];
+    private int freeCount;
+
+    /** Primer índice que nunca se ocupó. */
+    private int high = 1;
+
+    private int size;
+    private int lastIndex;
+
+    /**
+     * @return El personaje del slot, o {@code null} si el índice está libre o
+     *         fuera de rango.
+     */
+    public Character get(int index) {
+        return index > 0 && index < slots.length ? slots[index] : null;
+    }
+
+    public boolean isActive(int index) {
+        return get(index) != null;
+    }
+
+    /**
+     * @return {@code true} si {@code index} es un índice de personaje válido
+     *         (libre u ocupado).
+     */
+    public static boolean isValidIndex(int index) {
+        return index > 0 && index < CAPACITY;
+    }
+
+    /**
+     * Ocupa el slot indicado (si no lo estaba) y devuelve su personaje, ya
+     * marcado como activo.
+     *
+     * @throws IllegalArgumentException Si el índice está fuera de rango.
+     */
+    public Character activate(int index) {
+        if (!isValidIndex(index))
+            throw new IllegalArgumentException("Índice de personaje fuera de rango: " + index);
+
+        Character existing = get(index);
+        if (existing != null)
+            return existing;
+
+        if (index >= high) {
+            // Los índices salteados quedan libres; se apilan de mayor a menor para
+            // que se repartan en orden ascendente
+            for (int i = index - 1; i >= high; i--)
+                pushFree(i);
+            high = index + 1;
+        } else {
+            removeFree(index);
+        }
+        return place(index);
+    }
+
+    /**
+     * Ocupa el próximo slot libre.
+     *
+     * @return El índice ocupado, o -1 si la lista está llena.
+     */
+    public int allocate() {
+        int index;
+        if (freeCount > 0)
+            index = free[--freeCount];
+        else if (high < CAPACITY)
+            index = high++;
+        else
+            return -1;
+        place(index);
+        return index;
+    }
+
+    /**
+     * @return El índice que ocuparía {@link #allocate()}, o -1 si la lista está
+     *         llena. No ocupa nada.
+     */
+    public int nextOpen() {
+        if (freeCount > 0)
+            return free[freeCount - 1];
+        return high < CAPACITY ? high : -1;
+    }
+
+    /**
+     * Libera el slot y devuelve su personaje al pool. No hace nada si ya estaba
+     * libre.
+     */
+    public void release(int index) {
+        Character character = get(index);
+        if (character == null)
+            return;
+
+        slots[index] = null;
+        size--;
+        pushFree(index);
+        recycle(character);
+
+        if (index == lastIndex) {
+            while (lastIndex > 0 && slots[lastIndex] == null)
+                lastIndex--;
+        }
+    }
+
+    /**
+     * Libera todos los slots.
+     */
+    public void clear() {
+        for (int i = 1; i <= lastIndex; i++) {
+            if (slots[i] != null) {
+                recycle(slots[i]);
+                slots[i] = null;
+            }
+        }
+        freeCount = 0;
+        high = 1;
+        size = 0;
+        lastIndex = 0;
+    }
+
+    /**
+     * @return Cantidad de personajes activos.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return El mayor índice ocupado, o 0 si no hay ninguno.
+     */
+    public int getLastIndex() {
+        return lastIndex;
+    }
+
+    /**
+     * Recorre los personajes activos en orden ascendente de índice.
+     */
+    public void forEach(ObjIntConsumer<Character> action) {
+        for (int i = 1; i <= lastIndex; i++) {
+            Character character = slots[i];
+            if (character != null)
+                action.accept(character, i);
+        }
+    }
+
+    private Character place(int index) {
+        if (index >= slots.length)
+            slots = Arrays.copyOf(slots, Math.min(CAPACITY, Math.max(index + 1, slots.length * 2)));
+
+        Character character = obtain();
+        character.setActive(true);
+        slots[index] = character;
+        size++;
+        if (index > lastIndex)
+            lastIndex = index;
+        return character;
+    }
+
+    private void pushFree(int index) {
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = index;
+    }
+
+    private void removeFree(int index) {
+        for (int i = freeCount - 1; i >= 0; i--) {
+            if (free[i] == index) {
+                System.arraycopy(free, i + 1, free, i, freeCount - i - 1);
+                freeCount--;
+                return;
+            }
+        }
+    }
+
+    private static Character obtain() {
+        synchronized (POOL) {
+            Character pooled = POOL.poll();
+            if (pooled != null)
+                return pooled;
+        }
+        return new Character();
+    }
+
+    private static void recycle(Character character) {
+        character.reset();
+        synchronized (POOL) {
+            if (POOL.size() < POOL_LIMIT)
+                POOL.push(character);
+        }
+    }
+}
@@ -22,16 +22,16 @@ public final class PreviewUtils {
      * Dibuja un GrhIndex dentro de la interfaz de ImGui.
      */
     public static void drawGrh(int grhIndex, float scale) {
-        if (grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null) {
+        if (grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null) {
             return;
         }
 
         int currentGrh = grhIndex;
-        if (grhData[grhIndex].getNumFrames() > 1) {
-            currentGrh = grhData[grhIndex].getFrame(1); // Frames en AO son 1-indexed
+        if (grhData.get(grhIndex).getNumFrames() > 1) {
+            currentGrh = grhData.get(grhIndex).getFrame(1); // Frames en AO son 1-indexed
         }
 
-        GrhData data = grhData[currentGrh];
+        GrhData data = grhData.get(currentGrh);
         if (data.getFileNum() <= 0)
             return;
 
@@ -52,15 +52,15 @@ public final class PreviewUtils {
      * específica.
      */
     public static void drawGrhFit(int grhIndex, float maxWidth, float maxHeight) {
-        if (grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
             return;
 
         int currentGrh = grhIndex;
-        if (grhData[grhIndex].getNumFrames() > 1) {
-            currentGrh = grhData[grhIndex].getFrame(1);
+        if (grhData.get(grhIndex).getNumFrames() > 1) {
+            currentGrh = grhData.get(grhIndex).getFrame(1);
         }
 
-        GrhData data = grhData[currentGrh];
+        GrhData data = grhData.get(currentGrh);
         if (data.getFileNum() <= 0)
             return;
 
@@ -105,7 +105,7 @@ public final class PreviewUtils {
      * Dibuja un mosaico completo (GrhIndex + rejilla) en ImGui.
      */
     public static void drawGrhMosaic(int grhIndex, int width, int height, float maxWidth, float maxHeight) {
-        if (grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
             return;
 
         float totalW = 0;
@@ -113,7 +113,7 @@ public final class PreviewUtils {
 
         // Calcular tamaño total del mosaico asumiendo que todos los tiles miden lo
         // mismo que el primero
-        GrhData baseData = grhData[grhIndex];
+        GrhData baseData = grhData.get(grhIndex);
         totalW = baseData.getPixelWidth() * width;
         totalH = baseData.getPixelHeight() * height;
 
@@ -138,16 +138,16 @@ public final class PreviewUtils {
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 int currentGrh = grhIndex + (y * width) + x;
-                if (currentGrh >= grhData.length || grhData[currentGrh] == null)
+                if (currentGrh >= grhData.length() || grhData.get(currentGrh) == null)
                     continue;
 
-                GrhData data = grhData[currentGrh];
+                GrhData data = grhData.get(currentGrh);
 
                 // Si el tile es una animación (como el agua), resolvemos el frame
                 if (data.getNumFrames() > 1) {
                     int frame1 = data.getFrame(1);
-                    if (frame1 > 0 && frame1 < grhData.length && grhData[frame1] != null) {
-                        data = grhData[frame1];
+                    if (frame1 > 0 && frame1 < grhData.length() && grhData.get(frame1) != null) {
+                        data = grhData.get(frame1);
                     }
                 }
 
@@ -237,13 +237,13 @@ public final class PreviewUtils {
                 if (grhIndex <= 0)
                     continue;
 
-                GrhData data = grhData[grhIndex];
+                GrhData data = grhData.get(grhIndex);
                 if (data == null)
                     continue;
                 if (data.getNumFrames() > 1) {
                     int f1 = data.getFrame(1);
-                    if (f1 > 0 && f1 < grhData.length && grhData[f1] != null)
-                        data = grhData[f1];
+                    if (f1 > 0 && f1 < grhData.length() && grhData.get(f1) != null)
+                        data = grhData.get(f1);
                     else
                         continue; // If frame 1 is invalid, skip this grh
                 }
@@ -352,14 +352,14 @@ public final class PreviewUtils {
 
     private static void drawGrhWithBounds(int grhIndex, float cellBaseX, float cellBaseY, float drawOriginX,
             float drawOriginY, float contentMinX, float contentMinY, float scale) {
-        if (grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
             return;
 
-        GrhData data = grhData[grhIndex];
+        GrhData data = grhData.get(grhIndex);
         if (data.getNumFrames() > 1) {
             int f1 = data.getFrame(1);
-            if (f1 > 0 && f1 < grhData.length && grhData[f1] != null)
-                data = grhData[f1];
+            if (f1 > 0 && f1 < grhData.length() && grhData.get(f1) != null)
+                data = grhData.get(f1);
             else
                 return; // If frame 1 is invalid, skip this grh
         }
@@ -400,17 +400,17 @@ public final class PreviewUtils {
 
     private static void drawGrhRelative(int grhIndex, float basePosX, float basePosY, float scale, float offsetX,
             float offsetY) {
-        if (grhIndex <= 0 || grhData[grhIndex] == null)
+        if (grhIndex <= 0 || grhData.get(grhIndex) == null)
             return;
 
-        GrhData grh = grhData[grhIndex];
+        GrhData grh = grhData.get(grhIndex);
         // En este motor los frames son 1-indexed para animaciones
         int frameIndex = grh.getNumFrames() > 1 ? grh.getFrame(1) : grhIndex;
 
-        if (frameIndex <= 0 || frameIndex >= grhData.length || grhData[frameIndex] == null)
+        if (frameIndex <= 0 || frameIndex >= grhData.length() || grhData.get(frameIndex) == null)
             return;
 
-        GrhData data = grhData[frameIndex];
+        GrhData data = grhData.get(frameIndex);
         Texture tex = Surface.INSTANCE.getTexture(data.getFileNum());
         if (tex == null)
             return;
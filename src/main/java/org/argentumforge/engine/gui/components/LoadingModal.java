@@ -3,6 +3,7 @@ package org.argentumforge.engine.gui.components;
 import imgui.ImGui;
 import imgui.flag.ImGuiWindowFlags;
 import imgui.type.ImFloat;
+import org.argentumforge.engine.i18n.I18n;
 
 /**
  * A modal dialog that displays a loading spinner and a status message.
@@ -10,27 +11,44 @@ import imgui.type.ImFloat;
  */
 public class LoadingModal {
 
-    private static LoadingModal instance;
-    private boolean visible = false;
-    private String message = "Loading...";
+    private static final LoadingModal instance = new LoadingModal();
+    private volatile boolean visible = false;
+    private volatile String message = "Loading...";
+    /** Progress in [0, 1], or a negative value when there is no progress bar. */
+    private volatile float progress = -1.0f;
     private float spinnerAngle = 0.0f;
 
     private LoadingModal() {
     }
 
     public static LoadingModal getInstance() {
-        if (instance == null) {
-            instance = new LoadingModal();
-        }
         return instance;
     }
 
     public void show(String message) {
         this.message = message;
+        this.progress = -1.0f;
         this.visible = true;
         ImGui.openPopup("##LoadingModal");
     }
 
+    /**
+     * Updates the status text and progress bar. Safe to call from worker threads;
+     * the change is picked up on the next rendered frame.
+     */
+    public void setProgress(String message, float progress) {
+        this.message = message;
+        this.progress = progress;
+    }
+
+    /**
+     * Reports a finished loading stage. The stage name is an i18n key and is
+     * translated here, so callers on worker threads never build UI text.
+     */
+    public void setStageDone(String stageKey, float progress) {
+        setProgress(I18n.INSTANCE.get("loading.resources.stage", I18n.INSTANCE.get(stageKey)), progress);
+    }
+
     public void hide() {
         this.visible = false;
         ImGui.closeCurrentPopup();
@@ -61,6 +79,11 @@ public class LoadingModal {
 
             ImGui.dummy(0, 10);
             ImGui.text(message);
+            float currentProgress = progress;
+            if (currentProgress >= 0.0f) {
+                ImGui.dummy(0, 5);
+                ImGui.progressBar(Math.min(currentProgress, 1.0f), 260, 0);
+            }
             ImGui.dummy(0, 10);
 
             ImGui.endPopup();
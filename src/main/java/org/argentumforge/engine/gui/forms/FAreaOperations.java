@@ -433,8 +433,8 @@ public class FAreaOperations extends Form {
                 if (!layers[layerIdx])
                     continue;
                 int layer = layerIdx + 1;
-                java.util.Map<org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos, Integer> oldTiles = new java.util.HashMap<>();
-                java.util.Map<org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos, Integer> newTiles = new java.util.HashMap<>();
+                int field = org.argentumforge.engine.utils.editor.commands.TileFieldsCommand.layerField(layer);
+                org.argentumforge.engine.utils.editor.commands.TileFieldsCommand.Buffer delta = new org.argentumforge.engine.utils.editor.commands.TileFieldsCommand.Buffer();
                 for (int[] tile : selectedTiles) {
                     int x = tile[0], y = tile[1];
                     if (x < 0 || x >= mapData.length || y < 0 || y >= mapData[0].length)
@@ -444,16 +444,13 @@ public class FAreaOperations extends Form {
                     int current = mapData[x][y].getLayer(layer).getGrhIndex();
                     int targetGrh = hasMosaic ? grhIndex + ((y % mosaicH) * mosaicW) + (x % mosaicW) : grhIndex;
                     if (current != targetGrh) {
-                        var pos = new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos(x,
-                                y);
-                        oldTiles.put(pos, current);
-                        newTiles.put(pos, targetGrh);
+                        delta.add(field, ctx.getTiles().index(x, y), current, targetGrh);
                         count++;
                     }
                 }
-                if (!oldTiles.isEmpty())
-                    macro.addCommand(new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand(ctx,
-                            layer, oldTiles, newTiles));
+                if (!delta.isEmpty())
+                    macro.addCommand(new org.argentumforge.engine.utils.editor.commands.TileFieldsCommand(ctx,
+                            "history.command.bulk_tile", delta));
             }
             if (count > 0 && !macro.getCommands().isEmpty())
                 org.argentumforge.engine.utils.editor.commands.CommandManager.getInstance().executeCommand(macro);
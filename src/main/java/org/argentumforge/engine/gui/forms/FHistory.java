@@ -8,10 +8,9 @@ import org.argentumforge.engine.i18n.I18n;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.MapContext;
 import org.argentumforge.engine.utils.editor.commands.Command;
+import org.argentumforge.engine.utils.editor.commands.CommandHistory;
 import org.argentumforge.engine.utils.editor.commands.CommandManager;
 
-import java.util.Stack;
-
 public class FHistory extends Form {
     private static FHistory instance;
     private final String title;
@@ -59,8 +58,8 @@ public class FHistory extends Form {
             CommandManager cmdManager = CommandManager.getInstance();
             cmdManager.setHoveredCommand(null); // Reset each frame
 
-            Stack<Command> undoStack = context.getUndoStack();
-            Stack<Command> redoStack = context.getRedoStack();
+            CommandHistory undoStack = context.getUndoStack();
+            CommandHistory redoStack = context.getRedoStack();
             int savedSize = context.getSavedUndoStackSize();
 
             // Status indicator for current state
@@ -70,6 +69,11 @@ public class FHistory extends Form {
                 ImGui.textColored(1.0f, 1.0f, 0.0f, 1.0f, I18n.INSTANCE.get("history.state.unsaved"));
             }
 
+            // Memoria retenida por el historial frente al presupuesto
+            ImGui.textDisabled(I18n.INSTANCE.get("history.memory",
+                    formatMegabytes(undoStack.getBytes() + redoStack.getBytes()),
+                    formatMegabytes(undoStack.getBudget())));
+
             ImGui.beginChild("HistoryList", 0, 0, true);
 
             // Show Undo items (Past)
@@ -119,4 +123,8 @@ public class FHistory extends Form {
         }
         ImGui.end();
     }
+
+    private static String formatMegabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
 }
@@ -219,13 +219,8 @@ public class FMapSaveOptions extends Form {
             Options.INSTANCE.setLastMapPath(new File(selectedFile).getParent());
             Options.INSTANCE.save();
 
-            // Perform Save
-            GameData.saveMap(selectedFile, options);
-
-            // Trigger Callback
-            if (onSuccess != null) {
-                onSuccess.run();
-            }
+            // Perform Save (callbacks run once the background save finishes)
+            GameData.saveMap(selectedFile, options, onSuccess, onCancel);
         } else {
             // User cancelled the file dialog
             if (onCancel != null)
@@ -10,6 +10,8 @@ import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.game.Options;
 import org.argentumforge.engine.i18n.I18n;
 import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.argentumforge.engine.renderer.RenderSettings;
 import org.argentumforge.engine.scenes.Camera;
 import org.argentumforge.engine.utils.ProfileManager;
 import org.argentumforge.engine.utils.editor.MinimapColorGenerator;
@@ -50,46 +52,50 @@ public final class FMinimap extends Form {
                     ImGui.getColorU32(0.0f, 0.0f, 0.0f, 1.0f));
 
             MapContext context = GameData.getActiveContext();
-            if (context != null && context.getMapData() != null) {
-                var mapData = context.getMapData();
-
+            if (context != null && context.getTiles() != null) {
+                TileStore tiles = context.getTiles();
+                RenderSettings renderSettings = Options.INSTANCE.getRenderSettings();
+                boolean showBlocks = renderSettings.isShowMinimapBlocks();
+                boolean showExits = renderSettings.isShowMinimapExits();
+                boolean showTriggers = renderSettings.isShowMinimapTriggers();
+                boolean showNpcs = renderSettings.isShowMinimapNPCs();
+
+                int[] minimapColors = AssetRegistry.minimapColorByGrh;
                 for (int y = 1; y <= 100; y++) {
-                    for (int x = 1; x <= 100; x++) {
+                    int idx = tiles.index(1, y);
+                    for (int x = 1; x <= 100; x++, idx++) {
                         float tX = contentX + (x - 1) * TILE_SIZE;
                         float tY = contentY + (y - 1) * TILE_SIZE;
 
                         // Capa 1 (Suelo)
-                        if (mapData[x][y].getLayer(1).getGrhIndex() > 0) {
-                            int grhIndex = mapData[x][y].getLayer(1).getGrhIndex();
-                            if (AssetRegistry.minimapColors.containsKey(grhIndex)) {
-                                int color = AssetRegistry.minimapColors.get(grhIndex);
+                        int grhIndex = tiles.getGrh(1, idx);
+                        if (grhIndex > 0 && grhIndex < minimapColors.length) {
+                            int color = minimapColors[grhIndex];
+                            if (color != AssetRegistry.NO_MINIMAP_COLOR) {
                                 drawList.addRectFilled(tX, tY, tX + TILE_SIZE, tY + TILE_SIZE, color);
                             }
                         }
 
                         // Bloqueos
-                        if (Options.INSTANCE.getRenderSettings().isShowMinimapBlocks() && mapData[x][y].getBlocked()) {
+                        if (showBlocks && tiles.isBlocked(idx)) {
                             drawList.addRectFilled(tX, tY, tX + TILE_SIZE, tY + TILE_SIZE,
                                     ImGui.getColorU32(1.0f, 0.0f, 0.0f, 0.3f));
                         }
 
                         // Exits
-                        if (Options.INSTANCE.getRenderSettings().isShowMinimapExits()
-                                && mapData[x][y].getExitMap() > 0) {
+                        if (showExits && tiles.getExitMap(idx) > 0) {
                             drawList.addRectFilled(tX, tY, tX + TILE_SIZE, tY + TILE_SIZE,
                                     ImGui.getColorU32(0.0f, 0.0f, 1.0f, 0.8f));
                         }
 
                         // Triggers
-                        if (Options.INSTANCE.getRenderSettings().isShowMinimapTriggers()
-                                && mapData[x][y].getTrigger() > 0) {
+                        if (showTriggers && tiles.getTrigger(idx) > 0) {
                             drawList.addRectFilled(tX, tY, tX + TILE_SIZE, tY + TILE_SIZE,
                                     ImGui.getColorU32(0.6f, 0.0f, 0.8f, 0.6f));
                         }
 
                         // NPCs
-                        int charIndex = mapData[x][y].getCharIndex();
-                        if (Options.INSTANCE.getRenderSettings().isShowMinimapNPCs() && charIndex > 0) {
+                        if (showNpcs && tiles.getCharIndex(idx) > 0) {
                             drawList.addCircleFilled(tX + TILE_SIZE / 2, tY + TILE_SIZE / 2, 1.5f,
                                     ImGui.getColorU32(1.0f, 1.0f, 0.0f, 1.0f));
                         }
@@ -141,7 +147,7 @@ public final class FMinimap extends Form {
             }
             boolean binExists = Files.exists(Path.of(fileName));
 
-            if (!binExists || AssetRegistry.minimapColors.isEmpty()) {
+            if (!binExists || AssetRegistry.getMinimapColorCount() == 0) {
                 ImGui.setCursorPos(20, MINIMAP_SIZE + 10);
                 if (ImGui.button(I18n.INSTANCE.get("minimap.generateNow"))) {
                     MinimapColorGenerator.generateBinary();
@@ -18,7 +18,6 @@ import org.argentumforge.engine.gui.PreviewUtils;
 import org.argentumforge.engine.utils.GameData;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 import static org.argentumforge.engine.utils.AssetRegistry.npcs;
@@ -46,7 +45,7 @@ public final class FNpcEditor extends Form implements IMapEditor {
         this.context = GameData.getActiveContext();
 
         if (npcs != null && !npcs.isEmpty()) {
-            selectedNpcNumber = npcs.keySet().stream().min(Integer::compareTo).orElse(-1);
+            selectedNpcNumber = npcs.firstKey();
             if (selectedNpcNumber > 0)
                 npcEditor.setNpcNumber(selectedNpcNumber);
         }
@@ -224,10 +223,7 @@ public final class FNpcEditor extends Form implements IMapEditor {
         List<Integer> filtered = new ArrayList<>();
         String filter = searchFilter.get().toLowerCase();
 
-        List<Integer> keys = new ArrayList<>(npcs.keySet());
-        keys.sort(Comparator.naturalOrder());
-
-        for (Integer key : keys) {
+        for (int key : npcs.keys()) {
             NpcData data = npcs.get(key);
             if (filter.isEmpty()) {
                 filtered.add(key);
@@ -18,7 +18,6 @@ import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.gui.PreviewUtils;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 import static org.argentumforge.engine.utils.AssetRegistry.objs;
@@ -46,7 +45,7 @@ public final class FObjEditor extends Form implements IMapEditor {
         this.context = GameData.getActiveContext();
 
         if (objs != null && !objs.isEmpty()) {
-            selectedObjNumber = objs.keySet().stream().min(Integer::compareTo).orElse(-1);
+            selectedObjNumber = objs.firstKey();
             if (selectedObjNumber > 0)
                 objEditor.setObjNumber(selectedObjNumber);
         }
@@ -223,10 +222,7 @@ public final class FObjEditor extends Form implements IMapEditor {
         List<Integer> filtered = new ArrayList<>();
         String filter = searchFilter.get().toLowerCase();
 
-        List<Integer> keys = new ArrayList<>(objs.keySet());
-        keys.sort(Comparator.naturalOrder());
-
-        for (Integer key : keys) {
+        for (int key : objs.keys()) {
             ObjData data = objs.get(key);
             if (filter.isEmpty()) {
                 filtered.add(key);
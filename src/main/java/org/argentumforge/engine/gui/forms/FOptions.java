@@ -338,6 +338,20 @@ public final class FOptions extends Form {
                     options.save();
                 }
 
+                // Memoria de video para texturas
+                ImInt textureBudget = new ImInt(options.getTextureBudgetMB());
+                ImGui.setNextItemWidth(100);
+                if (ImGui.inputInt("##textureBudget", textureBudget, 64)) {
+                    if (textureBudget.get() < 128)
+                        textureBudget.set(128);
+                    if (textureBudget.get() > 8192)
+                        textureBudget.set(8192);
+                    options.setTextureBudgetMB(textureBudget.get());
+                    options.save();
+                }
+                ImGui.sameLine();
+                ImGui.text(I18n.INSTANCE.get("options.graphics.textureBudget"));
+
                 ImGui.endTabItem();
             }
 
@@ -63,8 +63,8 @@ public class FPalette extends Form {
         if (ImGui.inputInt("##search", searchGrh)) {
             if (searchGrh.get() < 0)
                 searchGrh.set(0);
-            if (AssetRegistry.grhData != null && searchGrh.get() >= AssetRegistry.grhData.length) {
-                searchGrh.set(AssetRegistry.grhData.length - 1);
+            if (AssetRegistry.grhData != null && searchGrh.get() >= AssetRegistry.grhData.length()) {
+                searchGrh.set(AssetRegistry.grhData.length() - 1);
             }
             if (searchGrh.get() > 0)
                 currentPage = 0;
@@ -83,7 +83,7 @@ public class FPalette extends Form {
         if (AssetRegistry.grhData == null)
             return;
 
-        int totalGrhs = AssetRegistry.grhData.length;
+        int totalGrhs = AssetRegistry.grhData.length();
         int maxPages = (totalGrhs / ITEMS_PER_PAGE);
 
         ImGui.text(I18n.INSTANCE.get("editor.palette.page") + ": " + (currentPage + 1) + " / " + (maxPages + 1));
@@ -108,7 +108,7 @@ public class FPalette extends Form {
             float windowWidth = ImGui.getContentRegionAvailX();
             int columns = Math.max(1, (int) (windowWidth / (TILE_SIZE + 10)));
 
-            int totalGrhs = AssetRegistry.grhData.length;
+            int totalGrhs = AssetRegistry.grhData.length();
             int start = searchGrh.get() > 0 ? searchGrh.get() : (currentPage * ITEMS_PER_PAGE);
             if (start <= 0)
                 start = 1;
@@ -119,7 +119,7 @@ public class FPalette extends Form {
                 for (int i = start; i < end; i++) {
                     if (i <= 0 || i >= totalGrhs)
                         continue;
-                    org.argentumforge.engine.utils.inits.GrhData data = AssetRegistry.grhData[i];
+                    org.argentumforge.engine.utils.inits.GrhData data = AssetRegistry.grhData.get(i);
                     if (data == null || data.getFileNum() == 0)
                         continue;
 
@@ -127,7 +127,7 @@ public class FPalette extends Form {
                     ImGui.pushID(i);
 
                     int currentGrh = data.getNumFrames() > 1 ? data.getFrame(0) : i;
-                    org.argentumforge.engine.utils.inits.GrhData frameData = AssetRegistry.grhData[currentGrh];
+                    org.argentumforge.engine.utils.inits.GrhData frameData = AssetRegistry.grhData.get(currentGrh);
                     org.argentumforge.engine.renderer.Texture tex = org.argentumforge.engine.renderer.Surface.INSTANCE
                             .getTexture(frameData.getFileNum());
 
@@ -0,0 +1,175 @@
+package org.argentumforge.engine.gui.forms;
+
+import imgui.ImDrawList;
+import imgui.ImGui;
+import imgui.flag.ImGuiCond;
+import imgui.flag.ImGuiWindowFlags;
+import imgui.type.ImBoolean;
+import org.argentumforge.engine.gui.ImGUISystem;
+import org.argentumforge.engine.gui.ToastManager;
+import org.argentumforge.engine.i18n.I18n;
+import org.argentumforge.engine.utils.FrameProfiler;
+import org.argentumforge.engine.utils.FrameProfiler.Section;
+
+/**
+ * Overlay del perfilador de frames.
+ * <p>
+ * Muestra la duración de los últimos frames, una barra por subsistema con su
+ * tiempo medio de CPU (y de GPU cuando se mide) y un gráfico de llama del frame
+ * promedio, donde cada nivel se dibuja debajo de su sección padre. El
+ * perfilador solo mide mientras este formulario está abierto.
+ */
+public final class FProfiler extends Form {
+
+    private static FProfiler instance;
+
+    private static final float ROW_HEIGHT = 16f;
+    private static final float LABEL_WIDTH = 110f;
+
+    private final float[] frameTimes = new float[FrameProfiler.HISTORY];
+
+    private FProfiler() {
+    }
+
+    public static FProfiler getInstance() {
+        if (instance == null) {
+            instance = new FProfiler();
+        }
+        return instance;
+    }
+
+    /**
+     * Abre o cierra el overlay, encendiendo o apagando el perfilador.
+     */
+    public static void toggle() {
+        if (ImGUISystem.INSTANCE.isFormVisible("FProfiler")) {
+            getInstance().close();
+        } else {
+            FrameProfiler.INSTANCE.setEnabled(true);
+            ImGUISystem.INSTANCE.show(getInstance());
+        }
+    }
+
+    @Override
+    public void close() {
+        FrameProfiler.INSTANCE.setEnabled(false);
+        super.close();
+    }
+
+    @Override
+    public void render() {
+        ImGui.setNextWindowSize(420, 460, ImGuiCond.FirstUseEver);
+
+        ImBoolean pOpen = new ImBoolean(true);
+        if (ImGui.begin(I18n.INSTANCE.get("profiler.title"), pOpen, ImGuiWindowFlags.None)) {
+            if (!pOpen.get()) {
+                this.close();
+            }
+
+            FrameProfiler profiler = FrameProfiler.INSTANCE;
+            float frameMs = profiler.getFrameAverageMs();
+            ImGui.text(I18n.INSTANCE.get("profiler.frame", formatMs(frameMs),
+                    frameMs > 0 ? Math.round(1000f / frameMs) : 0, profiler.getSampleCount()));
+
+            int count = profiler.copyFrameHistory(frameTimes);
+            ImGui.plotLines("##frameTimes", frameTimes, count, 0, "", 0, Math.max(33.4f, frameMs * 2),
+                    ImGui.getContentRegionAvailX(), 60);
+
+            ImGui.separator();
+            renderBars(profiler, frameMs);
+
+            ImGui.separator();
+            ImGui.text(I18n.INSTANCE.get("profiler.flame"));
+            renderFlame(profiler, frameMs);
+
+            ImGui.separator();
+            if (ImGui.button(I18n.INSTANCE.get("profiler.trace"))) {
+                String path = profiler.dumpTrace();
+                if (path != null)
+                    ToastManager.INSTANCE.show(I18n.INSTANCE.get("profiler.trace.saved", path), ToastManager.Type.SUCCESS);
+            }
+        }
+        ImGui.end();
+    }
+
+    /**
+     * Una fila por sección: nombre sangrado según su nivel, barra proporcional al
+     * frame promedio y los tiempos medio, máximo y de GPU.
+     */
+    private void renderBars(FrameProfiler profiler, float frameMs) {
+        ImDrawList drawList = ImGui.getWindowDrawList();
+        float barWidth = Math.max(40f, ImGui.getContentRegionAvailX() - LABEL_WIDTH - 150f);
+        int barColor = ImGui.getColorU32(0.30f, 0.65f, 0.95f, 1.0f);
+        int backColor = ImGui.getColorU32(0.20f, 0.20f, 0.20f, 1.0f);
+
+        for (Section section : Section.values()) {
+            float avg = profiler.getAverageMs(section);
+            float x = ImGui.getCursorScreenPosX();
+            float y = ImGui.getCursorScreenPosY();
+
+            ImGui.setCursorPosX(ImGui.getCursorPosX() + section.getDepth() * 12f);
+            ImGui.text(I18n.INSTANCE.get(section.getNameKey()));
+            ImGui.sameLine(LABEL_WIDTH);
+
+            float barX = x + LABEL_WIDTH;
+            float fraction = frameMs > 0 ? Math.min(1f, avg / frameMs) : 0f;
+            drawList.addRectFilled(barX, y + 2, barX + barWidth, y + ROW_HEIGHT - 2, backColor);
+            drawList.addRectFilled(barX, y + 2, barX + barWidth * fraction, y + ROW_HEIGHT - 2, barColor);
+            ImGui.dummy(barWidth, ROW_HEIGHT - 4);
+
+            ImGui.sameLine();
+            float gpu = profiler.getGpuAverageMs(section);
+            if (gpu >= 0)
+                ImGui.text(I18n.INSTANCE.get("profiler.row.gpu", formatMs(avg), formatMs(profiler.getMaxMs(section)),
+                        formatMs(gpu)));
+            else
+                ImGui.text(I18n.INSTANCE.get("profiler.row", formatMs(avg), formatMs(profiler.getMaxMs(section))));
+        }
+    }
+
+    /**
+     * Gráfico de llama del frame promedio: las secciones de primer nivel se
+     * apilan de izquierda a derecha y las anidadas debajo de su padre, en el
+     * orden en que se ejecutan.
+     */
+    private void renderFlame(FrameProfiler profiler, float frameMs) {
+        ImDrawList drawList = ImGui.getWindowDrawList();
+        float width = ImGui.getContentRegionAvailX();
+        float originX = ImGui.getCursorScreenPosX();
+        float originY = ImGui.getCursorScreenPosY();
+        int textColor = ImGui.getColorU32(0f, 0f, 0f, 1f);
+
+        int maxDepth = 0;
+        float topX = originX;
+        float childX = originX;
+        for (Section section : Section.values()) {
+            int depth = section.getDepth();
+            maxDepth = Math.max(maxDepth, depth);
+            float w = frameMs > 0 ? width * profiler.getAverageMs(section) / frameMs : 0f;
+            float x;
+            if (depth == 0) {
+                x = topX;
+                topX += w;
+                childX = x;
+            } else {
+                x = childX;
+                childX += w;
+            }
+            if (w < 1f)
+                continue;
+
+            float y = originY + depth * ROW_HEIGHT;
+            float hue = (section.ordinal() * 0.13f) % 1f;
+            drawList.addRectFilled(x, y, x + w - 1, y + ROW_HEIGHT - 1,
+                    ImGui.getColorU32(0.95f, 0.45f + hue * 0.4f, 0.20f + hue * 0.3f, 1f));
+            String label = I18n.INSTANCE.get(section.getNameKey());
+            if (ImGui.calcTextSize(label).x + 4 < w)
+                drawList.addText(x + 2, y + 1, textColor, label);
+        }
+        ImGui.dummy(width, (maxDepth + 1) * ROW_HEIGHT);
+    }
+
+    private static String formatMs(float ms) {
+        return String.format("%.2f", ms);
+    }
+}
@@ -441,12 +441,12 @@ public class FSurfaceEditor extends Form implements IMapEditor {
                                 ImGui.pushID(rec.getGrhIndex());
 
                                 int currentIdx = rec.getGrhIndex();
-                                GrhData data = AssetRegistry.grhData[currentIdx];
+                                GrhData data = AssetRegistry.grhData.get(currentIdx);
 
                                 if (data != null) {
                                     if (data.getNumFrames() > 1) {
                                         currentIdx = data.getFrame(1);
-                                        data = AssetRegistry.grhData[currentIdx];
+                                        data = AssetRegistry.grhData.get(currentIdx);
                                     }
 
                                     if (data != null && data.getFileNum() > 0) {
@@ -684,13 +684,13 @@ public class FSurfaceEditor extends Form implements IMapEditor {
                         continue;
 
                     int currentIdx = i;
-                    GrhData data = AssetRegistry.grhData[i];
+                    GrhData data = AssetRegistry.grhData.get(i);
                     if (data == null)
                         continue;
 
                     if (data.getNumFrames() > 1) {
                         currentIdx = data.getFrame(1);
-                        data = AssetRegistry.grhData[currentIdx];
+                        data = AssetRegistry.grhData.get(currentIdx);
                     }
 
                     if (data == null || data.getFileNum() == 0)
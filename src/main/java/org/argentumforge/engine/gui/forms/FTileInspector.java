@@ -107,7 +107,7 @@ public final class FTileInspector extends Form {
                 }
                 if (ImGui.inputInt("##LGrh" + i, lGrh, 0, 0)) {
                     if (lGrh.get() != grh) {
-                        int maxGrh = (AssetRegistry.grhData != null) ? AssetRegistry.grhData.length - 1 : 32000;
+                        int maxGrh = (AssetRegistry.grhData != null) ? AssetRegistry.grhData.length() - 1 : 32000;
                         int val = Math.max(0, Math.min(maxGrh, lGrh.get()));
                         commandManager.executeCommand(
                                 new TileChangeCommand(context, x, y, i, grh, val));
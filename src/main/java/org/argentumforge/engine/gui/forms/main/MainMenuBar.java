@@ -356,6 +356,10 @@ public class MainMenuBar {
                     renderSettings.setShowViewportOverlay(!renderSettings.isShowViewportOverlay());
                     GameData.options.save();
                 }
+                if (ImGui.menuItem(I18n.INSTANCE.get("menu.view.profiler"), "",
+                        ImGUISystem.INSTANCE.isFormVisible("FProfiler"))) {
+                    FProfiler.toggle();
+                }
                 ImGui.separator();
                 // ...
                 if (ImGui.beginMenu(I18n.INSTANCE.get("menu.view.minimap"))) {
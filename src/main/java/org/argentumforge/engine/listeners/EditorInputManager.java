@@ -10,6 +10,7 @@ import org.argentumforge.engine.gui.components.ContextMenu;
 import org.argentumforge.engine.renderer.RGBColor;
 import org.argentumforge.engine.scenes.Camera;
 import org.argentumforge.engine.utils.editor.*;
+import org.argentumforge.engine.utils.editor.commands.CommandManager;
 import org.argentumforge.engine.audio.Sound;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.inits.MapData;
@@ -59,6 +60,11 @@ public class EditorInputManager {
     }
 
     public void updateMouse() {
+        // Un trazo se cierra al soltar el botón, aunque el cursor ya no esté sobre el
+        // mapa
+        if (!MouseListener.mouseButtonDown(GLFW_MOUSE_BUTTON_LEFT))
+            CommandManager.getInstance().endStroke();
+
         if (Console.INSTANCE.isInputActive() || ImGUISystem.INSTANCE.isFormVisible("FBindKeys")) {
 
             // Si el usuario intenta pintar con la consola activa, avisarle amablemente
@@ -137,7 +143,8 @@ public class EditorInputManager {
             }
 
             if (MouseListener.mouseButtonJustPressed(GLFW_MOUSE_BUTTON_LEFT)) {
-                surface.startBatch();
+                // Todo lo que se pinte hasta soltar el botón es un único paso del historial
+                CommandManager.getInstance().beginStroke();
                 transfer.startDrag(x, y);
             }
 
@@ -152,7 +159,7 @@ public class EditorInputManager {
             }
 
             if (MouseListener.mouseButtonReleased(GLFW_MOUSE_BUTTON_LEFT)) {
-                surface.endBatch();
+                CommandManager.getInstance().endStroke();
                 transfer.endDrag();
             }
         }
@@ -428,8 +435,8 @@ public class EditorInputManager {
                     var charList = context.getCharList();
                     int userIdx = user.getUserCharIndex();
 
-                    if (userIdx > 0 && userIdx < charList.length) {
-                        org.argentumforge.engine.game.models.Character userChar = charList[userIdx];
+                    if (userIdx > 0) {
+                        org.argentumforge.engine.game.models.Character userChar = charList.get(userIdx);
 
                         // Asegurar que userChar sea válido antes de acceder
                         if (userChar != null) {
@@ -7,6 +7,7 @@ import org.argentumforge.engine.renderer.BatchRenderer;
 import org.argentumforge.engine.renderer.PostProcessor;
 import org.argentumforge.engine.renderer.RenderSettings;
 import org.argentumforge.engine.scenes.Scene;
+import org.argentumforge.engine.utils.FrameProfiler;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.Time;
 
@@ -68,6 +69,7 @@ public enum RenderManager {
             postProcessor.beginCapture();
         }
 
+        batch.beginFrame();
         batch.begin();
         currentScene.mouseEvents();
         currentScene.keyEvents();
@@ -77,7 +79,9 @@ public enum RenderManager {
         if (usePostProcessing) {
             // Finalizar captura y renderizar efecto
             postProcessor.endCapture();
+            FrameProfiler.INSTANCE.begin(FrameProfiler.Section.POST_PROCESS);
             postProcessor.apply(settings, Time.getRunningTime());
+            FrameProfiler.INSTANCE.end(FrameProfiler.Section.POST_PROCESS);
 
             // Renderizar Vignette (Overlay)
             if (settings.isPhotoVignette()) {
@@ -0,0 +1,174 @@
+package org.argentumforge.engine.renderer;
+
+/**
+ * Empaquetador de rectángulos en páginas cuadradas usando el algoritmo
+ * <i>skyline bottom-left</i>.
+ * <p>
+ * Mantiene un único "horizonte" (la silueta superior de lo ya colocado) para la
+ * página abierta; cada rectángulo se ubica en el segmento donde queda más arriba
+ * (y, a igualdad, más a la izquierda). Cuando un rectángulo ya no entra se abre
+ * una página nueva, por lo que los rectángulos insertados de forma consecutiva
+ * (p.ej. los de un mismo archivo de gráficos) tienden a compartir página.
+ * <p>
+ * Cada rectángulo reserva {@code padding} píxeles por lado para poder extruir
+ * los bordes y evitar que el muestreo tome píxeles del vecino.
+ */
+public final class AtlasPacker {
+
+    private final int pageSize;
+    private final int padding;
+
+    private int page = -1;
+
+    // Segmentos del horizonte de la página abierta, ordenados por X
+    private int[] skyX = new int[64];
+    private int[] skyY = new int[64];
+    private int[] skyW = new int[64];
+    private int skyCount;
+
+    public AtlasPacker(int pageSize, int padding) {
+        this.pageSize = pageSize;
+        this.padding = padding;
+    }
+
+    /**
+     * Ubica un rectángulo.
+     *
+     * @param width  Ancho del contenido (sin padding).
+     * @param height Alto del contenido (sin padding).
+     * @param out    Recibe {@code [página, x, y]} del contenido (ya desplazado por
+     *               el padding).
+     * @return {@code false} si el rectángulo no entra ni en una página vacía.
+     */
+    public boolean insert(int width, int height, int[] out) {
+        int w = width + padding * 2;
+        int h = height + padding * 2;
+        if (w > pageSize || h > pageSize || width <= 0 || height <= 0)
+            return false;
+
+        if (page < 0 || !tryPlace(w, h, out)) {
+            openPage();
+            if (!tryPlace(w, h, out))
+                return false;
+        }
+
+        out[0] = page;
+        out[1] += padding;
+        out[2] += padding;
+        return true;
+    }
+
+    /**
+     * @return Cantidad de páginas utilizadas hasta ahora.
+     */
+    public int getPageCount() {
+        return page + 1;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    private void openPage() {
+        page++;
+        skyCount = 1;
+        skyX[0] = 0;
+        skyY[0] = 0;
+        skyW[0] = pageSize;
+    }
+
+    private boolean tryPlace(int w, int h, int[] out) {
+        int bestIndex = -1;
+        int bestY = Integer.MAX_VALUE;
+        int bestX = 0;
+
+        for (int i = 0; i < skyCount; i++) {
+            int y = fit(i, w, h);
+            if (y >= 0 && (y < bestY || (y == bestY && skyX[i] < bestX))) {
+                bestIndex = i;
+                bestY = y;
+                bestX = skyX[i];
+            }
+        }
+
+        if (bestIndex < 0)
+            return false;
+
+        addSkyline(bestIndex, bestX, bestY + h, w);
+        out[1] = bestX;
+        out[2] = bestY;
+        return true;
+    }
+
+    /**
+     * @return La Y donde quedaría apoyado el rectángulo si empieza en el segmento
+     *         indicado, o -1 si no entra.
+     */
+    private int fit(int index, int w, int h) {
+        int x = skyX[index];
+        if (x + w > pageSize)
+            return -1;
+
+        int remaining = w;
+        int y = 0;
+        for (int i = index; remaining > 0; i++) {
+            y = Math.max(y, skyY[i]);
+            if (y + h > pageSize)
+                return -1;
+            remaining -= skyW[i];
+        }
+        return y;
+    }
+
+    private void addSkyline(int index, int x, int y, int w) {
+        ensureCapacity(skyCount + 1);
+        System.arraycopy(skyX, index, skyX, index + 1, skyCount - index);
+        System.arraycopy(skyY, index, skyY, index + 1, skyCount - index);
+        System.arraycopy(skyW, index, skyW, index + 1, skyCount - index);
+        skyX[index] = x;
+        skyY[index] = y;
+        skyW[index] = w;
+        skyCount++;
+
+        // Recortar los segmentos tapados por el nuevo
+        for (int i = index + 1; i < skyCount; i++) {
+            int prevRight = skyX[i - 1] + skyW[i - 1];
+            if (skyX[i] >= prevRight)
+                break;
+
+            int shrink = prevRight - skyX[i];
+            skyX[i] += shrink;
+            skyW[i] -= shrink;
+            if (skyW[i] > 0)
+                break;
+
+            remove(i);
+            i--;
+        }
+
+        // Unir segmentos contiguos de igual altura
+        for (int i = 0; i < skyCount - 1; i++) {
+            if (skyY[i] == skyY[i + 1]) {
+                skyW[i] += skyW[i + 1];
+                remove(i + 1);
+                i--;
+            }
+        }
+    }
+
+    private void remove(int index) {
+        System.arraycopy(skyX, index + 1, skyX, index, skyCount - index - 1);
+        System.arraycopy(skyY, index + 1, skyY, index, skyCount - index - 1);
+        System.arraycopy(skyW, index + 1, skyW, index, skyCount - index - 1);
+        skyCount--;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= skyX.length)
+            return;
+        int size = skyX.length * 2;
+        skyX = java.util.Arrays.copyOf(skyX, size);
+        skyY = java.util.Arrays.copyOf(skyY, size);
+        skyW = java.util.Arrays.copyOf(skyW, size);
+    }
+}
@@ -2,19 +2,35 @@ package org.argentumforge.engine.renderer;
 
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
-import java.util.ArrayList;
-import java.util.List;
 import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.opengl.GL15.*;
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL32.*;
+import static org.lwjgl.opengl.GL44.*;
 
 /**
  * Clase Batch Renderer <br>
  * <br>
  * Utiliza OpenGL 3.3 Core Profile (VAO/VBO/EBO + Shaders).
+ * <p>
+ * Cada quad lleva una clave de orden {@code (grupo, blend, textura)}. Por
+ * defecto todos los quads caen en grupos sin ordenar y se dibujan en el orden de
+ * envío. Dentro de un grupo abierto con {@link #openSortGroup(boolean)} y
+ * ordenamiento por textura, el batch reordena los quads con un radix sort
+ * estable antes de llenar el VBO, de modo que texturas intercaladas no cortan el
+ * lote en cada quad. Los grupos se dibujan siempre en el orden en que se
+ * abrieron, lo que preserva el orden del pintor entre capas y filas.
+ * <p>
+ * Los vértices se escriben al encolar directamente en memoria nativa
+ * ({@link QuadBuffer}, 20 bytes por vértice con el color en RGBA8), así que el
+ * camino de dibujo no genera basura por frame. Con GL 4.4 (o
+ * {@code ARB_buffer_storage}) se suben a un anillo mapeado de forma persistente
+ * y sincronizado con fences; en GL 3.3 se usa orphaning del VBO.
  */
 public class BatchRenderer {
 
@@ -51,32 +67,43 @@ public class BatchRenderer {
             "    color = texColor;\n" +
             "}\n";
 
-    private static class Quad {
-        float x, y, srcWidth, srcHeight, destWidth, destHeight;
-        float srcX, srcY;
-        float texWidth, texHeight;
-        float r1, g1, b1, a1; // Vertex 0
-        float r2, g2, b2, a2; // Vertex 1
-        float r3, g3, b3, a3; // Vertex 2
-        float r4, g4, b4, a4; // Vertex 3
-        float skewX;
-        boolean blend;
-        Texture texture;
-    }
+    /** Quads encolados en el frame (memoria nativa, sin objetos por quad). */
+    private QuadBuffer quads;
+
+    // Clave de orden: grupo (30 bits) | blend (1 bit) | id de textura (32 bits)
+    private static final int GROUP_SHIFT = 33;
+    private int sortGroup;
+    private boolean sortByTexture;
+    private boolean needsSort;
 
-    private final List<Quad> quads = new ArrayList<>();
-    private int activeQuads = 0;
+    // Estadísticas de frame
+    private int drawCalls;
+    private int quadsDrawn;
+    private int lastFrameDrawCalls;
+    private int lastFrameQuads;
 
-    // Vertex Data: Pos(2) + Tex(2) + Color(4) = 8 floats
+    // Vertex Data: Pos(2 float) + Tex(2 float) + Color(4 ubyte normalizados) = 20 bytes
     private static final int POS_SIZE = 2;
     private static final int TEX_SIZE = 2;
     private static final int COL_SIZE = 4;
-    private static final int VERTEX_SIZE = POS_SIZE + TEX_SIZE + COL_SIZE; // 8 floats
-    private static final int VERTEX_SIZE_BYTES = VERTEX_SIZE * Float.BYTES; // 32 bytes
+    private static final int VERTEX_SIZE_BYTES = QuadBuffer.VERTEX_SIZE_BYTES;
 
-    private FloatBuffer vertexBuffer;
+    /** Capacidad en quads de un envío a la GPU (crece si un frame la supera). */
     private int maxQuads = 1000;
 
+    // Buffer persistente (GL 4.4 / ARB_buffer_storage): anillo de RING_SEGMENTS
+    // envíos mapeado de forma permanente, sincronizado con fences
+    private static final int RING_SEGMENTS = 3;
+    private static final int MAX_FENCES = 64;
+    private boolean persistent;
+    private long ringAddress;
+    private int ringQuads;
+    private long ringCursor;
+    private final long[] fences = new long[MAX_FENCES];
+    private final long[] fenceEnds = new long[MAX_FENCES];
+    private int fenceHead;
+    private int fenceCount;
+
     // OpenGL Objects
     private int vaoId, vboId, eboId;
     private ShaderProgram shader;
@@ -114,6 +141,16 @@ public class BatchRenderer {
         init();
     }
 
+    /**
+     * Crea un batch sin objetos de OpenGL que solo acumula quads en el staging.
+     * Permite recorrer el render sin contexto GL (pruebas); quien lo use debe
+     * reemplazar {@link #end()}.
+     */
+    BatchRenderer(int maxQuads) {
+        this.maxQuads = maxQuads;
+        quads = new QuadBuffer(maxQuads);
+    }
+
     private void init() {
         // 1. Compile Shader
         shader = new ShaderProgram();
@@ -124,22 +161,43 @@ public class BatchRenderer {
         // Cache Uniform Location
         projMatrixLoc = glGetUniformLocation(shader.programId, "uProjection");
 
-        // 2. Buffers
-        vertexBuffer = BufferUtils.createFloatBuffer(maxQuads * 4 * VERTEX_SIZE);
+        // 2. Staging fuera del heap
+        quads = new QuadBuffer(maxQuads);
+
+        GLCapabilities caps = GL.getCapabilities();
+        persistent = caps.OpenGL44 || caps.GL_ARB_buffer_storage;
 
         // 3. VAO/VBO/EBO
         vaoId = glGenVertexArrays();
         glBindVertexArray(vaoId);
+        createVertexBuffer();
+        generateEbo(maxQuads);
+        glBindVertexArray(0);
+
+        // Initialize Matrix
+        updateProjectionMatrix();
+    }
 
-        // VBO
+    /**
+     * Crea el VBO (con el VAO ya bindeado) y sus punteros de atributos. En modo
+     * persistente el almacenamiento es inmutable, por lo que crecer implica
+     * recrearlo.
+     */
+    private void createVertexBuffer() {
         vboId = glGenBuffers();
         glBindBuffer(GL_ARRAY_BUFFER, vboId);
-        glBufferData(GL_ARRAY_BUFFER, vertexBuffer.capacity() * Float.BYTES, GL_DYNAMIC_DRAW);
 
-        // EBO (Indices)
-        generateEbo(maxQuads);
+        if (persistent) {
+            ringQuads = maxQuads * RING_SEGMENTS;
+            long bytes = (long) ringQuads * QuadBuffer.QUAD_SIZE_BYTES;
+            int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+            glBufferStorage(GL_ARRAY_BUFFER, bytes, flags);
+            ringAddress = nglMapBufferRange(GL_ARRAY_BUFFER, 0, bytes, flags);
+            ringCursor = 0;
+        } else {
+            glBufferData(GL_ARRAY_BUFFER, (long) maxQuads * QuadBuffer.QUAD_SIZE_BYTES, GL_STREAM_DRAW);
+        }
 
-        // Pointers
         // Pos attribute
         glVertexAttribPointer(0, POS_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, 0);
         glEnableVertexAttribArray(0);
@@ -148,15 +206,11 @@ public class BatchRenderer {
         glVertexAttribPointer(1, TEX_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, POS_SIZE * Float.BYTES);
         glEnableVertexAttribArray(1);
 
-        // Color attribute
-        glVertexAttribPointer(2, COL_SIZE, GL_FLOAT, false, VERTEX_SIZE_BYTES, (POS_SIZE + TEX_SIZE) * Float.BYTES);
+        // Color attribute (RGBA8 normalizado)
+        glVertexAttribPointer(2, COL_SIZE, GL_UNSIGNED_BYTE, true, VERTEX_SIZE_BYTES, QuadBuffer.COLOR_OFFSET);
         glEnableVertexAttribArray(2);
 
         glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glBindVertexArray(0);
-
-        // Initialize Matrix
-        updateProjectionMatrix();
     }
 
     private void generateEbo(int capacityQuads) {
@@ -168,7 +222,7 @@ public class BatchRenderer {
             // Triangle 2: 0, 2, 1 (BottomLeft, TopRight, TopLeft) - CCW
             // Orden standard OpenGL CCW
 
-            // Quad Vertices Order in fillQuadData:
+            // Quad Vertices Order in draw():
             // 0: Bottom-Left
             // 1: Top-Left
             // 2: Top-Right
@@ -197,22 +251,110 @@ public class BatchRenderer {
     private void ensureCapacity(int quadsNeeded) {
         if (quadsNeeded > maxQuads) {
             maxQuads = quadsNeeded + 500;
-            vertexBuffer = BufferUtils.createFloatBuffer(maxQuads * 4 * VERTEX_SIZE);
-
-            // Recrear VBO con nuevo tamaño
-            glBindBuffer(GL_ARRAY_BUFFER, vboId);
-            glBufferData(GL_ARRAY_BUFFER, vertexBuffer.capacity() * Float.BYTES, GL_DYNAMIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
 
-            // Recrear EBO
             glBindVertexArray(vaoId); // EBO state is stored in VAO
+            if (persistent) {
+                // Esperar a que la GPU suelte el anillo actual antes de destruirlo
+                while (fenceCount > 0)
+                    waitOldestFence();
+                glBindBuffer(GL_ARRAY_BUFFER, vboId);
+                glUnmapBuffer(GL_ARRAY_BUFFER);
+                glBindBuffer(GL_ARRAY_BUFFER, 0);
+                glDeleteBuffers(vboId);
+                createVertexBuffer();
+            } else {
+                glBindBuffer(GL_ARRAY_BUFFER, vboId);
+                glBufferData(GL_ARRAY_BUFFER, (long) maxQuads * QuadBuffer.QUAD_SIZE_BYTES, GL_STREAM_DRAW);
+                glBindBuffer(GL_ARRAY_BUFFER, 0);
+            }
             generateEbo(maxQuads);
             glBindVertexArray(0);
         }
     }
 
     public void begin() {
-        activeQuads = 0;
+        quads.clear();
+        needsSort = false;
+        sortGroup = 0;
+    }
+
+    /**
+     * Marca el inicio de un frame: guarda las estadísticas del frame anterior y
+     * reinicia los contadores.
+     */
+    public void beginFrame() {
+        lastFrameDrawCalls = drawCalls;
+        lastFrameQuads = quadsDrawn;
+        drawCalls = 0;
+        quadsDrawn = 0;
+    }
+
+    /**
+     * Abre un nuevo grupo de orden, que se dibuja después de todo lo enviado hasta
+     * ahora.
+     *
+     * @param sortByTexture si es {@code true}, los quads del grupo se agrupan por
+     *                      blend y textura (sin garantía de orden entre ellos);
+     *                      si es {@code false}, conservan el orden de envío.
+     */
+    public void openSortGroup(boolean sortByTexture) {
+        sortGroup++;
+        this.sortByTexture = sortByTexture;
+    }
+
+    /**
+     * Vuelve al envío secuencial normal para lo que se dibuje a continuación.
+     */
+    public void closeSortGroup() {
+        openSortGroup(false);
+    }
+
+    /**
+     * Suma un draw call emitido fuera del batch (p.ej. geometría estática) a las
+     * estadísticas del frame.
+     */
+    void recordDrawCall(int quads) {
+        drawCalls++;
+        quadsDrawn += quads;
+    }
+
+    /**
+     * @return Draw calls emitidos en el último frame completo.
+     */
+    public int getLastFrameDrawCalls() {
+        return lastFrameDrawCalls;
+    }
+
+    /**
+     * @return Quads dibujados en el último frame completo.
+     */
+    public int getLastFrameQuads() {
+        return lastFrameQuads;
+    }
+
+    /**
+     * Dibuja los quads acumulados hasta ahora y deja el batch listo para seguir
+     * recibiendo. Necesario antes de emitir draw calls propios (p.ej. la caché de
+     * geometría estática) para respetar el orden de pintado.
+     */
+    public void flush() {
+        end();
+        begin();
+    }
+
+    /**
+     * @return Los quads encolados desde el último {@link #begin()}.
+     */
+    QuadBuffer getQuads() {
+        return quads;
+    }
+
+    /**
+     * @return La matriz ortográfica vigente (ventana o FBO de exportación).
+     */
+    FloatBuffer getProjectionMatrix() {
+        updateProjectionMatrix();
+        return orthoMatrixBuffer;
     }
 
     public void draw(Texture texture, float x, float y, float srcX, float srcY, float srcWidth, float srcHeight,
@@ -222,33 +364,9 @@ public class BatchRenderer {
 
     public void draw(Texture texture, float x, float y, float srcX, float srcY, float srcWidth, float srcHeight,
             float destWidth, float destHeight, float skewX, boolean blend, float alpha, RGBColor color) {
-
-        Quad quad;
-        if (activeQuads < quads.size()) {
-            quad = quads.get(activeQuads);
-        } else {
-            quad = new Quad();
-            quads.add(quad);
-        }
-        activeQuads++;
-
-        quad.x = x;
-        quad.y = y;
-        quad.srcWidth = srcWidth;
-        quad.srcHeight = srcHeight;
-        quad.destWidth = destWidth;
-        quad.destHeight = destHeight;
-        quad.srcX = srcX;
-        quad.srcY = srcY;
-        quad.skewX = skewX;
-        quad.texWidth = texture.getTex_width();
-        quad.texHeight = texture.getTex_height();
-        quad.r1 = quad.r2 = quad.r3 = quad.r4 = color.getRed();
-        quad.g1 = quad.g2 = quad.g3 = quad.g4 = color.getGreen();
-        quad.b1 = quad.b2 = quad.b3 = quad.b4 = color.getBlue();
-        quad.a1 = quad.a2 = quad.a3 = quad.a4 = alpha;
-        quad.texture = texture;
-        quad.blend = blend;
+        int rgba = QuadBuffer.packColor(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+        putQuad(texture, x, y, srcX, srcY, srcWidth, srcHeight, destWidth, destHeight, skewX, blend,
+                rgba, rgba, rgba, rgba);
     }
 
     public void draw(Texture texture, float x, float y, float srcX, float srcY, float srcWidth, float srcHeight,
@@ -257,51 +375,54 @@ public class BatchRenderer {
             float r2, float g2, float b2, float a2,
             float r3, float g3, float b3, float a3,
             float r4, float g4, float b4, float a4) {
+        putQuad(texture, x, y, srcX, srcY, srcWidth, srcHeight, destWidth, destHeight, 0.0f, blend,
+                QuadBuffer.packColor(r1, g1, b1, a1),
+                QuadBuffer.packColor(r2, g2, b2, a2),
+                QuadBuffer.packColor(r3, g3, b3, a3),
+                QuadBuffer.packColor(r4, g4, b4, a4));
+    }
 
-        Quad quad;
-        if (activeQuads < quads.size()) {
-            quad = quads.get(activeQuads);
-        } else {
-            quad = new Quad();
-            quads.add(quad);
-        }
-        activeQuads++;
-
-        quad.x = x;
-        quad.y = y;
-        quad.srcWidth = srcWidth;
-        quad.srcHeight = srcHeight;
-        quad.destWidth = destWidth;
-        quad.destHeight = destHeight;
-        quad.srcX = srcX;
-        quad.srcY = srcY;
-        quad.texWidth = texture.getTex_width();
-        quad.texHeight = texture.getTex_height();
-        quad.r1 = r1;
-        quad.g1 = g1;
-        quad.b1 = b1;
-        quad.a1 = a1;
-        quad.r2 = r2;
-        quad.g2 = g2;
-        quad.b2 = b2;
-        quad.a2 = a2;
-        quad.r3 = r3;
-        quad.g3 = g3;
-        quad.b3 = b3;
-        quad.a3 = a3;
-        quad.r4 = r4;
-        quad.g4 = g4;
-        quad.b4 = b4;
-        quad.a4 = a4;
-        quad.texture = texture;
-        quad.blend = blend;
+    /**
+     * Escribe los 4 vértices del quad directamente en el staging nativo.
+     */
+    private void putQuad(Texture texture, float x, float y, float srcX, float srcY, float srcWidth,
+            float srcHeight, float destWidth, float destHeight, float skewX, boolean blend,
+            int c1, int c2, int c3, int c4) {
+        float texWidth = texture.getTex_width();
+        float texHeight = texture.getTex_height();
+        float u0 = srcX / texWidth;
+        float v0 = (srcY + srcHeight) / texHeight;
+        float u1 = (srcX + srcWidth) / texWidth;
+        float v1 = srcY / texHeight;
+
+        int quad = quads.add(texture, blend, sortKey(texture, blend));
+
+        // Vértice 0 (Bottom-Left en logica, pero Top-Down en UVs)
+        quads.putVertex(quad, 0, x, y + destHeight, u0, v0, c1);
+        // Vértice 1 (Top-Left)
+        quads.putVertex(quad, 1, x + skewX, y, u0, v1, c2);
+        // Vértice 2 (Top-Right)
+        quads.putVertex(quad, 2, x + destWidth + skewX, y, u1, v1, c3);
+        // Vértice 3 (Bottom-Right)
+        quads.putVertex(quad, 3, x + destWidth, y + destHeight, u1, v0, c4);
+    }
+
+    private long sortKey(Texture texture, boolean blend) {
+        long key = (long) sortGroup << GROUP_SHIFT;
+        if (!sortByTexture)
+            return key;
+        needsSort = true;
+        return key | (blend ? 1L << 32 : 0L) | (texture.getId() & 0xFFFFFFFFL);
     }
 
     public void end() {
-        if (activeQuads == 0)
+        int count = quads.size();
+        if (count == 0)
             return;
 
-        ensureCapacity(activeQuads);
+        ensureCapacity(count);
+        if (needsSort)
+            quads.sort();
 
         // 1. Prepare Shader
         shader.bind();
@@ -312,47 +433,102 @@ public class BatchRenderer {
         // 2. Bind VAO
         glBindVertexArray(vaoId);
 
-        // 3. Fill Buffer (Pass 1)
-        vertexBuffer.clear();
-        for (int i = 0; i < activeQuads; i++) {
-            fillQuadData(quads.get(i));
-        }
-        vertexBuffer.flip();
-
-        // 4. Upload ALL Data Once
-        glBindBuffer(GL_ARRAY_BUFFER, vboId);
-        glBufferSubData(GL_ARRAY_BUFFER, 0, vertexBuffer);
+        // 3. Upload ALL Data Once
+        int baseQuad = upload(count);
 
-        // 5. Draw Batches (Pass 2)
+        // 4. Draw Batches
         Texture lastTexture = null;
         int batchStart = 0;
         int quadsInBatch = 0;
         boolean lastBlend = false;
 
-        for (int i = 0; i <= activeQuads; i++) {
-            Quad quad = (i < activeQuads) ? quads.get(i) : null;
+        for (int i = 0; i <= count; i++) {
+            int quad = (i < count) ? quads.quadAt(i) : -1;
+            Texture texture = quad >= 0 ? quads.texture(quad) : null;
+            boolean blend = quad >= 0 && quads.blend(quad);
 
             // Detect batch change or end
             boolean stateChanged = (lastTexture != null
-                    && (quad == null || lastTexture != quad.texture || lastBlend != quad.blend));
+                    && (quad < 0 || lastTexture != texture || lastBlend != blend));
 
             if (i > 0 && stateChanged) {
-                renderBatch(batchStart, quadsInBatch, lastTexture, lastBlend);
+                renderBatch(batchStart, quadsInBatch, lastTexture, lastBlend, baseQuad);
                 batchStart = i;
                 quadsInBatch = 0;
             }
 
-            if (quad != null) {
-                lastTexture = quad.texture;
-                lastBlend = quad.blend;
+            if (quad >= 0) {
+                lastTexture = texture;
+                lastBlend = blend;
                 quadsInBatch++;
             }
         }
 
+        if (persistent)
+            pushFence(ringCursor);
+
         glBindVertexArray(0);
         shader.unbind();
     }
 
+    /**
+     * Copia los quads encolados (en orden de dibujo) al VBO.
+     *
+     * @return Primer quad del VBO que ocupan los datos.
+     */
+    private int upload(int count) {
+        long bytes = (long) count * QuadBuffer.QUAD_SIZE_BYTES;
+
+        if (persistent) {
+            // Tramo contiguo del anillo; si no entra al final, vuelve al inicio
+            long start = ringCursor;
+            long physical = start % ringQuads;
+            if (physical + count > ringQuads) {
+                start += ringQuads - physical;
+                physical = 0;
+            }
+            long end = start + count;
+
+            // Esperar a la GPU solo si aún lee la zona que vamos a pisar
+            while (fenceCount > 0 && fenceEnds[fenceHead] > end - ringQuads)
+                waitOldestFence();
+
+            quads.copyTo(ringAddress + physical * QuadBuffer.QUAD_SIZE_BYTES);
+            ringCursor = end;
+            return (int) physical;
+        }
+
+        // GL 3.3: orphaning. Invalidar el buffer permite al driver darnos memoria
+        // nueva sin esperar a que la GPU termine con el contenido anterior
+        glBindBuffer(GL_ARRAY_BUFFER, vboId);
+        long dst = nglMapBufferRange(GL_ARRAY_BUFFER, 0, bytes,
+                GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT);
+        if (dst != 0) {
+            quads.copyTo(dst);
+            glUnmapBuffer(GL_ARRAY_BUFFER);
+        }
+        return 0;
+    }
+
+    private void pushFence(long end) {
+        if (fenceCount == MAX_FENCES)
+            waitOldestFence();
+        int slot = (fenceHead + fenceCount) % MAX_FENCES;
+        fences[slot] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        fenceEnds[slot] = end;
+        fenceCount++;
+    }
+
+    private void waitOldestFence() {
+        long sync = fences[fenceHead];
+        int result = glClientWaitSync(sync, 0, 0);
+        while (result == GL_TIMEOUT_EXPIRED)
+            result = glClientWaitSync(sync, GL_SYNC_FLUSH_COMMANDS_BIT, 1_000_000L);
+        glDeleteSync(sync);
+        fenceHead = (fenceHead + 1) % MAX_FENCES;
+        fenceCount--;
+    }
+
     private void updateProjectionMatrix() {
         int width;
         int height;
@@ -400,34 +576,7 @@ public class BatchRenderer {
         orthoMatrixBuffer.flip();
     }
 
-    private void fillQuadData(Quad quad) {
-        float u0 = quad.srcX / quad.texWidth;
-        float v0 = (quad.srcY + quad.srcHeight) / quad.texHeight;
-        float u1 = (quad.srcX + quad.srcWidth) / quad.texWidth;
-        float v1 = quad.srcY / quad.texHeight;
-
-        // Vértice 0 (Bottom-Left en logica, pero Top-Down en UVs)
-        vertexBuffer.put(quad.x).put(quad.y + quad.destHeight);
-        vertexBuffer.put(u0).put(v0);
-        vertexBuffer.put(quad.r1).put(quad.g1).put(quad.b1).put(quad.a1);
-
-        // Vértice 1 (Top-Left)
-        vertexBuffer.put(quad.x + quad.skewX).put(quad.y);
-        vertexBuffer.put(u0).put(v1);
-        vertexBuffer.put(quad.r2).put(quad.g2).put(quad.b2).put(quad.a2);
-
-        // Vértice 2 (Top-Right)
-        vertexBuffer.put(quad.x + quad.destWidth + quad.skewX).put(quad.y);
-        vertexBuffer.put(u1).put(v1);
-        vertexBuffer.put(quad.r3).put(quad.g3).put(quad.b3).put(quad.a3);
-
-        // Vértice 3 (Bottom-Right)
-        vertexBuffer.put(quad.x + quad.destWidth).put(quad.y + quad.destHeight);
-        vertexBuffer.put(u1).put(v0);
-        vertexBuffer.put(quad.r4).put(quad.g4).put(quad.b4).put(quad.a4);
-    }
-
-    private void renderBatch(int start, int count, Texture texture, boolean blend) {
+    private void renderBatch(int start, int count, Texture texture, boolean blend, int baseQuad) {
         texture.bind();
 
         if (blend) {
@@ -441,6 +590,10 @@ public class BatchRenderer {
         // Draw Elements
         // 6 indices por quad. int indices (4 bytes)
         long offset = (long) start * 6 * 4;
-        glDrawElements(GL_TRIANGLES, count * 6, GL_UNSIGNED_INT, offset);
+        if (baseQuad == 0)
+            glDrawElements(GL_TRIANGLES, count * 6, GL_UNSIGNED_INT, offset);
+        else
+            glDrawElementsBaseVertex(GL_TRIANGLES, count * 6, GL_UNSIGNED_INT, offset, baseQuad * 4);
+        recordDrawCall(count);
     }
 }
\ No newline at end of file
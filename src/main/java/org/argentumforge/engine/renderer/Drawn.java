@@ -1,5 +1,6 @@
 package org.argentumforge.engine.renderer;
 
+import org.argentumforge.engine.utils.inits.GrhData;
 import org.argentumforge.engine.utils.inits.GrhInfo;
 
 import static org.argentumforge.engine.Engine.batch;
@@ -24,6 +25,9 @@ import org.argentumforge.engine.Engine;
 
 public final class Drawn {
 
+    /** Color neutro por defecto (no se modifica). */
+    private static final RGBColor WHITE = new RGBColor(1.0f, 1.0f, 1.0f);
+
     /**
      * @param: grhIndex  = Numero de indice de grafico del GrhData
      * @param: x,        y: posicion eje x e y de la pantalla.
@@ -47,14 +51,33 @@ public final class Drawn {
             boolean blend, float alpha, RGBColor color, float scaleX, float scaleY, float skewX) {
         if (grhData == null)
             return;
-        final Texture texture = Surface.INSTANCE.getTexture(grhData[grhIndex].getFileNum());
+
+        // Si el recorte está en una página del atlas ya residente, dibujamos desde
+        // ahí para compartir textura (y draw call) con el resto de gráficos
+        if (!Engine.batch.isExportMode()) {
+            Texture page = TextureAtlas.INSTANCE.getPage(grhIndex);
+            if (page != null) {
+                GrhData data = grhData.get(grhIndex);
+                if (srcX >= data.getsX() && srcY >= data.getsY()
+                        && srcX + srcWidth <= data.getsX() + data.getPixelWidth()
+                        && srcY + srcHeight <= data.getsY() + data.getPixelHeight()) {
+                    srcX = TextureAtlas.INSTANCE.getRegionX(grhIndex) + (srcX - data.getsX());
+                    srcY = TextureAtlas.INSTANCE.getRegionY(grhIndex) + (srcY - data.getsY());
+                    drawScaled(page, x, y, srcWidth, srcHeight, srcX, srcY, blend, alpha, color, scaleX, scaleY,
+                            skewX);
+                    return;
+                }
+            }
+        }
+
+        final Texture texture = Surface.INSTANCE.getTexture(grhData.get(grhIndex).getFileNum());
         if (texture.getId() == 0) {
             // En modo exportación, si la textura no está, intentamos cargarla síncronamente
             // HOY
             // como última medida de seguridad para evitar cuadros negros (defensa en
             // profundidad).
             if (Engine.batch.isExportMode()) {
-                Surface.INSTANCE.syncLoad(grhData[grhIndex].getFileNum());
+                Surface.INSTANCE.syncLoad(grhData.get(grhIndex).getFileNum());
                 // Si tras el intento sigue en 0, es que falló real -> return.
                 if (texture.getId() == 0)
                     return;
@@ -63,6 +86,11 @@ public final class Drawn {
             }
         }
 
+        drawScaled(texture, x, y, srcWidth, srcHeight, srcX, srcY, blend, alpha, color, scaleX, scaleY, skewX);
+    }
+
+    private static void drawScaled(Texture texture, int x, int y, int srcWidth, int srcHeight, float srcX,
+            float srcY, boolean blend, float alpha, RGBColor color, float scaleX, float scaleY, float skewX) {
         // En modo exportación usamos escala 1:1 (sin zoom de cámara)
         float globalScale = Engine.batch.isExportMode()
                 ? 1.0f
@@ -122,36 +150,34 @@ public final class Drawn {
             float alpha, RGBColor color, float scaleX, float scaleY, float skewX) {
         if (grhData == null)
             return;
-        if (grh.getGrhIndex() <= 0 || grh.getGrhIndex() >= grhData.length || grhData[grh.getGrhIndex()] == null
-                || grhData[grh.getGrhIndex()].getNumFrames() == 0)
+        if (grh.getGrhIndex() <= 0 || grh.getGrhIndex() >= grhData.length() || grhData.get(grh.getGrhIndex()) == null
+                || grhData.get(grh.getGrhIndex()).getNumFrames() == 0)
             return;
-        if (animate && grh.isStarted()) {
-            grh.update(deltaTime);
-        }
+        float frameCounter = animate ? grh.advance(deltaTime) : grh.getFrameCounter();
 
         int gIdx2 = grh.getGrhIndex();
-        if (gIdx2 >= grhData.length || grhData[gIdx2] == null)
+        if (gIdx2 >= grhData.length() || grhData.get(gIdx2) == null)
             return;
-        final int currentGrhIndex = grhData[gIdx2].getFrame((int) (grh.getFrameCounter()));
+        final int currentGrhIndex = grhData.get(gIdx2).getFrame((int) frameCounter);
 
-        if (currentGrhIndex <= 0 || currentGrhIndex >= grhData.length || grhData[currentGrhIndex] == null)
+        if (currentGrhIndex <= 0 || currentGrhIndex >= grhData.length() || grhData.get(currentGrhIndex) == null)
             return;
 
         if (center) {
-            if (grhData[currentGrhIndex].getTileWidth() != 1)
-                x = x - (int) (grhData[currentGrhIndex].getTileWidth() * TILE_PIXEL_SIZE / 2) + TILE_PIXEL_SIZE / 2;
-            if (grhData[currentGrhIndex].getTileHeight() != 1)
-                y = y - (int) (grhData[currentGrhIndex].getTileHeight() * TILE_PIXEL_SIZE) + TILE_PIXEL_SIZE;
+            if (grhData.get(currentGrhIndex).getTileWidth() != 1)
+                x = x - (int) (grhData.get(currentGrhIndex).getTileWidth() * TILE_PIXEL_SIZE / 2) + TILE_PIXEL_SIZE / 2;
+            if (grhData.get(currentGrhIndex).getTileHeight() != 1)
+                y = y - (int) (grhData.get(currentGrhIndex).getTileHeight() * TILE_PIXEL_SIZE) + TILE_PIXEL_SIZE;
         }
 
-        if (currentGrhIndex == 0 || grhData[currentGrhIndex].getFileNum() == 0)
+        if (currentGrhIndex == 0 || grhData.get(currentGrhIndex).getFileNum() == 0)
             return;
 
         geometryBoxRender(currentGrhIndex, x, y,
-                grhData[currentGrhIndex].getPixelWidth(),
-                grhData[currentGrhIndex].getPixelHeight(),
-                grhData[currentGrhIndex].getsX(),
-                grhData[currentGrhIndex].getsY(), blend, alpha, color, scaleX, scaleY, skewX);
+                grhData.get(currentGrhIndex).getPixelWidth(),
+                grhData.get(currentGrhIndex).getPixelHeight(),
+                grhData.get(currentGrhIndex).getsX(),
+                grhData.get(currentGrhIndex).getsY(), blend, alpha, color, scaleX, scaleY, skewX);
     }
 
     /**
@@ -208,8 +234,8 @@ public final class Drawn {
     }
 
     public static void drawRect(int x, int y, int width, int height, float r, float g, float b, float a) {
-        batch.draw(Surface.INSTANCE.getWhiteTexture(), x, y, 0, 0, 1, 1, width, height, false, a,
-                new RGBColor(r, g, b));
+        batch.draw(Surface.INSTANCE.getWhiteTexture(), x, y, 0, 0, 1, 1, width, height, false,
+                r, g, b, a, r, g, b, a, r, g, b, a, r, g, b, a);
     }
 
     /**
@@ -225,15 +251,15 @@ public final class Drawn {
     public static void drawGrhIndex(int grhIndex, int x, int y, float alpha, RGBColor color) {
         if (grhData == null)
             return;
-        if (grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
             return;
         if (color == null)
-            color = new RGBColor(1.0f, 1.0f, 1.0f);
+            color = WHITE;
         geometryBoxRender(grhIndex, x, y,
-                grhData[grhIndex].getPixelWidth(),
-                grhData[grhIndex].getPixelHeight(),
-                grhData[grhIndex].getsX(),
-                grhData[grhIndex].getsY(), true, alpha, color);
+                grhData.get(grhIndex).getPixelWidth(),
+                grhData.get(grhIndex).getPixelHeight(),
+                grhData.get(grhIndex).getsX(),
+                grhData.get(grhIndex).getsY(), true, alpha, color);
     }
 
     /**
@@ -271,7 +297,7 @@ public final class Drawn {
             return;
         // En GUI no usamos escala de cámara, dibujamos directo en coords de pantalla
         batch.draw(texture, x, y, 0, 0, texture.getTex_width(), texture.getTex_height(),
-                width, height, 0.0f, true, alpha, new RGBColor(1, 1, 1));
+                width, height, 0.0f, true, alpha, WHITE);
     }
 
     /**
@@ -286,7 +312,7 @@ public final class Drawn {
 
     public static void drawColoredRect(int x, int y, int width, int height, RGBColor color, float alpha, float skewX) {
         if (color == null) {
-            color = new RGBColor(1.0f, 1.0f, 1.0f);
+            color = WHITE;
         }
         Engine.batch.draw(Surface.INSTANCE.getWhiteTexture(), x, y, 0, 0, 1, 1, width, height, skewX, true, alpha,
                 color);
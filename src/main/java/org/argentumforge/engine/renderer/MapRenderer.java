@@ -1,14 +1,17 @@
 package org.argentumforge.engine.renderer;
 
+import org.argentumforge.engine.Engine;
 import org.argentumforge.engine.game.EditorController;
 import org.argentumforge.engine.game.Options;
 import org.argentumforge.engine.game.Weather;
 import org.argentumforge.engine.listeners.EditorInputManager;
 import org.argentumforge.engine.listeners.MouseListener;
 import org.argentumforge.engine.scenes.Camera;
+import org.argentumforge.engine.utils.FrameProfiler;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.FrameProfiler.Section;
 import org.argentumforge.engine.utils.editor.Clipboard;
 import org.argentumforge.engine.utils.editor.Selection;
-import org.argentumforge.engine.utils.editor.Selection.SelectedEntity;
 import org.argentumforge.engine.game.User;
 import static org.argentumforge.engine.game.models.Character.drawCharacter;
 import static org.argentumforge.engine.renderer.Drawn.drawTexture;
@@ -17,6 +20,7 @@ import static org.argentumforge.engine.scenes.Camera.*;
 import static org.argentumforge.engine.utils.AssetRegistry.grhData;
 import static org.argentumforge.engine.utils.AssetRegistry.objs;
 import org.argentumforge.engine.utils.inits.ObjData;
+import org.argentumforge.engine.utils.inits.TileStore;
 import org.argentumforge.engine.game.models.ObjectType;
 
 /**
@@ -32,11 +36,50 @@ public class MapRenderer {
 
     private float alphaCeiling = 1.0f;
 
+    // Colores fijos de sombras y overlays (no se modifican; evitan crear objetos por tile y frame)
+    private static final RGBColor SHADOW_COLOR = new RGBColor(0, 0, 0);
+    private static final RGBColor BLOCK_FILL_COLOR = new RGBColor(1.0f, 0.2f, 0.2f);
+    private static final RGBColor BLOCK_MARK_COLOR = new RGBColor(1.0f, 0.6f, 0.6f);
+    private static final RGBColor BLOCK_SOLID_COLOR = new RGBColor(1.0f, 0.0f, 0.0f);
+    private static final RGBColor BLOCK_MESH_COLOR = new RGBColor(1.0f, 0.4f, 0.4f);
+    private static final RGBColor BLOCK_CORNER_COLOR = new RGBColor(1.0f, 0.3f, 0.3f);
+    private static final RGBColor TRANSFER_FILL_COLOR = new RGBColor(0.2f, 0.8f, 1.0f);
+    private static final RGBColor TRANSFER_MARK_COLOR = new RGBColor(0.6f, 1.0f, 1.0f);
+    private static final RGBColor TRANSFER_SOLID_COLOR = new RGBColor(0.0f, 1.0f, 1.0f);
+    private static final RGBColor TRANSFER_CORNER_COLOR = new RGBColor(0.0f, 0.8f, 1.0f);
+    private static final RGBColor GHOST_COLOR = new RGBColor(0.7f, 1.0f, 1.0f);
+    private static final RGBColor SELECTION_COLOR = new RGBColor(0.3f, 0.6f, 1.0f);
+
+    // Cursor reutilizable sobre los slots gráficos del mapa activo (evita crear un
+    // GrhInfo por tile dibujado)
+    private TileStore cursorStore;
+    private TileStore.SlotRef cursor;
+
+    // Geometría estática horneada de la capa 1 (se crea con el primer frame,
+    // cuando ya existe contexto GL)
+    private TileChunkCache chunkCache;
+    private boolean chunkCacheActive;
+    private float chunkOriginX, chunkOriginY;
+
+    // Tiles visibles por pase, calculados al inicio de cada frame
+    private final TileCuller culler = new TileCuller();
+    private final TileCuller.View view = new TileCuller.View();
+    private final TileCuller.StaticFilter staticFilter = this::isStaticCached;
+    // Vista del overlay de triggers y partículas, que se dibuja fuera del pase de mapa
+    private final TileCuller.View overlayView = new TileCuller.View();
+
     public MapRenderer(Camera camera) {
         this.camera = camera;
     }
 
     public void render(int pixelOffsetX, int pixelOffsetY) {
+        render(org.argentumforge.engine.utils.GameData.getActiveContext(), pixelOffsetX, pixelOffsetY);
+    }
+
+    /**
+     * Dibuja el mapa de {@code context} en el batch actual.
+     */
+    void render(MapContext context, int pixelOffsetX, int pixelOffsetY) {
         // Validar que los datos gráficos (Graficos.ind) se cargaron correctamente.
         // Si grhData es null, posiblemente la ruta de INIT es incorrecta o el archivo
         // está corrupto. Evitamos el NullPointerException críptico que confunde al usuario.
@@ -44,26 +87,114 @@ public class MapRenderer {
             return;
         }
 
-        var context = org.argentumforge.engine.utils.GameData.getActiveContext();
-        if (context == null || context.getMapData() == null)
+        if (context == null || context.getTiles() == null)
             return;
 
-        var mapData = context.getMapData();
+        TileStore tiles = context.getTiles();
+        if (tiles != cursorStore) {
+            cursorStore = tiles;
+            cursor = tiles.cursor();
+        }
         RenderSettings renderSettings = Options.INSTANCE.getRenderSettings();
 
-        renderFirstLayer(mapData, renderSettings, pixelOffsetX, pixelOffsetY);
-        renderSecondLayer(mapData, renderSettings, pixelOffsetX, pixelOffsetY);
-        renderThirdLayer(mapData, renderSettings, pixelOffsetX, pixelOffsetY);
-        renderFourthLayer(mapData, renderSettings, pixelOffsetX, pixelOffsetY);
-
+        FrameProfiler profiler = FrameProfiler.INSTANCE;
+
+        profiler.begin(Section.MAP_CULL);
+        prepareChunkCache(tiles, pixelOffsetX, pixelOffsetY);
+        cullVisibleTiles(tiles, renderSettings, pixelOffsetX, pixelOffsetY);
+        profiler.end(Section.MAP_CULL);
+
+        profiler.begin(Section.MAP_LAYER1);
+        renderFirstLayer(tiles, renderSettings);
+        profiler.end(Section.MAP_LAYER1);
+        profiler.begin(Section.MAP_LAYER2);
+        renderSecondLayer(tiles, renderSettings);
+        profiler.end(Section.MAP_LAYER2);
+        profiler.begin(Section.MAP_LAYER3);
+        renderThirdLayer(tiles, renderSettings);
+        profiler.end(Section.MAP_LAYER3);
+        profiler.begin(Section.MAP_LAYER4);
+        renderFourthLayer(tiles, renderSettings);
+        profiler.end(Section.MAP_LAYER4);
+        Engine.batch.closeSortGroup();
+
+        profiler.begin(Section.MAP_OVERLAYS);
         if (!renderSettings.isPhotoModeActive()) {
-            renderBlockOverlays(mapData, renderSettings, pixelOffsetX, pixelOffsetY);
-            renderTranslationOverlays(mapData, renderSettings, pixelOffsetX, pixelOffsetY);
+            renderBlockOverlays(tiles, renderSettings);
+            renderTranslationOverlays(tiles, renderSettings);
             renderSelectionHighlight(pixelOffsetX, pixelOffsetY);
         }
 
         renderClipboardGhost(pixelOffsetX, pixelOffsetY);
+        profiler.end(Section.MAP_OVERLAYS);
+
+    }
+
+    /**
+     * Hornea los bloques sucios visibles y calcula el origen en pantalla del tile
+     * (0,0) para dibujar la geometría estática con el zoom y desplazamiento actual.
+     */
+    private void prepareChunkCache(TileStore tiles, int pixelOffsetX, int pixelOffsetY) {
+        chunkCacheActive = !Engine.batch.isExportMode();
+        if (!chunkCacheActive)
+            return;
+
+        if (chunkCache == null)
+            chunkCache = new TileChunkCache();
+        chunkCache.prepare(tiles, camera.getMinX(), camera.getMinY(), camera.getMaxX(), camera.getMaxY());
+
+        chunkOriginX = POS_SCREEN_X + (camera.getMinXOffset() - TILE_BUFFER_SIZE - camera.getMinX()) * TILE_PIXEL_SIZE
+                + pixelOffsetX;
+        chunkOriginY = POS_SCREEN_Y + (camera.getMinYOffset() - TILE_BUFFER_SIZE - camera.getMinY()) * TILE_PIXEL_SIZE
+                + pixelOffsetY;
+    }
+
+    /**
+     * Congela la cámara del frame y calcula, por fila, qué tiles aportan algo a
+     * cada pase activo (en paralelo si la vista es grande). Los pases siguientes
+     * solo recorren esas listas.
+     */
+    private void cullVisibleTiles(TileStore tiles, RenderSettings renderSettings, int pixelOffsetX,
+            int pixelOffsetY) {
+        view.set(camera, pixelOffsetX, pixelOffsetY);
+
+        boolean[] showLayer = renderSettings.getShowLayer();
+        boolean overlays = !renderSettings.isPhotoModeActive();
+        int passes = 1 << TileCuller.PASS_UPPER; // los personajes se dibujan siempre
+        if (showLayer[0])
+            passes |= 1 << TileCuller.PASS_GROUND;
+        if (showLayer[1])
+            passes |= 1 << TileCuller.PASS_LAYER2;
+        if (renderSettings.getShowOJBs())
+            passes |= 1 << TileCuller.PASS_OBJECTS;
+        if (showLayer[3] && alphaCeiling > 0.0f)
+            passes |= 1 << TileCuller.PASS_ROOF;
+        if (overlays && renderSettings.getShowBlock())
+            passes |= 1 << TileCuller.PASS_BLOCKS;
+        if (overlays && renderSettings.getShowMapTransfer())
+            passes |= 1 << TileCuller.PASS_EXITS;
+
+        culler.cull(view, tiles, passes, staticFilter);
+    }
+
+    /**
+     * Dibuja la geometría horneada de una capa. Vacía antes el batch dinámico para
+     * que lo ya encolado quede por debajo.
+     */
+    private void drawStaticLayer(int layer) {
+        if (!chunkCacheActive)
+            return;
+        Engine.batch.flush();
+        chunkCache.draw(layer, camera.getMinX(), camera.getMinY(), camera.getMaxX(), camera.getMaxY(),
+                chunkOriginX, chunkOriginY, getZoomScale(), weather.getWeatherColor(), 1.0f);
+    }
 
+    /**
+     * @return {@code true} si el tile ya fue dibujado por la caché estática.
+     *         La capa 2 nunca se hornea: se dibuja fila a fila junto a los objetos.
+     */
+    private boolean isStaticCached(TileStore tiles, int layer, int x, int y, int idx) {
+        return chunkCacheActive && layer <= TileChunkCache.LAST_LAYER && chunkCache.isBaked(x, y) && !TileChunkCache.isAnimated(tiles, layer, idx);
     }
 
     private void renderViewportOverlay() {
@@ -100,90 +231,91 @@ public class MapRenderer {
         // Por ahora, solo el rectángulo está bien.
     }
 
-    private void renderFirstLayer(org.argentumforge.engine.utils.inits.MapData[][] mapData,
-            RenderSettings renderSettings, final int pixelOffsetX, final int pixelOffsetY) {
+    private void renderFirstLayer(TileStore tiles, RenderSettings renderSettings) {
         if (renderSettings.getShowLayer()[0]) {
-            camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
-            for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-                camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-                for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
-                    if (mapData[x][y] != null && mapData[x][y].getLayer(1).getGrhIndex() != 0) {
-                        int finalX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int finalY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
-
-                        drawTexture(mapData[x][y].getLayer(1),
-                                finalX, finalY,
-                                true, true, false, 1.0f, weather.getWeatherColor());
+            drawStaticLayer(1);
+
+            // Los tiles no horneados (animados o de bloques pendientes) van por el
+            // camino instanciado si el contexto lo admite
+            TileInstanceRenderer instances = TileInstanceRenderer.INSTANCE;
+            if (chunkCacheActive && instances.isSupported()) {
+                instances.begin();
+                for (int y = view.minY; y <= view.maxY; y++) {
+                    for (int i = 0, n = culler.count(TileCuller.PASS_GROUND, y); i < n; i++) {
+                        int x = culler.column(TileCuller.PASS_GROUND, y, i);
+                        instances.add(cursor.at(1, tiles.index(x, y)), x, y, weather.getWeatherColor(), 1.0f);
                     }
-                    camera.incrementScreenX();
                 }
-                camera.incrementScreenY();
+                instances.draw(chunkOriginX, chunkOriginY, getZoomScale());
+                return;
+            }
+
+            // El suelo no se superpone: toda la capa se agrupa por textura
+            Engine.batch.openSortGroup(true);
+            for (int y = view.minY; y <= view.maxY; y++) {
+                for (int i = 0, n = culler.count(TileCuller.PASS_GROUND, y); i < n; i++) {
+                    int x = culler.column(TileCuller.PASS_GROUND, y, i);
+                    drawTexture(cursor.at(1, tiles.index(x, y)),
+                            view.screenX(x), view.screenY(y),
+                            true, true, false, 1.0f, weather.getWeatherColor());
+                }
             }
         }
     }
 
-    private void renderSecondLayer(org.argentumforge.engine.utils.inits.MapData[][] mapData,
-            RenderSettings renderSettings, final int pixelOffsetX, final int pixelOffsetY) {
+    private void renderSecondLayer(TileStore tiles, RenderSettings renderSettings) {
         if (!renderSettings.getShowLayer()[1] && !renderSettings.getShowOJBs())
             return;
 
-        camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
-        for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-            camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-            for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
-                if (mapData[x][y] == null) {
-                    camera.incrementScreenX();
-                    continue;
-                }
-                if (renderSettings.getShowLayer()[1]) {
-                    if (mapData[x][y].getLayer(2).getGrhIndex() != 0) {
-                        drawTexture(mapData[x][y].getLayer(2),
-                                POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX,
-                                POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY,
-                                true, true, false, 1.0f, weather.getWeatherColor());
-                    }
+        for (int y = view.minY; y <= view.maxY; y++) {
+            // Por fila: primero la capa 2 y luego los objetos, cada uno agrupado por
+            // textura; las filas siguen dibujándose de arriba hacia abajo
+            if (renderSettings.getShowLayer()[1]) {
+                Engine.batch.openSortGroup(true);
+                for (int i = 0, n = culler.count(TileCuller.PASS_LAYER2, y); i < n; i++) {
+                    int x = culler.column(TileCuller.PASS_LAYER2, y, i);
+                    drawTexture(cursor.at(2, tiles.index(x, y)),
+                            view.screenX(x),
+                            view.screenY(y),
+                            true, true, false, 1.0f, weather.getWeatherColor());
                 }
+            }
 
+            Engine.batch.openSortGroup(true);
+            for (int i = 0, n = culler.count(TileCuller.PASS_OBJECTS, y); i < n; i++) {
+                int x = culler.column(TileCuller.PASS_OBJECTS, y, i);
+                int idx = tiles.index(x, y);
                 if (renderSettings.getShowOJBs()) {
-                    int objGrhIdx = mapData[x][y].getObjGrh().getGrhIndex();
-                    if (objGrhIdx > 0 && objGrhIdx < grhData.length && grhData[objGrhIdx] != null) {
-                        if (grhData[objGrhIdx].getPixelWidth() == TILE_PIXEL_SIZE &&
-                                grhData[objGrhIdx].getPixelHeight() == TILE_PIXEL_SIZE) {
-
-                            boolean isDragged = false;
-                            if (selection.isDragging()) {
-                                for (SelectedEntity se : selection.getSelectedEntities()) {
-                                    if (se.x == x && se.y == y && se.type == Selection.EntityType.OBJECT) {
-                                        isDragged = true;
-                                        break;
-                                    }
-                                }
-                            }
+                    int objGrhIdx = tiles.getGrh(TileStore.OBJ_SLOT, idx);
+                    if (objGrhIdx > 0 && objGrhIdx < grhData.length() && grhData.get(objGrhIdx) != null) {
+                        if (grhData.get(objGrhIdx).getPixelWidth() == TILE_PIXEL_SIZE &&
+                                grhData.get(objGrhIdx).getPixelHeight() == TILE_PIXEL_SIZE) {
+
+                            boolean isDragged = selection.isDragging()
+                                    && selection.isSelected(x, y, Selection.EntityType.OBJECT);
 
                             if (!isDragged) {
-                                int drawX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                                int drawY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+                                int drawX = view.screenX(x);
+                                int drawY = view.screenY(y);
 
                                 // Sombras proyectadas para objetos pequeños
                                 if (renderSettings.isPhotoModeActive() && renderSettings.isPhotoShadows()) {
-                                    ObjData objModel = objs.get(mapData[x][y].getObjIndex());
+                                    ObjData objModel = objs.get(tiles.getObjIndex(idx));
                                     boolean isDoor = objModel != null && objModel.getType() == ObjectType.DOOR.getId();
 
                                     if (!isDoor) {
-                                        renderShadow(mapData[x][y].getObjGrh(), drawX + 2, drawY + 1,
+                                        renderShadow(cursor.at(TileStore.OBJ_SLOT, idx), drawX + 2, drawY + 1,
                                                 0.35f, 1.0f, 0.45f, 22.0f, renderSettings.isPhotoSoftShadows());
                                     }
                                 }
 
-                                drawTexture(mapData[x][y].getObjGrh(), drawX, drawY,
+                                drawTexture(cursor.at(TileStore.OBJ_SLOT, idx), drawX, drawY,
                                         true, true, false, 1.0f, weather.getWeatherColor());
                             }
                         }
                     }
                 }
-                camera.incrementScreenX();
             }
-            camera.incrementScreenY();
         }
     }
 
@@ -191,89 +323,73 @@ public class MapRenderer {
             float scaleY, float skewX, boolean soft) {
         if (soft) {
             float softAlpha = alpha * 0.4f;
-            drawTexture(grh, x - 1, y, true, true, false, softAlpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX);
-            drawTexture(grh, x + 1, y, true, true, false, softAlpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX);
-            drawTexture(grh, x, y - 1, true, true, false, softAlpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX);
+            drawTexture(grh, x - 1, y, true, true, false, softAlpha, SHADOW_COLOR, scaleX, scaleY, skewX);
+            drawTexture(grh, x + 1, y, true, true, false, softAlpha, SHADOW_COLOR, scaleX, scaleY, skewX);
+            drawTexture(grh, x, y - 1, true, true, false, softAlpha, SHADOW_COLOR, scaleX, scaleY, skewX);
         }
-        drawTexture(grh, x, y, true, true, false, alpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX);
+        drawTexture(grh, x, y, true, true, false, alpha, SHADOW_COLOR, scaleX, scaleY, skewX);
     }
 
     private void renderCharShadow(int charIndex, int x, int y, float alpha, float scaleX, float scaleY, float skewX,
             boolean soft) {
         if (soft) {
             float softAlpha = alpha * 0.4f;
-            drawCharacter(charIndex, x - 1, y, softAlpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX, false);
-            drawCharacter(charIndex, x + 1, y, softAlpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX, false);
-            drawCharacter(charIndex, x, y - 1, softAlpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX, false);
+            drawCharacter(charIndex, x - 1, y, softAlpha, SHADOW_COLOR, scaleX, scaleY, skewX, false);
+            drawCharacter(charIndex, x + 1, y, softAlpha, SHADOW_COLOR, scaleX, scaleY, skewX, false);
+            drawCharacter(charIndex, x, y - 1, softAlpha, SHADOW_COLOR, scaleX, scaleY, skewX, false);
         }
-        drawCharacter(charIndex, x, y, alpha, new RGBColor(0, 0, 0), scaleX, scaleY, skewX, false);
+        drawCharacter(charIndex, x, y, alpha, SHADOW_COLOR, scaleX, scaleY, skewX, false);
     }
 
-    private void renderThirdLayer(org.argentumforge.engine.utils.inits.MapData[][] mapData,
-            RenderSettings renderSettings, final int pixelOffsetX, final int pixelOffsetY) {
-        camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
-        for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-            camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-            for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
-                if (mapData[x][y] == null) {
-                    camera.incrementScreenX();
-                    continue;
-                }
+    private void renderThirdLayer(TileStore tiles, RenderSettings renderSettings) {
+        // Objetos grandes, personajes y capa 3 se superponen entre sí: se respeta el
+        // orden de envío (fila por fila) sin reordenar por textura
+        Engine.batch.openSortGroup(false);
+        for (int y = view.minY; y <= view.maxY; y++) {
+            for (int i = 0, n = culler.count(TileCuller.PASS_UPPER, y); i < n; i++) {
+                int x = culler.column(TileCuller.PASS_UPPER, y, i);
+                int idx = tiles.index(x, y);
 
                 if (renderSettings.getShowOJBs()) {
-                    int objGrhIdx = mapData[x][y].getObjGrh().getGrhIndex();
-                    if (objGrhIdx > 0 && objGrhIdx < grhData.length && grhData[objGrhIdx] != null) {
-                        if (grhData[objGrhIdx].getPixelWidth() != TILE_PIXEL_SIZE ||
-                                grhData[objGrhIdx].getPixelHeight() != TILE_PIXEL_SIZE) {
-
-                            boolean isDragged = false;
-                            if (selection.isDragging()) {
-                                for (SelectedEntity se : selection.getSelectedEntities()) {
-                                    if (se.x == x && se.y == y && se.type == Selection.EntityType.OBJECT) {
-                                        isDragged = true;
-                                        break;
-                                    }
-                                }
-                            }
+                    int objGrhIdx = tiles.getGrh(TileStore.OBJ_SLOT, idx);
+                    if (objGrhIdx > 0 && objGrhIdx < grhData.length() && grhData.get(objGrhIdx) != null) {
+                        if (grhData.get(objGrhIdx).getPixelWidth() != TILE_PIXEL_SIZE ||
+                                grhData.get(objGrhIdx).getPixelHeight() != TILE_PIXEL_SIZE) {
+
+                            boolean isDragged = selection.isDragging()
+                                    && selection.isSelected(x, y, Selection.EntityType.OBJECT);
 
                             if (!isDragged) {
-                                int drawX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                                int drawY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+                                int drawX = view.screenX(x);
+                                int drawY = view.screenY(y);
 
                                 // Sombras proyectadas para objetos grandes
                                 if (renderSettings.isPhotoModeActive() && renderSettings.isPhotoShadows()) {
-                                    ObjData objModel = objs.get(mapData[x][y].getObjIndex());
+                                    ObjData objModel = objs.get(tiles.getObjIndex(idx));
                                     boolean isDoor = objModel != null && objModel.getType() == ObjectType.DOOR.getId();
 
                                     if (!isDoor) {
-                                        renderShadow(mapData[x][y].getObjGrh(), drawX + 2, drawY + 1,
+                                        renderShadow(cursor.at(TileStore.OBJ_SLOT, idx), drawX + 2, drawY + 1,
                                                 0.35f, 1.0f, 0.45f, 25.0f, renderSettings.isPhotoSoftShadows());
                                     }
                                 }
 
-                                drawTexture(mapData[x][y].getObjGrh(), drawX, drawY,
+                                drawTexture(cursor.at(TileStore.OBJ_SLOT, idx), drawX, drawY,
                                         true, true, false, 1.0f, weather.getWeatherColor());
                             }
                         }
                     }
                 }
 
-                if (mapData[x][y].getCharIndex() != 0) {
-                    final int charIndex = mapData[x][y].getCharIndex();
-                    boolean isDragged = false;
-                    if (selection.isDragging()) {
-                        for (SelectedEntity se : selection.getSelectedEntities()) {
-                            if (se.x == x && se.y == y && se.type == Selection.EntityType.NPC) {
-                                isDragged = true;
-                                break;
-                            }
-                        }
-                    }
+                if (tiles.getCharIndex(idx) != 0) {
+                    final int charIndex = tiles.getCharIndex(idx);
+                    boolean isDragged = selection.isDragging()
+                            && selection.isSelected(x, y, Selection.EntityType.NPC);
 
                     if (!isDragged) {
                         final boolean isUserChar = charIndex == user.getUserCharIndex();
-                        int drawX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int drawY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+                        int drawX = view.screenX(x);
+                        int drawY = view.screenY(y);
 
                         if (isUserChar) {
                             if (user.isWalkingmode()) {
@@ -298,60 +414,54 @@ public class MapRenderer {
                 }
 
                 if (renderSettings.getShowLayer()[2]) {
-                    if (mapData[x][y].getLayer(3).getGrhIndex() != 0) {
-                        int drawX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int drawY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+                    if (tiles.getGrh(3, idx) != 0) {
+                        int drawX = view.screenX(x);
+                        int drawY = view.screenY(y);
 
                         // Sombras proyectadas para capas de Tiles (paredes, edificios)
                         if (renderSettings.isPhotoModeActive() && renderSettings.isPhotoShadows()) {
-                            renderShadow(mapData[x][y].getLayer(3), drawX + 4, drawY + 4,
+                            renderShadow(cursor.at(3, idx), drawX + 4, drawY + 4,
                                     0.4f, 1.0f, 0.5f, 30.0f, renderSettings.isPhotoSoftShadows());
                         }
 
-                        drawTexture(mapData[x][y].getLayer(3), drawX, drawY,
+                        drawTexture(cursor.at(3, idx), drawX, drawY,
                                 true, true, false, 1.0f, weather.getWeatherColor());
                     }
                 }
-                camera.incrementScreenX();
             }
-            camera.incrementScreenY();
         }
     }
 
-    private void renderFourthLayer(org.argentumforge.engine.utils.inits.MapData[][] mapData,
-            RenderSettings renderSettings, final int pixelOffsetX, final int pixelOffsetY) {
+    private void renderFourthLayer(TileStore tiles, RenderSettings renderSettings) {
         if (renderSettings.getShowLayer()[3]) {
             // REMOVED: checkEffectCeiling() call - Automatic roof fading is now disabled
             if (alphaCeiling > 0.0f) {
-                camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
-                for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-                    camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-                    for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
-                        if (mapData[x][y] != null && mapData[x][y].getLayer(4).getGrhIndex() > 0) {
-                            drawTexture(mapData[x][y].getLayer(4),
-                                    POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX,
-                                    POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY,
+                for (int y = view.minY; y <= view.maxY; y++) {
+                    Engine.batch.openSortGroup(true);
+                    for (int i = 0, n = culler.count(TileCuller.PASS_ROOF, y); i < n; i++) {
+                        int x = culler.column(TileCuller.PASS_ROOF, y, i);
+                        int idx = tiles.index(x, y);
+                        if (tiles.getGrh(4, idx) > 0) {
+                            drawTexture(cursor.at(4, idx),
+                                    view.screenX(x),
+                                    view.screenY(y),
                                     true, true, false, alphaCeiling, weather.getWeatherColor());
                         }
-                        camera.incrementScreenX();
                     }
-                    camera.incrementScreenY();
                 }
             }
         }
     }
 
-    private void renderBlockOverlays(org.argentumforge.engine.utils.inits.MapData[][] mapData,
-            RenderSettings renderSettings, final int pixelOffsetX, final int pixelOffsetY) {
+    private void renderBlockOverlays(TileStore tiles, RenderSettings renderSettings) {
         if (renderSettings.getShowBlock()) {
             int grhBlock = 4;
-            camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
-            for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-                camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-                for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
-                    if (mapData[x][y] != null && mapData[x][y].getBlocked()) {
-                        int screenX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int screenY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+            for (int y = view.minY; y <= view.maxY; y++) {
+                for (int i = 0, n = culler.count(TileCuller.PASS_BLOCKS, y); i < n; i++) {
+                    int x = culler.column(TileCuller.PASS_BLOCKS, y, i);
+                    if (tiles.isBlocked(tiles.index(x, y))) {
+                        int screenX = view.screenX(x);
+                        int screenY = view.screenY(y);
 
                         float opacity = renderSettings.getBlockOpacity();
                         switch (renderSettings.getBlockIndicatorStyle()) {
@@ -359,13 +469,13 @@ public class MapRenderer {
                                 // Moderno: Recuadro rojo semitransparente con borde más sólido
                                 Drawn.drawColoredRect(screenX + 2, screenY + 2,
                                         TILE_PIXEL_SIZE - 4, TILE_PIXEL_SIZE - 4,
-                                        new RGBColor(1.0f, 0.2f, 0.2f), 0.4f * opacity);
+                                        BLOCK_FILL_COLOR, 0.4f * opacity);
 
                                 // Pequeña "X"
                                 Drawn.drawColoredRect(screenX + (int) (TILE_PIXEL_SIZE * 0.3f),
                                         screenY + (int) (TILE_PIXEL_SIZE * 0.3f),
                                         (int) (TILE_PIXEL_SIZE * 0.4f), (int) (TILE_PIXEL_SIZE * 0.4f),
-                                        new RGBColor(1.0f, 0.6f, 0.6f), 0.6f * opacity);
+                                        BLOCK_MARK_COLOR, 0.6f * opacity);
                                 break;
 
                             case MINIMAL:
@@ -374,14 +484,14 @@ public class MapRenderer {
                                 int offset = (TILE_PIXEL_SIZE - size) / 2;
                                 Drawn.drawColoredRect(screenX + offset, screenY + offset,
                                         size, size,
-                                        new RGBColor(1.0f, 0.2f, 0.2f), 0.7f * opacity);
+                                        BLOCK_FILL_COLOR, 0.7f * opacity);
                                 break;
 
                             case SOLID:
                                 // Sólido: Relleno completo del tile
                                 Drawn.drawColoredRect(screenX, screenY,
                                         TILE_PIXEL_SIZE, TILE_PIXEL_SIZE,
-                                        new RGBColor(1.0f, 0.0f, 0.0f), 0.6f * opacity);
+                                        BLOCK_SOLID_COLOR, 0.6f * opacity);
                                 break;
 
                             case MESH:
@@ -389,18 +499,18 @@ public class MapRenderer {
                                 // Línea /
                                 Drawn.drawColoredRect(screenX, screenY,
                                         2, TILE_PIXEL_SIZE,
-                                        new RGBColor(1.0f, 0.4f, 0.4f), 0.5f * opacity, (float) TILE_PIXEL_SIZE);
+                                        BLOCK_MESH_COLOR, 0.5f * opacity, (float) TILE_PIXEL_SIZE);
                                 // Línea \
                                 Drawn.drawColoredRect(screenX + TILE_PIXEL_SIZE - 2, screenY,
                                         2, TILE_PIXEL_SIZE,
-                                        new RGBColor(1.0f, 0.4f, 0.4f), 0.5f * opacity, -(float) TILE_PIXEL_SIZE);
+                                        BLOCK_MESH_COLOR, 0.5f * opacity, -(float) TILE_PIXEL_SIZE);
                                 break;
 
                             case CORNERS:
                                 // Esquinas: 4 L-shapes
                                 int len = 8;
                                 int th = 2;
-                                RGBColor cornerColor = new RGBColor(1.0f, 0.3f, 0.3f);
+                                RGBColor cornerColor = BLOCK_CORNER_COLOR;
                                 // Top-Left
                                 Drawn.drawColoredRect(screenX, screenY, len, th, cornerColor, 0.8f * opacity);
                                 Drawn.drawColoredRect(screenX, screenY, th, len, cornerColor, 0.8f * opacity);
@@ -432,25 +542,20 @@ public class MapRenderer {
                                 break;
                         }
                     }
-                    camera.incrementScreenX();
                 }
-                camera.incrementScreenY();
             }
         }
     }
 
-    private void renderTranslationOverlays(org.argentumforge.engine.utils.inits.MapData[][] mapData,
-            RenderSettings renderSettings, final int pixelOffsetX,
-            final int pixelOffsetY) {
+    private void renderTranslationOverlays(TileStore tiles, RenderSettings renderSettings) {
         if (renderSettings.getShowMapTransfer()) {
             int grhTrans = 3;
-            camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
-            for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-                camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-                for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
-                    if (mapData[x][y] != null && mapData[x][y].getExitMap() > 0) {
-                        int screenX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int screenY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+            for (int y = view.minY; y <= view.maxY; y++) {
+                for (int i = 0, n = culler.count(TileCuller.PASS_EXITS, y); i < n; i++) {
+                    int x = culler.column(TileCuller.PASS_EXITS, y, i);
+                    if (tiles.getExitMap(tiles.index(x, y)) > 0) {
+                        int screenX = view.screenX(x);
+                        int screenY = view.screenY(y);
 
                         float opacity = renderSettings.getTransferOpacity();
                         switch (renderSettings.getTransferIndicatorStyle()) {
@@ -458,12 +563,12 @@ public class MapRenderer {
                                 // Moderno: Recuadro azul cian semitransparente
                                 Drawn.drawColoredRect(screenX + 2, screenY + 2,
                                         TILE_PIXEL_SIZE - 4, TILE_PIXEL_SIZE - 4,
-                                        new RGBColor(0.2f, 0.8f, 1.0f), 0.4f * opacity);
+                                        TRANSFER_FILL_COLOR, 0.4f * opacity);
 
                                 // Borde interno o detalle
                                 Drawn.drawColoredRect(screenX + 4, screenY + 4,
                                         TILE_PIXEL_SIZE - 8, TILE_PIXEL_SIZE - 8,
-                                        new RGBColor(0.6f, 1.0f, 1.0f), 0.3f * opacity);
+                                        TRANSFER_MARK_COLOR, 0.3f * opacity);
                                 break;
 
                             case MINIMAL:
@@ -472,31 +577,31 @@ public class MapRenderer {
                                 int offset = (TILE_PIXEL_SIZE - size) / 2;
                                 Drawn.drawColoredRect(screenX + offset, screenY + offset,
                                         size, size,
-                                        new RGBColor(0.0f, 0.8f, 1.0f), 0.7f * opacity);
+                                        TRANSFER_CORNER_COLOR, 0.7f * opacity);
                                 break;
 
                             case SOLID:
                                 // Sólido: Relleno completo
                                 Drawn.drawColoredRect(screenX, screenY,
                                         TILE_PIXEL_SIZE, TILE_PIXEL_SIZE,
-                                        new RGBColor(0.0f, 1.0f, 1.0f), 0.6f * opacity);
+                                        TRANSFER_SOLID_COLOR, 0.6f * opacity);
                                 break;
 
                             case MESH:
                                 // Malla: X diagonal completa azul
                                 Drawn.drawColoredRect(screenX, screenY,
                                         2, TILE_PIXEL_SIZE,
-                                        new RGBColor(0.2f, 0.8f, 1.0f), 0.5f * opacity, (float) TILE_PIXEL_SIZE);
+                                        TRANSFER_FILL_COLOR, 0.5f * opacity, (float) TILE_PIXEL_SIZE);
                                 Drawn.drawColoredRect(screenX + TILE_PIXEL_SIZE - 2, screenY,
                                         2, TILE_PIXEL_SIZE,
-                                        new RGBColor(0.2f, 0.8f, 1.0f), 0.5f * opacity, -(float) TILE_PIXEL_SIZE);
+                                        TRANSFER_FILL_COLOR, 0.5f * opacity, -(float) TILE_PIXEL_SIZE);
                                 break;
 
                             case CORNERS:
                                 // Esquinas: 4 L-shapes cyan
                                 int len = 8;
                                 int th = 2;
-                                RGBColor cornerColor = new RGBColor(0.0f, 0.8f, 1.0f);
+                                RGBColor cornerColor = TRANSFER_CORNER_COLOR;
                                 // Top-Left
                                 Drawn.drawColoredRect(screenX, screenY, len, th, cornerColor, 0.8f * opacity);
                                 Drawn.drawColoredRect(screenX, screenY, th, len, cornerColor, 0.8f * opacity);
@@ -527,9 +632,7 @@ public class MapRenderer {
                                 break;
                         }
                     }
-                    camera.incrementScreenX();
                 }
-                camera.incrementScreenY();
             }
         }
     }
@@ -564,8 +667,8 @@ public class MapRenderer {
                 || org.argentumforge.engine.utils.editor.Particle.getInstance().isActive()
                 || renderSettings.getShowParticles()) {
 
-            camera.setScreenY(camera.getMinYOffset() - TILE_BUFFER_SIZE);
             imgui.ImDrawList drawList = imgui.ImGui.getBackgroundDrawList();
+            TileCuller.View view = overlayView.set(camera, pixelOffsetX, pixelOffsetY);
 
             var context = org.argentumforge.engine.utils.GameData.getActiveContext();
             if (context == null || context.getMapData() == null)
@@ -575,17 +678,15 @@ public class MapRenderer {
             float viewportX = imgui.ImGui.getMainViewport().getWorkPosX();
             float viewportY = imgui.ImGui.getMainViewport().getWorkPosY();
 
-            for (int y = camera.getMinY(); y <= camera.getMaxY(); y++) {
-                camera.setScreenX(camera.getMinXOffset() - TILE_BUFFER_SIZE);
-                for (int x = camera.getMinX(); x <= camera.getMaxX(); x++) {
+            for (int y = view.minY; y <= view.maxY; y++) {
+                for (int x = view.minX; x <= view.maxX; x++) {
                     if (mapData[x][y] == null) {
-                        camera.incrementScreenX();
                         continue;
                     }
 
                     if (mapData[x][y].getTrigger() > 0 && renderSettings.getShowTriggers()) {
-                        int screenX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int screenY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+                        int screenX = view.screenX(x);
+                        int screenY = view.screenY(y);
 
                         String idText = String.valueOf(mapData[x][y].getTrigger());
                         float textWidth = imgui.ImGui.calcTextSize(idText).x;
@@ -597,8 +698,8 @@ public class MapRenderer {
                     }
 
                     if (mapData[x][y].getParticleIndex() > 0 && renderSettings.getShowParticles()) {
-                        int screenX = POS_SCREEN_X + camera.getScreenX() * TILE_PIXEL_SIZE + pixelOffsetX;
-                        int screenY = POS_SCREEN_Y + camera.getScreenY() * TILE_PIXEL_SIZE + pixelOffsetY;
+                        int screenX = view.screenX(x);
+                        int screenY = view.screenY(y);
 
                         String idText = "P" + mapData[x][y].getParticleIndex();
                         float textWidth = imgui.ImGui.calcTextSize(idText).x;
@@ -608,9 +709,7 @@ public class MapRenderer {
                         drawList.addText(textX + 1, textY + 1, 0xFF000000, idText);
                         drawList.addText(textX, textY, 0xFFFFFF00, idText);
                     }
-                    camera.incrementScreenX();
                 }
-                camera.incrementScreenY();
             }
         }
     }
@@ -639,7 +738,7 @@ public class MapRenderer {
         float alpha = 0.5f + (pulse * 0.3f);
 
         // Tinte Cyan para indicar modo de inserción
-        RGBColor ghostColor = new RGBColor(0.7f, 1.0f, 1.0f);
+        RGBColor ghostColor = GHOST_COLOR;
 
         for (Clipboard.ClipboardItem item : clip.getItems()) {
             int targetX = tx + item.offsetX;
@@ -687,14 +786,14 @@ public class MapRenderer {
     }
 
     private void drawGhostGrh(int grhIndex, int x, int y, float alpha, RGBColor color) {
-        if (grhData == null || grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhData == null || grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
             return;
 
         // Aplicar logica de centrado de Drawn.drawTexture
-        if (grhData[grhIndex].getTileWidth() != 1)
-            x = x - (int) (grhData[grhIndex].getTileWidth() * TILE_PIXEL_SIZE / 2) + TILE_PIXEL_SIZE / 2;
-        if (grhData[grhIndex].getTileHeight() != 1)
-            y = y - (int) (grhData[grhIndex].getTileHeight() * TILE_PIXEL_SIZE) + TILE_PIXEL_SIZE;
+        if (grhData.get(grhIndex).getTileWidth() != 1)
+            x = x - (int) (grhData.get(grhIndex).getTileWidth() * TILE_PIXEL_SIZE / 2) + TILE_PIXEL_SIZE / 2;
+        if (grhData.get(grhIndex).getTileHeight() != 1)
+            y = y - (int) (grhData.get(grhIndex).getTileHeight() * TILE_PIXEL_SIZE) + TILE_PIXEL_SIZE;
 
         drawGrhIndex(grhIndex, x, y, alpha, color);
     }
@@ -717,7 +816,7 @@ public class MapRenderer {
                 * TILE_PIXEL_SIZE + pixelOffsetY;
 
         float thickness = 2.0f;
-        RGBColor color = new RGBColor(0.3f, 0.6f, 1.0f);
+        RGBColor color = SELECTION_COLOR;
         float alpha = 0.8f;
 
         // Top
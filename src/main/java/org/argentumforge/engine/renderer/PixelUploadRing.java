@@ -0,0 +1,86 @@
+package org.argentumforge.engine.renderer;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL21.GL_PIXEL_UNPACK_BUFFER;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Anillo de pixel buffers ({@code GL_PIXEL_UNPACK_BUFFER}) para subir texturas.
+ * <p>
+ * En lugar de pasar los píxeles directamente a {@code glTexImage2D}, que obliga
+ * al driver a copiarlos antes de volver, se copian a un PBO mapeado y la
+ * textura se lee desde el buffer: la transferencia a VRAM la hace el driver por
+ * DMA mientras el hilo de OpenGL sigue con el frame. Como en el VBO del
+ * {@link BatchRenderer}, cada subida invalida el buffer (orphaning) para no
+ * esperar a que la GPU termine con la anterior, y se rota entre varios buffers
+ * para repartir las asignaciones del driver.
+ * <p>
+ * Sin OpenGL 3.0 ({@code glMapBufferRange}) {@link #stage} devuelve
+ * {@code false} y la textura se sube por el camino directo.
+ */
+final class PixelUploadRing {
+
+    private static final int BUFFERS = 3;
+
+    private int[] buffers;
+    private int next;
+    /** 0 sin comprobar, 1 con soporte, -1 sin soporte. */
+    private int support;
+
+    /**
+     * Copia los píxeles al siguiente PBO y lo deja bindeado como
+     * {@code GL_PIXEL_UNPACK_BUFFER}: la llamada de subida que siga debe usar
+     * offset 0 y luego {@link #unbind()}.
+     *
+     * @return {@code false} si no se pudo usar un PBO (nada queda bindeado).
+     */
+    boolean stage(ByteBuffer pixels) {
+        if (!isSupported())
+            return false;
+        if (buffers == null) {
+            buffers = new int[BUFFERS];
+            glGenBuffers(buffers);
+        }
+
+        long bytes = pixels.remaining();
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, buffers[next]);
+        next = (next + 1) % BUFFERS;
+        glBufferData(GL_PIXEL_UNPACK_BUFFER, bytes, GL_STREAM_DRAW);
+        long dst = nglMapBufferRange(GL_PIXEL_UNPACK_BUFFER, 0, bytes,
+                GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT);
+        if (dst == 0) {
+            unbind();
+            return false;
+        }
+        MemoryUtil.memCopy(MemoryUtil.memAddress(pixels), dst, bytes);
+        if (!glUnmapBuffer(GL_PIXEL_UNPACK_BUFFER)) {
+            // El contenido se corrompió al mapear (p.ej. cambio de modo de video)
+            unbind();
+            return false;
+        }
+        return true;
+    }
+
+    void unbind() {
+        glBindBuffer(GL_PIXEL_UNPACK_BUFFER, 0);
+    }
+
+    void release() {
+        if (buffers == null)
+            return;
+        glDeleteBuffers(buffers);
+        buffers = null;
+        next = 0;
+    }
+
+    private boolean isSupported() {
+        if (support == 0)
+            support = GL.getCapabilities().OpenGL30 ? 1 : -1;
+        return support > 0;
+    }
+}
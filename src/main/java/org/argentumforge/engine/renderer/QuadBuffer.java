@@ -0,0 +1,212 @@
+package org.argentumforge.engine.renderer;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Almacén fuera del heap de los quads encolados en un {@link BatchRenderer}.
+ * <p>
+ * Cada quad se escribe directamente como 4 vértices ya listos para la GPU
+ * (posición y UV en {@code float}, color RGBA empaquetado en 4 bytes
+ * normalizados = 20 bytes por vértice) en un bloque de memoria nativa; junto a
+ * él se guardan, en arreglos primitivos paralelos, la textura, el blend y la
+ * clave de orden. Una vez dimensionado no genera basura: no hay objetos por quad
+ * ni copias intermedias a un {@code FloatBuffer}.
+ * <p>
+ * No toca OpenGL, por lo que puede medirse en aislamiento.
+ */
+final class QuadBuffer {
+
+    static final int VERTEX_SIZE_BYTES = 20;
+    static final int QUAD_SIZE_BYTES = VERTEX_SIZE_BYTES * 4;
+    static final int COLOR_OFFSET = 16;
+
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX_SIZE = 1 << RADIX_BITS;
+
+    private long address;
+    private int capacity;
+    private int count;
+
+    private Texture[] textures;
+    private boolean[] blends;
+    private long[] keys;
+
+    // Orden resultante del radix sort (válido solo si sorted)
+    private boolean sorted;
+    private long[] sortKeys;
+    private long[] sortKeysTmp;
+    private int[] order;
+    private int[] orderTmp;
+    private final int[] radixCounts = new int[RADIX_SIZE];
+
+    QuadBuffer(int initialCapacity) {
+        capacity = initialCapacity;
+        address = MemoryUtil.nmemAllocChecked((long) capacity * QUAD_SIZE_BYTES);
+        textures = new Texture[capacity];
+        blends = new boolean[capacity];
+        keys = new long[capacity];
+        sortKeys = new long[capacity];
+        sortKeysTmp = new long[capacity];
+        order = new int[capacity];
+        orderTmp = new int[capacity];
+    }
+
+    void clear() {
+        // Soltamos las texturas para no retener las de un mapa anterior
+        Arrays.fill(textures, 0, count, null);
+        count = 0;
+        sorted = false;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long address() {
+        return address;
+    }
+
+    /**
+     * Reserva un quad nuevo y devuelve su índice para escribir sus vértices con
+     * {@link #putVertex}.
+     */
+    int add(Texture texture, boolean blend, long key) {
+        if (count == capacity)
+            grow(capacity * 2);
+        int quad = count++;
+        textures[quad] = texture;
+        blends[quad] = blend;
+        keys[quad] = key;
+        return quad;
+    }
+
+    void putVertex(int quad, int vertex, float x, float y, float u, float v, int rgba) {
+        long ptr = address + (long) quad * QUAD_SIZE_BYTES + (long) vertex * VERTEX_SIZE_BYTES;
+        MemoryUtil.memPutFloat(ptr, x);
+        MemoryUtil.memPutFloat(ptr + 4, y);
+        MemoryUtil.memPutFloat(ptr + 8, u);
+        MemoryUtil.memPutFloat(ptr + 12, v);
+        MemoryUtil.memPutInt(ptr + COLOR_OFFSET, rgba);
+    }
+
+    /**
+     * Empaqueta un color en 4 bytes con el orden R, G, B, A en memoria, tal como
+     * lo lee el atributo {@code GL_UNSIGNED_BYTE} normalizado.
+     */
+    static int packColor(float r, float g, float b, float a) {
+        int ri = toByte(r), gi = toByte(g), bi = toByte(b), ai = toByte(a);
+        return LITTLE_ENDIAN
+                ? (ai << 24) | (bi << 16) | (gi << 8) | ri
+                : (ri << 24) | (gi << 16) | (bi << 8) | ai;
+    }
+
+    private static int toByte(float value) {
+        if (value <= 0f)
+            return 0;
+        if (value >= 1f)
+            return 255;
+        return (int) (value * 255f + 0.5f);
+    }
+
+    /**
+     * @return Índice del quad que ocupa la posición {@code i} en orden de dibujo.
+     */
+    int quadAt(int i) {
+        return sorted ? order[i] : i;
+    }
+
+    Texture texture(int quad) {
+        return textures[quad];
+    }
+
+    boolean blend(int quad) {
+        return blends[quad];
+    }
+
+    /**
+     * Copia los vértices a {@code dst} en orden de dibujo.
+     */
+    void copyTo(long dst) {
+        if (!sorted) {
+            MemoryUtil.memCopy(address, dst, (long) count * QUAD_SIZE_BYTES);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            MemoryUtil.memCopy(address + (long) order[i] * QUAD_SIZE_BYTES, dst + (long) i * QUAD_SIZE_BYTES,
+                    QUAD_SIZE_BYTES);
+        }
+    }
+
+    /**
+     * Ordena los quads por clave con un radix sort LSD estable (los quads con la
+     * misma clave conservan el orden de envío), saltando los dígitos que no varían
+     * entre claves.
+     */
+    void sort() {
+        int n = count;
+        long orBits = 0;
+        long andBits = -1L;
+        for (int i = 0; i < n; i++) {
+            long key = keys[i];
+            sortKeys[i] = key;
+            order[i] = i;
+            orBits |= key;
+            andBits &= key;
+        }
+        long varying = orBits ^ andBits;
+
+        for (int shift = 0; shift < 64; shift += RADIX_BITS) {
+            if (((varying >>> shift) & (RADIX_SIZE - 1)) == 0)
+                continue;
+
+            Arrays.fill(radixCounts, 0);
+            for (int i = 0; i < n; i++)
+                radixCounts[(int) ((sortKeys[i] >>> shift) & (RADIX_SIZE - 1))]++;
+
+            int sum = 0;
+            for (int d = 0; d < RADIX_SIZE; d++) {
+                int c = radixCounts[d];
+                radixCounts[d] = sum;
+                sum += c;
+            }
+
+            for (int i = 0; i < n; i++) {
+                int pos = radixCounts[(int) ((sortKeys[i] >>> shift) & (RADIX_SIZE - 1))]++;
+                sortKeysTmp[pos] = sortKeys[i];
+                orderTmp[pos] = order[i];
+            }
+
+            long[] k = sortKeys;
+            sortKeys = sortKeysTmp;
+            sortKeysTmp = k;
+            int[] o = order;
+            order = orderTmp;
+            orderTmp = o;
+        }
+        sorted = true;
+    }
+
+    void free() {
+        if (address != 0) {
+            MemoryUtil.nmemFree(address);
+            address = 0;
+        }
+    }
+
+    private void grow(int newCapacity) {
+        address = MemoryUtil.nmemReallocChecked(address, (long) newCapacity * QUAD_SIZE_BYTES);
+        textures = Arrays.copyOf(textures, newCapacity);
+        blends = Arrays.copyOf(blends, newCapacity);
+        keys = Arrays.copyOf(keys, newCapacity);
+        sortKeys = new long[newCapacity];
+        sortKeysTmp = new long[newCapacity];
+        order = new int[newCapacity];
+        orderTmp = new int[newCapacity];
+        capacity = newCapacity;
+    }
+}
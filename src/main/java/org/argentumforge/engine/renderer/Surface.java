@@ -4,6 +4,12 @@ import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
+
+import org.argentumforge.engine.game.Options;
+import org.argentumforge.engine.game.User;
+import org.argentumforge.engine.game.models.Position;
+import org.argentumforge.engine.utils.GameData;
+import org.argentumforge.engine.utils.MapContext;
 import org.lwjgl.BufferUtils;
 import org.tinylog.Logger;
 
@@ -38,6 +44,14 @@ public enum Surface {
 
     private static final int MAX_RETRIES = 3;
 
+    // Subida a GPU presupuestada y por prioridad
+    private final UploadScheduler uploads = new UploadScheduler();
+    private final PixelUploadRing uploadRing = new PixelUploadRing();
+    /** Frame actual, para saber qué texturas pidió el render en el último frame. */
+    private int frame;
+    /** Desalojo LRU de texturas para respetar el presupuesto de VRAM. */
+    private final TextureResidency residency = new TextureResidency();
+
     /**
      * Inicializa el contenedor de texturas y el sistema de carga asíncrona.
      */
@@ -78,42 +92,34 @@ public enum Surface {
     /**
      * Procesa las texturas que han terminado de cargarse en segundo plano.
      * DEBE llamarse desde el hilo principal de OpenGL (Engine loop).
+     * <p>
+     * Las texturas listas pasan al {@link UploadScheduler}, que sube por frame
+     * solo lo que entra en su presupuesto de tiempo y bytes: primero las que el
+     * render pidió en el último frame y luego las del mapa activo más cercanas a
+     * la cámara, así las hojas grandes de un mapa nuevo no provocan picos.
+     * <p>
+     * También avanza el {@link TextureResidency}, que libera las texturas menos
+     * usadas cuando se supera el presupuesto de VRAM de las opciones. Las páginas
+     * del {@link TextureAtlas} están fijas y se descuentan de ese presupuesto.
      */
     public void dispatchUploads() {
         if (readyToUpload == null)
             return;
+        frame++;
 
         Texture.TextureData data;
-        int count = 0;
-        int limit = 50; // Aumentado para mayor velocidad de carga inicial
+        while ((data = readyToUpload.poll()) != null)
+            uploads.add(data, fileNumOf(data));
 
-        while ((data = readyToUpload.poll()) != null && count < limit) {
-            try {
-                if (data.fileName != null && data.fileName.matches("\\d+")) {
-                    int id = Integer.parseInt(data.fileName);
-                    Texture tex = placeholderTextures.remove(id);
-                    // Si tex es null, quizás se limpió la caché mientras cargaba, buscamos en el
-                    // mapa principal
-                    if (tex == null)
-                        tex = textures.get(id);
-
-                    if (tex != null) {
-                        tex.upload(data);
-                    }
-                    pendingIds.remove(id);
-                    retryCounts.remove(id); // Éxito, borramos contador de reintentos
-                } else if (data.fileName != null) {
-                    // Cargas manuales por nombre de archivo (GUI, etc.)
-                    // No gestionadas por pendingIds/failedIds numéricos
-                }
-            } catch (Exception e) {
-                Logger.error(e, "Error subiendo textura a GPU");
-            } finally {
-                data.cleanup();
-            }
-            count++;
+        if (!uploads.isEmpty()) {
+            focusUploads();
+            uploads.dispatch(this::isOnScreen, this::uploadReady);
         }
 
+        long budget = Options.INSTANCE.getTextureBudgetMB() * 1024L * 1024L
+                - TextureAtlas.INSTANCE.getResidentBytes();
+        residency.update(frame, Math.max(0, budget), textures, this::evict);
+
         // Feedback visual para fallos definitivos
         if (missingTexture != null && missingTexture.getId() != 0) {
             for (Integer failedId : failedIds) {
@@ -141,41 +147,94 @@ public enum Surface {
     }
 
     /**
-     * Elimina todas las texturas gestionadas y apaga el hilo de carga.
+     * Sube una textura que salió del {@link UploadScheduler} y libera sus datos.
      */
-    public void deleteAllTextures() {
-        // Optimization: Only clear if we have a lot of textures (> 3000)
-        // This avoids the 1s lag during map transitions for small/medium maps
-        if (textures.size() < 3000) {
-            org.tinylog.Logger.info("Surface: Skipping texture cleanup (cache size: " + textures.size() + ")");
-            return;
+    private void uploadReady(Texture.TextureData data) {
+        try {
+            int id = fileNumOf(data);
+            if (id >= 0) {
+                Texture tex = placeholderTextures.remove(id);
+                // Si tex es null, quizás se limpió la caché mientras cargaba, buscamos en el
+                // mapa principal
+                if (tex == null)
+                    tex = textures.get(id);
+
+                if (tex != null) {
+                    tex.upload(data, uploadRing);
+                }
+                pendingIds.remove(id);
+                retryCounts.remove(id); // Éxito, borramos contador de reintentos
+            }
+            // Las cargas manuales por nombre de archivo (GUI, etc.) no se gestionan
+            // por pendingIds/failedIds numéricos
+        } catch (Exception e) {
+            Logger.error(e, "Error subiendo textura a GPU");
+        } finally {
+            data.cleanup();
         }
+    }
 
-        org.tinylog.Logger.info("Surface: Cleaning up " + textures.size() + " textures...");
+    /**
+     * @return Número de archivo de una carga numérica, o -1 si es por nombre.
+     */
+    private static int fileNumOf(Texture.TextureData data) {
+        if (data.fileName != null && data.fileName.matches("\\d+"))
+            return Integer.parseInt(data.fileName);
+        return -1;
+    }
 
-        // No apagar el loaderExecutor aquí, ya que se necesita para seguir cargando
-        // texturas después de una limpieza de recursos o cambio de mapa.
-        for (Texture texture : textures.values()) {
-            if (texture != whiteTexture && texture != missingTexture) {
-                texture.cleanup();
-            }
+    private boolean isOnScreen(int fileNum) {
+        Texture texture = textures.get(fileNum);
+        return texture != null && texture.getLastUsedFrame() >= frame - 1;
+    }
+
+    /**
+     * Libera una textura desalojada. Se quita del mapa para que el próximo
+     * {@link #getTexture(int)} cree otra y la vuelva a cargar; quien guarde la
+     * referencia vieja la verá con ID 0.
+     */
+    private void evict(int fileNum, Texture texture) {
+        if (texture == whiteTexture || texture == missingTexture)
+            return;
+        if (textures.remove(fileNum, texture))
+            texture.cleanup();
+    }
+
+    /**
+     * Centra las prioridades de subida en la cámara del mapa activo, teniendo en
+     * cuenta solo las capas visibles.
+     */
+    private void focusUploads() {
+        MapContext context = GameData.getActiveContext();
+        if (context == null || context.getTiles() == null) {
+            uploads.focus(null, 0, 0, 0);
+            return;
         }
-        textures.clear();
-        placeholderTextures.clear();
-        pendingIds.clear();
-
-        // CRITICAL FIX: Limpiar failedIds para resetear estado de cargas fallidas
-        // Esto evita que gráficos que fallaron temporalmente (archivo bloqueado, etc.)
-        // queden marcados permanentemente como fallidos tras un cambio de mapa
-        if (failedIds != null)
-            failedIds.clear();
-        if (retryCounts != null)
-            retryCounts.clear();
-        if (readyToUpload != null)
-            readyToUpload.clear();
-        // CRITICAL: We NO LONGER delete whiteTexture here because many renderers
-        // (including GUI and selection ghosts) depend on it being valid
-        // even during map transitions.
+
+        RenderSettings settings = Options.INSTANCE.getRenderSettings();
+        boolean[] showLayer = settings.getShowLayer();
+        int layers = settings.getShowOJBs() ? 1 : 0;
+        for (int layer = 1; layer <= 4; layer++) {
+            if (showLayer[layer - 1])
+                layers |= 1 << layer;
+        }
+        Position center = User.INSTANCE.getUserPos();
+        uploads.focus(context.getTiles(), center.getX(), center.getY(), layers);
+    }
+
+    /** @return Frame actual, para sellar el uso de texturas cacheadas. */
+    int getFrame() {
+        return frame;
+    }
+
+    /** @return Bytes de VRAM ocupados por las texturas según el último control. */
+    public long getResidentBytes() {
+        return residency.getResidentBytes();
+    }
+
+    /** @return Texturas en VRAM según el último control. */
+    public int getResidentCount() {
+        return residency.getResidentCount();
     }
 
     /**
@@ -186,6 +245,7 @@ public enum Surface {
         if (loaderExecutor != null) {
             loaderExecutor.shutdownNow();
         }
+        uploadRing.release();
     }
 
     /**
@@ -227,9 +287,12 @@ public enum Surface {
      * @return la textura obtenida o creada asociada al identificador proporcionado
      */
     public Texture getTexture(int fileNum) {
-        if (textures.containsKey(fileNum))
-            return textures.get(fileNum);
-        return createTexture(fileNum);
+        Texture texture = textures.get(fileNum);
+        if (texture == null)
+            texture = createTexture(fileNum);
+        // Quien la pide es el render: tiene prioridad de subida en el próximo frame
+        texture.setLastUsedFrame(frame);
+        return texture;
     }
 
     /**
@@ -341,6 +404,28 @@ public enum Surface {
         return texture;
     }
 
+    /**
+     * Encola la carga asíncrona de las texturas indicadas que aún no estén en
+     * caché, sin bloquear. Se suben a GPU en {@link #dispatchUploads()} como
+     * cualquier otra. Debe llamarse desde el hilo principal.
+     *
+     * @param fileNums conjunto de IDs de archivo de textura a precargar
+     */
+    public void prefetch(Set<Integer> fileNums) {
+        if (textures == null)
+            return;
+
+        int queued = 0;
+        for (Integer fileNum : fileNums) {
+            if (!textures.containsKey(fileNum) && !failedIds.contains(fileNum)) {
+                createTexture(fileNum);
+                queued++;
+            }
+        }
+        if (queued > 0)
+            Logger.debug("Surface: {} texturas encoladas para precarga", queued);
+    }
+
     /**
      * Carga de forma síncrona todas las texturas indicadas, bloqueando el hilo
      * actual hasta que todas estén en GPU.
@@ -411,6 +496,23 @@ public enum Surface {
         }
     }
 
+    /**
+     * @return Anillo de PBO por el que se suben las texturas (también las páginas
+     *         del {@link TextureAtlas}).
+     */
+    PixelUploadRing getUploadRing() {
+        return uploadRing;
+    }
+
+    /**
+     * Usa texturas ya creadas en lugar de cargarlas desde disco. Permite recorrer
+     * el render sin contexto GL (pruebas).
+     */
+    void useTextures(Map<Integer, Texture> textures, Texture whiteTexture) {
+        this.textures = textures;
+        this.whiteTexture = whiteTexture;
+    }
+
     public Texture getWhiteTexture() {
         if (whiteTexture == null) {
             whiteTexture = new Texture();
@@ -27,6 +27,10 @@ public class Texture {
     private int id;
     private int tex_width;
     private int tex_height;
+    /** Último frame en que {@link Surface} entregó esta textura para dibujar. */
+    private int lastUsedFrame = -1;
+    /** Bytes que ocupa en VRAM (RGBA, sin mipmaps), o 0 si no está subida. */
+    private long sizeBytes;
 
     public Texture() {
 
@@ -128,16 +132,31 @@ public class Texture {
      * (OpenGL).
      */
     public void upload(TextureData data) {
+        upload(data, null);
+    }
+
+    /**
+     * Igual que {@link #upload(TextureData)}, pero pasando los píxeles por un PBO
+     * del anillo cuando es posible. Los datos pueden liberarse al volver.
+     */
+    void upload(TextureData data, PixelUploadRing ring) {
         if (data == null || data.pixels == null)
             return;
         this.tex_width = data.width;
         this.tex_height = data.height;
+        this.sizeBytes = (long) data.width * data.height * 4;
 
         this.id = glGenTextures();
         glBindTexture(GL_TEXTURE_2D, id);
 
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA,
-                tex_width, tex_height, 0, GL_RGBA, GL_UNSIGNED_BYTE, data.pixels);
+        if (ring != null && ring.stage(data.pixels)) {
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA,
+                    tex_width, tex_height, 0, GL_RGBA, GL_UNSIGNED_BYTE, 0L);
+            ring.unbind();
+        } else {
+            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA,
+                    tex_width, tex_height, 0, GL_RGBA, GL_UNSIGNED_BYTE, data.pixels);
+        }
 
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
@@ -176,6 +195,18 @@ public class Texture {
         return tex_height;
     }
 
+    int getLastUsedFrame() {
+        return lastUsedFrame;
+    }
+
+    void setLastUsedFrame(int frame) {
+        this.lastUsedFrame = frame;
+    }
+
+    long getSizeBytes() {
+        return sizeBytes;
+    }
+
     private static byte[] loadLocalGraphicSync(String fileName) {
         String graphicsPath = Options.INSTANCE.getGraphicsPath();
         String[] extensions = { ".png", ".bmp", ".jpg", ".PNG", ".BMP", ".JPG" };
@@ -331,7 +362,13 @@ public class Texture {
         glBindTexture(GL_TEXTURE_2D, 0);
     }
 
+    /**
+     * Libera la textura de la GPU. El objeto queda con ID 0, como si aún no se
+     * hubiera subido.
+     */
     public void cleanup() {
         glDeleteTextures(id);
+        id = 0;
+        sizeBytes = 0;
     }
 }
\ No newline at end of file
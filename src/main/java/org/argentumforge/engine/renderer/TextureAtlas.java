@@ -0,0 +1,540 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.ProfileManager;
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.lwjgl.system.MemoryUtil;
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Atlas de texturas para los gráficos del juego.
+ * <p>
+ * Empaqueta los recortes de los GRH estáticos (un frame, hasta
+ * {@link #MAX_REGION_SIZE} píxeles de lado) en páginas de {@link #PAGE_SIZE} x
+ * {@link #PAGE_SIZE}. Así, tiles y objetos que antes vivían en cientos de
+ * archivos distintos comparten unas pocas texturas y el {@link BatchRenderer}
+ * puede agruparlos en muy pocos draw calls.
+ * <p>
+ * El layout (qué GRH va en qué página y posición) se calcula solo a partir de
+ * {@code Graficos.ind}, sin leer imágenes, y se guarda por perfil en
+ * {@code atlas_<perfil>.bin}; en los siguientes arranques se reutiliza mientras
+ * la firma de los GRH no cambie. Las páginas se componen bajo demanda en un hilo
+ * secundario la primera vez que se dibuja alguno de sus GRH; mientras tanto se
+ * sigue usando la textura individual de {@link Surface}.
+ * <p>
+ * Las páginas quedan fijas en VRAM hasta el próximo {@link #init}: el
+ * {@link TextureResidency} no las desaloja, pero {@link Surface} descuenta
+ * {@link #getResidentBytes()} del presupuesto antes de repartirlo entre las
+ * texturas individuales. Se suben de a una por frame por el mismo anillo de PBO
+ * que usa {@link Surface}.
+ */
+public enum TextureAtlas {
+
+    INSTANCE;
+
+    public static final int PAGE_SIZE = 2048;
+    /** Lado máximo de un recorte empaquetable; los mayores van por textura propia. */
+    public static final int MAX_REGION_SIZE = 256;
+    private static final int PADDING = 1;
+
+    private static final int CACHE_MAGIC = 0x41544C53; // "ATLS"
+    private static final int CACHE_VERSION = 1;
+
+    private static final int PAGE_EMPTY = 0;
+    private static final int PAGE_BUILDING = 1;
+    private static final int PAGE_READY = 2;
+    private static final int PAGE_FAILED = 3;
+
+    /** Página de cada GRH, -1 si no está en el atlas. */
+    private int[] regionPage = new int[0];
+    private short[] regionX = new short[0];
+    private short[] regionY = new short[0];
+
+    private Texture[] pages = new Texture[0];
+    private int[] pageState = new int[0];
+    private int[][] pageMembers = new int[0][];
+
+    /** Se incrementa en cada {@link #init}, para descartar páginas de un layout viejo. */
+    private int layoutGeneration;
+    private boolean enabled;
+
+    private ExecutorService builder;
+    private final ConcurrentLinkedQueue<PageData> readyPages = new ConcurrentLinkedQueue<>();
+
+    /** Página compuesta en RAM a la espera de ser subida a la GPU. */
+    private static final class PageData {
+        int generation;
+        int page;
+        ByteBuffer pixels;
+        int[] missing;
+    }
+
+    private record RectKey(int fileNum, int sX, int sY, int width, int height) {
+    }
+
+    /**
+     * Calcula (o recupera de la caché del perfil) el layout del atlas para los GRH
+     * cargados. Debe llamarse tras cargar {@code Graficos.ind} y desde el hilo de
+     * OpenGL, ya que libera las páginas del layout anterior.
+     */
+    public void init(GrhTable grhData) {
+        release();
+        layoutGeneration++;
+        enabled = false;
+
+        if (grhData == null || grhData.length() == 0)
+            return;
+
+        long signature = signature(grhData);
+        Path cachePath = cachePath();
+
+        if (!loadLayout(cachePath, signature, grhData.length())) {
+            long start = System.nanoTime();
+            packLayout(grhData);
+            Logger.info("TextureAtlas: {} páginas empaquetadas en {} ms", pages.length,
+                    (System.nanoTime() - start) / 1_000_000);
+            saveLayout(cachePath, signature);
+        }
+
+        buildPageMembers();
+        enabled = pages.length > 0;
+
+        if (builder == null || builder.isShutdown()) {
+            builder = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "AtlasBuilder");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Devuelve la página del atlas que contiene el GRH si ya está en GPU. Si la
+     * página aún no se construyó, la encola y devuelve {@code null} para que el
+     * llamador use la textura individual.
+     */
+    public Texture getPage(int grhIndex) {
+        if (!enabled || grhIndex <= 0 || grhIndex >= regionPage.length)
+            return null;
+        int page = regionPage[grhIndex];
+        if (page < 0)
+            return null;
+
+        int state = pageState[page];
+        if (state == PAGE_READY)
+            return pages[page];
+        if (state == PAGE_EMPTY)
+            requestPage(page);
+        return null;
+    }
+
+    /**
+     * @return {@code true} si el layout actual asignó una región al GRH (esté o no
+     *         su página en GPU).
+     */
+    boolean hasRegion(int grhIndex) {
+        return enabled && grhIndex > 0 && grhIndex < regionPage.length && regionPage[grhIndex] >= 0;
+    }
+
+    /**
+     * @return X del recorte del GRH dentro de su página.
+     */
+    public int getRegionX(int grhIndex) {
+        return regionX[grhIndex];
+    }
+
+    /**
+     * @return Y del recorte del GRH dentro de su página.
+     */
+    public int getRegionY(int grhIndex) {
+        return regionY[grhIndex];
+    }
+
+    /**
+     * Sube a la GPU las páginas compuestas en segundo plano. Debe llamarse desde
+     * el hilo principal de OpenGL, una vez por frame.
+     */
+    public void dispatchUploads() {
+        // Una página por frame: son texturas grandes y no queremos un pico
+        PageData data = readyPages.poll();
+        if (data == null)
+            return;
+
+        try {
+            if (data.generation != layoutGeneration)
+                return;
+
+            if (data.missing != null) {
+                for (int grh : data.missing)
+                    regionPage[grh] = -1;
+            }
+
+            if (data.pixels == null) {
+                pageState[data.page] = PAGE_FAILED;
+                return;
+            }
+
+            Texture.TextureData textureData = new Texture.TextureData();
+            textureData.pixels = data.pixels;
+            textureData.width = PAGE_SIZE;
+            textureData.height = PAGE_SIZE;
+            textureData.fileName = "atlas_" + data.page;
+
+            Texture texture = new Texture();
+            texture.upload(textureData, Surface.INSTANCE.getUploadRing());
+            pages[data.page] = texture;
+            pageState[data.page] = PAGE_READY;
+        } finally {
+            if (data.pixels != null)
+                MemoryUtil.memFree(data.pixels);
+        }
+    }
+
+    /**
+     * Libera las páginas en GPU. Las composiciones en curso se descartan al
+     * llegar porque pertenecen a otra generación.
+     */
+    public void release() {
+        for (Texture page : pages) {
+            if (page != null)
+                page.cleanup();
+        }
+        Arrays.fill(pages, null);
+        Arrays.fill(pageState, PAGE_EMPTY);
+
+        PageData pending;
+        while ((pending = readyPages.poll()) != null) {
+            if (pending.pixels != null)
+                MemoryUtil.memFree(pending.pixels);
+        }
+    }
+
+    /**
+     * @return Generación del layout; cambia cada vez que las páginas se invalidan.
+     */
+    public int getGeneration() {
+        return layoutGeneration;
+    }
+
+    /**
+     * @return Bytes que ocupan en VRAM las páginas subidas (fijas, fuera del
+     *         desalojo de {@link TextureResidency}).
+     */
+    public long getResidentBytes() {
+        long bytes = 0;
+        for (int page = 0; page < pages.length; page++) {
+            if (pageState[page] == PAGE_READY)
+                bytes += pages[page].getSizeBytes();
+        }
+        return bytes;
+    }
+
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    /**
+     * @return Cantidad de páginas ya subidas a la GPU.
+     */
+    public int getResidentPageCount() {
+        int count = 0;
+        for (int state : pageState) {
+            if (state == PAGE_READY)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Usa los accesores primitivos de la tabla: recorrer todos los GRH para
+     * empaquetar no construye ningún {@link GrhData}.
+     */
+    static boolean isPackable(GrhTable grhData, int grh) {
+        return grhData.contains(grh) && grhData.numFrames(grh) == 1 && grhData.fileNum(grh) > 0
+                && grhData.pixelWidth(grh) > 0 && grhData.pixelHeight(grh) > 0
+                && grhData.pixelWidth(grh) <= MAX_REGION_SIZE && grhData.pixelHeight(grh) <= MAX_REGION_SIZE
+                && grhData.sx(grh) >= 0 && grhData.sy(grh) >= 0;
+    }
+
+    /**
+     * Empaqueta los recortes ordenados por archivo (para que los GRH de un mismo
+     * archivo caigan en la misma página) y, dentro de cada archivo, por alto
+     * descendente. Los recortes idénticos se comparten.
+     */
+    private void packLayout(GrhTable grhData) {
+        int count = grhData.length();
+        regionPage = new int[count];
+        regionX = new short[count];
+        regionY = new short[count];
+        Arrays.fill(regionPage, -1);
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            if (isPackable(grhData, i))
+                order.add(i);
+        }
+        order.sort((a, b) -> {
+            if (grhData.fileNum(a) != grhData.fileNum(b))
+                return Integer.compare(grhData.fileNum(a), grhData.fileNum(b));
+            if (grhData.pixelHeight(a) != grhData.pixelHeight(b))
+                return Integer.compare(grhData.pixelHeight(b), grhData.pixelHeight(a));
+            return Integer.compare(a, b);
+        });
+
+        AtlasPacker packer = new AtlasPacker(PAGE_SIZE, PADDING);
+        Map<RectKey, Integer> placed = new HashMap<>();
+        int[] out = new int[3];
+
+        for (int grh : order) {
+            RectKey key = new RectKey(grhData.fileNum(grh), grhData.sx(grh), grhData.sy(grh),
+                    grhData.pixelWidth(grh), grhData.pixelHeight(grh));
+            Integer shared = placed.get(key);
+            if (shared != null) {
+                regionPage[grh] = regionPage[shared];
+                regionX[grh] = regionX[shared];
+                regionY[grh] = regionY[shared];
+                continue;
+            }
+
+            if (!packer.insert(grhData.pixelWidth(grh), grhData.pixelHeight(grh), out))
+                continue;
+            regionPage[grh] = out[0];
+            regionX[grh] = (short) out[1];
+            regionY[grh] = (short) out[2];
+            placed.put(key, grh);
+        }
+
+        allocatePages(packer.getPageCount());
+    }
+
+    private void allocatePages(int count) {
+        pages = new Texture[count];
+        pageState = new int[count];
+    }
+
+    private void buildPageMembers() {
+        int[] sizes = new int[pages.length];
+        for (int page : regionPage) {
+            if (page >= 0)
+                sizes[page]++;
+        }
+        pageMembers = new int[pages.length][];
+        for (int p = 0; p < pages.length; p++)
+            pageMembers[p] = new int[sizes[p]];
+        Arrays.fill(sizes, 0);
+        for (int grh = 0; grh < regionPage.length; grh++) {
+            int page = regionPage[grh];
+            if (page >= 0)
+                pageMembers[page][sizes[page]++] = grh;
+        }
+    }
+
+    private void requestPage(int page) {
+        pageState[page] = PAGE_BUILDING;
+
+        final int generation = layoutGeneration;
+        final int[] members = pageMembers[page];
+        final GrhTable grhData = org.argentumforge.engine.utils.AssetRegistry.grhData;
+        final short[] xs = regionX;
+        final short[] ys = regionY;
+
+        builder.submit(() -> {
+            PageData result = new PageData();
+            result.generation = generation;
+            result.page = page;
+            try {
+                composePage(result, members, grhData, xs, ys);
+            } catch (Exception e) {
+                Logger.error(e, "TextureAtlas: error componiendo la página {}", page);
+                if (result.pixels != null) {
+                    MemoryUtil.memFree(result.pixels);
+                    result.pixels = null;
+                }
+            }
+            readyPages.add(result);
+        });
+    }
+
+    /**
+     * Copia los recortes de cada archivo fuente sobre la página, extruyendo el
+     * borde de cada recorte sobre su padding.
+     */
+    private static void composePage(PageData result, int[] members, GrhTable grhData, short[] xs, short[] ys) {
+        result.pixels = MemoryUtil.memCalloc(PAGE_SIZE * PAGE_SIZE * 4);
+
+        // Agrupar por archivo para decodificar cada imagen una sola vez
+        Integer[] sorted = new Integer[members.length];
+        for (int i = 0; i < members.length; i++)
+            sorted[i] = members[i];
+        Arrays.sort(sorted, (a, b) -> Integer.compare(grhData.fileNum(a), grhData.fileNum(b)));
+
+        List<Integer> missing = new ArrayList<>();
+        int i = 0;
+        while (i < sorted.length) {
+            int fileNum = grhData.fileNum(sorted[i]);
+            int end = i;
+            while (end < sorted.length && grhData.fileNum(sorted[end]) == fileNum)
+                end++;
+
+            Texture.TextureData source = Texture.prepareData(null, String.valueOf(fileNum), false);
+            try {
+                for (int j = i; j < end; j++) {
+                    int grh = sorted[j];
+                    if (source == null || !blit(source, grhData, grh, result.pixels, xs[grh], ys[grh]))
+                        missing.add(grh);
+                }
+            } finally {
+                if (source != null)
+                    source.cleanup();
+            }
+            i = end;
+        }
+
+        if (!missing.isEmpty()) {
+            result.missing = new int[missing.size()];
+            for (int k = 0; k < missing.size(); k++)
+                result.missing[k] = missing.get(k);
+        }
+    }
+
+    private static boolean blit(Texture.TextureData source, GrhTable grhData, int grh, ByteBuffer page, int dstX,
+            int dstY) {
+        int sx = grhData.sx(grh);
+        int sy = grhData.sy(grh);
+        int w = grhData.pixelWidth(grh);
+        int h = grhData.pixelHeight(grh);
+        if (sx + w > source.width || sy + h > source.height)
+            return false;
+
+        // Incluye el padding: las filas/columnas extra repiten el borde
+        for (int y = -PADDING; y < h + PADDING; y++) {
+            int srcRow = sy + Math.max(0, Math.min(h - 1, y));
+            for (int x = -PADDING; x < w + PADDING; x++) {
+                int srcCol = sx + Math.max(0, Math.min(w - 1, x));
+                int src = (srcRow * source.width + srcCol) * 4;
+                int dst = ((dstY + y) * PAGE_SIZE + (dstX + x)) * 4;
+                page.put(dst, source.pixels.get(src));
+                page.put(dst + 1, source.pixels.get(src + 1));
+                page.put(dst + 2, source.pixels.get(src + 2));
+                page.put(dst + 3, source.pixels.get(src + 3));
+            }
+        }
+        return true;
+    }
+
+    private static long signature(GrhTable grhData) {
+        // FNV-1a sobre los campos que determinan el layout
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, grhData.length());
+        hash = mix(hash, PAGE_SIZE);
+        hash = mix(hash, MAX_REGION_SIZE);
+        hash = mix(hash, PADDING);
+        for (int i = 1; i < grhData.length(); i++) {
+            if (!isPackable(grhData, i))
+                continue;
+            hash = mix(hash, i);
+            hash = mix(hash, grhData.fileNum(i));
+            hash = mix(hash, grhData.sx(i));
+            hash = mix(hash, grhData.sy(i));
+            hash = mix(hash, grhData.pixelWidth(i));
+            hash = mix(hash, grhData.pixelHeight(i));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static Path cachePath() {
+        String fileName = ProfileManager.INSTANCE.getProfilesDir() + "/atlas.bin";
+        if (ProfileManager.INSTANCE.getCurrentProfile() != null) {
+            fileName = ProfileManager.INSTANCE.getProfilesDir() + "/atlas_"
+                    + ProfileManager.INSTANCE.getCurrentProfile().getName() + ".bin";
+        }
+        return Path.of(fileName);
+    }
+
+    private boolean loadLayout(Path path, long signature, int grhCount) {
+        if (!Files.exists(path))
+            return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != CACHE_MAGIC || in.readInt() != CACHE_VERSION || in.readLong() != signature
+                    || in.readInt() != grhCount)
+                return false;
+
+            int pageCount = in.readInt();
+            int entries = in.readInt();
+
+            int[] page = new int[grhCount];
+            short[] xs = new short[grhCount];
+            short[] ys = new short[grhCount];
+            Arrays.fill(page, -1);
+            for (int i = 0; i < entries; i++) {
+                int grh = in.readInt();
+                page[grh] = in.readUnsignedShort();
+                xs[grh] = in.readShort();
+                ys[grh] = in.readShort();
+            }
+
+            regionPage = page;
+            regionX = xs;
+            regionY = ys;
+            allocatePages(pageCount);
+            Logger.info("TextureAtlas: layout de {} páginas cargado desde {}", pageCount, path);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Logger.warn("TextureAtlas: caché de layout inválida ({}), se vuelve a empaquetar", e.getMessage());
+            return false;
+        }
+    }
+
+    private void saveLayout(Path path, long signature) {
+        int entries = 0;
+        for (int page : regionPage) {
+            if (page >= 0)
+                entries++;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeLong(signature);
+            out.writeInt(regionPage.length);
+            out.writeInt(pages.length);
+            out.writeInt(entries);
+            for (int grh = 0; grh < regionPage.length; grh++) {
+                if (regionPage[grh] < 0)
+                    continue;
+                out.writeInt(grh);
+                out.writeShort(regionPage[grh]);
+                out.writeShort(regionX[grh]);
+                out.writeShort(regionY[grh]);
+            }
+        } catch (IOException e) {
+            Logger.warn(e, "TextureAtlas: no se pudo guardar la caché de layout en {}", path);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.argentumforge.engine.renderer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Mantiene las texturas de {@link Surface} dentro de un presupuesto de VRAM.
+ * <p>
+ * Cada {@link Texture} registra su tamaño en bytes y el último frame en que se
+ * dibujó. Cada {@link #CHECK_INTERVAL} frames se suma lo residente y, si supera
+ * el presupuesto, se eligen las menos usadas recientemente (LRU) hasta bajar
+ * a {@link #LOW_WATERMARK} del presupuesto, para no volver a desalojar en el
+ * siguiente control. Las víctimas se liberan de a {@link #MAX_EVICTIONS_PER_FRAME}
+ * por frame, así el desalojo no provoca picos.
+ * <p>
+ * Nunca se desaloja una textura usada en los últimos {@link #PROTECTED_FRAMES}
+ * frames: todo lo que está en la vista actual se pide (o se sella desde
+ * {@link TileChunkCache}) en cada frame. Una textura desalojada se vuelve a
+ * cargar sola la próxima vez que el render la pida.
+ */
+final class TextureResidency {
+
+    /** Frames entre dos controles del presupuesto. */
+    static final int CHECK_INTERVAL = 60;
+    /** Texturas liberadas como máximo en un frame. */
+    static final int MAX_EVICTIONS_PER_FRAME = 16;
+    /** Frames sin usarse que debe llevar una textura para poder desalojarla. */
+    static final int PROTECTED_FRAMES = 2;
+    /** Fracción del presupuesto hasta la que se desaloja al superarlo. */
+    static final double LOW_WATERMARK = 0.9;
+
+    private final ArrayDeque<Integer> victims = new ArrayDeque<>();
+    /** Frame a partir del cual toca el próximo control. */
+    private int nextCheck;
+    private long residentBytes;
+    private int residentCount;
+
+    /**
+     * Avanza el desalojo. Debe llamarse una vez por frame desde el hilo de
+     * OpenGL.
+     *
+     * @param frame    Frame actual.
+     * @param budget   Presupuesto de VRAM en bytes.
+     * @param textures Texturas gestionadas, por número de archivo.
+     * @param evict    Libera una textura y la quita de la caché.
+     */
+    void update(int frame, long budget, Map<Integer, Texture> textures, BiConsumer<Integer, Texture> evict) {
+        if (frame >= nextCheck) {
+            nextCheck = frame + CHECK_INTERVAL;
+            plan(frame, budget, textures);
+        }
+
+        int evicted = 0;
+        while (evicted < MAX_EVICTIONS_PER_FRAME && !victims.isEmpty()) {
+            Integer fileNum = victims.poll();
+            Texture texture = textures.get(fileNum);
+            // Pudo volver a usarse o recargarse desde que se eligió
+            if (texture == null || texture.getId() == 0 || !isEvictable(texture, frame))
+                continue;
+            residentBytes -= texture.getSizeBytes();
+            residentCount--;
+            evict.accept(fileNum, texture);
+            evicted++;
+        }
+    }
+
+    /** @return Bytes residentes según el último control. */
+    long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /** @return Texturas residentes según el último control. */
+    int getResidentCount() {
+        return residentCount;
+    }
+
+    private void plan(int frame, long budget, Map<Integer, Texture> textures) {
+        victims.clear();
+        int size = textures.size();
+        int[] fileNums = new int[size];
+        int[] lastUsed = new int[size];
+        long[] bytes = new long[size];
+
+        int count = 0;
+        long total = 0;
+        for (Map.Entry<Integer, Texture> entry : textures.entrySet()) {
+            Texture texture = entry.getValue();
+            if (texture.getId() == 0 || count == size)
+                continue;
+            fileNums[count] = entry.getKey();
+            lastUsed[count] = texture.getLastUsedFrame();
+            bytes[count] = texture.getSizeBytes();
+            total += bytes[count];
+            count++;
+        }
+        residentBytes = total;
+        residentCount = count;
+        if (total <= budget)
+            return;
+
+        for (int i : selectVictims(Arrays.copyOf(lastUsed, count), Arrays.copyOf(bytes, count), frame, budget))
+            victims.add(fileNums[i]);
+    }
+
+    /**
+     * Elige qué texturas desalojar: las usadas hace más tiempo primero (y, a
+     * igual antigüedad, las más grandes), saltando las protegidas, hasta que lo
+     * residente quede por debajo de {@link #LOW_WATERMARK} del presupuesto.
+     *
+     * @param lastUsed Último frame de uso de cada textura residente.
+     * @param bytes    Tamaño en bytes de cada textura residente.
+     * @return Índices de las víctimas, en orden de desalojo.
+     */
+    static int[] selectVictims(int[] lastUsed, long[] bytes, int frame, long budget) {
+        long total = 0;
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < lastUsed.length; i++) {
+            total += bytes[i];
+            if (frame - lastUsed[i] > PROTECTED_FRAMES)
+                candidates.add(i);
+        }
+
+        candidates.sort(Comparator.comparingInt((Integer i) -> lastUsed[i])
+                .thenComparing(i -> bytes[i], Comparator.reverseOrder()));
+
+        long target = (long) (budget * LOW_WATERMARK);
+        int[] selected = new int[candidates.size()];
+        int count = 0;
+        for (int i : candidates) {
+            if (total <= target)
+                break;
+            selected[count++] = i;
+            total -= bytes[i];
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static boolean isEvictable(Texture texture, int frame) {
+        return frame - texture.getLastUsedFrame() > PROTECTED_FRAMES;
+    }
+}
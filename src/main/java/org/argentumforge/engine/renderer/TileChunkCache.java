@@ -0,0 +1,445 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import static org.argentumforge.engine.Engine.batch;
+import static org.argentumforge.engine.utils.AssetRegistry.grhData;
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * Caché de geometría estática para la capa 1 (suelo) del mapa.
+ * <p>
+ * El mapa se divide en bloques de {@link TileStore#CHUNK_SIZE} x
+ * {@link TileStore#CHUNK_SIZE} tiles. Los tiles no animados de cada bloque se
+ * hornean una sola vez en un VBO propio (coordenadas de mundo a zoom 1,
+ * agrupados por textura) y se dibujan con un par de draw calls por bloque; la
+ * posición de cámara, el zoom y el color del clima se aplican como uniforms.
+ * <p>
+ * Un bloque se vuelve a hornear únicamente cuando el {@link TileStore} lo marca
+ * como sucio, es decir, cuando algún comando o herramienta modificó sus capas.
+ * Los tiles animados, la capa 2, objetos, personajes y overlays siguen pasando
+ * por el {@link BatchRenderer} dinámico: la capa 2 se intercala fila a fila con
+ * los objetos, y un bloque horneado no puede respetar ese orden.
+ */
+public final class TileChunkCache {
+
+    /** Primera y última capa horneada. */
+    public static final int FIRST_LAYER = 1;
+    public static final int LAST_LAYER = 1;
+
+    private static final int CHUNK = TileStore.CHUNK_SIZE;
+    private static final int LAYERS = LAST_LAYER - FIRST_LAYER + 1;
+    private static final int MAX_QUADS = CHUNK * CHUNK * LAYERS;
+    private static final int FLOATS_PER_VERTEX = 4; // Pos(2) + Tex(2)
+    private static final int VERTEX_SIZE_BYTES = FLOATS_PER_VERTEX * Float.BYTES;
+    private static final int BASE_TILE_SIZE = 32;
+
+    /** Límite de bloques horneados por frame para evitar picos al entrar al mapa. */
+    private static final int MAX_BAKES_PER_FRAME = 12;
+
+    private static final String VERTEX_SHADER = "#version 330 core\n" +
+            "layout (location = 0) in vec2 aPos;\n" +
+            "layout (location = 1) in vec2 aTexCoords;\n" +
+            "\n" +
+            "out vec2 fTexCoords;\n" +
+            "\n" +
+            "uniform mat4 uProjection;\n" +
+            "uniform vec2 uOrigin;\n" +
+            "uniform float uScale;\n" +
+            "\n" +
+            "void main()\n" +
+            "{\n" +
+            "    fTexCoords = aTexCoords;\n" +
+            "    gl_Position = uProjection * vec4(uOrigin + aPos * uScale, 0.0, 1.0);\n" +
+            "}\n";
+
+    private static final String FRAGMENT_SHADER = "#version 330 core\n" +
+            "in vec2 fTexCoords;\n" +
+            "\n" +
+            "out vec4 color;\n" +
+            "\n" +
+            "uniform sampler2D uTexture;\n" +
+            "uniform vec4 uTint;\n" +
+            "\n" +
+            "void main()\n" +
+            "{\n" +
+            "    vec4 texColor = uTint * texture(uTexture, fTexCoords);\n" +
+            "    if (texColor.a < 0.05) discard;\n" +
+            "    color = texColor;\n" +
+            "}\n";
+
+    /**
+     * Geometría horneada de un bloque: un VBO con los quads horneados y los
+     * rangos contiguos que comparten textura.
+     */
+    private static final class Chunk {
+        int vaoId;
+        int vboId;
+        boolean ready;
+        final int[] rangeCount = new int[LAYERS];
+        final Texture[][] rangeTexture = new Texture[LAYERS][];
+        final int[][] rangeStart = new int[LAYERS][];
+        final int[][] rangeQuads = new int[LAYERS][];
+    }
+
+    private final ShaderProgram shader;
+    private final int projMatrixLoc;
+    private final int originLoc;
+    private final int scaleLoc;
+    private final int tintLoc;
+    private final int eboId;
+
+    private TileStore tiles;
+    private int atlasGeneration;
+    private Chunk[] chunks;
+
+    // Memoria de trabajo reutilizada entre horneados
+    private final FloatBuffer vertexBuffer = BufferUtils.createFloatBuffer(MAX_QUADS * 4 * FLOATS_PER_VERTEX);
+    private final float[] quadData = new float[CHUNK * CHUNK * 8];
+    private final Texture[] quadTexture = new Texture[CHUNK * CHUNK];
+    private final long[] sortKeys = new long[CHUNK * CHUNK];
+
+    public TileChunkCache() {
+        shader = new ShaderProgram();
+        shader.createVertexShader(VERTEX_SHADER);
+        shader.createFragmentShader(FRAGMENT_SHADER);
+        shader.link();
+
+        projMatrixLoc = glGetUniformLocation(shader.programId, "uProjection");
+        originLoc = glGetUniformLocation(shader.programId, "uOrigin");
+        scaleLoc = glGetUniformLocation(shader.programId, "uScale");
+        tintLoc = glGetUniformLocation(shader.programId, "uTint");
+
+        // EBO compartido por todos los bloques (mismo orden que BatchRenderer)
+        IntBuffer elements = BufferUtils.createIntBuffer(MAX_QUADS * 6);
+        for (int i = 0; i < MAX_QUADS; i++) {
+            int offset = i * 4;
+            elements.put(offset + 3).put(offset + 2).put(offset);
+            elements.put(offset).put(offset + 2).put(offset + 1);
+        }
+        elements.flip();
+        eboId = glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboId);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, elements, GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Indica si un tile de una capa horneable se dibuja dinámicamente (animado).
+     */
+    public static boolean isAnimated(TileStore tiles, int layer, int index) {
+        return tiles.isStarted(layer, index);
+    }
+
+    /**
+     * Prepara la caché para el frame: descarta todo si cambió el mapa o el layout
+     * del atlas, y hornea los bloques sucios dentro del rango visible
+     * o que usan alguna textura desalojada por el {@link TextureResidency}.
+     */
+    public void prepare(TileStore store, int minX, int minY, int maxX, int maxY) {
+        int atlas = TextureAtlas.INSTANCE.getGeneration();
+        if (store != tiles || atlas != atlasGeneration) {
+            releaseChunks();
+            tiles = store;
+            atlasGeneration = atlas;
+            chunks = new Chunk[store.getChunkCountX() * store.getChunkCountY()];
+            store.markAllChunksDirty();
+        }
+
+        int bakesThisFrame = 0;
+        for (int cy = minY / CHUNK; cy <= maxY / CHUNK; cy++) {
+            for (int cx = minX / CHUNK; cx <= maxX / CHUNK; cx++) {
+                Chunk chunk = chunks[cy * tiles.getChunkCountX() + cx];
+                if (chunk != null && chunk.ready && !tiles.isChunkDirty(cx, cy) && !hasEvictedTexture(chunk))
+                    continue;
+                if (bakesThisFrame >= MAX_BAKES_PER_FRAME) {
+                    // Se dibujará por la vía dinámica hasta que llegue su turno
+                    if (chunk != null && (tiles.isChunkDirty(cx, cy) || hasEvictedTexture(chunk)))
+                        chunk.ready = false;
+                    continue;
+                }
+                bake(cx, cy);
+                bakesThisFrame++;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} si el bloque que contiene el tile está horneado y sus
+     *         tiles estáticos no deben dibujarse por el batch dinámico.
+     */
+    public boolean isBaked(int x, int y) {
+        if (chunks == null)
+            return false;
+        Chunk chunk = chunks[(y / CHUNK) * tiles.getChunkCountX() + (x / CHUNK)];
+        return chunk != null && chunk.ready;
+    }
+
+    /**
+     * Dibuja la geometría horneada de una capa para los bloques del rango visible.
+     *
+     * @param originX Posición en pantalla del tile (0,0).
+     * @param originY Posición en pantalla del tile (0,0).
+     * @param scale   Escala de zoom actual.
+     */
+    public void draw(int layer, int minX, int minY, int maxX, int maxY, float originX, float originY, float scale,
+            RGBColor tint, float alpha) {
+        if (chunks == null)
+            return;
+        int slot = layer - FIRST_LAYER;
+
+        shader.bind();
+        glUniformMatrix4fv(projMatrixLoc, false, batch.getProjectionMatrix());
+        glUniform2f(originLoc, originX, originY);
+        glUniform1f(scaleLoc, scale);
+        glUniform4f(tintLoc, tint.getRed(), tint.getGreen(), tint.getBlue(), alpha);
+
+        glEnable(GL_BLEND);
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+
+        // Estas texturas no pasan por Surface.getTexture: se sellan aquí para que
+        // el desalojo sepa que están en pantalla
+        int frame = Surface.INSTANCE.getFrame();
+        for (int cy = minY / CHUNK; cy <= maxY / CHUNK; cy++) {
+            for (int cx = minX / CHUNK; cx <= maxX / CHUNK; cx++) {
+                Chunk chunk = chunks[cy * tiles.getChunkCountX() + cx];
+                if (chunk == null || !chunk.ready || chunk.rangeCount[slot] == 0)
+                    continue;
+
+                glBindVertexArray(chunk.vaoId);
+                for (int r = 0; r < chunk.rangeCount[slot]; r++) {
+                    Texture texture = chunk.rangeTexture[slot][r];
+                    texture.setLastUsedFrame(frame);
+                    texture.bind();
+                    glDrawElements(GL_TRIANGLES, chunk.rangeQuads[slot][r] * 6, GL_UNSIGNED_INT,
+                            (long) chunk.rangeStart[slot][r] * 6 * Integer.BYTES);
+                    batch.recordDrawCall(chunk.rangeQuads[slot][r]);
+                }
+            }
+        }
+
+        glBindVertexArray(0);
+        shader.unbind();
+    }
+
+    /**
+     * Libera los buffers de todos los bloques.
+     */
+    public void releaseChunks() {
+        if (chunks == null)
+            return;
+        for (Chunk chunk : chunks) {
+            if (chunk != null) {
+                glDeleteBuffers(chunk.vboId);
+                glDeleteVertexArrays(chunk.vaoId);
+            }
+        }
+        chunks = null;
+        tiles = null;
+    }
+
+    /**
+     * @return {@code true} si el bloque referencia alguna textura que ya no está
+     *         en GPU y debe volver a hornearse.
+     */
+    private static boolean hasEvictedTexture(Chunk chunk) {
+        if (!chunk.ready)
+            return false;
+        for (int slot = 0; slot < LAYERS; slot++) {
+            for (int r = 0; r < chunk.rangeCount[slot]; r++) {
+                if (chunk.rangeTexture[slot][r].getId() == 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private void bake(int cx, int cy) {
+        int chunkIndex = cy * tiles.getChunkCountX() + cx;
+        Chunk chunk = chunks[chunkIndex];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[chunkIndex] = chunk;
+        }
+        chunk.ready = false;
+
+        int x0 = Math.max(1, cx * CHUNK);
+        int y0 = Math.max(1, cy * CHUNK);
+        int x1 = Math.min(tiles.getWidth() - 1, cx * CHUNK + CHUNK - 1);
+        int y1 = Math.min(tiles.getHeight() - 1, cy * CHUNK + CHUNK - 1);
+
+        vertexBuffer.clear();
+        int totalQuads = 0;
+
+        for (int layer = FIRST_LAYER; layer <= LAST_LAYER; layer++) {
+            int slot = layer - FIRST_LAYER;
+            int count = 0;
+
+            for (int y = y0; y <= y1; y++) {
+                int idx = tiles.index(x0, y);
+                for (int x = x0; x <= x1; x++, idx++) {
+                    int result = collectQuad(layer, idx, x, y, count);
+                    if (result < 0) {
+                        // Textura aún cargando: el bloque queda sin hornear y se
+                        // reintenta en otro frame
+                        return;
+                    }
+                    count += result;
+                }
+            }
+
+            // Agrupamos por textura: los tiles de suelo no se superponen
+            for (int i = 0; i < count; i++)
+                sortKeys[i] = ((long) quadTexture[i].getId() << 32) | i;
+            Arrays.sort(sortKeys, 0, count);
+
+            int ranges = 0;
+            Texture[] textures = new Texture[count];
+            int[] starts = new int[count];
+            int[] sizes = new int[count];
+            Texture last = null;
+            for (int i = 0; i < count; i++) {
+                int q = (int) sortKeys[i];
+                putQuad(q);
+                if (quadTexture[q] != last) {
+                    textures[ranges] = quadTexture[q];
+                    starts[ranges] = totalQuads + i;
+                    sizes[ranges] = 0;
+                    ranges++;
+                    last = quadTexture[q];
+                }
+                sizes[ranges - 1]++;
+            }
+
+            chunk.rangeCount[slot] = ranges;
+            chunk.rangeTexture[slot] = textures;
+            chunk.rangeStart[slot] = starts;
+            chunk.rangeQuads[slot] = sizes;
+            totalQuads += count;
+        }
+        vertexBuffer.flip();
+
+        if (chunk.vaoId == 0) {
+            chunk.vaoId = glGenVertexArrays();
+            chunk.vboId = glGenBuffers();
+            glBindVertexArray(chunk.vaoId);
+            glBindBuffer(GL_ARRAY_BUFFER, chunk.vboId);
+            glVertexAttribPointer(0, 2, GL_FLOAT, false, VERTEX_SIZE_BYTES, 0);
+            glEnableVertexAttribArray(0);
+            glVertexAttribPointer(1, 2, GL_FLOAT, false, VERTEX_SIZE_BYTES, 2 * Float.BYTES);
+            glEnableVertexAttribArray(1);
+            glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, eboId);
+            glBindVertexArray(0);
+        }
+
+        glBindBuffer(GL_ARRAY_BUFFER, chunk.vboId);
+        glBufferData(GL_ARRAY_BUFFER, vertexBuffer, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        tiles.clearChunkDirty(cx, cy);
+        chunk.ready = true;
+    }
+
+    /**
+     * Calcula el quad estático de un tile (misma lógica de centrado que
+     * {@link Drawn#drawTexture}) y lo deja en la posición {@code slot} de los
+     * arreglos de trabajo.
+     *
+     * @return 1 si se agregó un quad, 0 si el tile no aporta geometría estática,
+     *         -1 si su textura todavía no está disponible.
+     */
+    private int collectQuad(int layer, int idx, int x, int y, int slot) {
+        int grh = tiles.getGrh(layer, idx);
+        if (grh <= 0 || grh >= grhData.length() || grhData.get(grh) == null || grhData.get(grh).getNumFrames() == 0)
+            return 0;
+        if (isAnimated(tiles, layer, idx))
+            return 0;
+
+        int frame = grhData.get(grh).getFrame((int) tiles.getFrameCounter(layer, idx));
+        if (frame <= 0 || frame >= grhData.length() || grhData.get(frame) == null)
+            return 0;
+        GrhData data = grhData.get(frame);
+        if (data.getFileNum() == 0)
+            return 0;
+
+        // Preferimos la página del atlas si ya está residente
+        float srcX = data.getsX();
+        float srcY = data.getsY();
+        Texture texture = TextureAtlas.INSTANCE.getPage(frame);
+        if (texture != null) {
+            srcX = TextureAtlas.INSTANCE.getRegionX(frame);
+            srcY = TextureAtlas.INSTANCE.getRegionY(frame);
+        } else {
+            texture = Surface.INSTANCE.getTexture(data.getFileNum());
+            if (texture.getId() == 0)
+                return -1;
+        }
+
+        float wx = worldX(data, x);
+        float wy = worldY(data, y);
+
+        float texW = texture.getTex_width();
+        float texH = texture.getTex_height();
+        int o = slot * 8;
+        quadData[o] = wx;
+        quadData[o + 1] = wy;
+        quadData[o + 2] = data.getPixelWidth();
+        quadData[o + 3] = data.getPixelHeight();
+        quadData[o + 4] = srcX / texW;
+        quadData[o + 5] = (srcY + data.getPixelHeight()) / texH;
+        quadData[o + 6] = (srcX + data.getPixelWidth()) / texW;
+        quadData[o + 7] = srcY / texH;
+        quadTexture[slot] = texture;
+        return 1;
+    }
+
+    /**
+     * Posición X en el mundo (en píxeles sin zoom) del quad de un tile: los
+     * gráficos de más de un tile de ancho se centran sobre la columna.
+     */
+    static float worldX(GrhData data, int x) {
+        return worldX(data.getTileWidth(), x);
+    }
+
+    static float worldX(float tileWidth, int x) {
+        float wx = x * BASE_TILE_SIZE;
+        if (tileWidth != 1)
+            wx = wx - (int) (tileWidth * BASE_TILE_SIZE / 2) + BASE_TILE_SIZE / 2;
+        return wx;
+    }
+
+    /**
+     * Posición Y en el mundo del quad de un tile: los gráficos de más de un tile
+     * de alto crecen hacia arriba desde la fila del tile.
+     */
+    static float worldY(GrhData data, int y) {
+        return worldY(data.getTileHeight(), y);
+    }
+
+    static float worldY(float tileHeight, int y) {
+        float wy = y * BASE_TILE_SIZE;
+        if (tileHeight != 1)
+            wy = wy - (int) (tileHeight * BASE_TILE_SIZE) + BASE_TILE_SIZE;
+        return wy;
+    }
+
+    private void putQuad(int q) {
+        int o = q * 8;
+        float x = quadData[o], y = quadData[o + 1], w = quadData[o + 2], h = quadData[o + 3];
+        float u0 = quadData[o + 4], v0 = quadData[o + 5], u1 = quadData[o + 6], v1 = quadData[o + 7];
+
+        vertexBuffer.put(x).put(y + h).put(u0).put(v0); // Bottom-Left
+        vertexBuffer.put(x).put(y).put(u0).put(v1); // Top-Left
+        vertexBuffer.put(x + w).put(y).put(u1).put(v1); // Top-Right
+        vertexBuffer.put(x + w).put(y + h).put(u1).put(v0); // Bottom-Right
+    }
+}
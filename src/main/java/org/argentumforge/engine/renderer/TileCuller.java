@@ -0,0 +1,250 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.scenes.Camera;
+import org.argentumforge.engine.utils.inits.TileStore;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static org.argentumforge.engine.scenes.Camera.POS_SCREEN_X;
+import static org.argentumforge.engine.scenes.Camera.POS_SCREEN_Y;
+import static org.argentumforge.engine.scenes.Camera.TILE_BUFFER_SIZE;
+import static org.argentumforge.engine.scenes.Camera.TILE_PIXEL_SIZE;
+
+/**
+ * Recorrido de visibilidad del pase de mapa.
+ * <p>
+ * Antes de dibujar, {@link #cull} recorre una sola vez los tiles visibles y
+ * guarda, por fila y por pase de dibujo, las columnas que tienen algo que
+ * dibujar en ese pase. Las filas son independientes: cada una escribe solo sus
+ * propias listas, así que en vistas grandes se reparten en franjas entre los
+ * hilos del pool común mientras el hilo de OpenGL procesa la primera. Las
+ * tareas de cada franja se crean una sola vez y se reutilizan en cada frame. Después el {@link MapRenderer}
+ * recorre únicamente los tiles sobrevivientes, en el mismo orden de filas y
+ * columnas que antes, y encola sus quads en el batch.
+ * <p>
+ * Los filtros son un superconjunto de las condiciones de dibujo (por ejemplo,
+ * {@link #PASS_UPPER} incluye todo tile con objeto, personaje o capa 3); el
+ * renderer vuelve a comprobar los detalles sobre cada sobreviviente. Durante el
+ * recorrido solo se lee el mapa y la caché estática, que no cambian hasta que
+ * termina.
+ * <p>
+ * Las posiciones en pantalla salen de una {@link View} que se actualiza al
+ * empezar el frame y no cambia hasta el siguiente, en lugar de avanzar el
+ * estado de la {@link Camera} dentro de los bucles.
+ */
+final class TileCuller {
+
+    /** Capa 1 no horneada en la caché estática. */
+    static final int PASS_GROUND = 0;
+    /** Capa 2 (nunca se hornea). */
+    static final int PASS_LAYER2 = 1;
+    /** Objetos en el suelo (los de un tile se dibujan junto a la capa 2). */
+    static final int PASS_OBJECTS = 2;
+    /** Objetos grandes, personajes y capa 3, que se dibujan intercalados. */
+    static final int PASS_UPPER = 3;
+    /** Capa 4 (techos). */
+    static final int PASS_ROOF = 4;
+    /** Overlay de bloqueos. */
+    static final int PASS_BLOCKS = 5;
+    /** Overlay de traslados. */
+    static final int PASS_EXITS = 6;
+    static final int PASS_COUNT = 7;
+
+    /** Tiles visibles a partir de los cuales conviene repartir las filas. */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Estado de la cámara congelado para un frame. Cada renderer guarda una
+     * instancia y la actualiza con {@link #set} al empezar el frame.
+     */
+    static final class View {
+        int minX;
+        int minY;
+        int maxX;
+        int maxY;
+        /** Posición en pantalla del tile (minX, minY). */
+        int originX;
+        int originY;
+        int tileSize;
+
+        View() {
+        }
+
+        View(int minX, int minY, int maxX, int maxY, int originX, int originY, int tileSize) {
+            set(minX, minY, maxX, maxY, originX, originY, tileSize);
+        }
+
+        View set(Camera camera, int pixelOffsetX, int pixelOffsetY) {
+            return set(camera.getMinX(), camera.getMinY(), camera.getMaxX(), camera.getMaxY(),
+                    POS_SCREEN_X + (camera.getMinXOffset() - TILE_BUFFER_SIZE) * TILE_PIXEL_SIZE + pixelOffsetX,
+                    POS_SCREEN_Y + (camera.getMinYOffset() - TILE_BUFFER_SIZE) * TILE_PIXEL_SIZE + pixelOffsetY,
+                    TILE_PIXEL_SIZE);
+        }
+
+        View set(int minX, int minY, int maxX, int maxY, int originX, int originY, int tileSize) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.originX = originX;
+            this.originY = originY;
+            this.tileSize = tileSize;
+            return this;
+        }
+
+        int screenX(int x) {
+            return originX + (x - minX) * tileSize;
+        }
+
+        int screenY(int y) {
+            return originY + (y - minY) * tileSize;
+        }
+    }
+
+    /**
+     * Filtro de la caché estática, consultado desde los hilos del recorrido.
+     */
+    @FunctionalInterface
+    interface StaticFilter {
+        boolean isStaticCached(TileStore tiles, int layer, int x, int y, int idx);
+    }
+
+    /**
+     * Franja de filas que un hilo del pool recorre en un frame.
+     */
+    private final class RowBand extends RecursiveAction {
+        int from;
+        int to;
+
+        @Override
+        protected void compute() {
+            for (int row = from; row < to; row++)
+                cullRow(row);
+        }
+    }
+
+    /** Una franja por hilo del pool más la del hilo que llama. */
+    private final RowBand[] bands = new RowBand[ForkJoinPool.getCommonPoolParallelism() + 1];
+
+    private View view;
+    private int rows;
+    private int cols;
+    private TileStore tiles;
+    private int passes;
+    private StaticFilter cached;
+    /** Columnas sobrevivientes: {@code columns[pass * rows + fila]}. */
+    private int[][] columns = new int[0][];
+    private int[] counts = new int[0];
+
+    TileCuller() {
+        for (int i = 0; i < bands.length; i++)
+            bands[i] = new RowBand();
+    }
+
+    /**
+     * Recorre la vista y llena las listas de los pases pedidos.
+     *
+     * @param passes Máscara de bits con los pases a calcular ({@code 1 << PASS_*}).
+     */
+    void cull(View view, TileStore tiles, int passes, StaticFilter cached) {
+        this.view = view;
+        this.rows = Math.max(0, view.maxY - view.minY + 1);
+        this.cols = Math.max(0, view.maxX - view.minX + 1);
+
+        int lists = PASS_COUNT * rows;
+        if (columns.length < lists) {
+            columns = Arrays.copyOf(columns, lists);
+            counts = new int[lists];
+        }
+        Arrays.fill(counts, 0, lists, 0);
+        if (rows == 0 || cols == 0 || passes == 0)
+            return;
+
+        this.tiles = tiles;
+        this.passes = passes;
+        this.cached = cached;
+        if ((long) rows * cols >= PARALLEL_THRESHOLD && bands.length > 1)
+            cullBands();
+        else
+            for (int row = 0; row < rows; row++)
+                cullRow(row);
+        // No retenemos el mapa ni el filtro entre frames
+        this.tiles = null;
+        this.cached = null;
+    }
+
+    /**
+     * Reparte las filas entre las franjas y las ejecuta; la primera corre en el
+     * hilo que llama y las demás en el pool común.
+     */
+    private void cullBands() {
+        int count = Math.min(bands.length, rows);
+        for (int i = 0; i < count; i++) {
+            RowBand band = bands[i];
+            band.reinitialize();
+            band.from = (int) ((long) rows * i / count);
+            band.to = (int) ((long) rows * (i + 1) / count);
+        }
+        for (int i = 1; i < count; i++)
+            bands[i].fork();
+        bands[0].invoke();
+        for (int i = 1; i < count; i++)
+            bands[i].join();
+    }
+
+    View getView() {
+        return view;
+    }
+
+    /**
+     * @return Cantidad de columnas sobrevivientes de la fila {@code y} en el pase.
+     */
+    int count(int pass, int y) {
+        return counts[pass * rows + (y - view.minY)];
+    }
+
+    /**
+     * @return Coordenada X de la {@code i}-ésima columna sobreviviente.
+     */
+    int column(int pass, int y, int i) {
+        return columns[pass * rows + (y - view.minY)][i];
+    }
+
+    private void cullRow(int row) {
+        int y = view.minY + row;
+        for (int x = view.minX; x <= view.maxX; x++) {
+            int idx = tiles.index(x, y);
+            if ((passes & (1 << PASS_GROUND)) != 0 && tiles.getGrh(1, idx) != 0
+                    && !cached.isStaticCached(tiles, 1, x, y, idx))
+                add(PASS_GROUND, row, x);
+            if ((passes & (1 << PASS_LAYER2)) != 0 && tiles.getGrh(2, idx) != 0
+                    && !cached.isStaticCached(tiles, 2, x, y, idx))
+                add(PASS_LAYER2, row, x);
+
+            boolean hasObject = tiles.getGrh(TileStore.OBJ_SLOT, idx) > 0;
+            if ((passes & (1 << PASS_OBJECTS)) != 0 && hasObject)
+                add(PASS_OBJECTS, row, x);
+            if ((passes & (1 << PASS_UPPER)) != 0
+                    && (hasObject || tiles.getCharIndex(idx) != 0 || tiles.getGrh(3, idx) != 0))
+                add(PASS_UPPER, row, x);
+            if ((passes & (1 << PASS_ROOF)) != 0 && tiles.getGrh(4, idx) > 0)
+                add(PASS_ROOF, row, x);
+            if ((passes & (1 << PASS_BLOCKS)) != 0 && tiles.isBlocked(idx))
+                add(PASS_BLOCKS, row, x);
+            if ((passes & (1 << PASS_EXITS)) != 0 && tiles.getExitMap(idx) > 0)
+                add(PASS_EXITS, row, x);
+        }
+    }
+
+    private void add(int pass, int row, int x) {
+        int list = pass * rows + row;
+        int[] entries = columns[list];
+        if (entries == null || entries.length < cols) {
+            entries = new int[cols];
+            columns[list] = entries;
+        }
+        entries[counts[list]++] = x;
+    }
+}
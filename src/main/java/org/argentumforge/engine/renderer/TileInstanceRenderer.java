@@ -0,0 +1,376 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.Engine;
+import org.argentumforge.engine.utils.inits.GrhInfo;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.system.MemoryUtil;
+import org.tinylog.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import static org.argentumforge.engine.Engine.batch;
+import static org.argentumforge.engine.utils.AssetRegistry.grhData;
+import static org.argentumforge.engine.utils.Time.deltaTime;
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * Dibujo instanciado de tiles de suelo.
+ * <p>
+ * En lugar de 4 vértices (80 bytes) y 6 índices por tile, cada tile se envía
+ * como una instancia de 12 bytes: posición en la grilla (2 x {@code ushort}),
+ * índice del GRH (con el bit de signo indicando si usa la región del atlas) y
+ * color RGBA8. Un único quad unitario estático se expande en el vertex shader
+ * usando una tabla de rectángulos por GRH guardada en un <i>texture buffer</i>,
+ * construida a partir de {@code AssetRegistry.grhData}.
+ * <p>
+ * Las instancias se agrupan por textura y se dibujan con un
+ * {@code glDrawArraysInstanced} por textura. Como no respeta el orden de envío
+ * entre texturas, solo se usa para capas cuyos tiles no dependen del orden del
+ * pintor (la capa 1).
+ */
+public enum TileInstanceRenderer {
+
+    INSTANCE;
+
+    private static final int BASE_TILE_SIZE = 32;
+    private static final int INSTANCE_SIZE_BYTES = 12;
+    private static final int TEXELS_PER_GRH = 2;
+    /** Bit que marca que la instancia usa la región del atlas en vez del recorte original. */
+    private static final int ATLAS_FLAG = 0x80000000;
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final String VERTEX_SHADER = "#version 330 core\n" +
+            "layout (location = 0) in vec2 aCorner;\n" +
+            "layout (location = 1) in uvec2 iTile;\n" +
+            "layout (location = 2) in int iRect;\n" +
+            "layout (location = 3) in vec4 iColor;\n" +
+            "\n" +
+            "out vec2 fTexCoords;\n" +
+            "out vec4 fColor;\n" +
+            "\n" +
+            "uniform mat4 uProjection;\n" +
+            "uniform vec2 uOrigin;\n" +
+            "uniform float uScale;\n" +
+            "uniform vec2 uTexSize;\n" +
+            "uniform samplerBuffer uRects;\n" +
+            "\n" +
+            "void main()\n" +
+            "{\n" +
+            "    int grh = iRect & 0x7FFFFFFF;\n" +
+            "    vec4 rect = texelFetch(uRects, grh * 2);\n" +
+            "    vec4 extra = texelFetch(uRects, grh * 2 + 1);\n" +
+            "    vec2 src = iRect < 0 ? extra.xy : rect.xy;\n" +
+            "    vec2 world = vec2(iTile) * " + BASE_TILE_SIZE + ".0 + extra.zw + aCorner * rect.zw;\n" +
+            "    fTexCoords = (src + aCorner * rect.zw) / uTexSize;\n" +
+            "    fColor = iColor;\n" +
+            "    gl_Position = uProjection * vec4(uOrigin + world * uScale, 0.0, 1.0);\n" +
+            "}\n";
+
+    private static final String FRAGMENT_SHADER = "#version 330 core\n" +
+            "in vec2 fTexCoords;\n" +
+            "in vec4 fColor;\n" +
+            "\n" +
+            "out vec4 color;\n" +
+            "\n" +
+            "uniform sampler2D uTexture;\n" +
+            "\n" +
+            "void main()\n" +
+            "{\n" +
+            "    vec4 texColor = fColor * texture(uTexture, fTexCoords);\n" +
+            "    if (texColor.a < 0.05) discard;\n" +
+            "    color = texColor;\n" +
+            "}\n";
+
+    private boolean initialized;
+    private boolean supported;
+
+    private ShaderProgram shader;
+    private int projMatrixLoc;
+    private int originLoc;
+    private int scaleLoc;
+    private int texSizeLoc;
+    private int vaoId;
+    private int quadVboId;
+    private int instanceVboId;
+    private int rectBufferId;
+    private int rectTextureId;
+    private int maxTableTexels;
+
+    // Tabla de rectángulos vigente
+    private GrhTable tableSource;
+    private int tableAtlasGeneration = -1;
+
+    // Instancias encoladas (se ordenan por textura al dibujar)
+    private int count;
+    private int[] tilePos = new int[1024];
+    private int[] rects = new int[1024];
+    private int[] colors = new int[1024];
+    private Texture[] textures = new Texture[1024];
+    private long[] keys = new long[1024];
+    private ByteBuffer staging = MemoryUtil.memAlloc(1024 * INSTANCE_SIZE_BYTES);
+
+    /**
+     * Crea los objetos GL la primera vez. Debe llamarse desde el hilo de OpenGL.
+     *
+     * @return {@code false} si el contexto no admite la tabla de GRH y hay que usar
+     *         el {@link BatchRenderer}.
+     */
+    public boolean isSupported() {
+        if (!initialized)
+            init();
+        return supported && ensureRectTable();
+    }
+
+    /**
+     * Descarta las instancias encoladas.
+     */
+    public void begin() {
+        Arrays.fill(textures, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Encola un tile con la misma lógica que {@link Drawn#drawTexture}: avanza la
+     * animación, resuelve el frame y centra los gráficos de varios tiles.
+     */
+    public void add(GrhInfo grh, int tileX, int tileY, RGBColor color, float alpha) {
+        int grhIndex = grh.getGrhIndex();
+        if (grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null
+                || grhData.get(grhIndex).getNumFrames() == 0)
+            return;
+        int frame = grhData.get(grhIndex).getFrame((int) grh.advance(deltaTime));
+        if (frame <= 0 || frame >= grhData.length() || grhData.get(frame) == null
+                || grhData.get(frame).getFileNum() == 0)
+            return;
+
+        Texture texture = Engine.batch.isExportMode() ? null : TextureAtlas.INSTANCE.getPage(frame);
+        int rect = packRect(frame, texture != null);
+        if (texture == null) {
+            texture = Surface.INSTANCE.getTexture(grhData.get(frame).getFileNum());
+            if (texture.getId() == 0) {
+                if (!Engine.batch.isExportMode())
+                    return;
+                Surface.INSTANCE.syncLoad(grhData.get(frame).getFileNum());
+                if (texture.getId() == 0)
+                    return;
+            }
+        }
+
+        if (count == rects.length)
+            grow(count * 2);
+        tilePos[count] = packTilePos(tileX, tileY);
+        rects[count] = rect;
+        colors[count] = QuadBuffer.packColor(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+        textures[count] = texture;
+        keys[count] = ((long) texture.getId() << 32) | count;
+        count++;
+    }
+
+    /**
+     * Dibuja las instancias encoladas. Vacía antes el batch dinámico para que lo
+     * ya encolado quede por debajo.
+     *
+     * @param originX Posición en pantalla del tile (0,0).
+     * @param originY Posición en pantalla del tile (0,0).
+     * @param scale   Escala de zoom actual.
+     */
+    public void draw(float originX, float originY, float scale) {
+        if (count == 0)
+            return;
+        batch.flush();
+
+        // Agrupar por textura y volcar en ese orden al buffer de instancias
+        Arrays.sort(keys, 0, count);
+        staging.clear();
+        for (int i = 0; i < count; i++) {
+            int q = (int) keys[i];
+            staging.putInt(tilePos[q]).putInt(rects[q]).putInt(colors[q]);
+        }
+        staging.flip();
+
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        glBufferData(GL_ARRAY_BUFFER, (long) staging.capacity(), GL_STREAM_DRAW);
+        glBufferSubData(GL_ARRAY_BUFFER, 0, staging);
+
+        shader.bind();
+        glUniformMatrix4fv(projMatrixLoc, false, batch.getProjectionMatrix());
+        glUniform2f(originLoc, originX, originY);
+        glUniform1f(scaleLoc, scale);
+
+        glActiveTexture(GL_TEXTURE1);
+        glBindTexture(GL_TEXTURE_BUFFER, rectTextureId);
+        glActiveTexture(GL_TEXTURE0);
+
+        glEnable(GL_BLEND);
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        glBindVertexArray(vaoId);
+
+        int start = 0;
+        for (int i = 1; i <= count; i++) {
+            Texture texture = textures[(int) keys[start]];
+            if (i < count && textures[(int) keys[i]] == texture)
+                continue;
+
+            texture.bind();
+            glUniform2f(texSizeLoc, texture.getTex_width(), texture.getTex_height());
+            // Sin base instance (GL 4.2) desplazamos los punteros al primer tile del grupo
+            setInstancePointers((long) start * INSTANCE_SIZE_BYTES);
+            glDrawArraysInstanced(GL_TRIANGLE_STRIP, 0, 4, i - start);
+            batch.recordDrawCall(i - start);
+            start = i;
+        }
+
+        glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        shader.unbind();
+        begin();
+    }
+
+    /**
+     * Posición de un tile tal como la lee el atributo {@code iTile}: X e Y como
+     * dos ushort consecutivos en memoria.
+     */
+    static int packTilePos(int tileX, int tileY) {
+        return LITTLE_ENDIAN ? (tileY << 16) | (tileX & 0xFFFF) : (tileX << 16) | (tileY & 0xFFFF);
+    }
+
+    /**
+     * Valor del atributo {@code iRect}: el índice del GRH en la tabla, con el bit
+     * de signo encendido si el origen es la región del atlas.
+     */
+    static int packRect(int frame, boolean atlas) {
+        return atlas ? frame | ATLAS_FLAG : frame;
+    }
+
+    private void init() {
+        initialized = true;
+
+        maxTableTexels = glGetInteger(GL_MAX_TEXTURE_BUFFER_SIZE);
+
+        shader = new ShaderProgram();
+        shader.createVertexShader(VERTEX_SHADER);
+        shader.createFragmentShader(FRAGMENT_SHADER);
+        shader.link();
+
+        projMatrixLoc = glGetUniformLocation(shader.programId, "uProjection");
+        originLoc = glGetUniformLocation(shader.programId, "uOrigin");
+        scaleLoc = glGetUniformLocation(shader.programId, "uScale");
+        texSizeLoc = glGetUniformLocation(shader.programId, "uTexSize");
+        shader.bind();
+        glUniform1i(glGetUniformLocation(shader.programId, "uTexture"), 0);
+        glUniform1i(glGetUniformLocation(shader.programId, "uRects"), 1);
+        shader.unbind();
+
+        vaoId = glGenVertexArrays();
+        glBindVertexArray(vaoId);
+
+        // Quad unitario en tira: Bottom-Left, Top-Left, Bottom-Right, Top-Right
+        FloatBuffer corners = BufferUtils.createFloatBuffer(8);
+        corners.put(0f).put(1f).put(0f).put(0f).put(1f).put(1f).put(1f).put(0f).flip();
+        quadVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, quadVboId);
+        glBufferData(GL_ARRAY_BUFFER, corners, GL_STATIC_DRAW);
+        glVertexAttribPointer(0, 2, GL_FLOAT, false, 2 * Float.BYTES, 0);
+        glEnableVertexAttribArray(0);
+
+        instanceVboId = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, instanceVboId);
+        glEnableVertexAttribArray(1);
+        glVertexAttribDivisor(1, 1);
+        glEnableVertexAttribArray(2);
+        glVertexAttribDivisor(2, 1);
+        glEnableVertexAttribArray(3);
+        glVertexAttribDivisor(3, 1);
+        setInstancePointers(0);
+
+        glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        rectBufferId = glGenBuffers();
+        rectTextureId = glGenTextures();
+        supported = true;
+    }
+
+    /** Punteros de los atributos por instancia (con el VBO de instancias bindeado). */
+    private void setInstancePointers(long offset) {
+        glVertexAttribIPointer(1, 2, GL_UNSIGNED_SHORT, INSTANCE_SIZE_BYTES, offset);
+        glVertexAttribIPointer(2, 1, GL_INT, INSTANCE_SIZE_BYTES, offset + 4);
+        glVertexAttribPointer(3, 4, GL_UNSIGNED_BYTE, true, INSTANCE_SIZE_BYTES, offset + 8);
+    }
+
+    /**
+     * (Re)construye la tabla de rectángulos si cambiaron los GRH cargados o el
+     * layout del atlas.
+     */
+    private boolean ensureRectTable() {
+        if (grhData == null)
+            return false;
+        int atlasGeneration = TextureAtlas.INSTANCE.getGeneration();
+        if (grhData == tableSource && atlasGeneration == tableAtlasGeneration)
+            return true;
+
+        if ((long) grhData.length() * TEXELS_PER_GRH > maxTableTexels) {
+            Logger.warn("TileInstanceRenderer: {} GRH superan el tamaño máximo de texture buffer ({} texels);"
+                    + " se usa el batch dinámico.", grhData.length(), maxTableTexels);
+            supported = false;
+            return false;
+        }
+
+        FloatBuffer table = MemoryUtil.memCallocFloat(grhData.length() * TEXELS_PER_GRH * 4);
+        try {
+            // Accesores primitivos: armar la tabla no construye ningún GrhData
+            for (int i = 1; i < grhData.length(); i++) {
+                if (!grhData.contains(i) || grhData.fileNum(i) == 0)
+                    continue;
+
+                // Mismo centrado que el horneado estático, relativo al tile (0,0)
+                float offsetX = TileChunkCache.worldX(grhData.tileWidth(i), 0);
+                float offsetY = TileChunkCache.worldY(grhData.tileHeight(i), 0);
+
+                boolean atlas = TextureAtlas.INSTANCE.hasRegion(i);
+                int o = i * TEXELS_PER_GRH * 4;
+                table.put(o, grhData.sx(i));
+                table.put(o + 1, grhData.sy(i));
+                table.put(o + 2, grhData.pixelWidth(i));
+                table.put(o + 3, grhData.pixelHeight(i));
+                table.put(o + 4, atlas ? TextureAtlas.INSTANCE.getRegionX(i) : 0);
+                table.put(o + 5, atlas ? TextureAtlas.INSTANCE.getRegionY(i) : 0);
+                table.put(o + 6, offsetX);
+                table.put(o + 7, offsetY);
+            }
+
+            glBindBuffer(GL_TEXTURE_BUFFER, rectBufferId);
+            glBufferData(GL_TEXTURE_BUFFER, table, GL_STATIC_DRAW);
+            glBindBuffer(GL_TEXTURE_BUFFER, 0);
+
+            glBindTexture(GL_TEXTURE_BUFFER, rectTextureId);
+            glTexBuffer(GL_TEXTURE_BUFFER, GL_RGBA32F, rectBufferId);
+            glBindTexture(GL_TEXTURE_BUFFER, 0);
+        } finally {
+            MemoryUtil.memFree(table);
+        }
+
+        tableSource = grhData;
+        tableAtlasGeneration = atlasGeneration;
+        return true;
+    }
+
+    private void grow(int capacity) {
+        tilePos = Arrays.copyOf(tilePos, capacity);
+        rects = Arrays.copyOf(rects, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        textures = Arrays.copyOf(textures, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        staging = MemoryUtil.memRealloc(staging, capacity * INSTANCE_SIZE_BYTES);
+    }
+}
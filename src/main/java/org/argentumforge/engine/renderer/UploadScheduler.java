@@ -0,0 +1,192 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.AssetRegistry;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.argentumforge.engine.utils.inits.TileStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Cola de texturas decodificadas a la espera de subir a la GPU.
+ * <p>
+ * Cada frame se sube lo que entra en un presupuesto de tiempo
+ * ({@link #TIME_BUDGET_NANOS}) y de bytes ({@link #BYTE_BUDGET}), en orden de
+ * prioridad y siempre al menos una textura para que la cola avance:
+ * <ol>
+ * <li>Texturas que el render pidió en el último frame: están en pantalla y se
+ * adelantan a todo lo demás.</li>
+ * <li>Texturas usadas por las capas visibles del mapa activo, de la más cercana
+ * a la más lejana al centro de la cámara.</li>
+ * <li>El resto (p.ej. las precargas de mapas vecinos), en orden de llegada.</li>
+ * </ol>
+ * La distancia de cada archivo se calcula recorriendo el mapa solo cuando
+ * cambia el foco ({@link #focus}): el mapa, el tile central o las capas
+ * visibles. La cola no hace llamadas a OpenGL; la subida la hace quien la
+ * vacía.
+ */
+final class UploadScheduler {
+
+    /** Tiempo máximo dedicado a subir texturas en un frame. */
+    static final long TIME_BUDGET_NANOS = 4_000_000L;
+    /** Bytes máximos subidos en un frame (cuatro hojas RGBA de 1024x1024). */
+    static final long BYTE_BUDGET = 16L * 1024 * 1024;
+
+    private static final long TIER_ON_SCREEN = 0;
+    private static final long TIER_NEAR = 1L << 32;
+    private static final long TIER_OTHER = 2L << 32;
+    private static final int FAR = Integer.MAX_VALUE;
+
+    /** Textura decodificada en espera, con su prioridad del frame actual. */
+    static final class Pending {
+        final Texture.TextureData data;
+        /** Número de archivo, o -1 para cargas por nombre. */
+        final int fileNum;
+        final long sequence;
+        long priority;
+
+        Pending(Texture.TextureData data, int fileNum, long sequence) {
+            this.data = data;
+            this.fileNum = fileNum;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Pending> BY_PRIORITY = Comparator
+            .comparingLong((Pending p) -> p.priority)
+            .thenComparingLong(p -> p.sequence);
+
+    private final List<Pending> pending = new ArrayList<>();
+    private long sequence;
+
+    /** Distancia en tiles al centro de la cámara, por número de archivo. */
+    private int[] distance = new int[0];
+    private TileStore focusTiles;
+    private GrhTable focusGrhData;
+    private int focusX;
+    private int focusY;
+    private int focusLayers = -1;
+
+    void add(Texture.TextureData data, int fileNum) {
+        pending.add(new Pending(data, fileNum, sequence++));
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Actualiza el punto de interés. Solo vuelve a recorrer el mapa si algo
+     * cambió desde la última llamada.
+     *
+     * @param tiles   Mapa activo, o {@code null} si no hay ninguno.
+     * @param centerX Tile central de la cámara.
+     * @param centerY Tile central de la cámara.
+     * @param layers  Capas visibles: bit {@code n} para la capa {@code n} (1 a 4)
+     *                y bit 0 para los objetos.
+     */
+    void focus(TileStore tiles, int centerX, int centerY, int layers) {
+        GrhTable grhData = AssetRegistry.grhData;
+        if (tiles == focusTiles && grhData == focusGrhData && centerX == focusX && centerY == focusY
+                && layers == focusLayers)
+            return;
+
+        focusTiles = tiles;
+        focusGrhData = grhData;
+        focusX = centerX;
+        focusY = centerY;
+        focusLayers = layers;
+        Arrays.fill(distance, FAR);
+        if (tiles == null || grhData == null)
+            return;
+
+        for (int y = 0; y < tiles.getHeight(); y++) {
+            int dy = Math.abs(y - centerY);
+            for (int x = 0; x < tiles.getWidth(); x++) {
+                int d = Math.max(Math.abs(x - centerX), dy);
+                int idx = tiles.index(x, y);
+                for (int slot = TileStore.OBJ_SLOT; slot <= 4; slot++) {
+                    if ((layers & (1 << slot)) != 0)
+                        markGrh(grhData, tiles.getGrh(slot, idx), d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sube las texturas en espera que entren en el presupuesto del frame.
+     *
+     * @param onScreen Indica si el render pidió el archivo en el último frame.
+     * @param upload   Sube una textura y libera sus datos.
+     * @return Cantidad de texturas subidas.
+     */
+    int dispatch(IntPredicate onScreen, Consumer<Texture.TextureData> upload) {
+        if (pending.isEmpty())
+            return 0;
+
+        for (Pending p : pending)
+            p.priority = priority(p.fileNum, onScreen);
+        pending.sort(BY_PRIORITY);
+
+        long start = System.nanoTime();
+        long bytes = 0;
+        int uploaded = 0;
+        while (uploaded < pending.size()) {
+            Texture.TextureData data = pending.get(uploaded).data;
+            long size = (long) data.width * data.height * 4;
+            if (uploaded > 0 && (bytes + size > BYTE_BUDGET || System.nanoTime() - start > TIME_BUDGET_NANOS))
+                break;
+            upload.accept(data);
+            bytes += size;
+            uploaded++;
+        }
+        pending.subList(0, uploaded).clear();
+        return uploaded;
+    }
+
+    private long priority(int fileNum, IntPredicate onScreen) {
+        if (fileNum < 0)
+            return TIER_OTHER;
+        if (onScreen.test(fileNum))
+            return TIER_ON_SCREEN;
+        int d = fileNum < distance.length ? distance[fileNum] : FAR;
+        return d == FAR ? TIER_OTHER : TIER_NEAR | d;
+    }
+
+    private void markGrh(GrhTable grhData, int grhIndex, int d) {
+        // Accesores primitivos: recorrer el mapa no debe construir los GrhData
+        if (grhIndex <= 0 || !grhData.contains(grhIndex))
+            return;
+        int numFrames = grhData.numFrames(grhIndex);
+        if (numFrames <= 1) {
+            markFile(grhData.fileNum(grhIndex), d);
+            return;
+        }
+        // Frames de las animaciones indexados desde 1
+        for (int f = 1; f <= numFrames; f++) {
+            int frame = grhData.frame(grhIndex, f);
+            if (frame > 0 && grhData.contains(frame))
+                markFile(grhData.fileNum(frame), d);
+        }
+    }
+
+    private void markFile(int fileNum, int d) {
+        if (fileNum <= 0)
+            return;
+        if (fileNum >= distance.length) {
+            int old = distance.length;
+            distance = Arrays.copyOf(distance, Math.max(fileNum + 1, old * 2));
+            Arrays.fill(distance, old, distance.length, FAR);
+        }
+        if (d < distance[fileNum])
+            distance[fileNum] = d;
+    }
+}
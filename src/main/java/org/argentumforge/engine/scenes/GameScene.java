@@ -126,11 +126,12 @@ public final class GameScene extends Scene {
 
         // Actualizar velocidad de caminata del usuario según opciones
         int charIndex = user.getUserCharIndex();
-        if (charIndex >= 0 && charIndex < charList.length && charList[charIndex] != null) {
+        Character userChar = charList.get(charIndex);
+        if (userChar != null) {
             int targetSpeed = user.isWalkingmode()
                     ? options.getMoveSpeedWalk()
                     : options.getMoveSpeedNormal();
-            charList[charIndex].setWalkingSpeed(targetSpeed);
+            userChar.setWalkingSpeed(targetSpeed);
         }
 
         if (user.isUserMoving()) {
@@ -143,12 +144,13 @@ public final class GameScene extends Scene {
                 int userIdx = user.getUserCharIndex();
 
                 // Verificación de seguridad para personaje válido en bucle de movimiento
-                if (userIdx < 0 || userIdx >= charList.length || charList[userIdx] == null) {
+                Character movingChar = charList.get(userIdx);
+                if (movingChar == null) {
                     user.setUserMoving(false);
                     return;
                 }
 
-                float speedPixels = (charList[userIdx].getWalkingSpeed() * zoomScale) * timerTicksPerFrame;
+                float speedPixels = (movingChar.getWalkingSpeed() * zoomScale) * timerTicksPerFrame;
                 float progressParams = speedPixels / TILE_PIXEL_SIZE;
 
                 // Calcular umbral de finalización basado en distancia (multiplicador)
@@ -490,13 +492,13 @@ public final class GameScene extends Scene {
                 + pixelOffsetY;
 
         // Aplicar centrado para GRHs grandes (mismo sistema que Drawn.drawTexture)
-        if (grhIndex > 0 && grhIndex < grhData.length && grhData[grhIndex] != null) {
-            if (grhData[grhIndex].getTileWidth() != 1.0f) {
-                screenX = screenX - (int) (grhData[grhIndex].getTileWidth() * TILE_PIXEL_SIZE / 2)
+        if (grhIndex > 0 && grhIndex < grhData.length() && grhData.get(grhIndex) != null) {
+            if (grhData.get(grhIndex).getTileWidth() != 1.0f) {
+                screenX = screenX - (int) (grhData.get(grhIndex).getTileWidth() * TILE_PIXEL_SIZE / 2)
                         + TILE_PIXEL_SIZE / 2;
             }
-            if (grhData[grhIndex].getTileHeight() != 1.0f) {
-                screenY = screenY - (int) (grhData[grhIndex].getTileHeight() * TILE_PIXEL_SIZE) + TILE_PIXEL_SIZE;
+            if (grhData.get(grhIndex).getTileHeight() != 1.0f) {
+                screenY = screenY - (int) (grhData.get(grhIndex).getTileHeight() * TILE_PIXEL_SIZE) + TILE_PIXEL_SIZE;
             }
 
             // [FIX] Soporte para animaciones en el ghost
@@ -507,10 +509,10 @@ public final class GameScene extends Scene {
             // Esto evita problemas de parpadeo por carga asíncrona de frames y es
             // suficiente
             // para que el usuario sepa qué superficie está colocando.
-            if (grhData[grhIndex].getNumFrames() > 1) {
+            if (grhData.get(grhIndex).getNumFrames() > 1) {
                 // Usamos getFrame(1) asumiendo que es el primer frame visualmente relevante
                 // de la animación (similar a como lo hace la paleta).
-                int staticFrameIndex = grhData[grhIndex].getFrame(1);
+                int staticFrameIndex = grhData.get(grhIndex).getFrame(1);
                 drawGrhIndex(staticFrameIndex, screenX, screenY, alpha, weather.getWeatherColor());
                 return;
             }
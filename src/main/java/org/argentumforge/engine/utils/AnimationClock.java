@@ -0,0 +1,75 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.game.Options;
+import org.argentumforge.engine.utils.inits.GrhTable;
+
+/**
+ * Reloj compartido de las animaciones en bucle de los tiles.
+ * <p>
+ * Todos los tiles se inicializan con la misma velocidad y se repiten
+ * indefinidamente, así que el frame de un tile animado depende solo del tiempo
+ * transcurrido, de la cantidad de frames de su GRH y de un desfase propio. En
+ * lugar de que cada tile avance su contador al dibujarse, el reloj avanza una
+ * sola vez por frame ({@link #tick(float)}) y los tiles lo muestrean por índice
+ * de GRH con {@link #sample(int, float)}, sin escribir nada por tile. El mismo
+ * reloj sirve para todos los mapas abiertos.
+ * <p>
+ * Las animaciones con estado propio (personajes, efectos de una sola pasada)
+ * siguen avanzando con {@link org.argentumforge.engine.utils.inits.GrhInfo#update(float)}.
+ */
+public enum AnimationClock {
+
+    INSTANCE;
+
+    /** Duración de un ciclo completo de animación de los tiles, en segundos. */
+    public static final float TILE_SPEED = 0.4f;
+
+    /** Tiempo dentro del ciclo actual, en [0, TILE_SPEED). */
+    private double elapsed;
+    /** Fracción del ciclo transcurrida, en [0, 1). */
+    private float cycle;
+    private boolean paused;
+
+    /**
+     * Avanza el reloj. Debe llamarse una vez por frame.
+     */
+    public void tick(float deltaTime) {
+        paused = Options.INSTANCE.getRenderSettings().isDisableAnimations();
+        if (paused || deltaTime <= 0)
+            return;
+        elapsed = (elapsed + deltaTime) % TILE_SPEED;
+        cycle = (float) (elapsed / TILE_SPEED);
+    }
+
+    /**
+     * @return {@code true} si las animaciones están desactivadas en las opciones
+     *         de render (leído en el último {@link #tick(float)}).
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Contador de frames actual de un GRH animado en bucle.
+     *
+     * @param grhIndex     GRH animado.
+     * @param frameCounter Contador propio del tile, usado como desfase: 1 (el
+     *                     valor con el que se inicializan los tiles) no desfasa.
+     * @return Contador en [1, frames + 1), o {@code frameCounter} si el GRH no es
+     *         animado.
+     */
+    public float sample(int grhIndex, float frameCounter) {
+        GrhTable grhData = AssetRegistry.grhData;
+        if (grhData == null || grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
+            return frameCounter;
+        int numFrames = grhData.get(grhIndex).getNumFrames();
+        if (numFrames <= 1)
+            return frameCounter;
+
+        float counter = (cycle * numFrames + frameCounter - 1.0f) % numFrames;
+        if (counter < 0)
+            counter += numFrames;
+        // El redondeo no debe llevar el contador al frame numFrames + 1
+        return Math.min(counter + 1.0f, Math.nextDown(numFrames + 1.0f));
+    }
+}
@@ -1,8 +1,7 @@
 package org.argentumforge.engine.utils;
 
 import org.argentumforge.engine.utils.inits.*;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Registro centralizado de todos los recursos (assets) cargados en memoria.
@@ -32,18 +31,75 @@ public final class AssetRegistry {
     // --- Datos Visuales y Animaciones ---
     /** Datos de efectos visuales (FXs). */
     public static FxData[] fxData;
-    /** Datos de definiciones de gráficos (GRH). */
-    public static GrhData[] grhData;
+    /**
+     * Datos de definiciones de gráficos (GRH). Cada {@link GrhData} se construye
+     * al pedirlo; los recorridos de todos los GRH deben usar los accesores
+     * primitivos de {@link GrhTable}.
+     */
+    public static GrhTable grhData;
     /** Índice máximo de GRH cargado (para optimización de UI/Paginación). */
     public static int maxGrhCount;
-    /** Mapa de colores asignados a GRHs para el minimapa. */
-    public static Map<Integer, Integer> minimapColors = new HashMap<>();
+    /** Valor de {@link #minimapColorByGrh} para los GRH sin color asignado. */
+    public static final int NO_MINIMAP_COLOR = 0;
+    /**
+     * Color ABGR del minimapa indexado por número de GRH, o
+     * {@link #NO_MINIMAP_COLOR}. Los colores cargados siempre son opacos, por lo
+     * que nunca coinciden con el centinela.
+     */
+    public static volatile int[] minimapColorByGrh = new int[0];
+    private static int minimapColorCount;
 
     // --- Definiciones de Entidades ---
-    /** Diccionario de definiciones de NPCs indexado por ID. */
-    public static Map<Integer, NpcData> npcs = new HashMap<>();
-    /** Diccionario de definiciones de Objetos indexado por ID. */
-    public static Map<Integer, ObjData> objs = new HashMap<>();
+    /** Definiciones de NPCs indexadas por ID. */
+    public static IntObjectTable<NpcData> npcs = new IntObjectTable<>();
+    /** Definiciones de Objetos indexadas por ID. */
+    public static IntObjectTable<ObjData> objs = new IntObjectTable<>();
+
+    /**
+     * @return El color del minimapa del GRH, o {@link #NO_MINIMAP_COLOR}.
+     */
+    public static int getMinimapColor(int grhIndex) {
+        int[] colors = minimapColorByGrh;
+        return grhIndex >= 0 && grhIndex < colors.length ? colors[grhIndex] : NO_MINIMAP_COLOR;
+    }
+
+    /**
+     * Asigna el color del minimapa de un GRH, agrandando la tabla si hace falta.
+     */
+    public static synchronized void putMinimapColor(int grhIndex, int color) {
+        if (grhIndex < 0 || grhIndex > IntObjectTable.MAX_KEY)
+            return;
+        int[] colors = minimapColorByGrh;
+        if (grhIndex >= colors.length) {
+            colors = Arrays.copyOf(colors, Math.min(Math.max(grhIndex + 1, colors.length * 2),
+                    IntObjectTable.MAX_KEY + 1));
+        }
+        if (colors[grhIndex] == NO_MINIMAP_COLOR && color != NO_MINIMAP_COLOR)
+            minimapColorCount++;
+        else if (colors[grhIndex] != NO_MINIMAP_COLOR && color == NO_MINIMAP_COLOR)
+            minimapColorCount--;
+        colors[grhIndex] = color;
+        minimapColorByGrh = colors;
+    }
+
+    /**
+     * Reemplaza la tabla completa de colores del minimapa.
+     *
+     * @param colors   Colores indexados por GRH.
+     * @param assigned Cantidad de posiciones distintas de
+     *                 {@link #NO_MINIMAP_COLOR}.
+     */
+    public static synchronized void setMinimapColors(int[] colors, int assigned) {
+        minimapColorByGrh = colors;
+        minimapColorCount = assigned;
+    }
+
+    /**
+     * @return Cantidad de GRHs con color de minimapa asignado.
+     */
+    public static int getMinimapColorCount() {
+        return minimapColorCount;
+    }
 
     /**
      * Limpia todas las colecciones y libera las referencias a los datos cargados.
@@ -57,7 +113,7 @@ public final class AssetRegistry {
         fxData = null;
         grhData = null;
         maxGrhCount = 0;
-        minimapColors.clear();
+        setMinimapColors(new int[0], 0);
         npcs.clear();
         objs.clear();
     }
@@ -0,0 +1,233 @@
+package org.argentumforge.engine.utils;
+
+import org.tinylog.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
+
+/**
+ * Caché binaria de los .dat ya parseados (NPCs.dat, OBJ.dat).
+ * <p>
+ * Cada snapshot guarda, además de los registros, el tamaño, la fecha de
+ * modificación y un hash del contenido del .dat de origen:
+ * <ul>
+ * <li>Si tamaño y fecha coinciden, el snapshot se usa sin mirar el .dat.</li>
+ * <li>Si solo cambió la fecha (una copia, un checkout) se compara el hash; si
+ * coincide se usa igual y se reescribe la cabecera.</li>
+ * <li>En cualquier otro caso se descarta y hay que volver a parsear.</li>
+ * </ul>
+ * El snapshot se lee con una única lectura completa del archivo y se escribe
+ * primero en un temporal que luego reemplaza al anterior, para que un cierre a
+ * mitad de escritura nunca deje un snapshot corrupto. La huella del .dat se
+ * toma antes de parsearlo ({@link Stamp#of}); si el archivo cambia antes de que
+ * termine la escritura en segundo plano, el snapshot no se guarda.
+ */
+final class DatSnapshotCache {
+
+    private static final int MAGIC = 0x41464453; // "AFDS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 * 3 + 8 * 3 + 4;
+
+    /**
+     * Serializa los registros de un tipo de .dat.
+     */
+    interface RecordCodec<T> {
+
+        /**
+         * @return Identificador del esquema de registro; cambiarlo invalida los
+         *         snapshots existentes.
+         */
+        int schema();
+
+        int number(T value);
+
+        void write(DataOutputStream out, T value) throws IOException;
+
+        T read(ByteBuffer in);
+    }
+
+    /**
+     * Huella de un .dat: tamaño, fecha de modificación y hash del contenido.
+     */
+    record Stamp(long size, long modified, long hash) {
+
+        /**
+         * Toma la huella actual de {@code source}. Debe llamarse antes de
+         * parsearlo, para que describa el contenido que se parseó o uno anterior.
+         */
+        static Stamp of(Path source) throws IOException {
+            long size = Files.size(source);
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            return new Stamp(size, modified, DatSnapshotCache.hash(source));
+        }
+
+        /**
+         * @return {@code true} si el tamaño y la fecha de {@code source} siguen
+         *         siendo los de esta huella.
+         */
+        boolean matches(Path source) throws IOException {
+            return Files.size(source) == size && Files.getLastModifiedTime(source).toMillis() == modified;
+        }
+    }
+
+    /** Última escritura lanzada en segundo plano (para esperarla en las pruebas). */
+    private static volatile CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+
+    private DatSnapshotCache() {
+        // Clase de utilidad
+    }
+
+    /**
+     * Ruta del snapshot para el perfil actual, junto al resto de archivos de
+     * perfil.
+     *
+     * @param name Prefijo del archivo (por ejemplo {@code "npcs"}).
+     */
+    static Path snapshotPath(String name) {
+        String fileName = ProfileManager.INSTANCE.getProfilesDir() + "/" + name + ".bin";
+        if (ProfileManager.INSTANCE.getCurrentProfile() != null) {
+            fileName = ProfileManager.INSTANCE.getProfilesDir() + "/" + name + "_"
+                    + ProfileManager.INSTANCE.getCurrentProfile().getName() + ".bin";
+        }
+        return Path.of(fileName);
+    }
+
+    /**
+     * Intenta cargar el snapshot de {@code source}.
+     *
+     * @return Los registros indexados por número, o {@code null} si no hay
+     *         snapshot válido para el .dat actual.
+     */
+    static <T> IntObjectTable<T> read(Path source, Path snapshot, RecordCodec<T> codec) {
+        if (!Files.exists(snapshot))
+            return null;
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION
+                    || in.getInt() != codec.schema())
+                return null;
+
+            long size = in.getLong();
+            long modified = in.getLong();
+            long hash = in.getLong();
+            if (size != Files.size(source))
+                return null;
+
+            long sourceModified = Files.getLastModifiedTime(source).toMillis();
+            boolean touched = modified != sourceModified;
+            if (touched && hash != hash(source))
+                return null;
+
+            int count = in.getInt();
+            IntObjectTable<T> result = new IntObjectTable<>(count + 1);
+            for (int i = 0; i < count; i++) {
+                T value = codec.read(in);
+                result.put(codec.number(value), value);
+            }
+
+            if (touched)
+                writeAsync(snapshot, result, codec, new Stamp(size, sourceModified, hash), source);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            Logger.warn("No se pudo leer el snapshot {} ({}), se vuelve a parsear", snapshot, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe el snapshot en segundo plano. Los registros se copian antes, ya que
+     * los editores pueden modificar la tabla original mientras tanto.
+     *
+     * @param stamp Huella de {@code source} tomada antes de parsear los registros.
+     */
+    static <T> CompletableFuture<Void> writeAsync(Path snapshot, IntObjectTable<T> records, RecordCodec<T> codec,
+            Stamp stamp, Path source) {
+        List<T> copy = records.values();
+        CompletableFuture<Void> future = CompletableFuture
+                .runAsync(() -> write(snapshot, copy, codec, stamp, source));
+        lastWrite = future;
+        return future;
+    }
+
+    /**
+     * @return La última escritura lanzada por {@link #writeAsync}.
+     */
+    static CompletableFuture<Void> lastWrite() {
+        return lastWrite;
+    }
+
+    /**
+     * Escribe el snapshot de {@code records} con la huella {@code stamp}. No
+     * escribe nada si {@code source} cambió desde que se tomó la huella: los
+     * registros ya no corresponden al archivo. Los errores solo se registran: sin
+     * snapshot simplemente se vuelve a parsear el .dat en el próximo arranque.
+     */
+    static <T> void write(Path snapshot, Collection<T> records, RecordCodec<T> codec, Stamp stamp, Path source) {
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            if (!stamp.matches(source)) {
+                Logger.info("{} cambió mientras se parseaba, no se guarda el snapshot", source);
+                return;
+            }
+
+            Files.createDirectories(snapshot.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(codec.schema());
+                out.writeLong(stamp.size());
+                out.writeLong(stamp.modified());
+                out.writeLong(stamp.hash());
+                out.writeInt(records.size());
+                for (T value : records)
+                    codec.write(out, value);
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Logger.warn(e, "No se pudo guardar el snapshot {}", snapshot);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Hash CRC32C del contenido completo del archivo.
+     */
+    static long hash(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) > 0)
+                crc.update(buffer, 0, read);
+        }
+        return crc.getValue();
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,430 @@
+package org.argentumforge.engine.utils;
+
+import org.lwjgl.opengl.GL;
+import org.tinylog.Logger;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.lwjgl.opengl.GL15.GL_QUERY_RESULT;
+import static org.lwjgl.opengl.GL15.GL_QUERY_RESULT_AVAILABLE;
+import static org.lwjgl.opengl.GL15.glBeginQuery;
+import static org.lwjgl.opengl.GL15.glDeleteQueries;
+import static org.lwjgl.opengl.GL15.glEndQuery;
+import static org.lwjgl.opengl.GL15.glGenQueries;
+import static org.lwjgl.opengl.GL15.glGetQueryObjecti;
+import static org.lwjgl.opengl.GL33.GL_TIME_ELAPSED;
+import static org.lwjgl.opengl.GL33.glGetQueryObjectui64;
+
+/**
+ * Perfilador de tiempos por frame.
+ * <p>
+ * Cada subsistema del bucle principal se envuelve con
+ * {@link #begin(Section)}/{@link #end(Section)}, que miden con
+ * {@link System#nanoTime()} y acumulan en arreglos primitivos: no se crea ningún
+ * objeto por frame y, con el perfilador apagado, ambas llamadas retornan de
+ * inmediato. Al cerrar el frame ({@link #endFrame()}) los acumulados pasan a un
+ * historial circular de {@link #HISTORY} frames, que es lo que muestra el
+ * overlay.
+ * <p>
+ * Las secciones de primer nivel que no se solapan ({@link Section#RENDER} e
+ * {@link Section#IMGUI}) miden además el tiempo de GPU con consultas
+ * {@code GL_TIME_ELAPSED}. Esas consultas no se pueden anidar y su resultado
+ * llega unos frames después, así que se usa un anillo de
+ * {@link #QUERY_LATENCY} juegos de consultas y solo se leen las que ya tienen
+ * el resultado disponible, sin frenar el pipeline.
+ * <p>
+ * Todos los intervalos se guardan también en un anillo de eventos que
+ * {@link #dumpTrace()} vuelca como JSON de Chrome Trace (abrible en
+ * {@code chrome://tracing} o Perfetto). Todo se usa desde el hilo de OpenGL.
+ */
+public enum FrameProfiler {
+
+    INSTANCE;
+
+    /**
+     * Subsistemas medidos. Los que tienen padre se ejecutan dentro de él.
+     */
+    public enum Section {
+        POLL_EVENTS("profiler.section.poll_events", null, -1),
+        UPLOADS("profiler.section.uploads", null, -1),
+        RENDER("profiler.section.render", null, 0),
+        MAP_CULL("profiler.section.map_cull", RENDER, -1),
+        MAP_LAYER1("profiler.section.map_layer1", RENDER, -1),
+        MAP_LAYER2("profiler.section.map_layer2", RENDER, -1),
+        MAP_LAYER3("profiler.section.map_layer3", RENDER, -1),
+        MAP_LAYER4("profiler.section.map_layer4", RENDER, -1),
+        MAP_OVERLAYS("profiler.section.map_overlays", RENDER, -1),
+        POST_PROCESS("profiler.section.post_process", RENDER, -1),
+        IMGUI("profiler.section.imgui", null, 1),
+        TASKS("profiler.section.tasks", null, -1);
+
+        /** Clave de traducción del nombre que muestra el perfilador. */
+        private final String nameKey;
+        private final Section parent;
+        /** Índice de la consulta de GPU, o -1 si la sección no se mide en GPU. */
+        private final int gpuSlot;
+
+        Section(String nameKey, Section parent, int gpuSlot) {
+            this.nameKey = nameKey;
+            this.parent = parent;
+            this.gpuSlot = gpuSlot;
+        }
+
+        public String getNameKey() {
+            return nameKey;
+        }
+
+        public int getDepth() {
+            return parent == null ? 0 : parent.getDepth() + 1;
+        }
+
+        public boolean hasGpuTime() {
+            return gpuSlot >= 0;
+        }
+    }
+
+    /** Frames guardados en el historial. */
+    public static final int HISTORY = 240;
+
+    private static final Section[] SECTIONS = Section.values();
+    private static final int GPU_SECTIONS = 2;
+    /** Frames que puede tardar en llegar el resultado de una consulta. */
+    private static final int QUERY_LATENCY = 4;
+
+    private static final int TRACE_CAPACITY = 1 << 16;
+    /** Identificador del evento de frame completo en el anillo de trazas. */
+    private static final int TRACE_FRAME = SECTIONS.length;
+    /** Marca de los eventos de GPU en el anillo de trazas. */
+    private static final int TRACE_GPU = 1 << 8;
+
+    private boolean requested;
+    private boolean enabled;
+    private long frameStart;
+    private int frame;
+
+    // Los inicializadores de instancia de un enum no pueden leer SECTIONS
+    private final long[] starts = new long[Section.values().length];
+    private final long[] current = new long[Section.values().length];
+    private final long[][] history = new long[Section.values().length][HISTORY];
+    private final long[][] gpuHistory = new long[GPU_SECTIONS][HISTORY];
+    private final long[] frameHistory = new long[HISTORY];
+
+    /** 0 sin comprobar, 1 con soporte de timer queries, -1 sin soporte. */
+    private int gpuSupport;
+    private int[][] queries;
+    private final boolean[][] queryPending = new boolean[QUERY_LATENCY][GPU_SECTIONS];
+    private final int[][] queryFrame = new int[QUERY_LATENCY][GPU_SECTIONS];
+    private final long[][] querySubmit = new long[QUERY_LATENCY][GPU_SECTIONS];
+    private final boolean[] queryActive = new boolean[GPU_SECTIONS];
+
+    private final int[] traceId = new int[TRACE_CAPACITY];
+    private final long[] traceStart = new long[TRACE_CAPACITY];
+    private final long[] traceDuration = new long[TRACE_CAPACITY];
+    private int traceHead;
+    private int traceCount;
+
+    /**
+     * Activa o desactiva el perfilador. El cambio se aplica al empezar el
+     * siguiente frame para no dejar frames medidos a medias.
+     */
+    public void setEnabled(boolean enabled) {
+        this.requested = enabled;
+    }
+
+    public boolean isEnabled() {
+        return requested;
+    }
+
+    /**
+     * Marca el inicio de un frame. Debe llamarse al principio del bucle.
+     */
+    public void beginFrame() {
+        if (requested != enabled) {
+            enabled = requested;
+            if (enabled)
+                clear();
+            else
+                releaseQueries();
+        }
+        if (enabled)
+            frameStart = System.nanoTime();
+    }
+
+    public void begin(Section section) {
+        if (!enabled)
+            return;
+        long now = System.nanoTime();
+        starts[section.ordinal()] = now;
+        if (section.gpuSlot >= 0 && gpuAvailable())
+            beginQuery(section.gpuSlot, now);
+    }
+
+    public void end(Section section) {
+        if (!enabled)
+            return;
+        int i = section.ordinal();
+        long start = starts[i];
+        if (start == 0)
+            return;
+        if (section.gpuSlot >= 0 && queryActive[section.gpuSlot]) {
+            glEndQuery(GL_TIME_ELAPSED);
+            queryActive[section.gpuSlot] = false;
+            queryPending[frame % QUERY_LATENCY][section.gpuSlot] = true;
+        }
+        long duration = System.nanoTime() - start;
+        starts[i] = 0;
+        current[i] += duration;
+        record(i, start, duration);
+    }
+
+    /**
+     * Cierra el frame: pasa los acumulados al historial y recoge los resultados
+     * de GPU que ya estén disponibles. Debe llamarse al final del bucle.
+     */
+    public void endFrame() {
+        if (!enabled)
+            return;
+        long duration = System.nanoTime() - frameStart;
+        int slot = frame % HISTORY;
+        for (int i = 0; i < SECTIONS.length; i++) {
+            history[i][slot] = current[i];
+            current[i] = 0;
+        }
+        for (int g = 0; g < GPU_SECTIONS; g++)
+            gpuHistory[g][slot] = 0;
+        frameHistory[slot] = duration;
+        record(TRACE_FRAME, frameStart, duration);
+
+        if (queries != null)
+            collectQueries();
+        frame++;
+    }
+
+    /**
+     * @return Cantidad de frames válidos en el historial.
+     */
+    public int getSampleCount() {
+        return Math.min(frame, HISTORY);
+    }
+
+    /**
+     * @return Tiempo medio de CPU de la sección en el historial, en milisegundos.
+     */
+    public float getAverageMs(Section section) {
+        return average(history[section.ordinal()], false);
+    }
+
+    /**
+     * @return Peor tiempo de CPU de la sección en el historial, en milisegundos.
+     */
+    public float getMaxMs(Section section) {
+        long max = 0;
+        long[] samples = history[section.ordinal()];
+        for (int i = getSampleCount() - 1; i >= 0; i--)
+            max = Math.max(max, samples[i]);
+        return max / 1_000_000f;
+    }
+
+    /**
+     * @return Tiempo medio de GPU de la sección, en milisegundos, o -1 si la
+     *         sección no se mide en GPU o todavía no hay resultados.
+     */
+    public float getGpuAverageMs(Section section) {
+        if (section.gpuSlot < 0 || gpuSupport <= 0)
+            return -1;
+        return average(gpuHistory[section.gpuSlot], true);
+    }
+
+    public float getFrameAverageMs() {
+        return average(frameHistory, false);
+    }
+
+    /**
+     * Copia la duración de los últimos frames, del más antiguo al más reciente.
+     *
+     * @param out Destino en milisegundos; se llenan a lo sumo {@code out.length}.
+     * @return Cantidad de valores escritos.
+     */
+    public int copyFrameHistory(float[] out) {
+        int count = Math.min(getSampleCount(), out.length);
+        for (int i = 0; i < count; i++)
+            out[i] = frameHistory[(frame - count + i) % HISTORY] / 1_000_000f;
+        return count;
+    }
+
+    /**
+     * Vuelca los eventos guardados como JSON de Chrome Trace en la carpeta
+     * {@code traces}. La escritura se hace en otro hilo.
+     *
+     * @return Ruta del archivo, o {@code null} si no hay eventos.
+     */
+    public String dumpTrace() {
+        int count = traceCount;
+        if (count == 0)
+            return null;
+
+        int[] ids = new int[count];
+        long[] eventStarts = new long[count];
+        long[] durations = new long[count];
+        int first = (traceHead - count + TRACE_CAPACITY) % TRACE_CAPACITY;
+        long origin = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int e = (first + i) % TRACE_CAPACITY;
+            ids[i] = traceId[e];
+            eventStarts[i] = traceStart[e];
+            durations[i] = traceDuration[e];
+            origin = Math.min(origin, eventStarts[i]);
+        }
+
+        File dir = new File("traces");
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File file = new File(dir, "trace_" + timestamp + ".json");
+        long base = origin;
+
+        new Thread(() -> {
+            try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                writeTrace(out, ids, eventStarts, durations, base);
+                Logger.info("Traza guardada en: {}", file.getAbsolutePath());
+            } catch (IOException e) {
+                Logger.error(e, "No se pudo guardar la traza {}", file.getAbsolutePath());
+            }
+        }, "TraceWriter").start();
+
+        return file.getAbsolutePath();
+    }
+
+    private void clear() {
+        frame = 0;
+        traceHead = 0;
+        traceCount = 0;
+        for (int i = 0; i < SECTIONS.length; i++) {
+            starts[i] = 0;
+            current[i] = 0;
+        }
+        for (int s = 0; s < QUERY_LATENCY; s++)
+            for (int g = 0; g < GPU_SECTIONS; g++)
+                queryPending[s][g] = false;
+    }
+
+    private float average(long[] samples, boolean skipEmpty) {
+        long total = 0;
+        int n = 0;
+        for (int i = getSampleCount() - 1; i >= 0; i--) {
+            if (skipEmpty && samples[i] == 0)
+                continue;
+            total += samples[i];
+            n++;
+        }
+        return n == 0 ? (skipEmpty ? -1 : 0) : total / (n * 1_000_000f);
+    }
+
+    private void record(int id, long start, long duration) {
+        traceId[traceHead] = id;
+        traceStart[traceHead] = start;
+        traceDuration[traceHead] = duration;
+        traceHead = (traceHead + 1) % TRACE_CAPACITY;
+        if (traceCount < TRACE_CAPACITY)
+            traceCount++;
+    }
+
+    private boolean gpuAvailable() {
+        if (gpuSupport == 0) {
+            var caps = GL.getCapabilities();
+            gpuSupport = caps.OpenGL33 || caps.GL_ARB_timer_query ? 1 : -1;
+            if (gpuSupport < 0)
+                Logger.info("Las consultas de tiempo de GPU no están disponibles; el perfilador solo medirá CPU");
+        }
+        return gpuSupport > 0;
+    }
+
+    private void beginQuery(int gpuSlot, long now) {
+        if (queries == null) {
+            queries = new int[QUERY_LATENCY][GPU_SECTIONS];
+            for (int s = 0; s < QUERY_LATENCY; s++)
+                glGenQueries(queries[s]);
+        }
+        int slot = frame % QUERY_LATENCY;
+        // Si la consulta de hace QUERY_LATENCY frames sigue sin resultado se
+        // descarta la muestra de este frame en lugar de esperar a la GPU.
+        if (queryPending[slot][gpuSlot])
+            return;
+        glBeginQuery(GL_TIME_ELAPSED, queries[slot][gpuSlot]);
+        queryActive[gpuSlot] = true;
+        queryFrame[slot][gpuSlot] = frame;
+        querySubmit[slot][gpuSlot] = now;
+    }
+
+    private void collectQueries() {
+        for (int s = 0; s < QUERY_LATENCY; s++) {
+            for (int g = 0; g < GPU_SECTIONS; g++) {
+                if (!queryPending[s][g] || glGetQueryObjecti(queries[s][g], GL_QUERY_RESULT_AVAILABLE) == 0)
+                    continue;
+                long elapsed = glGetQueryObjectui64(queries[s][g], GL_QUERY_RESULT);
+                queryPending[s][g] = false;
+                if (frame - queryFrame[s][g] < HISTORY)
+                    gpuHistory[g][queryFrame[s][g] % HISTORY] = Math.max(1, elapsed);
+                record(TRACE_GPU | g, querySubmit[s][g], elapsed);
+            }
+        }
+    }
+
+    private void releaseQueries() {
+        if (queries == null)
+            return;
+        for (int[] slot : queries)
+            glDeleteQueries(slot);
+        queries = null;
+        for (int g = 0; g < GPU_SECTIONS; g++)
+            queryActive[g] = false;
+    }
+
+    /**
+     * Escribe los eventos como eventos completos ({@code "ph":"X"}) con tiempos
+     * en microsegundos. La CPU va en un hilo y cada consulta de GPU en otro,
+     * posicionada en el instante en que se envió.
+     */
+    private static void writeTrace(BufferedWriter out, int[] ids, long[] starts, long[] durations, long base)
+            throws IOException {
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        out.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Argentum Forge\"}},\n");
+        out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"CPU\"}},\n");
+        out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":2,\"args\":{\"name\":\"GPU Render\"}},\n");
+        out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":3,\"args\":{\"name\":\"GPU ImGui\"}}");
+
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            String name;
+            int tid;
+            if (id == TRACE_FRAME) {
+                name = "Frame";
+                tid = 1;
+            } else if ((id & TRACE_GPU) != 0) {
+                int g = id & ~TRACE_GPU;
+                name = g == Section.RENDER.gpuSlot ? Section.RENDER.name() : Section.IMGUI.name();
+                tid = 2 + g;
+            } else {
+                name = SECTIONS[id].name();
+                tid = 1;
+            }
+
+            line.setLength(0);
+            line.append(",\n{\"name\":\"").append(name)
+                    .append("\",\"cat\":\"").append(tid == 1 ? "cpu" : "gpu")
+                    .append("\",\"ph\":\"X\",\"ts\":").append((starts[i] - base) / 1000.0)
+                    .append(",\"dur\":").append(durations[i] / 1000.0)
+                    .append(",\"pid\":1,\"tid\":").append(tid).append('}');
+            out.append(line);
+        }
+        out.write("\n]}\n");
+    }
+}
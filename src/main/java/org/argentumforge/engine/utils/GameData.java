@@ -1,11 +1,13 @@
 package org.argentumforge.engine.utils;
 
 import org.argentumforge.engine.game.Options;
-import org.argentumforge.engine.game.models.Character;
+import org.argentumforge.engine.game.models.CharacterRegistry;
 import org.argentumforge.engine.game.User;
 import org.argentumforge.engine.Engine;
 import org.argentumforge.engine.gui.DialogManager;
+import org.argentumforge.engine.gui.components.LoadingModal;
 import org.argentumforge.engine.i18n.I18n;
+import org.argentumforge.engine.renderer.TextureAtlas;
 
 import org.argentumforge.engine.utils.inits.*;
 import org.tinylog.Logger;
@@ -17,6 +19,9 @@ import java.nio.file.Path;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Repositorio central de recursos y datos del editor.
@@ -32,7 +37,7 @@ public final class GameData {
 
     /** Lista global de personajes activos en el mundo. */
     @Deprecated
-    public static Character[] charList = new Character[10000 + 1];
+    public static CharacterRegistry charList = new CharacterRegistry();
 
     /** Propiedades generales del mapa actual (.dat). */
     @Deprecated
@@ -59,21 +64,11 @@ public final class GameData {
         if (context == null || activeContext == context)
             return;
 
-        // Guardar estado del contexto anterior si existe (y si es diferente al nuevo)
-        if (activeContext != null && activeContext != context) {
-            activeContext.setLastChar(Character.lastChar);
-        }
-
         activeContext = context;
         mapData = context.getMapData();
         mapProperties = context.getMapProperties();
         charList = context.getCharList();
 
-        // Registrar estado de lista de chars para depuración
-
-        // Restaurar lastChar del nuevo contexto
-        Character.lastChar = context.getLastChar();
-
         // Forzar persistencia del modo caminar
         // Si el modo caminar está activo, el personaje del usuario DEBE existir en el
         // charList del contexto actual.
@@ -93,9 +88,6 @@ public final class GameData {
     }
 
     public static void clearActiveContext() {
-        if (activeContext != null) {
-            activeContext.setLastChar(org.argentumforge.engine.game.models.Character.lastChar);
-        }
         activeContext = null;
         mapData = null;
         mapProperties = null;
@@ -151,34 +143,98 @@ public final class GameData {
     public static final int Y_MIN_MAP_SIZE = 1;
     public static final int Y_MAX_MAP_SIZE = 100;
 
-    /** Lector de datos binarios persistente para la carga de recursos. */
-    static BinaryDataReader reader = new BinaryDataReader();
+    /** Cantidad total de cargadores de recursos (para informar el progreso). */
+    private static final int LOADER_COUNT = 10;
 
     /**
-     * Inicializamos todos los datos almacenados en archivos.
+     * Inicializamos todos los datos almacenados en archivos. Bloquea hasta que
+     * terminan todas las cargas.
      */
     public static void init() {
-        for (int i = 0; i < charList.length; i++)
-            charList[i] = new Character();
+        beginInit();
+        loadAssets();
+        endInit();
+    }
+
+    /**
+     * Igual que {@link #init()} pero las cargas de archivos corren fuera del hilo
+     * principal. Al completarse el future, el llamador debe invocar
+     * {@link #endInit()} desde el hilo de OpenGL.
+     */
+    public static CompletableFuture<Void> initAsync() {
+        beginInit();
+        return CompletableFuture.runAsync(GameData::loadAssets, ForkJoinPool.commonPool());
+    }
 
+    /**
+     * Pasos que deben ejecutarse en el hilo principal antes de las cargas.
+     */
+    private static void beginInit() {
         options.load();
         I18n.INSTANCE.loadLanguage(options.getLanguage());
 
-        loadGrhData();
-        loadMiniMapColors();
-        loadHeads();
-        loadHelmets();
-        loadBodys();
-        loadWeapons();
-        loadShields();
-        loadFxs();
-        loadObjs();
-        loadNpcs();
+        AssetRegistry.clear(); // Limpiar datos de sesiones previas
+    }
+
+    /**
+     * Pasos finales que requieren el hilo de OpenGL.
+     */
+    public static void endInit() {
+        TextureAtlas.INSTANCE.init(AssetRegistry.grhData);
+    }
+
+    /**
+     * Carga los archivos de recursos en paralelo. Cada cargador usa su propio
+     * {@link BinaryDataReader} y escribe campos distintos de
+     * {@link AssetRegistry}, por lo que pueden correr a la vez:
+     * <ol>
+     * <li>Gráficos, minimapa, objetos y NPCs no dependen entre sí.</li>
+     * <li>Cabezas, cascos, cuerpos, armas, escudos y FXs consultan
+     * {@code grhData} (vía {@link #initGrh}), así que esperan a los gráficos.</li>
+     * </ol>
+     */
+    private static void loadAssets() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        AtomicInteger done = new AtomicInteger();
+
+        CompletableFuture<Void> independent = CompletableFuture.allOf(
+                stage("loading.stage.minimap", GameData::loadMiniMapColors, done, pool),
+                stage("loading.stage.objects", GameData::loadObjs, done, pool),
+                stage("loading.stage.npcs", GameData::loadNpcs, done, pool));
+
+        stage("loading.stage.graphics", GameData::loadGrhData, done, pool).join();
+
+        CompletableFuture.allOf(
+                stage("loading.stage.heads", GameData::loadHeads, done, pool),
+                stage("loading.stage.helmets", GameData::loadHelmets, done, pool),
+                stage("loading.stage.bodies", GameData::loadBodys, done, pool),
+                stage("loading.stage.weapons", GameData::loadWeapons, done, pool),
+                stage("loading.stage.shields", GameData::loadShields, done, pool),
+                stage("loading.stage.fxs", GameData::loadFxs, done, pool)).join();
+
+        independent.join();
 
         // loadMessages(options.getLanguage()); -> Eliminado ya que el sistema de
         // mensajes fue borrado
     }
 
+    /**
+     * Lanza un cargador en el pool e informa su avance al {@link LoadingModal}.
+     *
+     * @param stageKey Clave de traducción con el nombre de la etapa.
+     */
+    private static CompletableFuture<Void> stage(String stageKey, Runnable loader, AtomicInteger done,
+            ForkJoinPool pool) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            loader.run();
+            int finished = done.incrementAndGet();
+            Logger.info("Recursos: {} cargado en {} ms ({}/{})", stageKey, (System.nanoTime() - start) / 1_000_000,
+                    finished, LOADER_COUNT);
+            LoadingModal.getInstance().setStageDone(stageKey, (float) finished / LOADER_COUNT);
+        }, pool);
+    }
+
     /**
      * Verifica si existen los archivos esenciales para el funcionamiento del motor.
      * 
@@ -250,6 +306,8 @@ public final class GameData {
                 buffer.order(java.nio.ByteOrder.LITTLE_ENDIAN);
 
                 int count = bytes.length / 4;
+                int[] colors = new int[count + 1];
+                int assigned = 0;
                 for (int i = 0; i < count; i++) {
                     int color = buffer.getInt();
                     if (color != 0) {
@@ -262,9 +320,11 @@ public final class GameData {
                         // ImGui)
                         // Pack: (A << 24) | (B << 16) | (G << 8) | R
                         int packed = (0xFF << 24) | (b << 16) | (g << 8) | r;
-                        AssetRegistry.minimapColors.put(i + 1, packed);
+                        colors[i + 1] = packed;
+                        assigned++;
                     }
                 }
+                AssetRegistry.setMinimapColors(colors, assigned);
                 Logger.info("Cargados {} colores minimapa desde BIN.", count);
                 return; // Éxito, no cargar .dat
             } catch (IOException e) {
@@ -296,7 +356,7 @@ public final class GameData {
                     if (currentGrh != -1) {
                         if (currentGrh != -1) {
                             int packed = (0xFF << 24) | (b << 16) | (g << 8) | r;
-                            AssetRegistry.minimapColors.put(currentGrh, packed);
+                            AssetRegistry.putMinimapColor(currentGrh, packed);
                         }
                     }
 
@@ -337,10 +397,10 @@ public final class GameData {
             if (currentGrh != -1) {
                 if (currentGrh != -1) {
                     int packed = (0xFF << 24) | (b << 16) | (g << 8) | r;
-                    AssetRegistry.minimapColors.put(currentGrh, packed);
+                    AssetRegistry.putMinimapColor(currentGrh, packed);
                 }
             }
-            Logger.info("Cargados {} colores para el minimapa desde {}", AssetRegistry.minimapColors.size(),
+            Logger.info("Cargados {} colores para el minimapa desde {}", AssetRegistry.getMinimapColorCount(),
                     minimapPath);
         } catch (IOException e) {
             Logger.error(e, "Error al leer MiniMap.dat");
@@ -352,170 +412,51 @@ public final class GameData {
      * Reconstruye la jerarquía de animaciones y frames de GRH.
      */
     private static void loadGrhData() {
-        AssetRegistry.clear(); // Limpiar datos de sesiones previas
-        byte[] data = loadLocalInitFile("Graficos.ind", "Gráficos", true);
-        if (data == null)
+        final Path filePath = Path.of(options.getInitPath(), "Graficos.ind");
+        if (!Files.exists(filePath))
             return;
 
         try {
+            // El archivo se mapea y se indexa en una sola pasada (sin copiarlo a un
+            // byte[]); cada GrhData se construye desde el índice al pedirlo
+            ByteBuffer data = MappedGrhIndex.map(filePath);
+
             // Validar existencia de cabecera custom (263 bytes)
             // Usamos 0 como entrySize para evitar comprobaciones de tamaño estricto en
             // archivos variables
             boolean hasHeader = detectHeader(data, 0);
 
-            reader.init(data);
-            if (hasHeader) {
-                reader.skipBytes(263);
-            }
-
-            final int fileVersion = reader.readInt();
-            final int grhCount = reader.readInt();
-
-            Logger.info("Cargando Graficos.ind: Versión={}, Cuenta leída={}", fileVersion, grhCount);
-
-            // Si la cuenta es <= 0, es probable que sea un formato Legacy (VB6 Integer
-            // style)
-            // que no tiene Versión/Cuenta al inicio, sino 5 enteros de padding y luego los
-            // datos.
-            if (grhCount <= 0) {
-                Logger.warn("Formato estándar no detectado (Cuenta <= 0). Intentando carga Legacy (VB6 Integer)...");
-                loadGrhDataLegacy(hasHeader);
-                return;
-            }
-
-            // Comprobación de integridad: grhCount no debería ser negativo o imposiblemente
-            // enorme en relación al
-            // tamaño del archivo
-            if (grhCount > 2000000) { // Inusualmente grande para un recuento, podría ser una mala lectura
-                Logger.warn("Cuenta sospechosa ({}). Intentando carga Legacy...", grhCount);
-                loadGrhDataLegacy(hasHeader);
-                return;
-            }
-
-            // Comprobación laxa: Mínimo 1 byte por GRH (imposible pero límite seguro)
-            if (grhCount > data.length) {
-                Logger.warn("Cuenta mayor que tamaño de archivo. Intentando carga Legacy...");
-                loadGrhDataLegacy(hasHeader);
+            MappedGrhIndex index = MappedGrhIndex.parse(data, hasHeader);
+
+            // Si la cabecera no es Versión/Cuenta válida, es probable que sea un formato
+            // Legacy (VB6 Integer style) que tiene 5 enteros de padding y luego los datos.
+            if (index == null) {
+                Logger.warn("Formato estándar no detectado. Intentando carga Legacy (VB6 Integer)...");
+                byte[] bytes = loadLocalInitFile("Graficos.ind", "Gráficos", true);
+                if (bytes == null)
+                    return;
+                BinaryDataReader reader = new BinaryDataReader();
+                reader.init(bytes);
+                loadGrhDataLegacy(reader, hasHeader);
                 return;
             }
 
-            // LÓGICA DE SONDEO para el tamaño de grhCount (Integer vs Long)
-            // El GrhIndex de AO comienza en 1. Si los siguientes 4 bytes son 0, es
-            // altamente probable
-            // que grhCount fuera realmente un Long (8 bytes) y estos son los bytes altos en
-            // cero.
-            // Verificamos esto antes de sondear los índices para asegurar la alineación.
-            boolean countWasLong = false;
-            int posAfterCount = reader.getPosition();
-            if (reader.hasRemaining(4)) {
-                int potentialPadding = reader.readInt();
-                if (potentialPadding == 0) {
-                    countWasLong = true;
-                    // Consumimos el padding/ceros, así que el stream ahora está alineado para
-                    // formato Long-Count
-                } else {
-                    // Los siguientes bytes NO son cero, así que probablemente es inicio de datos.
-                    // Reiniciar pos.
-                    reader.setPosition(posAfterCount);
-                }
-            }
-
             Logger.info("Cargando Graficos.ind: Versión={}, Registros={} (CountFormat: {})",
-                    fileVersion, grhCount, countWasLong ? "Long" : "Integer");
-
-            // Comprobación de integridad: grhCount no debería ser negativo o imposiblemente
-            // enorme en relación al
-            // tamaño del archivo
-            if (grhCount < 0) {
-                throw new IOException("El conteo de GRHs es negativo: " + grhCount);
-            }
-            // Comprobación laxa: Mínimo 1 byte por GRH (imposible pero límite seguro)
-            if (grhCount > data.length) {
-                throw new IOException("El conteo de GRHs (" + grhCount + ") es mayor que el tamaño del archivo.");
-            }
-
-            // LÓGICA DE SONDEO para índices Integer (4 bytes) vs Long (8 bytes)
-            // VB6 Long = 4 bytes (Java int). Java Long = 8 bytes.
-            // La versión "Long" de AO usa 4 bytes.
-
-            // Nota: Si el usuario tiene un formato custom real de 64 bits, esto fallará,
-            // pero el estándar AO (0.12/0.13) usa VB6 Long (32-bit).
-
-            Logger.info("Cargando versión moderna (0.12+). Índices de 32 bits (VB6 Long).");
-
-            // Inicializamos con grhCount+1, pero permitiremos expandir si los IDs son
-            // mayores
-            AssetRegistry.grhData = new GrhData[grhCount + 1001]; // Margen inicial
-
-            int grh;
-            AssetRegistry.grhData[0] = new GrhData();
-
-            int loadedCount = 0;
-
-            while (loadedCount < grhCount && reader.hasRemaining()) {
-                if (!reader.hasRemaining())
-                    break;
-
-                // Read GRH Index (Always 4 bytes for modern version)
-                grh = reader.readInt();
-
-                if (grh <= 0) {
-                    // Fin de datos o basura
-                    break;
-                }
-
-                if (grh >= AssetRegistry.grhData.length) {
-                    int newSize = Math.max(grh + 1000, AssetRegistry.grhData.length * 2);
-                    if (newSize > 1000000)
-                        newSize = 1000000; // Hard limit 1M GRHs
-
-                    AssetRegistry.grhData = java.util.Arrays.copyOf(AssetRegistry.grhData, newSize);
-                }
-
-                AssetRegistry.grhData[grh] = new GrhData();
-                AssetRegistry.grhData[grh].setNumFrames(reader.readShort());
-
-                if (AssetRegistry.grhData[grh].getNumFrames() <= 0) {
-                    // Skip or Error?
-                    continue;
-                }
-
-                AssetRegistry.grhData[grh].setFrames(new int[AssetRegistry.grhData[grh].getNumFrames() + 1]);
-
-                if (AssetRegistry.grhData[grh].getNumFrames() > 1) {
-                    for (int i = 1; i <= AssetRegistry.grhData[grh].getNumFrames(); i++) {
-                        // Frames() as Long (4 bytes)
-                        AssetRegistry.grhData[grh].setFrame(i, reader.readInt());
-                    }
-
-                    // Speed as Single (4 bytes)
-                    AssetRegistry.grhData[grh].setSpeed(reader.readFloat());
-
-                    // Copiar dimensiones del primer frame
-                    int firstFrame = AssetRegistry.grhData[grh].getFrame(1);
-                    if (firstFrame > 0 && firstFrame < AssetRegistry.grhData.length
-                            && AssetRegistry.grhData[firstFrame] != null) {
-                        AssetRegistry.grhData[grh].setPixelHeight(AssetRegistry.grhData[firstFrame].getPixelHeight());
-                        AssetRegistry.grhData[grh].setPixelWidth(AssetRegistry.grhData[firstFrame].getPixelWidth());
-                        AssetRegistry.grhData[grh].setTileWidth(AssetRegistry.grhData[firstFrame].getTileWidth());
-                        AssetRegistry.grhData[grh].setTileHeight(AssetRegistry.grhData[firstFrame].getTileHeight());
-                    }
-                } else {
-                    // FileNum as Long (4 bytes)
-                    AssetRegistry.grhData[grh].setFileNum(reader.readInt());
-
-                    AssetRegistry.grhData[grh].setsX(reader.readShort());
-                    AssetRegistry.grhData[grh].setsY(reader.readShort());
-                    AssetRegistry.grhData[grh].setPixelWidth(reader.readShort());
-                    AssetRegistry.grhData[grh].setPixelHeight(reader.readShort());
-
-                    AssetRegistry.grhData[grh].setTileWidth((float) AssetRegistry.grhData[grh].getPixelWidth() / 32);
-                    AssetRegistry.grhData[grh].setTileHeight((float) AssetRegistry.grhData[grh].getPixelHeight() / 32);
-                    AssetRegistry.grhData[grh].setFrame(1, grh);
-                }
-
-                loadedCount++;
-                AssetRegistry.maxGrhCount = Math.max(AssetRegistry.maxGrhCount, grh);
+                    index.getVersion(), index.getDeclaredCount(), index.isCountWasLong() ? "Long" : "Integer");
+
+            // Dejamos margen al final como el cargador anterior (grhCount + 1001)
+            int length = Math.max(index.getMaxGrh() + 1, index.getDeclaredCount() + 1001);
+            AssetRegistry.grhData = GrhTable.lazy(index, length);
+            AssetRegistry.maxGrhCount = index.getMaxGrh();
+
+            if (index.isTruncated()) {
+                Logger.error("Error: Fin de archivo inesperado en Graficos.ind ({} registros leídos)",
+                        index.getLoadedCount());
+                DialogManager.getInstance().showError("Archivo Corrupto",
+                        "Error crítico al leer 'Graficos.ind'.\n" +
+                                "El archivo terminó inesperadamente (BufferUnderflow).\n" +
+                                "Probablemente esté corrupto o cortado.\n\n" +
+                                "Por favor, verifique el archivo en la carpeta INIT.");
             }
 
         } catch (java.nio.BufferUnderflowException e) {
@@ -527,14 +468,14 @@ public final class GameData {
                             "Por favor, verifique el archivo en la carpeta INIT.");
             // Inicialización de seguridad
             if (AssetRegistry.grhData == null)
-                AssetRegistry.grhData = new GrhData[1];
+                AssetRegistry.grhData = new GrhTable(new GrhData[1]);
         } catch (Exception e) {
             Logger.error(e, "Error general al cargar Graficos.ind");
             DialogManager.getInstance().showError("Error",
                     "Error al cargar 'Graficos.ind'.\n" +
                             "Detalle: " + e.getMessage());
             if (AssetRegistry.grhData == null)
-                AssetRegistry.grhData = new GrhData[1];
+                AssetRegistry.grhData = new GrhTable(new GrhData[1]);
         }
 
     }
@@ -550,10 +491,19 @@ public final class GameData {
      * @return true si se detecta cabecera, false en caso contrario
      */
     private static boolean detectHeader(byte[] data, int entrySize) {
-        if (data.length < 2)
+        return detectHeader(ByteBuffer.wrap(data), entrySize);
+    }
+
+    /**
+     * Igual que {@link #detectHeader(byte[], int)} pero sobre un buffer (p.ej. un
+     * archivo mapeado en memoria).
+     */
+    private static boolean detectHeader(ByteBuffer data, int entrySize) {
+        int length = data.limit();
+        if (length < 2)
             return false;
 
-        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
 
         // Estrategia 1: Verificar si estructura "Sin Cabecera" coincide con tamaño
         // válido
@@ -563,7 +513,7 @@ public final class GameData {
             long expectedSize = 2 + (long) countNoHeader * entrySize;
             // El archivo debe ser al menos de este tamaño. Permitir hasta 1KB de
             // basura/relleno al final.
-            if (data.length >= expectedSize && (data.length - expectedSize) < 1024) {
+            if (length >= expectedSize && (length - expectedSize) < 1024) {
                 validNoHeader = true;
             }
         }
@@ -571,11 +521,11 @@ public final class GameData {
         // Estrategia 2: Verificar si estructura "Con Cabecera" coincide con tamaño
         // válido
         boolean validHeader = false;
-        if (data.length >= 263 + 2) {
+        if (length >= 263 + 2) {
             short countWithHeader = buffer.getShort(263);
             if (countWithHeader > 0) {
                 long expectedSize = 263 + 2 + (long) countWithHeader * entrySize;
-                if (data.length >= expectedSize && (data.length - expectedSize) < 1024) {
+                if (length >= expectedSize && (length - expectedSize) < 1024) {
                     validHeader = true;
                 }
             }
@@ -596,8 +546,8 @@ public final class GameData {
         // O simplemente verificar si los primeros bytes parecen texto.
 
         int printableAsciiCount = 0;
-        for (int i = 0; i < Math.min(10, data.length); i++) {
-            if (data[i] >= 32 && data[i] <= 126)
+        for (int i = 0; i < Math.min(10, length); i++) {
+            if (buffer.get(i) >= 32 && buffer.get(i) <= 126)
                 printableAsciiCount++;
         }
 
@@ -629,6 +579,7 @@ public final class GameData {
         boolean hasHeader = detectHeader(data, 8); // 4 shorts = 8 bytes
 
         try {
+            BinaryDataReader reader = new BinaryDataReader();
             reader.init(data);
             if (hasHeader)
                 reader.skipBytes(263);
@@ -699,6 +650,7 @@ public final class GameData {
         boolean hasHeader = detectHeader(data, 8); // 4 shorts = 8 bytes
 
         try {
+            BinaryDataReader reader = new BinaryDataReader();
             reader.init(data);
             if (hasHeader) {
                 reader.skipBytes(263);
@@ -801,6 +753,7 @@ public final class GameData {
         boolean hasHeader = detectHeader(data, 12); // Body(4 shorts) + Offset(2 shorts) = 12 bytes
 
         try {
+            BinaryDataReader reader = new BinaryDataReader();
             reader.init(data);
             if (hasHeader)
                 reader.skipBytes(263);
@@ -876,6 +829,7 @@ public final class GameData {
         boolean hasHeader = detectHeader(data, 8); // 4 shorts = 8 bytes
 
         try {
+            BinaryDataReader reader = new BinaryDataReader();
             reader.init(data);
             if (hasHeader)
                 reader.skipBytes(263);
@@ -1047,6 +1001,7 @@ public final class GameData {
         boolean hasHeader = detectHeader(data, 8); // 4 shorts = 8 bytes
 
         try {
+            BinaryDataReader reader = new BinaryDataReader();
             reader.init(data);
             if (hasHeader)
                 reader.skipBytes(263);
@@ -1222,13 +1177,21 @@ public final class GameData {
         MapManager.saveMap(filePath, options);
     }
 
+    /**
+     * Guarda el mapa actual en segundo plano y avisa al terminar.
+     *
+     * @param filePath  Ruta absoluta al fichero .map de destino.
+     * @param options   Opciones de guardado.
+     * @param onSaved   Callback en el hilo principal si se guardó.
+     * @param onFailure Callback en el hilo principal si falló.
+     */
+    public static void saveMap(String filePath, MapManager.MapSaveOptions options, Runnable onSaved,
+            Runnable onFailure) {
+        MapManager.saveMap(filePath, options, onSaved, onFailure);
+    }
+
     static short nextOpenChar() {
-        for (short i = 1; i < charList.length; i++) {
-            if (!charList[i].isActive()) {
-                return i;
-            }
-        }
-        return -1;
+        return (short) charList.nextOpen();
     }
 
     /**
@@ -1273,6 +1236,7 @@ public final class GameData {
         boolean hasHeader = detectHeader(data, 6); // Anim(2) + OffX(2) + OffY(2) = 6 bytes
 
         try {
+            BinaryDataReader reader = new BinaryDataReader();
             reader.init(data);
             if (hasHeader)
                 reader.skipBytes(263);
@@ -1446,8 +1410,8 @@ public final class GameData {
         grh.setLoops(0);
 
         if (started && AssetRegistry.grhData != null && grh.getGrhIndex() > 0
-                && grh.getGrhIndex() < AssetRegistry.grhData.length && AssetRegistry.grhData[grh.getGrhIndex()] != null)
-            grh.setStarted(AssetRegistry.grhData[grh.getGrhIndex()].getNumFrames() > 1);
+                && AssetRegistry.grhData.contains(grh.getGrhIndex()))
+            grh.setStarted(AssetRegistry.grhData.numFrames(grh.getGrhIndex()) > 1);
 
         if (grh.isStarted())
             grh.setLoops(-1);
@@ -1482,7 +1446,7 @@ public final class GameData {
         }
     }
 
-    private static void loadGrhDataLegacy(boolean hasHeader) throws IOException {
+    private static void loadGrhDataLegacy(BinaryDataReader reader, boolean hasHeader) throws IOException {
         Logger.info("Cargando Graficos.ind (Formato 0.11.5 Legacy)...");
 
         // El reader ya fue inicializado por loadGrhData().
@@ -1507,22 +1471,22 @@ public final class GameData {
         }
 
         // Initialize Array a tamaño seguro para Legacy/0.11.5
-        AssetRegistry.grhData = new GrhData[32768];
+        GrhData[] grhData = new GrhData[32768];
 
-        AssetRegistry.grhData[0] = new GrhData();
+        grhData[0] = new GrhData();
 
         int loaded = 0;
         int grhIndex = reader.readShort() & 0xFFFF;
 
         while (grhIndex > 0) {
             // Expandir array si es necesario
-            if (grhIndex >= AssetRegistry.grhData.length) {
-                int newSize = Math.max(grhIndex + 5000, AssetRegistry.grhData.length * 2);
-                AssetRegistry.grhData = java.util.Arrays.copyOf(AssetRegistry.grhData, newSize);
+            if (grhIndex >= grhData.length) {
+                int newSize = Math.max(grhIndex + 5000, grhData.length * 2);
+                grhData = java.util.Arrays.copyOf(grhData, newSize);
             }
 
-            AssetRegistry.grhData[grhIndex] = new GrhData();
-            GrhData current = AssetRegistry.grhData[grhIndex];
+            grhData[grhIndex] = new GrhData();
+            GrhData current = grhData[grhIndex];
 
             int numFrames = reader.readShort() & 0xFFFF;
             current.setNumFrames(numFrames);
@@ -1538,12 +1502,11 @@ public final class GameData {
 
                 // Herencia de dimensiones del primer frame (imprescindible para renderizado)
                 int firstFrame = frames[1];
-                if (firstFrame > 0 && firstFrame < AssetRegistry.grhData.length
-                        && AssetRegistry.grhData[firstFrame] != null) {
-                    current.setPixelWidth(AssetRegistry.grhData[firstFrame].getPixelWidth());
-                    current.setPixelHeight(AssetRegistry.grhData[firstFrame].getPixelHeight());
-                    current.setTileWidth(AssetRegistry.grhData[firstFrame].getTileWidth());
-                    current.setTileHeight(AssetRegistry.grhData[firstFrame].getTileHeight());
+                if (firstFrame > 0 && firstFrame < grhData.length && grhData[firstFrame] != null) {
+                    current.setPixelWidth(grhData[firstFrame].getPixelWidth());
+                    current.setPixelHeight(grhData[firstFrame].getPixelHeight());
+                    current.setTileWidth(grhData[firstFrame].getTileWidth());
+                    current.setTileHeight(grhData[firstFrame].getTileHeight());
                 }
             } else {
                 // GRÁFICOS SIMPLES
@@ -1570,6 +1533,7 @@ public final class GameData {
             grhIndex = reader.readShort() & 0xFFFF;
         }
 
+        AssetRegistry.grhData = new GrhTable(grhData);
         Logger.info("Carga Legacy completada: {} registros físicos, último ID={}", loaded, grhIndex);
 
         // El último ID cargado fisicamente puede no ser el máximo si el archivo no está
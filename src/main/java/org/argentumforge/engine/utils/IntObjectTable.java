@@ -0,0 +1,164 @@
+package org.argentumforge.engine.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Tabla densa de objetos indexada por un entero no negativo.
+ * <p>
+ * Pensada para los catálogos de recursos cuyos IDs son enteros pequeños y casi
+ * contiguos (NPCs, objetos): los valores se guardan en un arreglo indexado
+ * directamente por el ID, así que una consulta es un chequeo de límites y un
+ * acceso al arreglo, sin boxing ni hashing. Las posiciones vacías valen
+ * {@code null}.
+ * <p>
+ * Expone los mismos nombres que {@link java.util.Map} para las operaciones que
+ * se usaban ({@code get}, {@code put}, {@code containsKey}, {@code values}...).
+ * La iteración recorre los valores en orden ascendente de ID.
+ * <p>
+ * No es thread-safe.
+ *
+ * @param <T> Tipo de los valores.
+ */
+public final class IntObjectTable<T> implements Iterable<T> {
+
+    /** Mayor ID aceptado, para que un ID corrupto no reserve un arreglo enorme. */
+    public static final int MAX_KEY = 1_000_000;
+
+    private Object[] values;
+    private int size;
+
+    public IntObjectTable() {
+        this(16);
+    }
+
+    public IntObjectTable(int initialCapacity) {
+        values = new Object[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * @return El valor asociado a {@code key}, o {@code null} si no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        return key >= 0 && key < values.length ? (T) values[key] : null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Asocia {@code value} a {@code key}. Asignar {@code null} equivale a
+     * {@link #remove(int)}.
+     *
+     * @return El valor anterior, o {@code null}.
+     * @throws IllegalArgumentException Si {@code key} está fuera de
+     *                                  {@code [0, MAX_KEY]}.
+     */
+    public T put(int key, T value) {
+        if (key < 0 || key > MAX_KEY)
+            throw new IllegalArgumentException("ID fuera de rango: " + key);
+        if (value == null)
+            return remove(key);
+
+        if (key >= values.length)
+            values = Arrays.copyOf(values, Math.min(Math.max(key + 1, values.length * 2), MAX_KEY + 1));
+
+        T previous = get(key);
+        values[key] = value;
+        if (previous == null)
+            size++;
+        return previous;
+    }
+
+    /**
+     * @return El valor eliminado, o {@code null} si no existía.
+     */
+    public T remove(int key) {
+        T previous = get(key);
+        if (previous != null) {
+            values[key] = null;
+            size--;
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @return El menor ID presente, o {@code -1} si la tabla está vacía.
+     */
+    public int firstKey() {
+        for (int key = 0; key < values.length && size > 0; key++) {
+            if (values[key] != null)
+                return key;
+        }
+        return -1;
+    }
+
+    /**
+     * @return Los IDs presentes, en orden ascendente.
+     */
+    public int[] keys() {
+        int[] keys = new int[size];
+        int n = 0;
+        for (int key = 0; key < values.length && n < size; key++) {
+            if (values[key] != null)
+                keys[n++] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * @return Copia de los valores, en orden ascendente de ID.
+     */
+    public List<T> values() {
+        List<T> result = new ArrayList<>(size);
+        for (T value : this)
+            result.add(value);
+        return result;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < values.length && values[from] == null)
+                    from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                T value = (T) values[next];
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,328 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.utils.MapManager.MapFormatType;
+import org.argentumforge.engine.utils.MapManager.MapSaveOptions;
+import org.argentumforge.engine.utils.editor.MapValidator;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Procesa directorios completos de mapas (.map + .dat + .inf) sin interfaz ni
+ * contexto OpenGL.
+ * <p>
+ * Cada mapa se lee con {@link MapManager#readMap} en un {@link MapContext}
+ * propio y, según la operación, se convierte a otro formato, se valida con
+ * {@link MapValidator} o se vuelve a guardar en su formato original. Los mapas
+ * se reparten entre un pool de hilos: ninguno toca el contexto activo del
+ * editor, así que pueden procesarse a la vez.
+ * <p>
+ * Los mapas se leen en modo estricto: un .map vacío o truncado cuenta como
+ * fallo, para no volver a guardarlo como un mapa completo con tiles vacíos.
+ * <p>
+ * La validación da los mismos resultados que en el editor siempre que se
+ * carguen antes los tipos de objeto ({@link #loadObjects}); sin ellos, todos
+ * los objetos en tiles bloqueados se informan, incluidos los tipos que las
+ * opciones permiten bloquear.
+ */
+public final class MapBatchProcessor {
+
+    /**
+     * Operación a aplicar a cada mapa.
+     */
+    public enum Operation {
+        /** Reescribe el mapa en el formato de destino. */
+        CONVERT,
+        /** Solo lee y valida el mapa; no escribe nada. */
+        VALIDATE,
+        /** Reescribe el mapa en el formato detectado al leerlo. */
+        RESAVE
+    }
+
+    /**
+     * Resultado del procesamiento de un mapa.
+     */
+    public static final class Result {
+        private final Path source;
+        private final boolean success;
+        private final String message;
+        private final int errors;
+        private final int warnings;
+        private final long nanos;
+
+        Result(Path source, boolean success, String message, int errors, int warnings, long nanos) {
+            this.source = source;
+            this.success = success;
+            this.message = message;
+            this.errors = errors;
+            this.warnings = warnings;
+            this.nanos = nanos;
+        }
+
+        public Path getSource() {
+            return source;
+        }
+
+        /**
+         * @return {@code false} si el mapa no pudo leerse o escribirse.
+         */
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return Cantidad de problemas de nivel ERROR encontrados al validar.
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return Cantidad de problemas de nivel WARNING encontrados al validar.
+         */
+        public int getWarnings() {
+            return warnings;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Resumen de una ejecución completa.
+     */
+    public static final class Report {
+        private final Operation operation;
+        private final List<Result> results;
+        private final long elapsedNanos;
+        private final int threads;
+
+        Report(Operation operation, List<Result> results, long elapsedNanos, int threads) {
+            this.operation = operation;
+            this.results = Collections.unmodifiableList(results);
+            this.elapsedNanos = elapsedNanos;
+            this.threads = threads;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public int getProcessed() {
+            return results.size();
+        }
+
+        public int getFailed() {
+            return (int) results.stream().filter(r -> !r.isSuccess()).count();
+        }
+
+        public int getTotalErrors() {
+            return results.stream().mapToInt(Result::getErrors).sum();
+        }
+
+        public int getTotalWarnings() {
+            return results.stream().mapToInt(Result::getWarnings).sum();
+        }
+
+        /**
+         * @return {@code true} si todos los mapas se procesaron y ninguno tiene
+         *         errores de validación.
+         */
+        public boolean isClean() {
+            return getFailed() == 0 && getTotalErrors() == 0;
+        }
+
+        /**
+         * Texto del resumen, con una línea por mapa con problemas.
+         */
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            sb.append(String.format(Locale.ROOT, "%s: %d mapas en %.2f s (%.1f mapas/s, %d hilos)%n", operation,
+                    getProcessed(), seconds, seconds > 0 ? getProcessed() / seconds : 0, threads));
+            sb.append(String.format(Locale.ROOT, "  correctos: %d, fallidos: %d, errores: %d, advertencias: %d%n",
+                    getProcessed() - getFailed(), getFailed(), getTotalErrors(), getTotalWarnings()));
+
+            for (Result result : results) {
+                if (!result.isSuccess()) {
+                    sb.append("  [FALLO] ").append(result.getSource().getFileName()).append(": ")
+                            .append(result.getMessage()).append(System.lineSeparator());
+                } else if (result.getErrors() > 0 || result.getWarnings() > 0) {
+                    sb.append(String.format(Locale.ROOT, "  [AVISO] %s: %d errores, %d advertencias%n",
+                            result.getSource().getFileName(), result.getErrors(), result.getWarnings()));
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private final Operation operation;
+    private final MapSaveOptions target;
+    private final Path outputDir;
+    private final int threads;
+
+    /**
+     * @param operation Operación a aplicar.
+     * @param target    Formato de destino (solo para {@link Operation#CONVERT}).
+     * @param outputDir Directorio de salida, o {@code null} para sobrescribir los
+     *                  archivos de origen.
+     * @param threads   Cantidad de hilos del pool (mínimo 1).
+     */
+    public MapBatchProcessor(Operation operation, MapSaveOptions target, Path outputDir, int threads) {
+        if (operation == Operation.CONVERT && target == null)
+            throw new IllegalArgumentException("La conversión requiere un formato de destino");
+        this.operation = operation;
+        this.target = target;
+        this.outputDir = outputDir;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Carga OBJ.dat de {@code datsDir} en {@link AssetRegistry#objs}, para que la
+     * validación sepa qué tipos de objeto pueden estar en tiles bloqueados.
+     *
+     * @return Cantidad de objetos cargados.
+     * @throws IOException Si no existe OBJ.dat en el directorio.
+     */
+    public static int loadObjects(Path datsDir) throws IOException {
+        Path objsPath = datsDir.resolve("OBJ.dat");
+        if (!Files.isRegularFile(objsPath))
+            throw new IOException("No se encontró OBJ.dat en " + datsDir.toAbsolutePath());
+        AssetRegistry.objs = ResourceLoader.parseObjs(objsPath);
+        return AssetRegistry.objs.size();
+    }
+
+    /**
+     * Busca los archivos .map (sin recursión) de un directorio.
+     */
+    public static List<Path> findMaps(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".map"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Procesa todos los mapas de {@code inputDir}.
+     */
+    public Report run(Path inputDir) throws IOException {
+        return run(findMaps(inputDir));
+    }
+
+    /**
+     * Procesa los mapas indicados en paralelo. El reporte conserva el orden de
+     * entrada.
+     */
+    public Report run(List<Path> maps) throws IOException {
+        if (outputDir != null)
+            Files.createDirectories(outputDir);
+
+        long start = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "map-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Result>> futures = new ArrayList<>(maps.size());
+            for (Path map : maps)
+                futures.add(pool.submit(() -> process(map)));
+
+            List<Result> results = new ArrayList<>(maps.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new Result(maps.get(i), false, String.valueOf(e.getCause()), 0, 0, 0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Procesamiento interrumpido", e);
+                }
+            }
+            return new Report(operation, results, System.nanoTime() - start, threads);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Procesa un único mapa. Nunca lanza excepciones: los fallos quedan en el
+     * {@link Result}.
+     */
+    Result process(Path source) {
+        long start = System.nanoTime();
+        try {
+            MapContext context = MapManager.readMap(source.toString(), null, true);
+
+            switch (operation) {
+                case VALIDATE -> {
+                    int errors = 0;
+                    int warnings = 0;
+                    for (MapValidator.ValidationError error : MapValidator.validate(context)) {
+                        if ("ERROR".equals(error.type))
+                            errors++;
+                        else
+                            warnings++;
+                    }
+                    return new Result(source, true, "validado", errors, warnings, System.nanoTime() - start);
+                }
+                case CONVERT -> {
+                    Path destination = destination(source);
+                    MapManager.writeMap(context, destination.toString(), target);
+                    return new Result(source, true, "convertido a " + describe(target), 0, 0,
+                            System.nanoTime() - start);
+                }
+                case RESAVE -> {
+                    Path destination = destination(source);
+                    MapManager.writeMap(context, destination.toString(), context.getSaveOptions());
+                    return new Result(source, true, "guardado como " + describe(context.getSaveOptions()), 0, 0,
+                            System.nanoTime() - start);
+                }
+                default -> throw new IllegalStateException("Operación desconocida: " + operation);
+            }
+        } catch (IOException | RuntimeException e) {
+            Logger.error(e, "No se pudo procesar el mapa {}", source);
+            return new Result(source, false, e.getClass().getSimpleName() + ": " + e.getMessage(), 0, 0,
+                    System.nanoTime() - start);
+        }
+    }
+
+    private Path destination(Path source) {
+        return outputDir != null ? outputDir.resolve(source.getFileName()) : source;
+    }
+
+    /**
+     * Descripción corta de un formato para el reporte.
+     */
+    public static String describe(MapSaveOptions options) {
+        if (options.getFormatType() == MapFormatType.V1_LEGACY)
+            return "V1 legacy";
+        return "V" + options.getVersion() + (options.isUseLongIndices() ? " índices largos" : " índices cortos")
+                + (options.isIncludeHeader() ? "" : " sin cabecera");
+    }
+}
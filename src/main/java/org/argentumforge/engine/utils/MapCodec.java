@@ -0,0 +1,370 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.Engine;
+import org.argentumforge.engine.utils.MapManager.MapFormatType;
+import org.argentumforge.engine.utils.MapManager.MapSaveOptions;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.tinylog.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Codificador/decodificador binario de archivos .map.
+ * <p>
+ * Soporta V1 (0.99z/0.11.2, 13 bytes fijos por tile) y V2 con índices cortos
+ * (estándar) o largos (AOLibre y extendido). Lee directamente de un
+ * {@link ByteBuffer} (de heap o mapeado) hacia un {@link TileStore}, sin
+ * copias intermedias, y escribe en un buffer directo cuyo tamaño se calcula
+ * exacto en una primera pasada.
+ * <p>
+ * Cada hilo usa su propia instancia ({@link #get()}), que conserva el buffer
+ * de lectura y el de escritura entre mapas: procesar un directorio completo no
+ * vuelve a reservar memoria salvo que aparezca un mapa más grande. Los buffers
+ * devueltos solo son válidos hasta la siguiente llamada del mismo hilo.
+ */
+final class MapCodec {
+
+    /** Versión (2) + metadatos (263) + cuatro enteros sin uso (8). */
+    static final int HEADER_SIZE = 273;
+    static final int HEADER_METADATA_SIZE = 263;
+    static final int V1_TILE_SIZE = 13;
+
+    private static final int FLAG_BLOCKED = 1;
+    private static final int FLAG_TRIGGER = 16;
+    private static final int FLAG_PARTICLE = 32;
+
+    private static final DateTimeFormatter HEADER_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final ThreadLocal<MapCodec> LOCAL = ThreadLocal.withInitial(MapCodec::new);
+
+    private ByteBuffer readBuffer;
+    private ByteBuffer writeBuffer;
+
+    private MapCodec() {
+    }
+
+    /**
+     * @return La instancia del hilo actual.
+     */
+    static MapCodec get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Lee un archivo completo en el buffer de lectura del hilo.
+     * <p>
+     * No se mapea el archivo: en Windows un mapeo abierto impide sobrescribirlo
+     * hasta que el GC lo libere, y el editor guarda sobre el mismo archivo que
+     * cargó.
+     *
+     * @return Buffer en little-endian con el contenido, válido hasta la próxima
+     *         lectura de este hilo.
+     */
+    ByteBuffer readFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Archivo de mapa demasiado grande: " + path);
+
+            ByteBuffer buffer = readBuffer = ensureCapacity(readBuffer, (int) size, false);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0)
+                    throw new EOFException("Fin de archivo inesperado en " + path);
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Decodifica un .map en un {@link TileStore} nuevo de 100x100.
+     * <p>
+     * Un archivo truncado no es un error: los tiles que faltan quedan vacíos,
+     * igual que en el lector original. La posición de {@code data} no cambia.
+     *
+     * @param data    Contenido del archivo, desde su posición hasta su límite.
+     * @param options Formato del archivo (ver
+     *                {@link MapManager#detectSaveOptions(ByteBuffer)}).
+     */
+    TileStore decode(ByteBuffer data, MapSaveOptions options) {
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        decodeInto(data, options, tiles);
+        return tiles;
+    }
+
+    /**
+     * Igual que {@link #decode}, pero el archivo debe coincidir exactamente con
+     * el formato: uno vacío, truncado o con bytes de más es un error. Lo usan las
+     * herramientas por lotes, que de otro modo volverían a guardar un mapa dañado
+     * como uno completo con los tiles que faltan vacíos.
+     *
+     * @throws EOFException Si el archivo termina antes de la cabecera que declara
+     *                      el formato o del último tile.
+     * @throws IOException  Si sobran bytes tras el último tile (p.ej. un V1
+     *                      truncado, que se detecta como V2).
+     */
+    TileStore decodeComplete(ByteBuffer data, MapSaveOptions options) throws IOException {
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        int left = decodeInto(data, options, tiles);
+        if (left < 0)
+            throw new EOFException("Mapa truncado (" + data.remaining() + " bytes)");
+        if (left > 0)
+            throw new IOException("Sobran " + left + " bytes tras el último tile: el archivo no coincide con el "
+                    + "formato detectado");
+        return tiles;
+    }
+
+    /**
+     * @return Bytes que sobran tras el último tile, o -1 si los datos terminaron
+     *         antes.
+     */
+    private static int decodeInto(ByteBuffer data, MapSaveOptions options, TileStore tiles) {
+        ByteBuffer in = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (options.getFormatType() == MapFormatType.V1_LEGACY)
+            return decodeV1(in, options, tiles);
+        return decodeV2(in, options, tiles);
+    }
+
+    private static int decodeV2(ByteBuffer in, MapSaveOptions options, TileStore tiles) {
+        // La versión se lee siempre; los metadatos solo si el formato los declara
+        if (in.remaining() < 2)
+            return -1;
+        short version = in.getShort();
+        Logger.debug("Mapa: tamaño={}, versión={}", in.limit(), version);
+
+        boolean complete = true;
+        if (options.isIncludeHeader()) {
+            if (in.remaining() >= HEADER_METADATA_SIZE)
+                skip(in, HEADER_METADATA_SIZE);
+            else
+                complete = false;
+        }
+        if (in.remaining() >= 8)
+            skip(in, 8);
+
+        boolean longIndices = options.isUseLongIndices();
+        int indexSize = longIndices ? 4 : 2;
+
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            int idx = tiles.index(GameData.X_MIN_MAP_SIZE, y);
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++, idx++) {
+                if (!in.hasRemaining())
+                    return -1;
+                int flags = in.get();
+                tiles.setBlocked(idx, (flags & FLAG_BLOCKED) != 0);
+
+                // Capa 1 siempre presente; 2, 3 y 4 según los bits 2, 4 y 8
+                if (in.remaining() < indexSize)
+                    return -1;
+                tiles.initGrh(1, idx, longIndices ? in.getInt() : in.getShort() & 0xFFFF, true);
+                for (int layer = 2; layer <= 4; layer++) {
+                    if ((flags & (1 << (layer - 1))) == 0)
+                        continue;
+                    if (in.remaining() < indexSize)
+                        return -1;
+                    tiles.initGrh(layer, idx, longIndices ? in.getInt() : in.getShort() & 0xFFFF, true);
+                }
+
+                if ((flags & FLAG_TRIGGER) != 0) {
+                    if (in.remaining() < 2)
+                        return -1;
+                    tiles.setTrigger(idx, in.getShort() & 0xFFFF);
+                }
+
+                if ((flags & FLAG_PARTICLE) != 0) {
+                    if (in.remaining() < 2)
+                        return -1;
+                    tiles.setParticleIndex(idx, in.getShort());
+                }
+            }
+        }
+        return complete ? in.remaining() : -1;
+    }
+
+    private static int decodeV1(ByteBuffer in, MapSaveOptions options, TileStore tiles) {
+        boolean complete = true;
+        if (options.isIncludeHeader()) {
+            if (in.remaining() >= HEADER_SIZE)
+                skip(in, HEADER_SIZE);
+            else
+                complete = false;
+        }
+
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            int idx = tiles.index(GameData.X_MIN_MAP_SIZE, y);
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++, idx++) {
+                if (in.remaining() < V1_TILE_SIZE)
+                    return -1;
+
+                tiles.setBlocked(idx, in.get() == 1);
+                for (int layer = 1; layer <= 4; layer++) {
+                    int grh = in.getShort() & 0xFFFF;
+                    if (grh > 0)
+                        tiles.initGrh(layer, idx, grh, true);
+                }
+                tiles.setTrigger(idx, in.getShort() & 0xFFFF);
+                in.getShort(); // Sin uso (TempInt en VB6)
+            }
+        }
+        return complete ? in.remaining() : -1;
+    }
+
+    /**
+     * Calcula el tamaño exacto del .map que produciría {@link #encode}.
+     */
+    static int encodedSize(TileStore tiles, MapSaveOptions options) {
+        int size = options.isIncludeHeader() ? HEADER_SIZE : 0;
+        int tileCount = (GameData.X_MAX_MAP_SIZE - GameData.X_MIN_MAP_SIZE + 1)
+                * (GameData.Y_MAX_MAP_SIZE - GameData.Y_MIN_MAP_SIZE + 1);
+
+        if (options.getFormatType() == MapFormatType.V1_LEGACY)
+            return size + tileCount * V1_TILE_SIZE;
+
+        int indexSize = options.isUseLongIndices() ? 4 : 2;
+        size += tileCount * (1 + indexSize);
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            int idx = tiles.index(GameData.X_MIN_MAP_SIZE, y);
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++, idx++) {
+                for (int layer = 2; layer <= 4; layer++) {
+                    if (tiles.getGrh(layer, idx) > 0)
+                        size += indexSize;
+                }
+                if (tiles.getTrigger(idx) > 0)
+                    size += 2;
+                if (tiles.getParticleIndex(idx) > 0)
+                    size += 2;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Codifica el mapa en el buffer directo del hilo.
+     *
+     * @param headerMetadata Bloque informativo de la cabecera (ver
+     *                       {@link #headerMetadata()}); se ignora si el formato
+     *                       no lleva cabecera.
+     * @return Buffer listo para escribir, válido hasta la próxima codificación de
+     *         este hilo.
+     */
+    ByteBuffer encode(TileStore tiles, MapSaveOptions options, byte[] headerMetadata) {
+        ByteBuffer out = writeBuffer = ensureCapacity(writeBuffer, encodedSize(tiles, options), true);
+
+        if (options.isIncludeHeader()) {
+            out.putShort(options.getVersion());
+            out.put(headerMetadata, 0, HEADER_METADATA_SIZE);
+            out.putLong(0L); // Cuatro enteros sin uso
+        }
+
+        if (options.getFormatType() == MapFormatType.V1_LEGACY)
+            encodeV1(out, tiles);
+        else
+            encodeV2(out, tiles, options.isUseLongIndices());
+
+        out.flip();
+        return out;
+    }
+
+    private static void encodeV2(ByteBuffer out, TileStore tiles, boolean longIndices) {
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            int idx = tiles.index(GameData.X_MIN_MAP_SIZE, y);
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++, idx++) {
+                int trigger = tiles.getTrigger(idx);
+                int particle = tiles.getParticleIndex(idx);
+
+                int flags = tiles.isBlocked(idx) ? FLAG_BLOCKED : 0;
+                for (int layer = 2; layer <= 4; layer++) {
+                    if (tiles.getGrh(layer, idx) > 0)
+                        flags |= 1 << (layer - 1);
+                }
+                if (trigger > 0)
+                    flags |= FLAG_TRIGGER;
+                if (particle > 0)
+                    flags |= FLAG_PARTICLE;
+                out.put((byte) flags);
+
+                for (int layer = 1; layer <= 4; layer++) {
+                    if (layer > 1 && (flags & (1 << (layer - 1))) == 0)
+                        continue;
+                    int grh = tiles.getGrh(layer, idx);
+                    if (longIndices)
+                        out.putInt(grh);
+                    else
+                        out.putShort((short) grh);
+                }
+
+                if ((flags & FLAG_TRIGGER) != 0)
+                    out.putShort((short) trigger);
+                if ((flags & FLAG_PARTICLE) != 0)
+                    out.putShort((short) particle);
+            }
+        }
+    }
+
+    private static void encodeV1(ByteBuffer out, TileStore tiles) {
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            int idx = tiles.index(GameData.X_MIN_MAP_SIZE, y);
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++, idx++) {
+                out.put((byte) (tiles.isBlocked(idx) ? 1 : 0));
+                for (int layer = 1; layer <= 4; layer++)
+                    out.putShort((short) tiles.getGrh(layer, idx));
+                out.putShort((short) tiles.getTrigger(idx));
+                out.putShort((short) 0);
+            }
+        }
+    }
+
+    /**
+     * Codifica el mapa y lo escribe en {@code path}, reemplazando su contenido.
+     */
+    void write(Path path, TileStore tiles, MapSaveOptions options) throws IOException {
+        ByteBuffer out = encode(tiles, options, options.isIncludeHeader() ? headerMetadata() : null);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining())
+                channel.write(out);
+        }
+    }
+
+    /**
+     * Genera un bloque de 263 bytes con información del editor (versión, fecha y
+     * repositorio). Reemplaza el bloque de ceros que se escribía anteriormente en
+     * la cabecera del mapa.
+     */
+    static byte[] headerMetadata() {
+        byte[] header = new byte[HEADER_METADATA_SIZE];
+        String metadata = "Argentum Forge v" + Engine.VERSION + " - Map Editor | "
+                + LocalDateTime.now().format(HEADER_DATE) + " | https://github.com/ManuelJSD/Argentum-Forge";
+
+        byte[] metaBytes = metadata.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(metaBytes, 0, header, 0, Math.min(metaBytes.length, header.length));
+        return header;
+    }
+
+    /**
+     * Devuelve {@code buffer} limpio si alcanza para {@code size} bytes, o uno
+     * nuevo con margen si no. El resultado queda con límite {@code size}.
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int size, boolean direct) {
+        if (buffer == null || buffer.capacity() < size) {
+            int capacity = Math.max(size, buffer == null ? 0 : buffer.capacity() + (buffer.capacity() >> 1));
+            buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    private static void skip(ByteBuffer in, int bytes) {
+        in.position(in.position() + bytes);
+    }
+}
@@ -1,10 +1,11 @@
 package org.argentumforge.engine.utils;
 
-import org.argentumforge.engine.game.models.Character;
+import org.argentumforge.engine.game.models.CharacterRegistry;
 import org.argentumforge.engine.utils.inits.MapData;
 import org.argentumforge.engine.utils.inits.MapProperties;
-import org.argentumforge.engine.utils.editor.commands.Command;
-import java.util.Stack;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.argentumforge.engine.utils.editor.EditJournal;
+import org.argentumforge.engine.utils.editor.commands.CommandHistory;
 
 /**
  * Representa el contexto de un mapa abierto en el editor.
@@ -12,15 +13,16 @@ import java.util.Stack;
  */
 public class MapContext {
     private String filePath;
-    private MapData[][] mapData;
+    private TileStore tiles;
     private MapProperties mapProperties;
-    private Character[] charList;
+    private CharacterRegistry charList;
     private boolean modified = false;
-    private int lastChar = 0;
+    private int revision;
     private MapManager.MapSaveOptions saveOptions = MapManager.MapSaveOptions.standard();
-    private final Stack<Command> undoStack = new Stack<>();
-    private final Stack<Command> redoStack = new Stack<>();
+    private final CommandHistory undoStack = new CommandHistory(CommandHistory.DEFAULT_BUDGET);
+    private final CommandHistory redoStack = new CommandHistory();
     private int savedUndoStackSize = 0;
+    private EditJournal journal;
 
     // Persistent Camera/User Position
     private int savedUserX = 50;
@@ -28,9 +30,9 @@ public class MapContext {
 
     private MapFormat mapFormat = MapFormat.LEGACY;
 
-    public MapContext(String filePath, MapData[][] mapData, MapProperties mapProperties, Character[] charList) {
+    public MapContext(String filePath, TileStore tiles, MapProperties mapProperties, CharacterRegistry charList) {
         this.filePath = normalizePath(filePath);
-        this.mapData = mapData;
+        this.tiles = tiles;
         this.mapProperties = mapProperties;
         this.charList = charList;
     }
@@ -85,15 +87,25 @@ public class MapContext {
         this.filePath = normalizePath(filePath);
     }
 
+    /**
+     * @return El almacén compacto de celdas del mapa.
+     */
+    public TileStore getTiles() {
+        return tiles;
+    }
+
+    /**
+     * @return Rejilla de vistas {@link MapData} sobre {@link #getTiles()}.
+     */
     public MapData[][] getMapData() {
-        return mapData;
+        return tiles == null ? null : tiles.grid();
     }
 
     public MapProperties getMapProperties() {
         return mapProperties;
     }
 
-    public Character[] getCharList() {
+    public CharacterRegistry getCharList() {
         return charList;
     }
 
@@ -110,24 +122,36 @@ public class MapContext {
 
     public void setModified(boolean modified) {
         this.modified = modified;
+        if (modified)
+            revision++;
     }
 
-    public int getLastChar() {
-        return lastChar;
-    }
-
-    public void setLastChar(int lastChar) {
-        this.lastChar = lastChar;
+    /**
+     * @return Contador que avanza con cada modificación; permite saber si el mapa
+     *         cambió desde que se tomó una instantánea.
+     */
+    public int getRevision() {
+        return revision;
     }
 
-    public Stack<Command> getUndoStack() {
+    public CommandHistory getUndoStack() {
         return undoStack;
     }
 
-    public Stack<Command> getRedoStack() {
+    public CommandHistory getRedoStack() {
         return redoStack;
     }
 
+    /**
+     * @return El diario de ediciones del mapa, creado (y tomada su base) en el
+     *         primer acceso.
+     */
+    public EditJournal getJournal() {
+        if (journal == null)
+            journal = new EditJournal(this);
+        return journal;
+    }
+
     public int getSavedUndoStackSize() {
         return savedUndoStackSize;
     }
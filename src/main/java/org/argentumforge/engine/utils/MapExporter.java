@@ -6,7 +6,9 @@ import org.argentumforge.engine.game.Options;
 import org.argentumforge.engine.game.Weather;
 import org.argentumforge.engine.renderer.RenderSettings;
 import org.argentumforge.engine.renderer.Surface;
+import org.argentumforge.engine.renderer.TileInstanceRenderer;
 import org.argentumforge.engine.scenes.Camera;
+import org.argentumforge.engine.utils.inits.GrhInfo;
 import org.argentumforge.engine.utils.inits.MapData;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.system.MemoryStack;
@@ -171,14 +173,14 @@ public class MapExporter {
      * Agrega el {@code fileNum} del GRH al conjunto, validando índices.
      */
     private static void addGrhFileNum(Set<Integer> fileNums, int grhIndex) {
-        if (grhData == null || grhIndex <= 0 || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhData == null || grhIndex <= 0 || grhIndex >= grhData.length() || grhData.get(grhIndex) == null)
             return;
         // GRHs animados: agregar el fileNum de todos sus frames
-        int numFrames = grhData[grhIndex].getNumFrames();
+        int numFrames = grhData.get(grhIndex).getNumFrames();
         for (int f = 0; f < numFrames; f++) {
-            int frameIndex = grhData[grhIndex].getFrame(f);
-            if (frameIndex > 0 && frameIndex < grhData.length && grhData[frameIndex] != null) {
-                fileNums.add(grhData[frameIndex].getFileNum());
+            int frameIndex = grhData.get(grhIndex).getFrame(f);
+            if (frameIndex > 0 && frameIndex < grhData.length() && grhData.get(frameIndex) != null) {
+                fileNums.add(grhData.get(frameIndex).getFileNum());
             }
         }
     }
@@ -192,14 +194,29 @@ public class MapExporter {
         // sea correcta. Los gráficos más al sur deben dibujarse después (encima)
         // de los más al norte, igual que hace MapRenderer en el editor.
 
-        // Capa 1
-        if (renderSettings.getShowLayer()[0]) {
+        // Capa 1: el suelo no depende del orden del pintor, se dibuja instanciado
+        // (12 bytes por tile en lugar de un quad completo) si el contexto lo admite
+        TileInstanceRenderer instances = TileInstanceRenderer.INSTANCE;
+        if (renderSettings.getShowLayer()[0] && instances.isSupported()) {
+            instances.begin();
             for (int y = 0; y < mapHeight; y++) {
                 for (int x = 0; x < mapWidth; x++) {
                     if (mapData[x][y] == null)
                         continue;
-                    if (mapData[x][y].getLayer(1).getGrhIndex() != 0) {
-                        drawTexture(mapData[x][y].getLayer(1), x * TILE_SIZE, y * TILE_SIZE,
+                    GrhInfo ground = mapData[x][y].getLayer(1);
+                    if (ground.getGrhIndex() != 0)
+                        instances.add(ground, x, y, weather.getWeatherColor(), 1.0f);
+                }
+            }
+            instances.draw(0, 0, 1.0f);
+        } else if (renderSettings.getShowLayer()[0]) {
+            for (int y = 0; y < mapHeight; y++) {
+                for (int x = 0; x < mapWidth; x++) {
+                    if (mapData[x][y] == null)
+                        continue;
+                    GrhInfo ground = mapData[x][y].getLayer(1);
+                    if (ground.getGrhIndex() != 0) {
+                        drawTexture(ground, x * TILE_SIZE, y * TILE_SIZE,
                                 true, true, false, 1.0f, weather.getWeatherColor());
                     }
                 }
@@ -221,9 +238,10 @@ public class MapExporter {
                     }
                     if (renderSettings.getShowOJBs()) {
                         int objGrhIdx = mapData[x][y].getObjGrh().getGrhIndex();
-                        if (objGrhIdx > 0 && grhData != null && objGrhIdx < grhData.length && grhData[objGrhIdx] != null) {
-                            if (grhData[objGrhIdx].getPixelWidth() == TILE_SIZE &&
-                                    grhData[objGrhIdx].getPixelHeight() == TILE_SIZE) {
+                        if (objGrhIdx > 0 && grhData != null && objGrhIdx < grhData.length()
+                                && grhData.get(objGrhIdx) != null) {
+                            if (grhData.get(objGrhIdx).getPixelWidth() == TILE_SIZE &&
+                                    grhData.get(objGrhIdx).getPixelHeight() == TILE_SIZE) {
                                 drawTexture(mapData[x][y].getObjGrh(), x * TILE_SIZE, y * TILE_SIZE,
                                         true, true, false, 1.0f, weather.getWeatherColor());
                             }
@@ -241,9 +259,10 @@ public class MapExporter {
 
                 if (renderSettings.getShowOJBs()) {
                     int objGrhIdx = mapData[x][y].getObjGrh().getGrhIndex();
-                    if (objGrhIdx > 0 && grhData != null && objGrhIdx < grhData.length && grhData[objGrhIdx] != null) {
-                        if (grhData[objGrhIdx].getPixelWidth() != TILE_SIZE ||
-                                grhData[objGrhIdx].getPixelHeight() != TILE_SIZE) {
+                    if (objGrhIdx > 0 && grhData != null && objGrhIdx < grhData.length()
+                            && grhData.get(objGrhIdx) != null) {
+                        if (grhData.get(objGrhIdx).getPixelWidth() != TILE_SIZE ||
+                                grhData.get(objGrhIdx).getPixelHeight() != TILE_SIZE) {
                             drawTexture(mapData[x][y].getObjGrh(), x * TILE_SIZE, y * TILE_SIZE,
                                     true, true, false, 1.0f, weather.getWeatherColor());
                         }
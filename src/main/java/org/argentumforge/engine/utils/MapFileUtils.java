@@ -114,11 +114,8 @@ public class MapFileUtils {
             saveMapAs(onSuccess, onFailure);
 
         } else {
-            // Guardar directamente async? No, saveMap es síncrono en disco pero rápido.
-            // Podemos ejecutarlo ya.
-            GameData.saveMap(context.getFilePath(), context.getSaveOptions());
-            if (onSuccess != null)
-                onSuccess.run();
+            // Guardado en segundo plano: los callbacks se ejecutan al terminar
+            GameData.saveMap(context.getFilePath(), context.getSaveOptions(), onSuccess, onFailure);
         }
     }
 
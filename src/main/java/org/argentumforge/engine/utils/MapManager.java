@@ -2,14 +2,21 @@ package org.argentumforge.engine.utils;
 
 import org.argentumforge.engine.game.Options;
 import org.argentumforge.engine.game.models.Character;
+import org.argentumforge.engine.game.models.CharacterRegistry;
 import org.argentumforge.engine.game.models.Direction;
-import org.argentumforge.engine.renderer.Surface;
 import org.argentumforge.engine.utils.inits.*;
 import org.tinylog.Logger;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.argentumforge.engine.gui.DialogManager;
 import java.io.File;
@@ -22,6 +29,7 @@ import org.argentumforge.engine.game.EditorController;
 import org.argentumforge.engine.utils.editor.Selection;
 import org.argentumforge.engine.utils.editor.Particle;
 import org.argentumforge.engine.utils.editor.Obj;
+import org.argentumforge.engine.utils.editor.EditJournal;
 
 /**
  * Clase responsable de la gestión de archivos de mapa (.map, .inf, .dat).
@@ -33,6 +41,16 @@ public final class MapManager {
 
     private static boolean mapLoading = false;
 
+    /**
+     * Hilo de guardado: uno solo, para que los guardados se apliquen en el orden
+     * en que se pidieron.
+     */
+    private static final ExecutorService SAVE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MapSave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static boolean isMapLoading() {
         return mapLoading;
     }
@@ -205,11 +223,20 @@ public final class MapManager {
      * Estima las opciones de guardado originales basándose en los datos cargados.
      */
     public static MapSaveOptions detectSaveOptions(byte[] data) {
+        return detectSaveOptions(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Igual que {@link #detectSaveOptions(byte[])}, sobre el contenido entre la
+     * posición y el límite del buffer (que no se modifican).
+     */
+    public static MapSaveOptions detectSaveOptions(ByteBuffer data) {
         MapSaveOptions options = new MapSaveOptions();
+        int length = data.remaining();
 
         // Heurística de tamaño para V1
         // .map V1 de 100x100 = 273 (header) + 10000 * 13 (data) = 130273
-        if (data.length == 130273) {
+        if (length == MapCodec.HEADER_SIZE + 10000 * MapCodec.V1_TILE_SIZE) {
             options.setFormatType(MapFormatType.V1_LEGACY);
             options.setVersion((short) 1);
             options.setIncludeHeader(true);
@@ -217,16 +244,17 @@ public final class MapManager {
             return options;
         }
 
-        if (data.length < 2)
+        if (length < 2)
             return options;
 
-        short version = (short) ((data[0] & 0xFF) | ((data[1] & 0xFF) << 8));
+        int start = data.position();
+        short version = (short) ((data.get(start) & 0xFF) | ((data.get(start + 1) & 0xFF) << 8));
         options.setVersion(version);
         options.setFormatType(MapFormatType.V2_STANDARD);
 
         options.setIncludeHeader(true); // Asumimos cabecera por defecto en carga estándar
 
-        if (version == 136 || data.length > 50000) { // 50000 es solo un umbral arbitraro que no discrimina V1
+        if (version == 136 || length > 50000) { // 50000 es solo un umbral arbitraro que no discrimina V1
             options.setUseLongIndices(true);
         } else {
             options.setUseLongIndices(false);
@@ -300,7 +328,10 @@ public final class MapManager {
                             });
                 },
                 () -> {
-                    // NO -> Descartar cambios (simplemente continuar)
+                    // NO -> Descartar cambios (y su diario) y continuar
+                    MapContext context = GameData.getActiveContext();
+                    if (context != null)
+                        context.getJournal().discard(context.getFilePath());
                     if (onContinue != null)
                         onContinue.run();
                 },
@@ -375,6 +406,19 @@ public final class MapManager {
         // Si forzamos recarga y existe, lo marcaremos para reemplazo posterior
         final MapContext contextToReplace = existingContext;
 
+        // Mapa vecino ya precargado: se aplica en el próximo frame, sin modal
+        if (!forceReload) {
+            MapContext prefetched = MapPrefetcher.INSTANCE.take(normalizedTarget);
+            if (prefetched != null) {
+                Logger.info("MapManager: usando mapa precargado {}", normalizedTarget);
+                mapLoading = true;
+                User.INSTANCE.resetMovement();
+                MapLoadingResult result = new MapLoadingResult(prefetched, countParticles(prefetched.getTiles()));
+                Engine.INSTANCE.runOnMainThread(() -> finishAsyncLoad(result, filePath, onComplete, false));
+                return;
+            }
+        }
+
         mapLoading = true;
 
         LoadingModal.getInstance()
@@ -393,48 +437,8 @@ public final class MapManager {
 
                 // Mejor crear el contexto nuevo y reemplazar al final.
 
-                Character[] newCharList = new Character[10001];
-                for (int i = 0; i < newCharList.length; i++) {
-                    newCharList[i] = new Character();
-                }
-
-                byte[] data = Files.readAllBytes(Path.of(filePath));
-                MapSaveOptions detectedOptions = detectSaveOptions(data);
-                MapData[][] newMapData = initMap(data, detectedOptions);
-                int particlesLoaded = countParticles(newMapData); // Nuevo ayudante o inferido
-
-                // Reservar Slot de Usuario
-                int userCharIdx = User.INSTANCE.getUserCharIndex();
-                if (userCharIdx <= 0)
-                    userCharIdx = 1;
-                newCharList[userCharIdx].setActive(true);
-
-                String basePath = filePath.substring(0, filePath.lastIndexOf('.'));
-                String datPath = basePath + ".dat";
-                String infPath = basePath + ".inf";
-
-                MapProperties newMapProperties;
-                if (Files.exists(Path.of(datPath))) {
-                    newMapProperties = loadMapProperties(datPath);
-                } else {
-                    newMapProperties = new MapProperties();
-                }
-
-                if (Files.exists(Path.of(infPath))) {
-                    loadMapInfo(infPath, newMapData, newCharList, detectedOptions);
-                }
-
-                MapContext context = new MapContext(filePath, newMapData, newMapProperties, newCharList);
-                context.setLastChar((short) 0);
-                context.setSaveOptions(detectedOptions);
-
-                // Detect Format
-                for (MapFormat fmt : MapFormat.values()) {
-                    if (fmt.match(filePath)) {
-                        context.setMapFormat(fmt);
-                        break;
-                    }
-                }
+                MapContext context = readMap(filePath, newEditorCharList());
+                int particlesLoaded = countParticles(context.getTiles());
 
                 // Pasar resultados a fase 2
                 MapLoadingResult result = new MapLoadingResult(context, particlesLoaded);
@@ -442,18 +446,7 @@ public final class MapManager {
 
                 // FASE 2: Aplicación (Main Thread) -> Usamos un Task Queue en Engine o
                 // bloqueamos un frame
-                Engine.INSTANCE.runOnMainThread(() -> {
-                    applyMap(result);
-                    // Actualizar opciones persistentes
-                    Options.INSTANCE.setLastMapPath(filePath);
-                    Options.INSTANCE.save();
-
-                    if (onComplete != null)
-                        onComplete.run();
-                    LoadingModal.getInstance().hide();
-                    mapLoading = false;
-                    Logger.info("Carga asíncrona completada.");
-                });
+                Engine.INSTANCE.runOnMainThread(() -> finishAsyncLoad(result, filePath, onComplete, true));
 
             } catch (Exception e) {
                 Logger.error(e, "Error en carga asíncrona de mapa");
@@ -466,6 +459,28 @@ public final class MapManager {
         });
     }
 
+    /**
+     * Fase final de {@link #loadMapAsync} en el hilo principal: aplica el mapa y
+     * programa la precarga de sus vecinos.
+     */
+    private static void finishAsyncLoad(MapLoadingResult result, String filePath, Runnable onComplete,
+            boolean modalShown) {
+        applyMap(result);
+        EditJournal.offerRecovery(result.context);
+        // Actualizar opciones persistentes
+        Options.INSTANCE.setLastMapPath(filePath);
+        Options.INSTANCE.save();
+
+        if (onComplete != null)
+            onComplete.run();
+        if (modalShown)
+            LoadingModal.getInstance().hide();
+        mapLoading = false;
+        Logger.info("Carga asíncrona completada.");
+
+        MapPrefetcher.INSTANCE.prefetchAround(result.context);
+    }
+
     private static class MapLoadingResult {
         MapContext context;
         MapContext contextToReplace;
@@ -478,8 +493,8 @@ public final class MapManager {
     }
 
     private static void applyMap(MapLoadingResult result) {
-        // Limpiar texturas en el hilo principal justo antes de cambiar contexto
-        Surface.INSTANCE.deleteAllTextures();
+        // Las texturas se conservan entre mapas: Surface desaloja las menos usadas
+        // cuando se supera el presupuesto de VRAM
 
         // Si estamos recargando, reemplazamos la instancia antigua en GameData.openMaps
         if (result.contextToReplace != null) {
@@ -535,7 +550,7 @@ public final class MapManager {
         }
     }
 
-    private static int extractMapNumber(String filePath) {
+    static int extractMapNumber(String filePath) {
         try {
             File f = new File(filePath);
             String name = f.getName();
@@ -557,11 +572,88 @@ public final class MapManager {
         return 0;
     }
 
-    private static int countParticles(MapData[][] map) {
+    /**
+     * Crea la lista de personajes de un mapa nuevo del editor, con el slot del
+     * usuario ya reservado para que los NPCs del .inf no lo ocupen.
+     */
+    static CharacterRegistry newEditorCharList() {
+        CharacterRegistry charList = new CharacterRegistry();
+
+        int userCharIdx = User.INSTANCE.getUserCharIndex();
+        if (!CharacterRegistry.isValidIndex(userCharIdx))
+            userCharIdx = 1;
+        charList.activate(userCharIdx);
+        return charList;
+    }
+
+    /**
+     * Lee un mapa completo (.map y, si existen, sus .dat e .inf) en un
+     * {@link MapContext} nuevo, sin tocar el contexto activo ni ningún otro estado
+     * global del editor. Es seguro llamarlo desde varios hilos a la vez.
+     *
+     * @param filePath Ruta del archivo .map.
+     * @param charList Lista de personajes donde crear los NPCs del .inf, o
+     *                 {@code null} para leer solo los índices (modo sin
+     *                 interfaz: no se consultan cuerpos, cabezas ni GRHs de
+     *                 objetos).
+     * @return El contexto con el mapa cargado.
+     * @throws IOException Si no se puede leer el .map.
+     */
+    public static MapContext readMap(String filePath, CharacterRegistry charList) throws IOException {
+        return readMap(filePath, charList, false);
+    }
+
+    /**
+     * Igual que {@link #readMap(String, CharacterRegistry)}; con {@code strict}
+     * un .map vacío, truncado o con bytes de más es un error en lugar de leerse
+     * con los tiles que faltan vacíos.
+     *
+     * @throws IOException Si {@code strict} y el .map no coincide con su formato.
+     */
+    public static MapContext readMap(String filePath, CharacterRegistry charList, boolean strict)
+            throws IOException {
+        MapCodec codec = MapCodec.get();
+        ByteBuffer data = codec.readFile(Path.of(filePath));
+        MapSaveOptions detectedOptions = detectSaveOptions(data);
+        TileStore tiles = strict ? codec.decodeComplete(data, detectedOptions) : codec.decode(data, detectedOptions);
+
+        String basePath = filePath.substring(0, filePath.lastIndexOf('.'));
+        String datPath = basePath + ".dat";
+        String infPath = basePath + ".inf";
+
+        MapProperties mapProperties;
+        if (Files.exists(Path.of(datPath))) {
+            mapProperties = loadMapProperties(datPath);
+        } else {
+            mapProperties = new MapProperties();
+            Logger.info("Archivo .dat no encontrado en {}, usando valores por defecto.", datPath);
+        }
+
+        if (Files.exists(Path.of(infPath))) {
+            loadMapInfo(infPath, tiles.grid(), charList, detectedOptions);
+        } else {
+            Logger.info("Archivo .inf no encontrado en {}, saltando carga de entidades.", infPath);
+        }
+
+        MapContext context = new MapContext(filePath, tiles, mapProperties,
+                charList != null ? charList : new CharacterRegistry());
+        context.setSaveOptions(detectedOptions);
+
+        for (MapFormat fmt : MapFormat.values()) {
+            if (fmt.match(filePath)) {
+                context.setMapFormat(fmt);
+                break;
+            }
+        }
+        return context;
+    }
+
+    private static int countParticles(TileStore tiles) {
         int count = 0;
-        for (int x = 1; x < map.length; x++) {
-            for (int y = 1; y < map[0].length; y++) {
-                if (map[x][y].getParticleIndex() > 0)
+        for (int y = 1; y < tiles.getHeight(); y++) {
+            int idx = tiles.index(1, y);
+            for (int x = 1; x < tiles.getWidth(); x++, idx++) {
+                if (tiles.getParticleIndex(idx) > 0)
                     count++;
             }
         }
@@ -583,86 +675,14 @@ public final class MapManager {
         try {
             GameData.clearActiveContext();
 
-            // Reiniciar estado para el nuevo mapa (sin borrar el anterior array)
-            // org.argentumforge.engine.game.models.Character.lastChar = 0; // Manejado en
-            // contexto o localmente
-
-            Character[] newCharList = new Character[10001];
-            for (int i = 0; i < newCharList.length; i++) {
-                newCharList[i] = new org.argentumforge.engine.game.models.Character();
-            }
-
-            MapProperties newMapProperties = new MapProperties();
-
-            // Cargar archivo principal de capas (.map)
-            // Cargar archivo principal de capas (.map)
-            byte[] data = Files.readAllBytes(Path.of(filePath));
-            MapSaveOptions detectedOptions = detectSaveOptions(data);
-            MapData[][] newMapData = initMap(data, detectedOptions);
-
-            // Reservar Slot de Usuario (Índice 1 usualmente) DESPUÉS de initMap (que limpia
-            // chars) pero
-            // ANTES de cargar entidades
-            // Solo lo marcamos activo para prevenir que los NPCs lo tomen. NO obtenemos
-            // posición ni escribimos al mapa todavía.
-            int userCharIdx = User.INSTANCE.getUserCharIndex();
-            if (userCharIdx <= 0)
-                userCharIdx = 1;
-            newCharList[userCharIdx].setActive(true);
-
-            // Preparar para buscar archivos complementarios (.inf y .dat)
-            String basePath = filePath.substring(0, filePath.lastIndexOf('.'));
-            String datPath = basePath + ".dat";
-            String infPath = basePath + ".inf";
-
-            // Intentar cargar propiedades del mapa (.dat)
-            // Intentar cargar propiedades del mapa (.dat)
-            if (Files.exists(Path.of(datPath))) {
-                // Advertencia: loadMapProperties modifica actualmente GameData.mapProperties
-                // estático.
-                // ¿Deberíamos refactorizarlo o copiar valores?
-                // Por ahora, actualicemos loadMapProperties más tarde o asumamos que establece
-                // el estático
-                // que aún podríamos usar temporalmente,
-                // PERO queremos pasar 'newMapProperties' al contexto.
-                // ¿Parsear manualmente o actualizar loadMapProperties?
-                // Mejor: Actualizar loadMapProperties para devolver MapProperties.
-                newMapProperties = loadMapProperties(datPath);
-            } else {
-                newMapProperties = new MapProperties();
-                Logger.info("Archivo .dat no encontrado en {}, usando valores por defecto.", datPath);
-            }
-
-            // Intentar cargar información de entidades (.inf)
-            // Intentar cargar información de entidades (.inf)
-            // loadMapInfo necesita mapData y charList. Actualmente usa estáticos.
-            // Necesitamos pasarlos. Refactorizar firma de loadMapInfo.
-            // Por ahora, diferiremos llamada a loadMapInfo o pasaremos argumentos?
-            // Refactorizando loadMapInfo para aceptar (infPath, mapData, charList).
-            if (Files.exists(Path.of(infPath))) {
-                loadMapInfo(infPath, newMapData, newCharList, detectedOptions);
-            } else {
-                Logger.info("Archivo .inf no encontrado en {}, saltando carga de entidades.", infPath);
-            }
-
-            // Crear el contexto y registrarlo
-            // Crear el contexto y registrarlo
-            MapContext context = new MapContext(filePath, newMapData, newMapProperties, newCharList);
-            context.setLastChar((short) 0); // Resetear lastChar localmente
-            context.setSaveOptions(detectedOptions);
-
-            // Detect Format
-            for (MapFormat fmt : MapFormat.values()) {
-                if (fmt.match(filePath)) {
-                    context.setMapFormat(fmt);
-                    break;
-                }
-            }
+            // Cada mapa tiene su propia lista de personajes; la anterior queda intacta
+            MapContext context = readMap(filePath, newEditorCharList());
             GameData.setActiveContext(context);
 
             // Reiniciar estado de modificaciones
             markAsSaved();
             org.argentumforge.engine.utils.editor.commands.CommandManager.getInstance().clearHistory();
+            EditJournal.offerRecovery(context);
 
             Logger.info("Mapa cargado exitosamente");
 
@@ -694,57 +714,210 @@ public final class MapManager {
 
     /**
      * Guarda el estado actual del mapa en disco en el formato especificado.
-     * 
+     *
      * @param filePath Ruta absoluta al archivo .map de destino.
      * @param options  Opciones de guardado.
      */
     public static void saveMap(String filePath, MapSaveOptions options) {
+        saveMap(filePath, options, null, null);
+    }
+
+    /**
+     * Guarda el mapa activo en segundo plano.
+     * <p>
+     * En el hilo principal solo se toma una instantánea de las celdas y
+     * propiedades; la codificación y escritura ocurren en {@link #SAVE_EXECUTOR},
+     * así que se puede seguir editando mientras tanto (esos cambios quedan
+     * pendientes para el próximo guardado). Los archivos se reemplazan de forma
+     * atómica con {@link #writeMap}.
+     *
+     * @param filePath  Ruta absoluta al archivo .map de destino.
+     * @param options   Opciones de guardado.
+     * @param onSaved   Se ejecuta en el hilo principal si el guardado terminó
+     *                  bien (puede ser {@code null}).
+     * @param onFailure Se ejecuta en el hilo principal si falló (puede ser
+     *                  {@code null}).
+     */
+    public static void saveMap(String filePath, MapSaveOptions options, Runnable onSaved, Runnable onFailure) {
         Logger.info("Guardando mapa en: {} (V:{}, LongIndices: {}, Header: {})",
                 filePath, options.getVersion(), options.isUseLongIndices(), options.isIncludeHeader());
 
         MapContext context = GameData.getActiveContext();
-        if (context != null) {
-            context.setSaveOptions(options);
-            context.setFilePath(filePath);
+        if (context == null || context.getTiles() == null) {
+            Logger.warn("No hay un mapa activo para guardar en: {}", filePath);
+            if (onFailure != null)
+                onFailure.run();
+            return;
         }
+        String previousPath = context.getFilePath();
+        MapSaveOptions previousOptions = context.getSaveOptions();
+        context.setSaveOptions(options);
+        context.setFilePath(filePath);
+
+        // Instantánea inmutable: el hilo de guardado nunca toca el mapa en edición
+        MapContext snapshot = new MapContext(filePath, context.getTiles().copy(),
+                context.getMapProperties().copy(), null);
+        int revision = context.getRevision();
+        int undoStackSize = context.getUndoStack().size();
+        long evictedBefore = context.getUndoStack().getEvictedCount();
+        context.getJournal().beginSave();
+
+        org.argentumforge.engine.gui.ToastManager.INSTANCE.show(
+                org.argentumforge.engine.i18n.I18n.INSTANCE.get("toast.map.saving", context.getMapName()),
+                org.argentumforge.engine.gui.ToastManager.Type.INFO);
+
+        SAVE_EXECUTOR.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                writeMap(snapshot, filePath, options);
+                Logger.info("Mapa guardado exitosamente en: {} ({} ms)", filePath,
+                        (System.nanoTime() - start) / 1_000_000);
+                Engine.INSTANCE.runOnMainThread(() -> {
+                    MapPrefetcher.INSTANCE.invalidate(filePath);
+                    context.getJournal().endSave(previousPath, true);
+
+                    // Reiniciar estado de modificaciones, salvo que se haya seguido editando.
+                    // Si mientras tanto se descartaron comandos viejos, el punto guardado bajó
+                    long evictedSince = context.getUndoStack().getEvictedCount() - evictedBefore;
+                    context.setSavedUndoStackSize((int) (undoStackSize - evictedSince));
+                    if (context.getRevision() == revision) {
+                        context.setModified(false);
+                        GameData.updateWindowTitle();
+                    }
 
-        try {
-            // Guardar datos de capas (.map)
-            if (options.getFormatType() == MapFormatType.V1_LEGACY) {
-                saveMapDataV1(filePath, options);
-            } else {
-                saveMapData(filePath, options);
+                    org.argentumforge.engine.gui.ToastManager.INSTANCE.show(
+                            org.argentumforge.engine.i18n.I18n.INSTANCE.get("toast.map.saved"),
+                            org.argentumforge.engine.gui.ToastManager.Type.SUCCESS);
+                    if (onSaved != null)
+                        onSaved.run();
+                });
+            } catch (IOException | RuntimeException e) {
+                Logger.error(e, "Error al guardar el mapa en: {}", filePath);
+                Engine.INSTANCE.runOnMainThread(() -> {
+                    // Los archivos anteriores siguen intactos: el mapa conserva su ruta
+                    context.setFilePath(previousPath);
+                    context.setSaveOptions(previousOptions);
+                    context.getJournal().endSave(previousPath, false);
+
+                    DialogManager.getInstance().showError("Error", "Error al guardar el mapa:\n" + e.getMessage());
+                    if (onFailure != null)
+                        onFailure.run();
+                });
             }
+        });
+    }
 
-            String basePath = filePath.substring(0, filePath.lastIndexOf('.'));
-            String datPath = basePath + ".dat";
-            String infPath = basePath + ".inf";
+    /**
+     * Escribe los archivos .map, .dat e .inf de un mapa en el formato indicado.
+     * Solo lee el contexto recibido (no el activo) y no muestra ningún aviso, por
+     * lo que puede usarse sin interfaz y desde varios hilos a la vez.
+     * <p>
+     * Los tres archivos se escriben primero como temporales junto a los destinos
+     * y, solo cuando están completos y bajados a disco, reemplazan a los
+     * originales con renombres atómicos (el .map al final). Antes de renombrar se
+     * copian los originales a {@code .bak}: si falla alguno de los renombres, los
+     * ya hechos se deshacen y el grupo queda como estaba. Cada archivo se
+     * reemplaza de forma atómica, pero el grupo no: un cierre inesperado entre
+     * dos renombres puede dejar archivos nuevos junto a viejos, con las copias
+     * {@code .bak} en disco para recuperarlos. Nunca queda un archivo truncado.
+     *
+     * @param context  Mapa a escribir.
+     * @param filePath Ruta del archivo .map de destino; el .dat y el .inf se
+     *                 escriben junto a él.
+     * @param options  Formato de salida.
+     * @throws IOException Si falla la escritura de alguno de los archivos.
+     */
+    public static void writeMap(MapContext context, String filePath, MapSaveOptions options) throws IOException {
+        String basePath = filePath.substring(0, filePath.lastIndexOf('.'));
+        Path mapPath = Path.of(filePath);
+        Path datPath = Path.of(basePath + ".dat");
+        Path infPath = Path.of(basePath + ".inf");
+        Path mapTemp = tempFor(mapPath);
+        Path datTemp = tempFor(datPath);
+        Path infTemp = tempFor(infPath);
+        // Orden de los renombres: el .map al final
+        Path[] targets = { datPath, infPath, mapPath };
+        Path[] temps = { datTemp, infTemp, mapTemp };
+        Path[] backups = new Path[targets.length];
 
-            // Guardar propiedades generales (.dat)
-            saveMapProperties(datPath);
+        try {
+            saveMapData(mapTemp.toString(), context.getTiles(), options);
+            saveMapProperties(datTemp.toString(), context.getMapProperties());
+            if (options.getFormatType() == MapFormatType.V1_LEGACY)
+                saveMapInfoV1(infTemp.toString(), context.getMapData());
+            else
+                saveMapInfo(infTemp.toString(), context.getMapData());
+
+            for (Path temp : temps)
+                forceToDisk(temp);
+
+            for (int i = 0; i < targets.length; i++) {
+                if (Files.isRegularFile(targets[i])) {
+                    backups[i] = backupFor(targets[i]);
+                    Files.copy(targets[i], backups[i], StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
 
-            // Guardar información de entidades y triggers (.inf)
-            if (options.getFormatType() == MapFormatType.V1_LEGACY) {
-                saveMapInfoV1(infPath);
-            } else {
-                saveMapInfo(infPath);
+            int committed = 0;
+            try {
+                for (; committed < targets.length; committed++)
+                    commit(temps[committed], targets[committed]);
+            } catch (IOException | RuntimeException e) {
+                rollback(targets, backups, committed, e);
+                throw e;
             }
+        } finally {
+            for (Path temp : temps)
+                Files.deleteIfExists(temp);
+            for (Path backup : backups) {
+                if (backup != null)
+                    Files.deleteIfExists(backup);
+            }
+        }
+    }
 
-            // Reiniciar estado de modificaciones
-            markAsSaved();
+    private static Path backupFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".bak");
+    }
 
-            if (context != null) {
-                context.setSavedUndoStackSize(context.getUndoStack().size());
+    /**
+     * Devuelve los primeros {@code committed} destinos a su contenido anterior.
+     * Si una restauración falla, su copia {@code .bak} se conserva en disco.
+     */
+    private static void rollback(Path[] targets, Path[] backups, int committed, Exception cause) {
+        for (int i = 0; i < committed; i++) {
+            try {
+                if (backups[i] != null)
+                    commit(backups[i], targets[i]);
+                else
+                    Files.deleteIfExists(targets[i]);
+            } catch (IOException e) {
+                Logger.error(e, "No se pudo restaurar {}; queda la copia {}", targets[i], backups[i]);
+                cause.addSuppressed(e);
+                backups[i] = null;
             }
+        }
+    }
 
-            Logger.info("Mapa guardado exitosamente en: {}", filePath);
-            org.argentumforge.engine.gui.ToastManager.INSTANCE.show(
-                org.argentumforge.engine.i18n.I18n.INSTANCE.get("toast.map.saved"), 
-                org.argentumforge.engine.gui.ToastManager.Type.SUCCESS
-            );
-        } catch (IOException e) {
-            Logger.error(e, "Error al guardar el mapa en: {}", filePath);
-            DialogManager.getInstance().showError("Error", "Error al guardar el mapa:\n" + e.getMessage());
+    private static Path tempFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    private static void forceToDisk(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reemplaza {@code target} por {@code temp} con un renombre atómico si el
+     * sistema de archivos lo permite.
+     */
+    private static void commit(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
@@ -768,33 +941,24 @@ public final class MapManager {
         GameData.clearActiveContext();
 
         // Reiniciar estado
-        Character[] newCharList = new Character[10001];
-        for (int i = 0; i < newCharList.length; i++) {
-            newCharList[i] = new org.argentumforge.engine.game.models.Character();
-        }
+        CharacterRegistry newCharList = new CharacterRegistry();
 
         // Inicializar rejilla de datos
-        MapData[][] newMapData = new MapData[width + 1][height + 1];
-        for (int x = 0; x <= width; x++) {
-            for (int y = 0; y <= height; y++) {
-                MapData cell = new MapData();
-                // Inicializar Capa 1 con Grh 1 (Césped) por defecto
-                GameData.initGrh(cell.getLayer(1), 1, true);
-                newMapData[x][y] = cell;
-            }
+        TileStore newTiles = new TileStore(width + 1, height + 1);
+        for (int idx = 0; idx < newTiles.size(); idx++) {
+            // Inicializar Capa 1 con Grh 1 (Césped) por defecto
+            newTiles.initGrh(1, idx, 1, true);
         }
 
         // Resetear propiedades del mapa
         MapProperties newMapProperties = new MapProperties();
 
-        MapContext context = new MapContext("", newMapData, newMapProperties, newCharList);
-        context.setLastChar((short) 0);
+        MapContext context = new MapContext("", newTiles, newMapProperties, newCharList);
         context.setSaveOptions(MapSaveOptions.extended());
 
         org.argentumforge.engine.Engine.INSTANCE.runOnMainThread(() -> {
-            // Limpiar recursos de renderizado ANTES de cambiar contexto
-            // para que eraseAllChars opere sobre el charList del mapa anterior
-            Surface.INSTANCE.deleteAllTextures();
+            // Limpiar personajes ANTES de cambiar contexto para que eraseAllChars
+            // opere sobre el charList del mapa anterior
             org.argentumforge.engine.game.models.Character.eraseAllChars();
 
             GameData.setActiveContext(context);
@@ -823,201 +987,10 @@ public final class MapManager {
      *
      * @param data    Contenido binario del archivo .map.
      * @param options Opciones de guardado inferidas.
+     * @see MapCodec#decode
      */
-    static MapData[][] initMap(byte[] data, MapSaveOptions options) {
-        if (options.getFormatType() == MapFormatType.V1_LEGACY) {
-            return initMapV1(data, options);
-        }
-
-        GameData.reader.init(data);
-
-        MapData[][] newMapData = new MapData[GameData.X_MAX_MAP_SIZE + 1][GameData.Y_MAX_MAP_SIZE + 1];
-        for (int y = 0; y <= GameData.Y_MAX_MAP_SIZE; y++) {
-            for (int x = 0; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                newMapData[x][y] = new MapData();
-            }
-        }
-
-        // Leer versión y saltar cabecera heredada de VB6
-        if (!GameData.reader.hasRemaining(2))
-            return newMapData;
-        final short mapversion = GameData.reader.readShort();
-
-        // Debug logging for AOLibre analysis
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < Math.min(data.length, 32); i++) { // Más bytes para ver firma
-            sb.append(String.format("%02X ", data[i]));
-        }
-        Logger.info("Mapa: tamaño={}, versión={}, bytes=[{}]", data.length, mapversion, sb.toString().trim());
-
-        if (options.isIncludeHeader() && GameData.reader.hasRemaining(263)) {
-            GameData.reader.skipBytes(263);
-        }
-
-        boolean useLongIndices = options.isUseLongIndices();
-        int indexSize = useLongIndices ? 4 : 2;
-
-        byte byflags;
-        byte bloq;
-
-        // Saltar campos no utilizados en el editor
-        if (GameData.reader.hasRemaining(8)) {
-            GameData.reader.readShort();
-            GameData.reader.readShort();
-            GameData.reader.readShort();
-            GameData.reader.readShort();
-        }
-
-        int particlesLoaded = 0;
-
-        tileLoop: for (int y = 1; y <= 100; y++) {
-            for (int x = 1; x <= 100; x++) {
-                if (!GameData.reader.hasRemaining(1))
-                    break tileLoop;
-
-                int currentPos = GameData.reader.getPosition();
-                byflags = GameData.reader.readByte();
-
-                if (y == 1 && x <= 5) {
-                    Logger.info("DEBUG Tile ({},{}): Pos={}, Flags={}", x, y, currentPos, byflags);
-                }
-
-                // Bit 1: Bloqueo
-                bloq = (byte) (byflags & 1);
-                newMapData[x][y].setBlocked(bloq == 1);
-
-                // Capa 1 (Siempre presente)
-                if (!GameData.reader.hasRemaining(indexSize))
-                    break tileLoop;
-                int grh1 = useLongIndices ? GameData.reader.readInt() : GameData.reader.readUnsignedShort();
-                newMapData[x][y].getLayer(1).setGrhIndex(grh1);
-                newMapData[x][y].setLayer(1,
-                        GameData.initGrh(newMapData[x][y].getLayer(1),
-                                newMapData[x][y].getLayer(1).getGrhIndex(), true));
-
-                // Capa 2
-                if ((byte) (byflags & 2) != 0) {
-                    if (!GameData.reader.hasRemaining(indexSize))
-                        break tileLoop;
-                    int grh2 = useLongIndices ? GameData.reader.readInt() : GameData.reader.readUnsignedShort();
-                    newMapData[x][y].getLayer(2).setGrhIndex(grh2);
-                    newMapData[x][y].setLayer(2,
-                            GameData.initGrh(newMapData[x][y].getLayer(2),
-                                    newMapData[x][y].getLayer(2).getGrhIndex(), true));
-
-                } else
-                    newMapData[x][y].getLayer(2).setGrhIndex(0);
-
-                // Capa 3
-                if ((byte) (byflags & 4) != 0) {
-                    if (!GameData.reader.hasRemaining(indexSize))
-                        break tileLoop;
-                    int grh3 = useLongIndices ? GameData.reader.readInt() : GameData.reader.readUnsignedShort();
-                    newMapData[x][y].getLayer(3).setGrhIndex(grh3);
-                    newMapData[x][y].setLayer(3,
-                            GameData.initGrh(newMapData[x][y].getLayer(3),
-                                    newMapData[x][y].getLayer(3).getGrhIndex(), true));
-                } else
-                    newMapData[x][y].getLayer(3).setGrhIndex(0);
-
-                // Capa 4
-                if ((byte) (byflags & 8) != 0) {
-                    if (!GameData.reader.hasRemaining(indexSize))
-                        break tileLoop;
-                    int grh4 = useLongIndices ? GameData.reader.readInt() : GameData.reader.readUnsignedShort();
-                    newMapData[x][y].getLayer(4).setGrhIndex(grh4);
-                    newMapData[x][y].setLayer(4,
-                            GameData.initGrh(newMapData[x][y].getLayer(4),
-                                    newMapData[x][y].getLayer(4).getGrhIndex(), true));
-                } else
-                    newMapData[x][y].getLayer(4).setGrhIndex(0);
-
-                // Triggers
-                if ((byte) (byflags & 16) != 0) {
-                    if (!GameData.reader.hasRemaining(2))
-                        break tileLoop;
-                    newMapData[x][y].setTrigger(GameData.reader.readUnsignedShort());
-                } else
-                    newMapData[x][y].setTrigger(0);
-
-                // Bit 5 (Valor 32): Partículas (AOLibre/Versiones nuevas)
-                if ((byflags & 32) != 0) {
-                    if (!GameData.reader.hasRemaining(2))
-                        break tileLoop;
-                    int pId = GameData.reader.readShort();
-                    newMapData[x][y].setParticleIndex(pId);
-                } else {
-                    newMapData[x][y].setParticleIndex(0);
-                }
-
-                newMapData[x][y].getObjGrh().setGrhIndex(0);
-            }
-        }
-
-        // Limpiar recursos de renderizado y entidades anteriores
-        // Chequeo de partículas movido a applyMap
-        // Surface.INSTANCE.deleteAllTextures(); // Movido a applyMap (Hilo Principal)
-        // eraseAllChars(); // Ya no es necesario/posible ya que asumimos lista fresca
-
-        return newMapData;
-    }
-
-    /**
-     * Procesa los datos binarios del archivo .map V1 (0.99z/0.11.2)
-     * Estructura Fija: Header (273) + 100x100 x (Blocked(1) + 4*Grh(2) + Trigger(2)
-     * + Unused(2))
-     * Total Tile Bytes: 13 bytes
-     */
-    static MapData[][] initMapV1(byte[] data, MapSaveOptions options) {
-        GameData.reader.init(data);
-        MapData[][] newMapData = new MapData[GameData.X_MAX_MAP_SIZE + 1][GameData.Y_MAX_MAP_SIZE + 1];
-
-        // Init Array
-        for (int y = 0; y <= GameData.Y_MAX_MAP_SIZE; y++) {
-            for (int x = 0; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                newMapData[x][y] = new MapData();
-            }
-        }
-
-        // Header check
-        if (options.isIncludeHeader() && GameData.reader.hasRemaining(273)) {
-            // Read and discard header
-            GameData.reader.readShort(); // Version
-            GameData.reader.skipBytes(263); // Fix
-            GameData.reader.readShort(); // Unused ints
-            GameData.reader.readShort();
-            GameData.reader.readShort();
-            GameData.reader.readShort();
-        }
-
-        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
-            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                if (!GameData.reader.hasRemaining(13))
-                    break;
-
-                // Blocked (1 byte)
-                byte blocked = GameData.reader.readByte();
-                newMapData[x][y].setBlocked(blocked == 1);
-
-                // Layers 1-4 (4 * 2 bytes)
-                for (int l = 1; l <= 4; l++) {
-                    int grh = GameData.reader.readUnsignedShort();
-                    newMapData[x][y].getLayer(l).setGrhIndex(grh);
-                    if (grh > 0) {
-                        newMapData[x][y].setLayer(l, GameData.initGrh(newMapData[x][y].getLayer(l), grh, true));
-                    }
-                }
-
-                // Trigger (2 bytes)
-                int trigger = GameData.reader.readUnsignedShort();
-                newMapData[x][y].setTrigger(trigger);
-
-                // Unused (2 bytes) -> TempInt in VB6
-                GameData.reader.readShort();
-            }
-        }
-
-        return newMapData;
+    static TileStore initMap(byte[] data, MapSaveOptions options) {
+        return MapCodec.get().decode(ByteBuffer.wrap(data), options);
     }
 
     /**
@@ -1076,8 +1049,6 @@ public final class MapManager {
             Logger.error(e, "Error leyendo el archivo .dat del mapa: {}", filePath);
         }
 
-        GameData.mapProperties = props; // ¿Mantener actualización estática redundante por seguridad? ¿O eliminar?
-        // Mantengámoslo por ahora pero devolvamos el objeto.
         Logger.info("Propiedades cargadas: Nombre='{}', Música={}, Zona='{}'", props.getName(), props.getMusicIndex(),
                 props.getZona());
         return props;
@@ -1089,10 +1060,11 @@ public final class MapManager {
      *
      * @param filePath Ruta absoluta al archivo .inf
      * @param mapData  Matriz de datos del mapa.
-     * @param charList Lista de personajes.
+     * @param charList Lista de personajes, o {@code null} para leer solo los
+     *                 índices sin resolver NPCs ni objetos.
      * @param options  Opciones de guardado (para saber si es V1)
      */
-    private static void loadMapInfo(String filePath, MapData[][] mapData, Character[] charList,
+    private static void loadMapInfo(String filePath, MapData[][] mapData, CharacterRegistry charList,
             MapSaveOptions options) {
         try {
             byte[] data = Files.readAllBytes(Path.of(filePath));
@@ -1103,53 +1075,46 @@ public final class MapManager {
             Logger.info("Loading .inf file: size={}, optionsFormat={}, isV1={}", data.length, options.getFormatType(),
                     isV1);
 
-            GameData.reader.init(data);
+            final BinaryDataReader reader = new BinaryDataReader();
+            reader.init(data);
 
             if (isV1) {
-                loadMapInfoV1(mapData, charList);
+                loadMapInfoV1(reader, mapData, charList);
                 return;
             }
 
             // Saltar cabecera del .inf (10 bytes heredados)
-            GameData.reader.skipBytes(10);
+            reader.skipBytes(10);
 
             // Recorrer el mapa para cargar la información extendida
             for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
                 for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                    if (!GameData.reader.hasRemaining())
+                    if (!reader.hasRemaining())
                         break;
 
                     if (mapData[x][y] == null)
                         continue;
 
-                    byte flags = GameData.reader.readByte();
+                    byte flags = reader.readByte();
 
                     // Bit 1: Traslados (Exits)
                     if ((flags & 1) != 0) {
-                        mapData[x][y].setExitMap(GameData.reader.readUnsignedShort());
-                        mapData[x][y].setExitX(GameData.reader.readUnsignedShort());
-                        mapData[x][y].setExitY(GameData.reader.readUnsignedShort());
+                        mapData[x][y].setExitMap(reader.readUnsignedShort());
+                        mapData[x][y].setExitX(reader.readUnsignedShort());
+                        mapData[x][y].setExitY(reader.readUnsignedShort());
                     }
 
                     // Bit 2: NPCs
                     if ((flags & 2) != 0) {
-                        int npcIndex = GameData.reader.readUnsignedShort();
+                        int npcIndex = reader.readUnsignedShort();
                         if (npcIndex > 0) {
                             mapData[x][y].setNpcIndex(npcIndex);
-                            NpcData npc = AssetRegistry.npcs.get(npcIndex);
+                            NpcData npc = charList != null ? AssetRegistry.npcs.get(npcIndex) : null;
                             if (npc != null) {
-                                // Buscar manualmente el siguiente personaje libre en la lista local
-                                int openCharIndex = 0;
-                                for (int i = 1; i < charList.length; i++) {
-                                    if (!charList[i].isActive()) {
-                                        openCharIndex = i;
-                                        break;
-                                    }
-                                }
+                                int openCharIndex = charList.allocate();
 
                                 if (openCharIndex > 0) {
-                                    Character chr = charList[openCharIndex];
-                                    chr.setActive(true);
+                                    Character chr = charList.get(openCharIndex);
                                     chr.setHeading(Direction.fromID(npc.getHeading()));
                                     chr.getPos().setX(x);
                                     chr.getPos().setY(y);
@@ -1175,13 +1140,13 @@ public final class MapManager {
 
                     // Bit 4: Objetos
                     if ((flags & 4) != 0) {
-                        int objIndex = GameData.reader.readUnsignedShort();
-                        int amount = GameData.reader.readUnsignedShort();
+                        int objIndex = reader.readUnsignedShort();
+                        int amount = reader.readUnsignedShort();
 
                         mapData[x][y].setObjIndex(objIndex);
                         mapData[x][y].setObjAmount(amount);
 
-                        if (objIndex > 0) {
+                        if (objIndex > 0 && charList != null) {
                             ObjData obj = AssetRegistry.objs.get(objIndex);
                             if (obj != null) {
                                 GameData.initGrh(mapData[x][y].getObjGrh(), obj.getGrhIndex(), false);
@@ -1200,109 +1165,17 @@ public final class MapManager {
     }
 
     /**
-     * Serializa las capas y bloqueos del mapa en formato binario (.map).
+     * Serializa las capas y bloqueos del mapa en formato binario (.map), en
+     * cualquiera de sus variantes.
      */
-    private static void saveMapData(String filePath, MapSaveOptions options) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(filePath)) {
-            java.nio.channels.FileChannel channel = fos.getChannel();
-
-            // 1. Cabecera (273 bytes) si está habilitada
-            if (options.isIncludeHeader()) {
-                java.nio.ByteBuffer headerBuf = java.nio.ByteBuffer.allocate(273);
-                headerBuf.order(java.nio.ByteOrder.LITTLE_ENDIAN);
-
-                headerBuf.putShort(options.getVersion()); // Versión del mapa
-                headerBuf.put(generateHeaderMetadata()); // Cabecera informativa
-                headerBuf.putShort((short) 0);
-                headerBuf.putShort((short) 0);
-                headerBuf.putShort((short) 0);
-                headerBuf.putShort((short) 0);
-
-                headerBuf.flip();
-                channel.write(headerBuf);
-            }
-
-            // 2. Datos de tiles
-            boolean useLongIndices = options.isUseLongIndices();
-            // Aumentamos buffer para evitar overflow (150KB para short, 250KB para long)
-            int estimatedSize = useLongIndices ? 250000 : 150000;
-            java.nio.ByteBuffer bodyBuf = java.nio.ByteBuffer.allocate(estimatedSize);
-            bodyBuf.order(java.nio.ByteOrder.LITTLE_ENDIAN);
-
-            MapContext context = GameData.getActiveContext();
-            if (context == null || context.getMapData() == null)
-                return;
-            MapData[][] mapData = context.getMapData();
-
-            for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
-                for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                    byte flags = 0;
-                    if (mapData[x][y].getBlocked())
-                        flags |= 1;
-                    if (mapData[x][y].getLayer(2).getGrhIndex() > 0)
-                        flags |= 2;
-                    if (mapData[x][y].getLayer(3).getGrhIndex() > 0)
-                        flags |= 4;
-                    if (mapData[x][y].getLayer(4).getGrhIndex() > 0)
-                        flags |= 8;
-                    if (mapData[x][y].getTrigger() > 0)
-                        flags |= 16;
-                    if (mapData[x][y].getParticleIndex() > 0)
-                        flags |= 32;
-
-                    bodyBuf.put(flags);
-
-                    // Capa 1
-                    int grh1 = mapData[x][y].getLayer(1).getGrhIndex();
-                    if (!useLongIndices) {
-                        bodyBuf.putShort((short) grh1);
-                    } else {
-                        bodyBuf.putInt(grh1);
-                    }
-
-                    if ((flags & 2) != 0) {
-                        int grh = mapData[x][y].getLayer(2).getGrhIndex();
-                        if (!useLongIndices)
-                            bodyBuf.putShort((short) grh);
-                        else
-                            bodyBuf.putInt(grh);
-                    }
-                    if ((flags & 4) != 0) {
-                        int grh = mapData[x][y].getLayer(3).getGrhIndex();
-                        if (!useLongIndices)
-                            bodyBuf.putShort((short) grh);
-                        else
-                            bodyBuf.putInt(grh);
-                    }
-                    if ((flags & 8) != 0) {
-                        int grh = mapData[x][y].getLayer(4).getGrhIndex();
-                        if (!useLongIndices)
-                            bodyBuf.putShort((short) grh);
-                        else
-                            bodyBuf.putInt(grh);
-                    }
-                    if ((flags & 16) != 0)
-                        bodyBuf.putShort((short) mapData[x][y].getTrigger());
-
-                    if ((flags & 32) != 0)
-                        bodyBuf.putShort((short) mapData[x][y].getParticleIndex());
-                }
-            }
-
-            bodyBuf.flip();
-            channel.write(bodyBuf);
-        }
+    private static void saveMapData(String filePath, TileStore tiles, MapSaveOptions options) throws IOException {
+        MapCodec.get().write(Path.of(filePath), tiles, options);
     }
 
     /**
      * Serializa las propiedades del mapa en formato de texto (.dat).
      */
-    private static void saveMapProperties(String filePath) throws IOException {
-        MapContext context = GameData.getActiveContext();
-        if (context == null)
-            return;
-        MapProperties props = context.getMapProperties();
-
+    private static void saveMapProperties(String filePath, MapProperties props) throws IOException {
         try (PrintWriter writer = new PrintWriter(
                 Files.newBufferedWriter(Path.of(filePath), StandardCharsets.ISO_8859_1))) {
             writer.println("[MAPA1]");
@@ -1322,7 +1195,7 @@ public final class MapManager {
     /**
      * Serializa la información de entidades (.inf) en formato binario.
      */
-    private static void saveMapInfo(String filePath) throws IOException {
+    private static void saveMapInfo(String filePath, MapData[][] mapData) throws IOException {
         try (FileOutputStream fos = new FileOutputStream(filePath)) {
             java.nio.channels.FileChannel channel = fos.getChannel();
 
@@ -1341,11 +1214,6 @@ public final class MapManager {
             java.nio.ByteBuffer bodyBuf = java.nio.ByteBuffer.allocate(130000);
             bodyBuf.order(java.nio.ByteOrder.LITTLE_ENDIAN);
 
-            MapContext context = GameData.getActiveContext();
-            if (context == null || context.getMapData() == null)
-                return;
-            MapData[][] mapData = context.getMapData();
-
             for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
                 for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
                     byte flags = 0;
@@ -1377,52 +1245,7 @@ public final class MapManager {
         }
     }
 
-    private static void saveMapDataV1(String filePath, MapSaveOptions options) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(filePath)) {
-            java.nio.channels.FileChannel channel = fos.getChannel();
-            // Header (273 bytes)
-            if (options.isIncludeHeader()) {
-                java.nio.ByteBuffer headerBuf = java.nio.ByteBuffer.allocate(273);
-                headerBuf.order(java.nio.ByteOrder.LITTLE_ENDIAN);
-                headerBuf.putShort(options.getVersion());
-                headerBuf.put(generateHeaderMetadata()); // Cabecera informativa
-                headerBuf.putShort((short) 0);
-                headerBuf.putShort((short) 0);
-                headerBuf.putShort((short) 0);
-                headerBuf.putShort((short) 0);
-                headerBuf.flip();
-                channel.write(headerBuf);
-            }
-
-            // Body: 10000 tiles * 13 bytes = 130000 bytes
-            java.nio.ByteBuffer bodyBuf = java.nio.ByteBuffer.allocate(130000);
-            bodyBuf.order(java.nio.ByteOrder.LITTLE_ENDIAN);
-
-            MapContext context = GameData.getActiveContext();
-            if (context == null || context.getMapData() == null)
-                return;
-            MapData[][] mapData = context.getMapData();
-
-            for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
-                for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                    // Blocked (1)
-                    bodyBuf.put((byte) (mapData[x][y].getBlocked() ? 1 : 0));
-                    // Layers 1-4 (8)
-                    for (int l = 1; l <= 4; l++) {
-                        bodyBuf.putShort((short) mapData[x][y].getLayer(l).getGrhIndex());
-                    }
-                    // Trigger (2)
-                    bodyBuf.putShort((short) mapData[x][y].getTrigger());
-                    // Unused (2)
-                    bodyBuf.putShort((short) 0);
-                }
-            }
-            bodyBuf.flip();
-            channel.write(bodyBuf);
-        }
-    }
-
-    private static void saveMapInfoV1(String filePath) throws IOException {
+    private static void saveMapInfoV1(String filePath, MapData[][] mapData) throws IOException {
         try (FileOutputStream fos = new FileOutputStream(filePath)) {
             java.nio.channels.FileChannel channel = fos.getChannel();
 
@@ -1438,11 +1261,6 @@ public final class MapManager {
             java.nio.ByteBuffer bodyBuf = java.nio.ByteBuffer.allocate(160000);
             bodyBuf.order(java.nio.ByteOrder.LITTLE_ENDIAN);
 
-            MapContext context = GameData.getActiveContext();
-            if (context == null || context.getMapData() == null)
-                return;
-            MapData[][] mapData = context.getMapData();
-
             for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
                 for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
                     // Exit (6)
@@ -1464,42 +1282,35 @@ public final class MapManager {
         }
     }
 
-    private static void loadMapInfoV1(MapData[][] mapData, Character[] charList) throws IOException {
+    private static void loadMapInfoV1(BinaryDataReader reader, MapData[][] mapData, CharacterRegistry charList) throws IOException {
         // Cabecera inf (10 bytes: 5 integers)
-        if (GameData.reader.hasRemaining(10)) {
-            GameData.reader.skipBytes(10);
+        if (reader.hasRemaining(10)) {
+            reader.skipBytes(10);
         }
 
         // Loop 100x100
         for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
             for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
-                if (!GameData.reader.hasRemaining(16))
+                if (!reader.hasRemaining(16))
                     break;
                 if (mapData[x][y] == null)
                     continue;
 
                 // TileExit (6 bytes)
-                mapData[x][y].setExitMap(GameData.reader.readUnsignedShort());
-                mapData[x][y].setExitX(GameData.reader.readUnsignedShort());
-                mapData[x][y].setExitY(GameData.reader.readUnsignedShort());
+                mapData[x][y].setExitMap(reader.readUnsignedShort());
+                mapData[x][y].setExitX(reader.readUnsignedShort());
+                mapData[x][y].setExitY(reader.readUnsignedShort());
 
                 // NPC (2 bytes)
-                int npcIndex = GameData.reader.readUnsignedShort();
+                int npcIndex = reader.readUnsignedShort();
                 if (npcIndex > 0) {
                     mapData[x][y].setNpcIndex(npcIndex);
                     // Spawn logic
-                    NpcData npc = AssetRegistry.npcs.get(npcIndex);
+                    NpcData npc = charList != null ? AssetRegistry.npcs.get(npcIndex) : null;
                     if (npc != null) {
-                        int openCharIndex = 0;
-                        for (int i = 1; i < charList.length; i++) {
-                            if (!charList[i].isActive()) {
-                                openCharIndex = i;
-                                break;
-                            }
-                        }
+                        int openCharIndex = charList.allocate();
                         if (openCharIndex > 0) {
-                            Character chr = charList[openCharIndex];
-                            chr.setActive(true);
+                            Character chr = charList.get(openCharIndex);
                             chr.setHeading(Direction.fromID(npc.getHeading()));
                             chr.getPos().setX(x);
                             chr.getPos().setY(y);
@@ -1519,11 +1330,11 @@ public final class MapManager {
                 }
 
                 // Obj (4 bytes)
-                int objIndex = GameData.reader.readUnsignedShort();
-                int amount = GameData.reader.readUnsignedShort();
+                int objIndex = reader.readUnsignedShort();
+                int amount = reader.readUnsignedShort();
                 mapData[x][y].setObjIndex(objIndex);
                 mapData[x][y].setObjAmount(amount);
-                if (objIndex > 0) {
+                if (objIndex > 0 && charList != null) {
                     ObjData obj = AssetRegistry.objs.get(objIndex);
                     if (obj != null) {
                         GameData.initGrh(mapData[x][y].getObjGrh(), obj.getGrhIndex(), false);
@@ -1531,23 +1342,8 @@ public final class MapManager {
                 }
 
                 // Unused/Placeholders (4 bytes)
-                GameData.reader.readShort();
+                reader.readShort();
             }
         }
     }
-
-    /**
-     * Genera un bloque de 263 bytes con información del editor (versión, fecha y repositorio).
-     * Reemplaza el bloque de ceros que se escribía anteriormente en la cabecera del mapa.
-     */
-    private static byte[] generateHeaderMetadata() {
-        byte[] header = new byte[263];
-        String version = org.argentumforge.engine.Engine.VERSION;
-        String date = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        String metadata = "Argentum Forge v" + version + " - Map Editor | " + date + " | https://github.com/ManuelJSD/Argentum-Forge";
-
-        byte[] metaBytes = metadata.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-        System.arraycopy(metaBytes, 0, header, 0, Math.min(metaBytes.length, header.length));
-        return header;
-    }
 }
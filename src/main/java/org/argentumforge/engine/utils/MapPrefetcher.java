@@ -0,0 +1,262 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.Engine;
+import org.argentumforge.engine.renderer.Surface;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precarga en segundo plano los mapas vecinos del mapa activo.
+ * <p>
+ * Los vecinos son los mapas destino de las salidas del mapa (en orden de
+ * aparición) y los números anterior y siguiente, que son los que recorre
+ * {@code FilmstripBar}. Cada uno se lee con {@link MapManager#readMap} en un
+ * hilo de baja prioridad y queda listo para aplicar en una caché LRU acotada;
+ * además se encolan en {@link Surface} las texturas que usa, para que al entrar
+ * ya estén subidas o en camino.
+ * <p>
+ * {@link MapManager#loadMapAsync} consulta la caché antes de ir a disco: si el
+ * mapa está precargado y el archivo no cambió desde entonces, se aplica en el
+ * siguiente frame sin mostrar el modal de carga. Guardar el mapa desde el
+ * editor descarta su precarga.
+ */
+public enum MapPrefetcher {
+
+    INSTANCE;
+
+    /** Mapas listos que se conservan como máximo. */
+    static final int CAPACITY = 4;
+    /** Vecinos que se precargan por cada cambio de mapa. */
+    static final int MAX_NEIGHBOURS = CAPACITY;
+
+    /**
+     * Un mapa precargado junto con la huella de sus archivos al leerlo.
+     */
+    private static final class Entry {
+        final MapContext context;
+        final long stamp;
+
+        Entry(MapContext context, long stamp) {
+            this.context = context;
+            this.stamp = stamp;
+        }
+    }
+
+    private final Map<String, Entry> ready = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Se incrementa con cada cambio de mapa; las tareas de rondas anteriores que
+     * aún no empezaron se descartan.
+     */
+    private final AtomicInteger round = new AtomicInteger();
+    private ExecutorService executor;
+
+    /**
+     * Programa la precarga de los vecinos de {@code context}. Debe llamarse desde
+     * el hilo principal, una vez aplicado el mapa.
+     */
+    public void prefetchAround(MapContext context) {
+        if (context == null || context.getTiles() == null)
+            return;
+
+        int mapNumber = MapManager.extractMapNumber(context.getFilePath());
+        int[] neighbours = neighbourMaps(context.getTiles(), mapNumber, MAX_NEIGHBOURS);
+        if (neighbours.length == 0)
+            return;
+
+        int currentRound = round.incrementAndGet();
+        ExecutorService pool = executor();
+        for (int neighbour : neighbours)
+            pool.submit(() -> prefetch(neighbour, currentRound));
+    }
+
+    /**
+     * Retira el mapa precargado de {@code filePath}, si existe y el archivo no se
+     * modificó desde que se leyó.
+     *
+     * @return El contexto listo para aplicar, o {@code null} si hay que cargarlo
+     *         de disco.
+     */
+    public MapContext take(String filePath) {
+        String key = key(filePath);
+        Entry entry;
+        synchronized (ready) {
+            entry = ready.remove(key);
+        }
+        if (entry == null)
+            return null;
+
+        try {
+            if (stamp(filePath) == entry.stamp)
+                return entry.context;
+        } catch (IOException e) {
+            // El archivo ya no existe o no se puede leer: se carga por el camino normal
+        }
+        Logger.info("MapPrefetcher: {} cambió en disco, se descarta la precarga", filePath);
+        return null;
+    }
+
+    /**
+     * Descarta la precarga de un mapa (p.ej. al guardarlo desde el editor).
+     */
+    public void invalidate(String filePath) {
+        synchronized (ready) {
+            ready.remove(key(filePath));
+        }
+    }
+
+    /**
+     * Elige los mapas a precargar: primero los destinos de las salidas en orden
+     * de aparición y luego los números contiguos, sin repetir ni incluir el mapa
+     * actual.
+     */
+    static int[] neighbourMaps(TileStore tiles, int mapNumber, int limit) {
+        Set<Integer> maps = new LinkedHashSet<>();
+        for (int idx = 0; idx < tiles.size() && maps.size() < limit; idx++) {
+            int exitMap = tiles.getExitMap(idx);
+            if (exitMap > 0 && exitMap != mapNumber)
+                maps.add(exitMap);
+        }
+        if (mapNumber > 1 && maps.size() < limit)
+            maps.add(mapNumber - 1);
+        if (mapNumber > 0 && maps.size() < limit)
+            maps.add(mapNumber + 1);
+        return maps.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void prefetch(int mapNumber, int taskRound) {
+        if (taskRound != round.get())
+            return;
+
+        String filePath = MapManager.resolveMapPath(mapNumber);
+        if (filePath == null)
+            return;
+
+        String key = key(filePath);
+        synchronized (ready) {
+            if (ready.containsKey(key))
+                return;
+        }
+        if (!inFlight.add(key))
+            return;
+
+        try {
+            // La huella se toma antes de leer: si algún archivo cambia mientras tanto,
+            // take() lo detecta y descarta la precarga
+            long stamp = stamp(filePath);
+            long start = System.nanoTime();
+            MapContext context = MapManager.readMap(filePath, MapManager.newEditorCharList());
+
+            synchronized (ready) {
+                ready.put(key, new Entry(context, stamp));
+            }
+            Logger.info("MapPrefetcher: mapa {} precargado en {} ms", mapNumber,
+                    (System.nanoTime() - start) / 1_000_000);
+
+            Set<Integer> fileNums = collectFileNums(context.getTiles());
+            Engine.INSTANCE.runOnMainThread(() -> Surface.INSTANCE.prefetch(fileNums));
+        } catch (IOException | RuntimeException e) {
+            Logger.warn(e, "MapPrefetcher: no se pudo precargar el mapa {}", mapNumber);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Huella del mapa en disco: tamaño y fecha de modificación del .map y, si
+     * existen, de su .dat e .inf. Cambia al editar cualquiera de los tres.
+     */
+    static long stamp(String filePath) throws IOException {
+        String basePath = filePath.substring(0, filePath.lastIndexOf('.'));
+        long stamp = stamp(17, Files.readAttributes(Path.of(filePath), BasicFileAttributes.class));
+        for (String companion : new String[] { basePath + ".dat", basePath + ".inf" }) {
+            Path path = Path.of(companion);
+            stamp = Files.exists(path) ? stamp(stamp, Files.readAttributes(path, BasicFileAttributes.class))
+                    : 31 * stamp;
+        }
+        return stamp;
+    }
+
+    private static long stamp(long seed, BasicFileAttributes attributes) {
+        return 31 * (31 * seed + attributes.size()) + attributes.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * Archivos de textura que usan las capas del mapa, incluidos todos los frames
+     * de los GRHs animados.
+     */
+    static Set<Integer> collectFileNums(TileStore tiles) {
+        GrhTable grhData = AssetRegistry.grhData;
+        Set<Integer> fileNums = new HashSet<>();
+        if (grhData == null)
+            return fileNums;
+
+        for (int idx = 0; idx < tiles.size(); idx++) {
+            for (int layer = 1; layer <= 4; layer++) {
+                int grhIndex = tiles.getGrh(layer, idx);
+                if (grhIndex <= 0 || !grhData.contains(grhIndex))
+                    continue;
+                // Accesores primitivos: los vecinos no deben construir sus GrhData
+                int numFrames = grhData.numFrames(grhIndex);
+                if (numFrames <= 1) {
+                    fileNums.add(grhData.fileNum(grhIndex));
+                    continue;
+                }
+                // Frames de las animaciones indexados desde 1
+                for (int f = 1; f <= numFrames; f++) {
+                    int frame = grhData.frame(grhIndex, f);
+                    if (frame > 0 && grhData.contains(frame))
+                        fileNums.add(grhData.fileNum(frame));
+                }
+            }
+        }
+        fileNums.remove(0);
+        return fileNums;
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MapPrefetch");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Clave de la caché: ruta absoluta normalizada, sin distinguir mayúsculas
+     * (igual que la búsqueda de mapas abiertos en {@link MapManager}).
+     */
+    private static String key(String filePath) {
+        try {
+            return Path.of(filePath).toAbsolutePath().normalize().toString().toLowerCase(Locale.ROOT);
+        } catch (RuntimeException e) {
+            return filePath.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -6,12 +6,13 @@ import org.argentumforge.engine.utils.inits.ObjData;
 import org.tinylog.Logger;
 
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Clase encargada de la carga de recursos de datos (.dat).
@@ -19,6 +20,66 @@ import java.util.Map;
  */
 public final class ResourceLoader {
 
+    static final DatSnapshotCache.RecordCodec<NpcData> NPC_CODEC = new DatSnapshotCache.RecordCodec<>() {
+        @Override
+        public int schema() {
+            return 1;
+        }
+
+        @Override
+        public int number(NpcData npc) {
+            return npc.getNumber();
+        }
+
+        @Override
+        public void write(DataOutputStream out, NpcData npc) throws IOException {
+            out.writeInt(npc.getNumber());
+            DatSnapshotCache.writeString(out, npc.getName());
+            out.writeInt(npc.getHead());
+            out.writeInt(npc.getBody());
+            out.writeInt(npc.getHeading());
+        }
+
+        @Override
+        public NpcData read(ByteBuffer in) {
+            NpcData npc = new NpcData(in.getInt());
+            npc.setName(DatSnapshotCache.readString(in));
+            npc.setHead(in.getInt());
+            npc.setBody(in.getInt());
+            npc.setHeading(in.getInt());
+            return npc;
+        }
+    };
+
+    static final DatSnapshotCache.RecordCodec<ObjData> OBJ_CODEC = new DatSnapshotCache.RecordCodec<>() {
+        @Override
+        public int schema() {
+            return 1;
+        }
+
+        @Override
+        public int number(ObjData obj) {
+            return obj.getNumber();
+        }
+
+        @Override
+        public void write(DataOutputStream out, ObjData obj) throws IOException {
+            out.writeInt(obj.getNumber());
+            DatSnapshotCache.writeString(out, obj.getName());
+            out.writeInt(obj.getGrhIndex());
+            out.writeInt(obj.getType());
+        }
+
+        @Override
+        public ObjData read(ByteBuffer in) {
+            ObjData obj = new ObjData(in.getInt());
+            obj.setName(DatSnapshotCache.readString(in));
+            obj.setGrhIndex(in.getInt());
+            obj.setType(in.getInt());
+            return obj;
+        }
+    };
+
     private ResourceLoader() {
         // Clase de utilidad
     }
@@ -65,18 +126,29 @@ public final class ResourceLoader {
 
     /**
      * Carga las definiciones de NPCs desde el archivo NPCs.dat.
+     * <p>
+     * Si hay un snapshot binario válido para el NPCs.dat actual se usa ese; si no,
+     * se parsea el .dat y el snapshot se regenera en segundo plano.
      * 
      * @return Un mapa con las definiciones de NPCs indexadas por su número.
      */
-    public static Map<Integer, NpcData> loadNpcs() {
+    public static IntObjectTable<NpcData> loadNpcs() {
         final Path npcsPath = Path.of(Options.INSTANCE.getDatsPath(), "NPCs.dat");
-        final Map<Integer, NpcData> result = new HashMap<>();
 
         if (!Files.exists(npcsPath)) {
             Logger.error("No se encontró NPCs.dat en la ruta: {}", npcsPath.toAbsolutePath());
-            return result;
+            return new IntObjectTable<>();
         }
 
+        return loadCached(npcsPath, DatSnapshotCache.snapshotPath("npcs"), NPC_CODEC, ResourceLoader::parseNpcs,
+                "NPCs");
+    }
+
+    /**
+     * Parsea NPCs.dat (estilo INI).
+     */
+    static IntObjectTable<NpcData> parseNpcs(Path npcsPath) {
+        final IntObjectTable<NpcData> result = new IntObjectTable<>();
         NpcData currentNpc = null;
         try (BufferedReader br = createReader(npcsPath)) {
             String line;
@@ -94,8 +166,9 @@ public final class ResourceLoader {
                     if (section.regionMatches(true, 0, "NPC", 0, 3)) {
                         try {
                             int npcNumber = Integer.parseInt(section.substring(3).trim());
-                            currentNpc = new NpcData(npcNumber);
-                            result.put(npcNumber, currentNpc);
+                            currentNpc = validId(npcNumber) ? new NpcData(npcNumber) : null;
+                            if (currentNpc != null)
+                                result.put(npcNumber, currentNpc);
                         } catch (NumberFormatException e) {
                             currentNpc = null;
                         }
@@ -132,25 +205,34 @@ public final class ResourceLoader {
         } catch (IOException e) {
             Logger.error(e, "No se pudo leer NPCs.dat desde la ruta: {}", npcsPath.toAbsolutePath());
         }
-
-        Logger.info("Cargadas {} definiciones de NPCs", result.size());
         return result;
     }
 
     /**
      * Carga las definiciones de Objetos desde el archivo OBJ.dat.
+     * <p>
+     * Igual que {@link #loadNpcs()}, usa el snapshot binario cuando sigue siendo
+     * válido.
      * 
      * @return Un mapa con las definiciones de Objetos indexadas por su número.
      */
-    public static Map<Integer, ObjData> loadObjs() {
+    public static IntObjectTable<ObjData> loadObjs() {
         final Path objsPath = Path.of(Options.INSTANCE.getDatsPath(), "OBJ.dat");
-        final Map<Integer, ObjData> result = new HashMap<>();
 
         if (!Files.exists(objsPath)) {
             Logger.error("No se encontró OBJ.dat en la ruta: {}", objsPath.toAbsolutePath());
-            return result;
+            return new IntObjectTable<>();
         }
 
+        return loadCached(objsPath, DatSnapshotCache.snapshotPath("objs"), OBJ_CODEC, ResourceLoader::parseObjs,
+                "Objetos");
+    }
+
+    /**
+     * Parsea OBJ.dat (estilo INI).
+     */
+    static IntObjectTable<ObjData> parseObjs(Path objsPath) {
+        final IntObjectTable<ObjData> result = new IntObjectTable<>();
         ObjData currentObj = null;
         try (BufferedReader br = createReader(objsPath)) {
             String line;
@@ -168,8 +250,9 @@ public final class ResourceLoader {
                     if (section.regionMatches(true, 0, "OBJ", 0, 3)) {
                         try {
                             int objNumber = Integer.parseInt(section.substring(3).trim());
-                            currentObj = new ObjData(objNumber);
-                            result.put(objNumber, currentObj);
+                            currentObj = validId(objNumber) ? new ObjData(objNumber) : null;
+                            if (currentObj != null)
+                                result.put(objNumber, currentObj);
                         } catch (NumberFormatException e) {
                             currentObj = null;
                         }
@@ -206,8 +289,45 @@ public final class ResourceLoader {
         } catch (IOException e) {
             Logger.error(e, "No se pudo leer OBJ.dat desde la ruta: {}", objsPath.toAbsolutePath());
         }
+        return result;
+    }
+
+    private static boolean validId(int id) {
+        if (id >= 0 && id <= IntObjectTable.MAX_KEY)
+            return true;
+        Logger.warn("Se ignora la sección con ID fuera de rango: {}", id);
+        return false;
+    }
+
+    /**
+     * Devuelve el contenido del snapshot si sigue siendo válido; si no, parsea el
+     * .dat y guarda un snapshot nuevo en segundo plano.
+     */
+    private static <T> IntObjectTable<T> loadCached(Path source, Path snapshot,
+            DatSnapshotCache.RecordCodec<T> codec, Function<Path, IntObjectTable<T>> parser, String label) {
+        long start = System.nanoTime();
+        IntObjectTable<T> result = DatSnapshotCache.read(source, snapshot, codec);
+        if (result != null) {
+            Logger.info("Cargadas {} definiciones de {} desde el snapshot en {} ms", result.size(), label,
+                    (System.nanoTime() - start) / 1_000_000);
+            return result;
+        }
+
+        // La huella se toma antes de parsear: si el .dat cambia mientras tanto, el
+        // snapshot no se guarda con la huella del archivo nuevo
+        DatSnapshotCache.Stamp stamp;
+        try {
+            stamp = DatSnapshotCache.Stamp.of(source);
+        } catch (IOException e) {
+            stamp = null;
+        }
 
-        Logger.info("Cargadas {} definiciones de Objetos", result.size());
+        result = parser.apply(source);
+        Logger.info("Cargadas {} definiciones de {} en {} ms", result.size(), label,
+                (System.nanoTime() - start) / 1_000_000);
+        // Un .dat ilegible o vacío no se cachea, para volver a intentarlo
+        if (!result.isEmpty() && stamp != null)
+            DatSnapshotCache.writeAsync(snapshot, result, codec, stamp, source);
         return result;
     }
 
@@ -2,23 +2,40 @@ package org.argentumforge.engine.utils.editor;
 
 import org.argentumforge.engine.utils.MapContext;
 import org.argentumforge.engine.utils.inits.MapData;
+import org.argentumforge.engine.utils.inits.TileStore;
 import org.argentumforge.engine.utils.editor.commands.*;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Servicio centralizado para ejecutar operaciones masivas (rellenar/eliminar)
  * sobre un área rectangular del mapa.
  * <p>
  * Cada operación genera un único comando atómico (o {@link MacroCommand})
- * para que pueda deshacerse con un solo Ctrl+Z.
+ * para que pueda deshacerse con un solo Ctrl+Z. Las operaciones sobre campos
+ * de los tiles (superficies, bloqueos, triggers y partículas) arman un único
+ * {@link TileFieldsCommand} y reparten las áreas grandes entre varios hilos.
  */
 public final class AreaOperationService {
 
     private static final Random RANDOM = new Random();
 
+    /**
+     * Tiles a partir de los cuales conviene repartir el área entre hilos. Los
+     * mapas tienen a lo sumo 100x100 tiles, así que un área de unos 64x64 ya va
+     * en paralelo; por debajo, repartir cuesta más de lo que ahorra.
+     */
+    static final int PARALLEL_THRESHOLD = 4 * 1024;
+
+    /**
+     * Umbral en uso; las pruebas lo cambian para forzar el camino secuencial o
+     * el paralelo.
+     */
+    static int parallelThreshold = PARALLEL_THRESHOLD;
+
     private AreaOperationService() {
         // Utilidad estática
     }
@@ -37,11 +54,9 @@ public final class AreaOperationService {
      */
     public static int fillSurface(MapContext ctx, int x1, int y1, int x2, int y2,
             int grhIndex, boolean[] layers) {
-        if (ctx == null || ctx.getMapData() == null || grhIndex <= 0)
+        if (ctx == null || ctx.getTiles() == null || grhIndex <= 0)
             return 0;
-        var mapData = ctx.getMapData();
-        MacroCommand macro = new MacroCommand();
-        int count = 0;
+        TileStore tiles = ctx.getTiles();
 
         // Leer configuración de mosaico desde Surface
         Surface surface = Surface.getInstance();
@@ -50,92 +65,79 @@ public final class AreaOperationService {
         int mosaicH = surface.getMosaicHeight();
         boolean hasMosaic = useMosaic && (mosaicW > 1 || mosaicH > 1);
 
-        for (int layerIdx = 0; layerIdx < 4; layerIdx++) {
-            if (!layers[layerIdx])
-                continue;
-            int layer = layerIdx + 1; // capas 1-4
+        return applyRows(ctx, x1, y1, x2, y2, (xMin, xMax, y, out) -> {
+            for (int x = xMin; x <= xMax; x++) {
+                int index = tiles.index(x, y);
 
-            Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-            Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
+                // Calcular GRH destino considerando mosaico
+                int targetGrh = grhIndex;
+                if (hasMosaic)
+                    targetGrh = grhIndex + ((y % mosaicH) * mosaicW) + (x % mosaicW);
 
-            for (int x = x1; x <= x2; x++) {
-                for (int y = y1; y <= y2; y++) {
-                    if (!inBounds(mapData, x, y))
+                for (int layer = 1; layer <= 4; layer++) {
+                    if (!layers[layer - 1])
                         continue;
-                    int current = mapData[x][y].getLayer(layer).getGrhIndex();
-
-                    // Calcular GRH destino considerando mosaico
-                    int targetGrh = grhIndex;
-                    if (hasMosaic) {
-                        int offsetX = x % mosaicW;
-                        int offsetY = y % mosaicH;
-                        targetGrh = grhIndex + (offsetY * mosaicW) + offsetX;
-                    }
-
-                    if (current != targetGrh) {
-                        var pos = new BulkTileChangeCommand.TilePos(x, y);
-                        oldTiles.put(pos, current);
-                        newTiles.put(pos, targetGrh);
-                        count++;
-                    }
+                    int current = tiles.getGrh(layer, index);
+                    if (current != targetGrh)
+                        out.add(TileFieldsCommand.layerField(layer), index, current, targetGrh);
                 }
             }
+        });
+    }
 
-            if (!oldTiles.isEmpty()) {
-                macro.addCommand(new BulkTileChangeCommand(ctx, layer, oldTiles, newTiles));
-            }
-        }
-
-        executeIfNotEmpty(macro, count);
-        return count;
+    /**
+     * Rellena aleatoriamente las capas de superficie con el GRH dado, usando una
+     * semilla nueva en cada llamada.
+     *
+     * @param density probabilidad de relleno por tile (0.0 a 1.0)
+     * @return cantidad de tiles afectados
+     * @see #fillSurfaceRandom(MapContext, int, int, int, int, int, boolean[], float, long)
+     */
+    public static int fillSurfaceRandom(MapContext ctx, int x1, int y1, int x2, int y2,
+            int grhIndex, boolean[] layers, float density) {
+        return fillSurfaceRandom(ctx, x1, y1, x2, y2, grhIndex, layers, density, RANDOM.nextLong());
     }
 
     /**
      * Rellena aleatoriamente las capas de superficie con el GRH dado.
-     * Cada tile tiene una probabilidad (densidad) de ser rellenado.
+     * Cada tile de cada capa tiene una probabilidad (densidad) de ser rellenado.
+     * <p>
+     * Cada fila usa su propio generador derivado de la semilla y de su
+     * coordenada Y, así que con la misma semilla y el mismo mapa el resultado es
+     * idéntico sin importar cuántos hilos procesen el área.
      *
      * @param density probabilidad de relleno por tile (0.0 a 1.0)
+     * @param seed    semilla del relleno
      * @return cantidad de tiles afectados
      */
     public static int fillSurfaceRandom(MapContext ctx, int x1, int y1, int x2, int y2,
-            int grhIndex, boolean[] layers, float density) {
-        if (ctx == null || ctx.getMapData() == null || grhIndex <= 0)
+            int grhIndex, boolean[] layers, float density, long seed) {
+        if (ctx == null || ctx.getTiles() == null || grhIndex <= 0)
             return 0;
-        var mapData = ctx.getMapData();
-        MacroCommand macro = new MacroCommand();
-        int count = 0;
-
-        for (int layerIdx = 0; layerIdx < 4; layerIdx++) {
-            if (!layers[layerIdx])
-                continue;
-            int layer = layerIdx + 1;
-
-            Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-            Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
-
-            for (int x = x1; x <= x2; x++) {
-                for (int y = y1; y <= y2; y++) {
-                    if (!inBounds(mapData, x, y))
+        TileStore tiles = ctx.getTiles();
+
+        return applyRows(ctx, x1, y1, x2, y2, (xMin, xMax, y, out) -> {
+            SplittableRandom random = new SplittableRandom(seed ^ (y * 0x9E3779B97F4A7C15L));
+            // El generador arranca en x = 0 para que la secuencia no dependa del área
+            for (int x = 0; x < xMin; x++) {
+                for (int layer = 1; layer <= 4; layer++) {
+                    if (layers[layer - 1])
+                        random.nextFloat();
+                }
+            }
+            for (int x = xMin; x <= xMax; x++) {
+                int index = tiles.index(x, y);
+                for (int layer = 1; layer <= 4; layer++) {
+                    if (!layers[layer - 1])
                         continue;
-                    if (RANDOM.nextFloat() > density)
+                    if (random.nextFloat() > density)
                         continue;
-                    int current = mapData[x][y].getLayer(layer).getGrhIndex();
-                    if (current != grhIndex) {
-                        var pos = new BulkTileChangeCommand.TilePos(x, y);
-                        oldTiles.put(pos, current);
-                        newTiles.put(pos, grhIndex);
-                        count++;
-                    }
+                    int current = tiles.getGrh(layer, index);
+                    if (current != grhIndex)
+                        out.add(TileFieldsCommand.layerField(layer), index, current, grhIndex);
                 }
             }
-
-            if (!oldTiles.isEmpty()) {
-                macro.addCommand(new BulkTileChangeCommand(ctx, layer, oldTiles, newTiles));
-            }
-        }
-
-        executeIfNotEmpty(macro, count);
-        return count;
+        });
     }
 
     /**
@@ -143,41 +145,22 @@ public final class AreaOperationService {
      */
     public static int clearSurface(MapContext ctx, int x1, int y1, int x2, int y2,
             boolean[] layers) {
-        if (ctx == null || ctx.getMapData() == null)
+        if (ctx == null || ctx.getTiles() == null)
             return 0;
-        var mapData = ctx.getMapData();
-        MacroCommand macro = new MacroCommand();
-        int count = 0;
+        TileStore tiles = ctx.getTiles();
 
-        for (int layerIdx = 0; layerIdx < 4; layerIdx++) {
-            if (!layers[layerIdx])
-                continue;
-            int layer = layerIdx + 1;
-
-            Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-            Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
-
-            for (int x = x1; x <= x2; x++) {
-                for (int y = y1; y <= y2; y++) {
-                    if (!inBounds(mapData, x, y))
+        return applyRows(ctx, x1, y1, x2, y2, (xMin, xMax, y, out) -> {
+            for (int x = xMin; x <= xMax; x++) {
+                int index = tiles.index(x, y);
+                for (int layer = 1; layer <= 4; layer++) {
+                    if (!layers[layer - 1])
                         continue;
-                    int current = mapData[x][y].getLayer(layer).getGrhIndex();
-                    if (current != 0) {
-                        var pos = new BulkTileChangeCommand.TilePos(x, y);
-                        oldTiles.put(pos, current);
-                        newTiles.put(pos, 0);
-                        count++;
-                    }
+                    int current = tiles.getGrh(layer, index);
+                    if (current != 0)
+                        out.add(TileFieldsCommand.layerField(layer), index, current, 0);
                 }
             }
-
-            if (!oldTiles.isEmpty()) {
-                macro.addCommand(new BulkTileChangeCommand(ctx, layer, oldTiles, newTiles));
-            }
-        }
-
-        executeIfNotEmpty(macro, count);
-        return count;
+        });
     }
 
     // ─────────────────────────────────────────────
@@ -207,32 +190,19 @@ public final class AreaOperationService {
 
     private static int setBlocks(MapContext ctx, int x1, int y1, int x2, int y2,
             boolean target, boolean invert) {
-        if (ctx == null || ctx.getMapData() == null)
+        if (ctx == null || ctx.getTiles() == null)
             return 0;
-        var mapData = ctx.getMapData();
+        TileStore tiles = ctx.getTiles();
 
-        Map<BlockChangeCommand.TilePos, Boolean> oldStates = new HashMap<>();
-        Map<BlockChangeCommand.TilePos, Boolean> newStates = new HashMap<>();
-
-        for (int x = x1; x <= x2; x++) {
-            for (int y = y1; y <= y2; y++) {
-                if (!inBounds(mapData, x, y))
-                    continue;
-                boolean current = mapData[x][y].getBlocked();
+        return applyRows(ctx, x1, y1, x2, y2, (xMin, xMax, y, out) -> {
+            for (int x = xMin; x <= xMax; x++) {
+                int index = tiles.index(x, y);
+                boolean current = tiles.isBlocked(index);
                 boolean next = invert ? !current : target;
-                if (current != next) {
-                    var pos = new BlockChangeCommand.TilePos(x, y);
-                    oldStates.put(pos, current);
-                    newStates.put(pos, next);
-                }
+                if (current != next)
+                    out.add(TileFieldsCommand.FIELD_BLOCKED, index, current ? 1 : 0, next ? 1 : 0);
             }
-        }
-
-        if (!oldStates.isEmpty()) {
-            CommandManager.getInstance().executeCommand(
-                    new BlockChangeCommand(ctx, oldStates, newStates));
-        }
-        return oldStates.size();
+        });
     }
 
     // ─────────────────────────────────────────────
@@ -244,43 +214,14 @@ public final class AreaOperationService {
      */
     public static int fillTriggers(MapContext ctx, int x1, int y1, int x2, int y2,
             int triggerId) {
-        return setTriggers(ctx, x1, y1, x2, y2, triggerId);
+        return setField(ctx, x1, y1, x2, y2, TileFieldsCommand.FIELD_TRIGGER, triggerId);
     }
 
     /**
      * Limpia triggers (pone a 0).
      */
     public static int clearTriggers(MapContext ctx, int x1, int y1, int x2, int y2) {
-        return setTriggers(ctx, x1, y1, x2, y2, 0);
-    }
-
-    private static int setTriggers(MapContext ctx, int x1, int y1, int x2, int y2,
-            int target) {
-        if (ctx == null || ctx.getMapData() == null)
-            return 0;
-        var mapData = ctx.getMapData();
-
-        Map<TriggerChangeCommand.TilePos, Integer> oldStates = new HashMap<>();
-        Map<TriggerChangeCommand.TilePos, Integer> newStates = new HashMap<>();
-
-        for (int x = x1; x <= x2; x++) {
-            for (int y = y1; y <= y2; y++) {
-                if (!inBounds(mapData, x, y))
-                    continue;
-                int current = mapData[x][y].getTrigger();
-                if (current != target) {
-                    var pos = new TriggerChangeCommand.TilePos(x, y);
-                    oldStates.put(pos, current);
-                    newStates.put(pos, target);
-                }
-            }
-        }
-
-        if (!oldStates.isEmpty()) {
-            CommandManager.getInstance().executeCommand(
-                    new TriggerChangeCommand(ctx, oldStates, newStates));
-        }
-        return oldStates.size();
+        return setField(ctx, x1, y1, x2, y2, TileFieldsCommand.FIELD_TRIGGER, 0);
     }
 
     // ─────────────────────────────────────────────
@@ -364,43 +305,14 @@ public final class AreaOperationService {
      */
     public static int fillParticles(MapContext ctx, int x1, int y1, int x2, int y2,
             int particleId) {
-        return setParticles(ctx, x1, y1, x2, y2, particleId);
+        return setField(ctx, x1, y1, x2, y2, TileFieldsCommand.FIELD_PARTICLE, particleId);
     }
 
     /**
      * Elimina partículas del área.
      */
     public static int clearParticles(MapContext ctx, int x1, int y1, int x2, int y2) {
-        return setParticles(ctx, x1, y1, x2, y2, 0);
-    }
-
-    private static int setParticles(MapContext ctx, int x1, int y1, int x2, int y2,
-            int target) {
-        if (ctx == null || ctx.getMapData() == null)
-            return 0;
-        var mapData = ctx.getMapData();
-
-        Map<ParticleChangeCommand.TilePos, Integer> oldStates = new HashMap<>();
-        Map<ParticleChangeCommand.TilePos, Integer> newStates = new HashMap<>();
-
-        for (int x = x1; x <= x2; x++) {
-            for (int y = y1; y <= y2; y++) {
-                if (!inBounds(mapData, x, y))
-                    continue;
-                int current = mapData[x][y].getParticleIndex();
-                if (current != target) {
-                    var pos = new ParticleChangeCommand.TilePos(x, y);
-                    oldStates.put(pos, current);
-                    newStates.put(pos, target);
-                }
-            }
-        }
-
-        if (!oldStates.isEmpty()) {
-            CommandManager.getInstance().executeCommand(
-                    new ParticleChangeCommand(ctx, oldStates, newStates));
-        }
-        return oldStates.size();
+        return setField(ctx, x1, y1, x2, y2, TileFieldsCommand.FIELD_PARTICLE, 0);
     }
 
     // ─────────────────────────────────────────────
@@ -534,9 +446,91 @@ public final class AreaOperationService {
                 && mapData[x][y] != null;
     }
 
-    private static void executeIfNotEmpty(MacroCommand macro, int count) {
-        if (count > 0 && !macro.getCommands().isEmpty()) {
-            CommandManager.getInstance().executeCommand(macro);
+    /**
+     * Asigna el mismo valor a un campo simple (trigger o partícula) en toda el área.
+     */
+    private static int setField(MapContext ctx, int x1, int y1, int x2, int y2,
+            int field, int target) {
+        if (ctx == null || ctx.getTiles() == null)
+            return 0;
+        TileStore tiles = ctx.getTiles();
+
+        return applyRows(ctx, x1, y1, x2, y2, (xMin, xMax, y, out) -> {
+            for (int x = xMin; x <= xMax; x++) {
+                int index = tiles.index(x, y);
+                int current = TileFieldsCommand.read(tiles, field, index);
+                if (current != target)
+                    out.add(field, index, current, target);
+            }
+        });
+    }
+
+    /**
+     * Recorre las filas del área (recortada a los límites del mapa) reuniendo los
+     * cambios en un único {@link TileFieldsCommand} y lo ejecuta.
+     * <p>
+     * Las áreas grandes se parten en franjas de filas que se procesan en paralelo
+     * sobre el pool común; cada franja llena su propio buffer y al final se unen
+     * en orden de Y, así que el comando resultante es el mismo que en secuencial.
+     * Las filas solo leen el mapa: nada se escribe hasta ejecutar el comando.
+     *
+     * @return cantidad de cambios aplicados
+     */
+    private static int applyRows(MapContext ctx, int x1, int y1, int x2, int y2, RowScan scan) {
+        TileStore tiles = ctx.getTiles();
+        int xMin = Math.max(0, Math.min(x1, x2));
+        int xMax = Math.min(tiles.getWidth() - 1, Math.max(x1, x2));
+        int yMin = Math.max(0, Math.min(y1, y2));
+        int yMax = Math.min(tiles.getHeight() - 1, Math.max(y1, y2));
+        if (xMin > xMax || yMin > yMax)
+            return 0;
+
+        int rows = yMax - yMin + 1;
+        int bands = bandCount(rows, xMax - xMin + 1);
+
+        TileFieldsCommand.Buffer changes;
+        if (bands <= 1) {
+            changes = new TileFieldsCommand.Buffer();
+            for (int y = yMin; y <= yMax; y++)
+                scan.scan(xMin, xMax, y, changes);
+        } else {
+            TileFieldsCommand.Buffer[] parts = new TileFieldsCommand.Buffer[bands];
+            int bandCount = bands;
+            IntStream.range(0, bands).parallel().forEach(band -> {
+                TileFieldsCommand.Buffer part = new TileFieldsCommand.Buffer();
+                int from = yMin + (int) ((long) rows * band / bandCount);
+                int to = yMin + (int) ((long) rows * (band + 1) / bandCount);
+                for (int y = from; y < to; y++)
+                    scan.scan(xMin, xMax, y, part);
+                parts[band] = part;
+            });
+            changes = parts[0];
+            for (int i = 1; i < parts.length; i++)
+                changes.addAll(parts[i]);
         }
+
+        if (changes.isEmpty())
+            return 0;
+        CommandManager.getInstance().executeCommand(
+                new TileFieldsCommand(ctx, "history.command.bulk_tile", changes));
+        return changes.size();
+    }
+
+    /**
+     * @return Cantidad de franjas en que se reparte un área; 1 si se recorre en
+     *         secuencial.
+     */
+    static int bandCount(int rows, int columns) {
+        if ((long) rows * columns < parallelThreshold)
+            return 1;
+        return Math.min(rows, ForkJoinPool.getCommonPoolParallelism() * 4);
+    }
+
+    /**
+     * Recorrido de una fila del área que anota sus cambios en un buffer.
+     */
+    @FunctionalInterface
+    private interface RowScan {
+        void scan(int xMin, int xMax, int y, TileFieldsCommand.Buffer out);
     }
 }
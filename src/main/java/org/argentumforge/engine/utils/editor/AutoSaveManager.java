@@ -9,11 +9,25 @@ import org.tinylog.Logger;
 
 /**
  * Gestiona el autoguardado de mapas en intervalos configurables.
+ * <p>
+ * Cada pocos segundos baja a disco el {@link EditJournal} de los mapas
+ * abiertos (en segundo plano), así que un cierre inesperado pierde como mucho
+ * ese lapso de trabajo. El diario tiene su propio temporizador y se escribe
+ * aunque el autoguardado esté desactivado. La reescritura completa del mapa
+ * (compactación) se hace cada intervalo configurado, solo con el autoguardado
+ * activo y cuando el usuario dejó de editar, para no provocar tirones mientras
+ * pinta.
  */
 public class AutoSaveManager {
 
+    /** Cada cuánto se escriben los lotes pendientes de los diarios. */
+    private static final float JOURNAL_FLUSH_SECONDS = 2;
+    /** Segundos sin ediciones tras los cuales se puede reescribir el mapa. */
+    private static final float IDLE_SECONDS = 5;
+
     private static AutoSaveManager instance;
     private float elapsedTime = 0;
+    private float journalElapsedTime = 0;
 
     private AutoSaveManager() {
     }
@@ -26,30 +40,41 @@ public class AutoSaveManager {
     }
 
     public void update() {
+        journalElapsedTime += Time.deltaTime;
+        if (journalElapsedTime >= JOURNAL_FLUSH_SECONDS) {
+            journalElapsedTime = 0;
+            for (MapContext context : GameData.getOpenMaps())
+                context.getJournal().flushAsync();
+        }
+
         if (!Options.INSTANCE.isAutoSaveEnabled()) {
             elapsedTime = 0;
             return;
         }
 
         elapsedTime += Time.deltaTime;
-
         float intervalSeconds = Options.INSTANCE.getAutoSaveIntervalMinutes() * 60;
 
-        if (elapsedTime >= intervalSeconds) {
+        if (elapsedTime >= intervalSeconds && triggerAutoSave()) {
             elapsedTime = 0;
-            triggerAutoSave();
         }
     }
 
-    private void triggerAutoSave() {
+    /**
+     * @return {@code false} si el guardado se pospuso porque el usuario sigue
+     *         editando.
+     */
+    private boolean triggerAutoSave() {
         MapContext context = GameData.getActiveContext();
-        if (context == null)
-            return;
+        if (context == null || !context.isModified())
+            return true;
 
-        if (context.isModified()) {
-            Logger.info("Autoguardado disparado para mapa: {}", context.getMapName());
-            MapFileUtils.quickSaveMap();
-        }
+        if (context.getJournal().getIdleSeconds() < IDLE_SECONDS)
+            return false;
+
+        Logger.info("Autoguardado disparado para mapa: {}", context.getMapName());
+        MapFileUtils.quickSaveMap();
+        return true;
     }
 
     public void resetTimer() {
@@ -9,6 +9,8 @@ import org.argentumforge.engine.scenes.Camera;
  * tipos de terreno.
  */
 import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.editor.commands.TileFieldsCommand;
+import org.argentumforge.engine.utils.inits.TileStore;
 
 /**
  * Clase de utilidad para transiciones de tile automáticas (auto-costas).
@@ -32,8 +34,9 @@ public class AutoTiler {
         if (mapData == null)
             return;
 
-        java.util.Map<org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos, Integer> oldTiles = new java.util.HashMap<>();
-        java.util.Map<org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos, Integer> newTiles = new java.util.HashMap<>();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
 
         for (int x = Camera.XMinMapSize; x <= Camera.XMaxMapSize; x++) {
             for (int y = Camera.YMinMapSize; y <= Camera.YMaxMapSize; y++) {
@@ -46,22 +49,15 @@ public class AutoTiler {
                     if (bitmask > 0) {
                         // Este tile de tierra limita con agua, aplicar tile de costa
                         int coastTile = getCoastTile(coastGrhStart, bitmask);
-                        oldTiles.put(
-                                new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos(x, y),
-                                currentGrh);
-                        newTiles.put(
-                                new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos(x, y),
-                                coastTile);
+                        delta.add(field, tiles.index(x, y), currentGrh, coastTile);
                     }
                 }
             }
         }
 
-        if (!newTiles.isEmpty()) {
+        if (!delta.isEmpty()) {
             org.argentumforge.engine.utils.editor.commands.CommandManager.getInstance().executeCommand(
-                    new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand(
-                            GameData.getActiveContext(), layer, oldTiles,
-                            newTiles));
+                    new TileFieldsCommand(context, "history.command.bulk_tile", delta));
         }
     }
 
@@ -156,8 +152,9 @@ public class AutoTiler {
         if (mapData == null || mosaicWidth <= 1 || mosaicHeight <= 1)
             return;
 
-        java.util.Map<org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos, Integer> oldTiles = new java.util.HashMap<>();
-        java.util.Map<org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos, Integer> newTiles = new java.util.HashMap<>();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
 
         for (int x = Camera.XMinMapSize; x <= Camera.XMaxMapSize; x++) {
             for (int y = Camera.YMinMapSize; y <= Camera.YMaxMapSize; y++) {
@@ -170,22 +167,15 @@ public class AutoTiler {
                     int mosaicGrh = (baseGrh + (relY * mosaicWidth) + relX);
 
                     if (currentGrh != mosaicGrh) {
-                        oldTiles.put(
-                                new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos(x, y),
-                                currentGrh);
-                        newTiles.put(
-                                new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand.TilePos(x, y),
-                                mosaicGrh);
+                        delta.add(field, tiles.index(x, y), currentGrh, mosaicGrh);
                     }
                 }
             }
         }
 
-        if (!newTiles.isEmpty()) {
+        if (!delta.isEmpty()) {
             org.argentumforge.engine.utils.editor.commands.CommandManager.getInstance().executeCommand(
-                    new org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand(
-                            GameData.getActiveContext(), layer, oldTiles,
-                            newTiles));
+                    new TileFieldsCommand(context, "history.command.bulk_tile", delta));
         }
     }
 }
@@ -3,6 +3,7 @@ package org.argentumforge.engine.utils.editor;
 import org.argentumforge.engine.utils.MapContext;
 import org.argentumforge.engine.utils.editor.commands.BlockChangeCommand;
 import org.argentumforge.engine.utils.editor.commands.CommandManager;
+import org.argentumforge.engine.utils.editor.commands.StrokeCommand;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.game.console.Console;
 import org.argentumforge.engine.game.console.FontStyle;
@@ -87,6 +88,7 @@ public class Block {
         if (mapData == null)
             return;
 
+        StrokeCommand stroke = CommandManager.getInstance().getStroke();
         Map<BlockChangeCommand.TilePos, Boolean> oldStates = new HashMap<>();
         Map<BlockChangeCommand.TilePos, Boolean> newStates = new HashMap<>();
 
@@ -115,10 +117,14 @@ public class Block {
                     }
 
                     if (next != current) {
-                        BlockChangeCommand.TilePos pos = new BlockChangeCommand.TilePos(
-                                i, j);
-                        oldStates.put(pos, current);
-                        newStates.put(pos, next);
+                        if (stroke != null) {
+                            stroke.setBlocked(i, j, next);
+                        } else {
+                            BlockChangeCommand.TilePos pos = new BlockChangeCommand.TilePos(
+                                    i, j);
+                            oldStates.put(pos, current);
+                            newStates.put(pos, next);
+                        }
                     }
                 }
             }
@@ -0,0 +1,599 @@
+package org.argentumforge.engine.utils.editor;
+
+import org.argentumforge.engine.game.models.Character;
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.game.models.Direction;
+import org.argentumforge.engine.gui.DialogManager;
+import org.argentumforge.engine.utils.AssetRegistry;
+import org.argentumforge.engine.utils.GameData;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.MapManager;
+import org.argentumforge.engine.utils.inits.BodyData;
+import org.argentumforge.engine.utils.inits.HeadData;
+import org.argentumforge.engine.utils.inits.NpcData;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.tinylog.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de ediciones de un mapa abierto, para recuperar el trabajo tras un
+ * cierre inesperado sin reescribir el mapa completo en cada autoguardado.
+ * <p>
+ * Cada comando ejecutado, deshecho o rehecho marca como sucios los bloques de
+ * {@link TileStore#CHUNK_SIZE} tiles que afecta; {@link #record(int[])} compara
+ * solo esos bloques contra una copia del último estado registrado y agrega al
+ * diario un lote con los campos que cambiaron en cada celda. Los lotes se
+ * acumulan en memoria y {@link #flushAsync()} los anexa al archivo (con
+ * {@code fsync}) en un hilo propio, sin bloquear el render.
+ * <p>
+ * El archivo vive en {@code resources/journal/} y se descarta al guardar el mapa
+ * completo o al cerrarlo sin guardar. Si al abrir un mapa queda un diario de una
+ * sesión anterior, y el mapa no cambió en disco desde entonces,
+ * {@link #offerRecovery(MapContext)} ofrece reaplicarlo.
+ * <p>
+ * Formato: cabecera ({@code MAGIC} + huella del .map) seguida de lotes
+ * {@code [longitud][CRC32][registros]}; cada registro es
+ * {@code [x][y][máscara][campos]}. Un lote truncado o corrupto (p.ej. el
+ * último, si el proceso murió escribiéndolo) termina la lectura.
+ * <p>
+ * No es thread-safe: se usa desde el hilo principal; solo la escritura del
+ * archivo ocurre en segundo plano.
+ */
+public final class EditJournal {
+
+    private static final int MAGIC = 0x41464A31; // "AFJ1"
+    private static final int HEADER_SIZE = 4 + 8;
+
+    /** Carpeta donde se guardan los diarios de todos los mapas. */
+    static final Path DIRECTORY = Path.of("resources", "journal");
+
+    // Bits de la máscara de cada registro (campos que se guardan en el mapa)
+    private static final int F_LAYERS = 0; // bits 0..3: capas 1 a 4
+    private static final int F_BLOCKED = 4;
+    private static final int F_TRIGGER = 5;
+    private static final int F_PARTICLE = 6;
+    private static final int F_NPC = 7;
+    private static final int F_EXIT_MAP = 8;
+    private static final int F_EXIT_X = 9;
+    private static final int F_EXIT_Y = 10;
+    private static final int F_OBJ_GRH = 11;
+    private static final int F_OBJ_INDEX = 12;
+    private static final int F_OBJ_AMOUNT = 13;
+
+    /** Un único hilo para todos los diarios: las escrituras quedan en orden. */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "EditJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MapContext context;
+
+    /** Estado de las celdas ya registrado en el diario. */
+    private TileStore baseline;
+    private long stamp;
+    private BitSet dirtyChunks;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private final DataOutputStream batchOut = new DataOutputStream(batch);
+    private final CRC32 crc = new CRC32();
+
+    private long lastEditNanos = System.nanoTime();
+
+    /**
+     * Hay un guardado en curso: los lotes nuevos son relativos a la instantánea
+     * guardada y esperan a conocer la huella del archivo resultante.
+     */
+    private boolean saving;
+
+    public EditJournal(MapContext context) {
+        this.context = context;
+        rebase();
+    }
+
+    /**
+     * Marca como sucia el área afectada por un comando y, si el mapa tiene
+     * archivo, agrega al diario los cambios de esos bloques.
+     *
+     * @param bounds Área {minX, minY, maxX, maxY} como la devuelve
+     *               {@code Command.getAffectedBounds()}, o {@code null} si el
+     *               comando no la informa (se revisa el mapa completo).
+     */
+    public void record(int[] bounds) {
+        lastEditNanos = System.nanoTime();
+        capture(bounds);
+    }
+
+    private void capture(int[] bounds) {
+        TileStore tiles = context.getTiles();
+        if (tiles == null)
+            return;
+        if (baseline == null || baseline.size() != tiles.size()) {
+            rebase();
+            return;
+        }
+
+        markDirty(tiles, bounds);
+        if (context.getFilePath() == null || context.getFilePath().isEmpty())
+            return;
+
+        try {
+            int records = diffDirtyChunks(tiles);
+            if (records > 0)
+                appendBatch();
+        } catch (IOException e) {
+            // DataOutputStream sobre memoria no falla
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return {@code true} si hay lotes en memoria que aún no se escribieron.
+     */
+    public boolean hasPending() {
+        return pending.size() > 0;
+    }
+
+    /**
+     * Segundos desde el último comando registrado.
+     */
+    public float getIdleSeconds() {
+        return (System.nanoTime() - lastEditNanos) / 1e9f;
+    }
+
+    /**
+     * Entrega los lotes pendientes al hilo de escritura, que los anexa al archivo
+     * y fuerza su bajada a disco.
+     */
+    public void flushAsync() {
+        String filePath = context.getFilePath();
+        if (saving || !hasPending() || filePath == null || filePath.isEmpty())
+            return;
+
+        byte[] data = takePending();
+        Path file = journalPath(filePath);
+        long expectedStamp = stamp;
+        WRITER.submit(() -> {
+            try {
+                append(file, expectedStamp, data);
+            } catch (IOException e) {
+                Logger.warn(e, "No se pudo escribir el diario de ediciones: {}", file);
+            }
+        });
+    }
+
+    /**
+     * Retira los lotes en memoria, listos para anexar tras una cabecera.
+     */
+    byte[] takePending() {
+        byte[] data = pending.toByteArray();
+        pending.reset();
+        return data;
+    }
+
+    /**
+     * @return Cabecera del archivo para la huella actual del mapa.
+     */
+    byte[] header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(stamp).array();
+    }
+
+    /**
+     * Descarta el diario: los cambios ya están en los archivos del mapa (se
+     * guardó) o el usuario eligió no conservarlos. Toma el estado actual como
+     * nueva base.
+     *
+     * @param filePath Ruta con la que el mapa estaba asociado al diario (puede
+     *                 diferir de la actual tras un "Guardar como").
+     */
+    public void discard(String filePath) {
+        saving = false;
+        pending.reset();
+        rebase();
+        if (filePath != null && !filePath.isEmpty())
+            deleteAsync(journalPath(filePath));
+    }
+
+    /**
+     * Prepara el diario para un guardado en segundo plano. Debe llamarse al tomar
+     * la instantánea del mapa: registra y baja a disco todo lo editado hasta ese
+     * momento, de modo que la base coincide con la instantánea.
+     */
+    public void beginSave() {
+        capture(null);
+        flushAsync();
+        saving = true;
+    }
+
+    /**
+     * Cierra un guardado iniciado con {@link #beginSave()}. Si se completó, el
+     * diario anterior ya está contenido en los archivos y se borra; los cambios
+     * hechos durante el guardado quedan pendientes para un diario nuevo.
+     *
+     * @param previousPath Ruta del mapa antes del guardado.
+     * @param success      {@code true} si los archivos se reemplazaron.
+     */
+    public void endSave(String previousPath, boolean success) {
+        saving = false;
+        if (!success)
+            return;
+
+        if (previousPath != null && !previousPath.isEmpty())
+            deleteAsync(journalPath(previousPath));
+        String filePath = context.getFilePath();
+        stamp = filePath == null || filePath.isEmpty() ? 0 : stampOf(filePath);
+    }
+
+    /**
+     * Si quedó un diario de una sesión anterior para el mapa recién abierto,
+     * pregunta si reaplicarlo. Debe llamarse con {@code context} ya activo.
+     */
+    public static void offerRecovery(MapContext context) {
+        // Toma la base del diario con el mapa tal como se leyó de disco
+        context.getJournal();
+
+        String filePath = context.getFilePath();
+        if (filePath == null || filePath.isEmpty())
+            return;
+
+        Path file = journalPath(filePath);
+        if (!Files.exists(file))
+            return;
+
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file);
+            if (data.length <= HEADER_SIZE || !matches(data, stampOf(filePath))) {
+                Logger.info("Diario de ediciones obsoleto para {}, se descarta", filePath);
+                deleteAsync(file);
+                return;
+            }
+        } catch (IOException e) {
+            Logger.warn(e, "No se pudo leer el diario de ediciones: {}", file);
+            return;
+        }
+
+        DialogManager.getInstance().showConfirm("Recuperar cambios",
+                "El mapa " + context.getMapName() + " tiene cambios sin guardar de una sesión anterior.\n"
+                        + "¿Desea recuperarlos?",
+                () -> {
+                    int restored = replay(context, data);
+                    context.getJournal().rebase();
+                    if (restored > 0 && GameData.getActiveContext() == context)
+                        MapManager.markAsModified();
+                    Logger.info("Diario de ediciones: {} tiles recuperados en {}", restored, filePath);
+                },
+                () -> deleteAsync(file));
+    }
+
+    /**
+     * Aplica sobre el mapa los registros de un diario.
+     *
+     * @return Cantidad de registros aplicados.
+     */
+    static int replay(MapContext context, byte[] data) {
+        TileStore tiles = context.getTiles();
+        ByteBuffer buffer = ByteBuffer.wrap(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        CRC32 check = new CRC32();
+        int restored = 0;
+
+        while (buffer.remaining() >= 8) {
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining())
+                break;
+
+            check.reset();
+            check.update(data, buffer.position(), length);
+            if ((int) check.getValue() != expectedCrc)
+                break;
+
+            try (DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(data, buffer.position(), length))) {
+                while (in.available() > 0) {
+                    applyRecord(context, tiles, in);
+                    restored++;
+                }
+            } catch (EOFException e) {
+                break;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return restored;
+    }
+
+    /**
+     * Toma el estado actual del mapa como base del diario.
+     */
+    void rebase() {
+        TileStore tiles = context.getTiles();
+        if (tiles == null) {
+            baseline = null;
+            return;
+        }
+
+        if (baseline == null || baseline.size() != tiles.size())
+            baseline = new TileStore(tiles.getWidth(), tiles.getHeight());
+        for (int idx = 0; idx < tiles.size(); idx++)
+            baseline.copyTile(tiles, idx, idx);
+        dirtyChunks = new BitSet(tiles.getChunkCountX() * tiles.getChunkCountY());
+
+        String filePath = context.getFilePath();
+        stamp = filePath == null || filePath.isEmpty() ? 0 : stampOf(filePath);
+    }
+
+    private void markDirty(TileStore tiles, int[] bounds) {
+        int chunksX = tiles.getChunkCountX();
+        if (bounds == null) {
+            dirtyChunks.set(0, chunksX * tiles.getChunkCountY());
+            return;
+        }
+
+        int minCX = Math.max(0, bounds[0]) / TileStore.CHUNK_SIZE;
+        int minCY = Math.max(0, bounds[1]) / TileStore.CHUNK_SIZE;
+        int maxCX = Math.min(tiles.getWidth() - 1, bounds[2]) / TileStore.CHUNK_SIZE;
+        int maxCY = Math.min(tiles.getHeight() - 1, bounds[3]) / TileStore.CHUNK_SIZE;
+        for (int cy = minCY; cy <= maxCY; cy++)
+            dirtyChunks.set(cy * chunksX + minCX, cy * chunksX + maxCX + 1);
+    }
+
+    /**
+     * Escribe en {@link #batch} un registro por cada celda de los bloques sucios
+     * que difiere de la base, y actualiza la base.
+     */
+    private int diffDirtyChunks(TileStore tiles) throws IOException {
+        int chunksX = tiles.getChunkCountX();
+        int records = 0;
+
+        for (int chunk = dirtyChunks.nextSetBit(0); chunk >= 0; chunk = dirtyChunks.nextSetBit(chunk + 1)) {
+            int x0 = (chunk % chunksX) * TileStore.CHUNK_SIZE;
+            int y0 = (chunk / chunksX) * TileStore.CHUNK_SIZE;
+            int x1 = Math.min(x0 + TileStore.CHUNK_SIZE, tiles.getWidth());
+            int y1 = Math.min(y0 + TileStore.CHUNK_SIZE, tiles.getHeight());
+
+            for (int y = y0; y < y1; y++) {
+                int idx = tiles.index(x0, y);
+                for (int x = x0; x < x1; x++, idx++) {
+                    int mask = diff(tiles, baseline, idx);
+                    if (mask == 0)
+                        continue;
+                    writeRecord(tiles, idx, x, y, mask);
+                    baseline.copyTile(tiles, idx, idx);
+                    records++;
+                }
+            }
+        }
+        dirtyChunks.clear();
+        return records;
+    }
+
+    private static int diff(TileStore a, TileStore b, int idx) {
+        int mask = 0;
+        for (int layer = 1; layer <= 4; layer++) {
+            if (a.getGrh(layer, idx) != b.getGrh(layer, idx))
+                mask |= 1 << (F_LAYERS + layer - 1);
+        }
+        if (a.isBlocked(idx) != b.isBlocked(idx))
+            mask |= 1 << F_BLOCKED;
+        if (a.getTrigger(idx) != b.getTrigger(idx))
+            mask |= 1 << F_TRIGGER;
+        if (a.getParticleIndex(idx) != b.getParticleIndex(idx))
+            mask |= 1 << F_PARTICLE;
+        if (a.getNpcIndex(idx) != b.getNpcIndex(idx))
+            mask |= 1 << F_NPC;
+        if (a.getExitMap(idx) != b.getExitMap(idx))
+            mask |= 1 << F_EXIT_MAP;
+        if (a.getExitX(idx) != b.getExitX(idx))
+            mask |= 1 << F_EXIT_X;
+        if (a.getExitY(idx) != b.getExitY(idx))
+            mask |= 1 << F_EXIT_Y;
+        if (a.getGrh(TileStore.OBJ_SLOT, idx) != b.getGrh(TileStore.OBJ_SLOT, idx))
+            mask |= 1 << F_OBJ_GRH;
+        if (a.getObjIndex(idx) != b.getObjIndex(idx))
+            mask |= 1 << F_OBJ_INDEX;
+        if (a.getObjAmount(idx) != b.getObjAmount(idx))
+            mask |= 1 << F_OBJ_AMOUNT;
+        return mask;
+    }
+
+    private void writeRecord(TileStore tiles, int idx, int x, int y, int mask) throws IOException {
+        batchOut.writeShort(x);
+        batchOut.writeShort(y);
+        batchOut.writeShort(mask);
+        for (int layer = 1; layer <= 4; layer++) {
+            if ((mask & (1 << (F_LAYERS + layer - 1))) != 0)
+                batchOut.writeInt(tiles.getGrh(layer, idx));
+        }
+        if ((mask & (1 << F_BLOCKED)) != 0)
+            batchOut.writeBoolean(tiles.isBlocked(idx));
+        if ((mask & (1 << F_TRIGGER)) != 0)
+            batchOut.writeShort(tiles.getTrigger(idx));
+        if ((mask & (1 << F_PARTICLE)) != 0)
+            batchOut.writeShort(tiles.getParticleIndex(idx));
+        if ((mask & (1 << F_NPC)) != 0)
+            batchOut.writeShort(tiles.getNpcIndex(idx));
+        if ((mask & (1 << F_EXIT_MAP)) != 0)
+            batchOut.writeShort(tiles.getExitMap(idx));
+        if ((mask & (1 << F_EXIT_X)) != 0)
+            batchOut.writeShort(tiles.getExitX(idx));
+        if ((mask & (1 << F_EXIT_Y)) != 0)
+            batchOut.writeShort(tiles.getExitY(idx));
+        if ((mask & (1 << F_OBJ_GRH)) != 0)
+            batchOut.writeInt(tiles.getGrh(TileStore.OBJ_SLOT, idx));
+        if ((mask & (1 << F_OBJ_INDEX)) != 0)
+            batchOut.writeShort(tiles.getObjIndex(idx));
+        if ((mask & (1 << F_OBJ_AMOUNT)) != 0)
+            batchOut.writeShort(tiles.getObjAmount(idx));
+    }
+
+    private static void applyRecord(MapContext context, TileStore tiles, DataInputStream in) throws IOException {
+        int x = in.readUnsignedShort();
+        int y = in.readUnsignedShort();
+        int mask = in.readUnsignedShort();
+        if (!tiles.inBounds(x, y))
+            throw new EOFException("Registro fuera del mapa: " + x + "," + y);
+        int idx = tiles.index(x, y);
+
+        for (int layer = 1; layer <= 4; layer++) {
+            if ((mask & (1 << (F_LAYERS + layer - 1))) != 0)
+                tiles.initGrh(layer, idx, in.readInt(), true);
+        }
+        if ((mask & (1 << F_BLOCKED)) != 0)
+            tiles.setBlocked(idx, in.readBoolean());
+        if ((mask & (1 << F_TRIGGER)) != 0)
+            tiles.setTrigger(idx, in.readUnsignedShort());
+        if ((mask & (1 << F_PARTICLE)) != 0)
+            tiles.setParticleIndex(idx, in.readShort());
+        if ((mask & (1 << F_NPC)) != 0)
+            applyNpc(context, tiles, idx, x, y, in.readUnsignedShort());
+        if ((mask & (1 << F_EXIT_MAP)) != 0)
+            tiles.setExitMap(idx, in.readUnsignedShort());
+        if ((mask & (1 << F_EXIT_X)) != 0)
+            tiles.setExitX(idx, in.readUnsignedShort());
+        if ((mask & (1 << F_EXIT_Y)) != 0)
+            tiles.setExitY(idx, in.readUnsignedShort());
+        if ((mask & (1 << F_OBJ_GRH)) != 0)
+            tiles.initGrh(TileStore.OBJ_SLOT, idx, in.readInt(), false);
+        if ((mask & (1 << F_OBJ_INDEX)) != 0)
+            tiles.setObjIndex(idx, in.readUnsignedShort());
+        if ((mask & (1 << F_OBJ_AMOUNT)) != 0)
+            tiles.setObjAmount(idx, in.readUnsignedShort());
+    }
+
+    /**
+     * Reemplaza el personaje visual del tile. Trabaja sobre la lista de
+     * personajes del propio mapa, como el cargador, para que la recuperación
+     * deje el tile coherente aunque el mapa no sea el activo.
+     */
+    private static void applyNpc(MapContext context, TileStore tiles, int idx, int x, int y, int npcIndex) {
+        CharacterRegistry charList = context.getCharList();
+        int currentChar = tiles.getCharIndex(idx);
+        if (currentChar != 0) {
+            charList.release(currentChar);
+            tiles.setCharIndex(idx, 0);
+        }
+
+        tiles.setNpcIndex(idx, npcIndex);
+
+        NpcData data = npcIndex > 0 ? AssetRegistry.npcs.get(npcIndex) : null;
+        if (data == null)
+            return;
+        int charIndex = charList.allocate();
+        if (charIndex <= 0)
+            return;
+
+        Character chr = charList.get(charIndex);
+        chr.setHeading(Direction.fromID(data.getHeading()));
+        chr.getPos().setX(x);
+        chr.getPos().setY(y);
+
+        int bodyIdx = data.getBody();
+        if (bodyIdx > 0 && bodyIdx < AssetRegistry.bodyData.length && AssetRegistry.bodyData[bodyIdx] != null)
+            chr.setBody(new BodyData(AssetRegistry.bodyData[bodyIdx]));
+        int headIdx = data.getHead();
+        if (headIdx > 0 && headIdx < AssetRegistry.headData.length && AssetRegistry.headData[headIdx] != null)
+            chr.setHead(new HeadData(AssetRegistry.headData[headIdx]));
+
+        tiles.setCharIndex(idx, charIndex);
+    }
+
+    private void appendBatch() {
+        byte[] payload = batch.toByteArray();
+        batch.reset();
+        crc.reset();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(payload.length).putInt((int) crc.getValue());
+        pending.write(header.array(), 0, 8);
+        pending.write(payload, 0, payload.length);
+    }
+
+    /**
+     * Anexa lotes al archivo. Si el archivo no existe, o su cabecera corresponde
+     * a otra versión del mapa, se empieza uno nuevo.
+     */
+    private static void append(Path file, long stamp, byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE || readStamp(channel) != stamp) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putLong(stamp).flip();
+                while (header.hasRemaining())
+                    channel.write(header, channel.size());
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long position = channel.size();
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            channel.force(false);
+        }
+    }
+
+    private static long readStamp(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.read(header, 0) < HEADER_SIZE)
+            return ~0L;
+        header.flip();
+        return header.getInt() == MAGIC ? header.getLong() : ~0L;
+    }
+
+    private static boolean matches(byte[] data, long stamp) {
+        ByteBuffer header = ByteBuffer.wrap(data, 0, HEADER_SIZE);
+        return header.getInt() == MAGIC && header.getLong() == stamp;
+    }
+
+    private static void deleteAsync(Path file) {
+        WRITER.submit(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                Logger.warn(e, "No se pudo borrar el diario de ediciones: {}", file);
+            }
+        });
+    }
+
+    /**
+     * Archivo de diario de un mapa: nombre del mapa más un hash de su ruta
+     * absoluta, para no mezclar mapas homónimos de carpetas distintas.
+     */
+    static Path journalPath(String filePath) {
+        Path path = Path.of(filePath).toAbsolutePath().normalize();
+        String key = path.toString().toLowerCase(Locale.ROOT);
+        return DIRECTORY.resolve(path.getFileName() + "." + Integer.toHexString(key.hashCode()) + ".journal");
+    }
+
+    /**
+     * Huella del .map en disco (tamaño y fecha de modificación). El diario solo
+     * se reaplica sobre la misma versión del archivo sobre la que se grabó.
+     */
+    static long stampOf(String filePath) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(filePath), BasicFileAttributes.class);
+            return 31 * attributes.size() + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.argentumforge.engine.utils.MapContext;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.inits.MapData;
 import org.argentumforge.engine.utils.inits.ObjData;
+import org.argentumforge.engine.utils.inits.TileStore;
 import org.argentumforge.engine.utils.AssetRegistry;
 import org.argentumforge.engine.utils.editor.commands.MassOptimizeCommand;
 import org.argentumforge.engine.scenes.Camera;
@@ -66,6 +67,7 @@ public class MapOptimizer {
         OptimizationResult result = new OptimizationResult();
         MassOptimizeCommand command = new MassOptimizeCommand(context);
         MapData[][] map = context.getMapData();
+        TileStore tiles = context.getTiles();
 
         if (map == null)
             return result;
@@ -89,21 +91,18 @@ public class MapOptimizer {
         int minYBorder = halfH;
         int maxYBorder = mapHeight - halfH;
 
+        // Tile temporal reutilizado: el comando guarda snapshots por valor, así que
+        // no hace falta una copia nueva por celda
+        MapData tempTile = new MapData();
+
         for (int y = yMin; y <= yMax; y++) {
             for (int x = xMin; x <= xMax; x++) {
                 MapData currentTile = map[x][y];
                 boolean changed = false;
 
-                // Creamos una copia del tile para simular los cambios
-                // En una implementación real de 'optimize', crearíamos el snapshot ANTES de
-                // modificar el 'currentTile' real
-                // Para simplificar y reusar lógica, usaremos un objeto MapData temporal que
-                // copiamos del actual
-                // Si 'simulate' es false, aplicaremos los cambios de este temporal al real y
-                // guardaremos en el comando
-
-                // DATA CLONE MANUAL (Costoso pero seguro)
-                MapData tempTile = cloneTileData(currentTile);
+                // Copiamos el tile actual al temporal para simular los cambios.
+                // Si 'simulate' es false, el comando aplicará el estado del temporal al real.
+                tempTile.getStore().copyTile(tiles, tiles.index(x, y), tempTile.getIndex());
 
                 // 1. Limpieza de Bordes
                 if (options.cleanBorders) {
@@ -214,25 +213,4 @@ public class MapOptimizer {
             return true; // Yacimientos
         return false;
     }
-
-    private static MapData cloneTileData(MapData src) {
-        MapData dest = new MapData();
-        dest.setBlocked(src.getBlocked());
-        dest.setTrigger(src.getTrigger());
-        dest.setExitMap(src.getExitMap());
-        dest.setExitX(src.getExitX());
-        dest.setExitY(src.getExitY());
-        dest.setNpcIndex(src.getNpcIndex());
-        dest.setCharIndex(src.getCharIndex());
-        dest.setObjIndex(src.getObjIndex());
-        dest.setObjAmount(src.getObjAmount());
-        dest.setParticleIndex(src.getParticleIndex());
-
-        for (int i = 1; i <= 4; i++) {
-            dest.getLayer(i).setGrhIndex(src.getLayer(i).getGrhIndex());
-        }
-        dest.getObjGrh().setGrhIndex(src.getObjGrh().getGrhIndex());
-
-        return dest;
-    }
 }
@@ -1,12 +1,11 @@
 package org.argentumforge.engine.utils.editor;
 
 import org.argentumforge.engine.game.Options;
-import org.argentumforge.engine.game.models.Character;
 import org.argentumforge.engine.utils.AssetRegistry;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.MapContext;
-import org.argentumforge.engine.utils.inits.MapData;
 import org.argentumforge.engine.utils.inits.ObjData;
+import org.argentumforge.engine.utils.inits.TileStore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,14 +27,19 @@ public class MapValidator {
     }
 
     public static List<ValidationError> validateCurrentMap() {
+        return validate(GameData.getActiveContext());
+    }
+
+    /**
+     * Valida un mapa cualquiera (no necesariamente el activo).
+     */
+    public static List<ValidationError> validate(MapContext context) {
         List<ValidationError> errors = new ArrayList<>();
-        MapContext context = GameData.getActiveContext();
 
-        if (context == null)
+        if (context == null || context.getTiles() == null)
             return errors;
 
-        MapData[][] mapData = context.getMapData();
-        Character[] charList = context.getCharList();
+        TileStore tiles = context.getTiles();
 
         // Check bounds
         int minX = GameData.X_MIN_MAP_SIZE;
@@ -43,17 +47,18 @@ public class MapValidator {
         int minY = GameData.Y_MIN_MAP_SIZE;
         int maxY = GameData.Y_MAX_MAP_SIZE;
 
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
+        // Recorrido por filas: sigue el orden en memoria del TileStore
+        for (int y = minY; y <= maxY; y++) {
+            int idx = tiles.index(minX, y);
+            for (int x = minX; x <= maxX; x++, idx++) {
 
                 // 1. Check Invalid Transfers
-                // 1. Check Invalid Transfers
-                if (mapData[x][y].getExitMap() > 0) {
+                if (tiles.getExitMap(idx) > 0) {
                     // Si hay mapa destino, verificar que sea válido (mayor a 0 y menor que max maps
                     // si tuvieramos el dato, por ahora > 0)
                     // Y verificar que las coordenadas destino sean válidas
-                    int destX = mapData[x][y].getExitX();
-                    int destY = mapData[x][y].getExitY();
+                    int destX = tiles.getExitX(idx);
+                    int destY = tiles.getExitY(idx);
 
                     if (destX < minX || destX > maxX || destY < minY || destY > maxY) {
                         errors.add(new ValidationError(x, y,
@@ -61,30 +66,21 @@ public class MapValidator {
                     }
                 } else {
                     // Si Map es 0, pero X o Y son distintos de 0, es un traslado sucio/roto
-                    if (mapData[x][y].getExitX() != 0 || mapData[x][y].getExitY() != 0) {
+                    if (tiles.getExitX(idx) != 0 || tiles.getExitY(idx) != 0) {
                         errors.add(new ValidationError(x, y,
                                 "Datos de traslado corruptos (Mapa 0 pero X/Y definidos)", "WARNING"));
                     }
                 }
 
                 // 2. Check Objects/NPCs on Blocked Tiles
-                boolean isBlocked = mapData[x][y].getBlocked();
-
-                // Check Autos/NPCs
-                int charIndex = mapData[x][y].getCharIndex();
-                if (charIndex > 0 && charIndex < charList.length && charList[charIndex].isActive()) {
-                    if (isBlocked) {
-                        errors.add(new ValidationError(x, y,
-                                "NPC/Personaje ubicado en tile bloqueado", "WARNING"));
-                    }
-                }
+                boolean isBlocked = tiles.isBlocked(idx);
 
                 // Check Objects (ObjIndex)
-                if (mapData[x][y].getObjIndex() > 0) {
+                if (tiles.getObjIndex(idx) > 0) {
                     if (isBlocked) {
                         // Check if the object is allowed to be blocked based on ObjType
                         boolean suppressWarning = false;
-                        ObjData objInfo = AssetRegistry.objs.get(mapData[x][y].getObjIndex());
+                        ObjData objInfo = AssetRegistry.objs.get(tiles.getObjIndex(idx));
 
                         if (objInfo != null) {
                             // Use configurable ignored types from Options
@@ -99,6 +95,13 @@ public class MapValidator {
                         }
                     }
                 }
+
+                // 3. Check NPCs on Blocked Tiles: se usa el índice del tile y no
+                // la lista de personajes, que no existe al validar sin interfaz
+                if (isBlocked && tiles.getNpcIndex(idx) > 0) {
+                    errors.add(new ValidationError(x, y,
+                            "NPC ubicado en tile bloqueado", "WARNING"));
+                }
             }
         }
 
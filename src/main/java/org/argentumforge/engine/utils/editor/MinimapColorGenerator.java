@@ -4,6 +4,7 @@ import org.argentumforge.engine.game.Options;
 import org.argentumforge.engine.utils.AssetRegistry;
 import org.argentumforge.engine.utils.ProfileManager;
 import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.GrhTable;
 import org.tinylog.Logger;
 import org.lwjgl.stb.STBImage;
 import org.lwjgl.system.MemoryStack;
@@ -44,8 +45,8 @@ public class MinimapColorGenerator {
             Path outputPath = Path.of(fileName);
             Logger.info("Iniciando generacion de colores de minimapa en: {}", outputPath.toAbsolutePath());
 
-            GrhData[] grhData = AssetRegistry.grhData;
-            if (grhData == null || grhData.length == 0) {
+            GrhTable grhData = AssetRegistry.grhData;
+            if (grhData == null || grhData.length() == 0) {
                 Logger.warn("No hay datos de graficos cargados.");
                 generating = false;
                 return;
@@ -59,7 +60,7 @@ public class MinimapColorGenerator {
                 ByteBuffer buffer = ByteBuffer.allocate(4);
                 buffer.order(ByteOrder.LITTLE_ENDIAN);
 
-                int total = grhData.length;
+                int total = grhData.length();
                 int processed = 0;
 
                 // En VB6 Seek #1, 1 empieza en el byte 1.
@@ -67,8 +68,8 @@ public class MinimapColorGenerator {
                 for (int i = 1; i < total; i++) {
                     int color = 0; // Negro por defecto
 
-                    if (grhData[i] != null) {
-                        color = calculateAverageColor(grhData[i], i);
+                    if (grhData.get(i) != null) {
+                        color = calculateAverageColor(grhData.get(i), i);
                     }
 
                     // Actualizar mapa en memoria para verlo al instante
@@ -95,7 +96,7 @@ public class MinimapColorGenerator {
                         // Manual pack to match GameData change and ensure correct ImGui Format (ABGR)
                         // Pack: (A << 24) | (B << 16) | (G << 8) | R
                         int packed = (0xFF << 24) | (b << 16) | (g << 8) | r;
-                        AssetRegistry.minimapColors.put(i, packed);
+                        AssetRegistry.putMinimapColor(i, packed);
                     }
 
                     buffer.clear();
@@ -132,14 +133,14 @@ public class MinimapColorGenerator {
         // Si es animación, tomamos el primer frame (Simplificado)
         if (grh.getNumFrames() > 1) {
             int firstFrameIndex = grh.getFrame(1);
-            if (firstFrameIndex > 0 && firstFrameIndex < AssetRegistry.grhData.length
-                    && AssetRegistry.grhData[firstFrameIndex] != null) {
+            if (firstFrameIndex > 0 && firstFrameIndex < AssetRegistry.grhData.length()
+                    && AssetRegistry.grhData.get(firstFrameIndex) != null) {
                 // No recursion safety needed if we just grab simple Grh
-                // return calculateAverageColor(AssetRegistry.grhData[firstFrameIndex],
+                // return calculateAverageColor(AssetRegistry.grhData.get(firstFrameIndex),
                 // firstFrameIndex);
                 // Actually original code might have been recursive but simple.
                 // Let's assume standard behavior: get first frame.
-                GrhData firstFrame = AssetRegistry.grhData[firstFrameIndex];
+                GrhData firstFrame = AssetRegistry.grhData.get(firstFrameIndex);
                 if (firstFrame != null && firstFrame.getFileNum() > 0) {
                     return calculateAverageColor(firstFrame, firstFrameIndex);
                 }
@@ -2,6 +2,7 @@ package org.argentumforge.engine.utils.editor;
 
 import org.argentumforge.engine.utils.editor.commands.ParticleChangeCommand;
 import org.argentumforge.engine.utils.editor.commands.CommandManager;
+import org.argentumforge.engine.utils.editor.commands.StrokeCommand;
 import java.util.HashMap;
 import java.util.Map;
 import org.argentumforge.engine.utils.MapContext;
@@ -40,6 +41,7 @@ public class Particle {
         if (!isActive || mapData == null)
             return;
 
+        StrokeCommand stroke = CommandManager.getInstance().getStroke();
         Map<ParticleChangeCommand.TilePos, Integer> oldStates = new HashMap<>();
         Map<ParticleChangeCommand.TilePos, Integer> newStates = new HashMap<>();
 
@@ -60,9 +62,13 @@ public class Particle {
 
                     int oldParticle = mapData[i][j].getParticleIndex();
                     if (oldParticle != selectedParticleId) {
-                        ParticleChangeCommand.TilePos pos = new ParticleChangeCommand.TilePos(i, j);
-                        oldStates.put(pos, oldParticle);
-                        newStates.put(pos, selectedParticleId);
+                        if (stroke != null) {
+                            stroke.setParticle(i, j, selectedParticleId);
+                        } else {
+                            ParticleChangeCommand.TilePos pos = new ParticleChangeCommand.TilePos(i, j);
+                            oldStates.put(pos, oldParticle);
+                            newStates.put(pos, selectedParticleId);
+                        }
                     }
                 }
             }
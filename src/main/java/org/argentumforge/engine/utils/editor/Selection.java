@@ -1,7 +1,9 @@
 package org.argentumforge.engine.utils.editor;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.inits.MapData;
 import org.argentumforge.engine.utils.editor.commands.CommandManager;
@@ -11,6 +13,11 @@ import org.argentumforge.engine.utils.editor.commands.BulkEntityMoveCommand;
 /**
  * Gestor de estado para la herramienta de selección y movimiento.
  * Soporta selección múltiple y rectangular (marquee).
+ * <p>
+ * La lista de {@link #getSelectedEntities()} mantiene un {@link SelectionIndex}
+ * al agregar o quitar elementos, así que {@link #isSelected(int, int)} y
+ * {@link #getSelectedAt(int, int)} responden en O(1). Las coordenadas de una
+ * entidad ya seleccionada deben cambiarse con {@link #moveEntity}.
  */
 public class Selection {
 
@@ -19,7 +26,9 @@ public class Selection {
     }
 
     /**
-     * Representa una entidad seleccionada individualmente.
+     * Representa una entidad seleccionada individualmente. Mientras forma parte
+     * de la selección, {@code x} e {@code y} se cambian solo a través de
+     * {@link Selection#moveEntity}.
      */
     public static class SelectedEntity {
         public EntityType type;
@@ -48,7 +57,8 @@ public class Selection {
     private int inspectedTileX = -1;
     private int inspectedTileY = -1;
 
-    private final List<SelectedEntity> selectedEntities = new ArrayList<>();
+    private final SelectionIndex index = new SelectionIndex();
+    private final List<SelectedEntity> selectedEntities = new IndexedList();
 
     private Selection() {
     }
@@ -90,6 +100,44 @@ public class Selection {
         return selectedEntities;
     }
 
+    /**
+     * @return {@code true} si hay alguna entidad seleccionada en el tile.
+     */
+    public boolean isSelected(int x, int y) {
+        return index.contains(x, y);
+    }
+
+    /**
+     * @return {@code true} si hay una entidad del tipo dado seleccionada en el tile.
+     */
+    public boolean isSelected(int x, int y, EntityType type) {
+        if (!index.contains(x, y))
+            return false;
+        for (SelectedEntity se : index.get(x, y)) {
+            if (se.type == type)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Entidades seleccionadas en el tile, en orden de selección. La lista
+     *         es de solo lectura.
+     */
+    public List<SelectedEntity> getSelectedAt(int x, int y) {
+        return index.get(x, y);
+    }
+
+    /**
+     * Cambia la posición de una entidad seleccionada manteniendo el índice.
+     */
+    public void moveEntity(SelectedEntity entity, int x, int y) {
+        index.remove(entity);
+        entity.x = x;
+        entity.y = y;
+        index.add(entity);
+    }
+
     public int getMarqueeStartX() {
         return marqueeStartX;
     }
@@ -175,11 +223,8 @@ public class Selection {
     }
 
     private SelectedEntity findSelectedAt(int x, int y) {
-        for (SelectedEntity se : selectedEntities) {
-            if (se.x == x && se.y == y)
-                return se;
-        }
-        return null;
+        List<SelectedEntity> atTile = index.get(x, y);
+        return atTile.isEmpty() ? null : atTile.get(0);
     }
 
     private SelectedEntity getAt(MapData[][] mapData, int x, int y) {
@@ -284,4 +329,52 @@ public class Selection {
 
         cancelDrag();
     }
+
+    /**
+     * Lista de la selección que refleja cada alta y baja en {@link #index}.
+     */
+    private final class IndexedList extends AbstractList<SelectedEntity> implements RandomAccess {
+
+        private final ArrayList<SelectedEntity> items = new ArrayList<>();
+
+        @Override
+        public SelectedEntity get(int i) {
+            return items.get(i);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public SelectedEntity set(int i, SelectedEntity entity) {
+            SelectedEntity previous = items.set(i, entity);
+            index.remove(previous);
+            index.add(entity);
+            return previous;
+        }
+
+        @Override
+        public void add(int i, SelectedEntity entity) {
+            items.add(i, entity);
+            index.add(entity);
+            modCount++;
+        }
+
+        @Override
+        public SelectedEntity remove(int i) {
+            SelectedEntity removed = items.remove(i);
+            index.remove(removed);
+            modCount++;
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            items.clear();
+            index.clear();
+            modCount++;
+        }
+    }
 }
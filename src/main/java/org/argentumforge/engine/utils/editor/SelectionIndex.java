@@ -0,0 +1,111 @@
+package org.argentumforge.engine.utils.editor;
+
+import org.argentumforge.engine.utils.GameData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice espacial de las entidades seleccionadas, para responder en O(1) si un
+ * tile está seleccionado sin recorrer toda la selección.
+ * <p>
+ * Un bitset empaquetado de la grilla ({@code y * ancho + x}, igual que
+ * {@link org.argentumforge.engine.utils.inits.TileStore}) marca los tiles con
+ * alguna entidad seleccionada, y un mapa de índice de tile a lista de entidades
+ * guarda cuáles son. El bitset descarta la gran mayoría de las consultas del
+ * render sin tocar el mapa.
+ * <p>
+ * {@link Selection} lo mantiene al agregar, quitar o mover entidades. La grilla
+ * arranca con el tamaño estándar de mapa y crece si aparece una entidad fuera
+ * de ella; las coordenadas negativas no se indexan.
+ */
+final class SelectionIndex {
+
+    private int width;
+    private int height;
+    private long[] bits;
+    private final Map<Integer, List<Selection.SelectedEntity>> byTile = new HashMap<>();
+
+    SelectionIndex() {
+        this(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+    }
+
+    SelectionIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.bits = new long[(width * height + 63) >>> 6];
+    }
+
+    void add(Selection.SelectedEntity entity) {
+        if (entity.x < 0 || entity.y < 0)
+            return;
+        if (entity.x >= width || entity.y >= height)
+            grow(Math.max(width, entity.x + 1), Math.max(height, entity.y + 1));
+
+        int index = entity.y * width + entity.x;
+        byTile.computeIfAbsent(index, k -> new ArrayList<>(1)).add(entity);
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    void remove(Selection.SelectedEntity entity) {
+        if (!contains(entity.x, entity.y))
+            return;
+
+        int index = entity.y * width + entity.x;
+        List<Selection.SelectedEntity> entities = byTile.get(index);
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i) == entity) {
+                entities.remove(i);
+                break;
+            }
+        }
+        if (entities.isEmpty()) {
+            byTile.remove(index);
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    void clear() {
+        if (byTile.isEmpty())
+            return;
+        Arrays.fill(bits, 0L);
+        byTile.clear();
+    }
+
+    /**
+     * @return {@code true} si hay alguna entidad seleccionada en el tile.
+     */
+    boolean contains(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return false;
+        int index = y * width + x;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return Entidades seleccionadas en el tile, en orden de selección (vacía si
+     *         no hay ninguna). No debe modificarse.
+     */
+    List<Selection.SelectedEntity> get(int x, int y) {
+        if (!contains(x, y))
+            return Collections.emptyList();
+        return byTile.get(y * width + x);
+    }
+
+    private void grow(int newWidth, int newHeight) {
+        List<Selection.SelectedEntity> all = new ArrayList<>();
+        for (List<Selection.SelectedEntity> entities : byTile.values())
+            all.addAll(entities);
+
+        width = newWidth;
+        height = newHeight;
+        bits = new long[(width * height + 63) >>> 6];
+        byTile.clear();
+        for (Selection.SelectedEntity entity : all)
+            add(entity);
+    }
+}
@@ -3,10 +3,12 @@ package org.argentumforge.engine.utils.editor;
 import org.argentumforge.engine.listeners.KeyHandler;
 import org.argentumforge.engine.utils.GameData;
 import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.TileStore;
 import org.argentumforge.engine.utils.editor.commands.BlockChangeCommand;
-import org.argentumforge.engine.utils.editor.commands.BulkTileChangeCommand;
 import org.argentumforge.engine.utils.editor.commands.CommandManager;
 import org.argentumforge.engine.utils.editor.commands.MacroCommand;
+import org.argentumforge.engine.utils.editor.commands.StrokeCommand;
+import org.argentumforge.engine.utils.editor.commands.TileFieldsCommand;
 
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -93,14 +95,14 @@ public class Surface {
         // para que estén listos cuando el usuario mueva el mouse al mapa.
         try {
             if (surfaceIndex > 0 && org.argentumforge.engine.utils.AssetRegistry.grhData != null
-                    && surfaceIndex < org.argentumforge.engine.utils.AssetRegistry.grhData.length) {
-                var data = org.argentumforge.engine.utils.AssetRegistry.grhData[surfaceIndex];
+                    && surfaceIndex < org.argentumforge.engine.utils.AssetRegistry.grhData.length()) {
+                var data = org.argentumforge.engine.utils.AssetRegistry.grhData.get(surfaceIndex);
                 if (data != null && data.getNumFrames() > 1) {
                     // Cargar todos los frames de la animación
                     for (int i = 0; i < data.getNumFrames(); i++) {
                         int frameIdx = data.getFrame(i);
-                        if (frameIdx > 0 && frameIdx < org.argentumforge.engine.utils.AssetRegistry.grhData.length) {
-                            var frameData = org.argentumforge.engine.utils.AssetRegistry.grhData[frameIdx];
+                        if (frameIdx > 0 && frameIdx < org.argentumforge.engine.utils.AssetRegistry.grhData.length()) {
+                            var frameData = org.argentumforge.engine.utils.AssetRegistry.grhData.get(frameIdx);
                             if (frameData != null && frameData.getFileNum() > 0) {
                                 // Llamar a getTexture dispara la carga asíncrona si no existe
                                 org.argentumforge.engine.renderer.Surface.INSTANCE.getTexture(frameData.getFileNum());
@@ -186,27 +188,6 @@ public class Surface {
         this.mosaicHeight = Math.max(1, mosaicHeight);
     }
 
-    private boolean isBatching = false;
-    private MacroCommand batchCommand;
-
-    public void startBatch() {
-        if (!isBatching) {
-            isBatching = true;
-            batchCommand = new MacroCommand();
-        }
-    }
-
-    public void endBatch() {
-        if (isBatching) {
-            isBatching = false;
-            if (batchCommand != null && !batchCommand.getCommands().isEmpty()) {
-                CommandManager.getInstance()
-                        .executeCommand(batchCommand);
-            }
-            batchCommand = null;
-        }
-    }
-
     public void surface_edit(MapContext context, int x, int y) {
         if (context == null)
             return;
@@ -258,14 +239,7 @@ public class Surface {
             int currY = pos[1];
 
             // Añadir a selección (Tile)
-            boolean alreadySelected = false;
-            for (Selection.SelectedEntity se : selection.getSelectedEntities()) {
-                if (se.x == currX && se.y == currY && se.type == Selection.EntityType.TILE) {
-                    alreadySelected = true;
-                    break;
-                }
-            }
-            if (!alreadySelected) {
+            if (!selection.isSelected(currX, currY, Selection.EntityType.TILE)) {
                 selection.getSelectedEntities()
                         .add(new Selection.SelectedEntity(Selection.EntityType.TILE, 0, currX, currY));
             }
@@ -311,8 +285,11 @@ public class Surface {
 
         var mapData = context.getMapData();
 
-        Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-        Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
+        // Durante un trazo los cambios se escriben directo; si no, se arma un comando
+        StrokeCommand stroke = CommandManager.getInstance().getStroke();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
         Map<BlockChangeCommand.TilePos, Boolean> oldBlocks = new HashMap<>();
         Map<BlockChangeCommand.TilePos, Boolean> newBlocks = new HashMap<>();
 
@@ -333,27 +310,21 @@ public class Surface {
                         }
                         int currentGrh = mapData[mapX][mapY].getLayer(layer).getGrhIndex();
                         if (currentGrh != targetGrhWithMosaic) {
-                            oldTiles.put(
-                                    new BulkTileChangeCommand.TilePos(
-                                            mapX, mapY),
-                                    currentGrh);
-                            newTiles.put(
-                                    new BulkTileChangeCommand.TilePos(
-                                            mapX, mapY),
-                                    targetGrhWithMosaic);
+                            if (stroke != null)
+                                stroke.setGrh(layer, mapX, mapY, targetGrhWithMosaic);
+                            else
+                                delta.add(field, tiles.index(mapX, mapY), currentGrh, targetGrhWithMosaic);
                         }
 
                         if (autoBlock && mode == 1) {
                             boolean currentBlock = mapData[mapX][mapY].getBlocked();
                             if (!currentBlock) {
-                                oldBlocks.put(
-                                        new BlockChangeCommand.TilePos(
-                                                mapX, mapY),
-                                        false);
-                                newBlocks.put(
-                                        new BlockChangeCommand.TilePos(
-                                                mapX, mapY),
-                                        true);
+                                if (stroke != null) {
+                                    stroke.setBlocked(mapX, mapY, true);
+                                } else {
+                                    oldBlocks.put(new BlockChangeCommand.TilePos(mapX, mapY), false);
+                                    newBlocks.put(new BlockChangeCommand.TilePos(mapX, mapY), true);
+                                }
                             }
                         }
                     }
@@ -388,23 +359,21 @@ public class Surface {
 
                         int currentGrh = mapData[i][j].getLayer(layer).getGrhIndex();
                         if (currentGrh != targetGrhWithMosaic) {
-                            BulkTileChangeCommand.TilePos pos = new BulkTileChangeCommand.TilePos(
-                                    i, j);
-                            oldTiles.put(pos, currentGrh);
-                            newTiles.put(pos, targetGrhWithMosaic);
+                            if (stroke != null)
+                                stroke.setGrh(layer, i, j, targetGrhWithMosaic);
+                            else
+                                delta.add(field, tiles.index(i, j), currentGrh, targetGrhWithMosaic);
                         }
 
                         if (autoBlock && mode == 1) {
                             boolean currentBlock = mapData[i][j].getBlocked();
                             if (!currentBlock) {
-                                oldBlocks.put(
-                                        new BlockChangeCommand.TilePos(i,
-                                                j),
-                                        false);
-                                newBlocks.put(
-                                        new BlockChangeCommand.TilePos(i,
-                                                j),
-                                        true);
+                                if (stroke != null) {
+                                    stroke.setBlocked(i, j, true);
+                                } else {
+                                    oldBlocks.put(new BlockChangeCommand.TilePos(i, j), false);
+                                    newBlocks.put(new BlockChangeCommand.TilePos(i, j), true);
+                                }
                             }
                         }
                     }
@@ -412,12 +381,10 @@ public class Surface {
             }
         }
 
-        if (!oldTiles.isEmpty() || !oldBlocks.isEmpty()) {
+        if (!delta.isEmpty() || !oldBlocks.isEmpty()) {
             MacroCommand macro = new MacroCommand();
-            if (!oldTiles.isEmpty()) {
-                macro.addCommand(new BulkTileChangeCommand(
-                        context, layer,
-                        oldTiles, newTiles));
+            if (!delta.isEmpty()) {
+                macro.addCommand(new TileFieldsCommand(context, "history.command.bulk_tile", delta));
             }
             if (!oldBlocks.isEmpty()) {
                 macro.addCommand(
@@ -425,19 +392,7 @@ public class Surface {
                                 context, oldBlocks, newBlocks));
             }
 
-            if (isBatching && batchCommand != null) {
-                // Durante batch, añadimos al macro acumulador
-                // Optimización opcional: Si el macro acumulador ya tiene un comando del mismo
-                // tipo, podríamos fusionarlos
-                // Pero por ahora, simplemente añadimos sub-comandos al macro principal.
-                batchCommand.addCommand(macro);
-
-                // Ejecutamos visualmente (sin historial todavía) para que el usuario vea
-                // cambios
-                macro.execute();
-            } else {
-                org.argentumforge.engine.utils.editor.commands.CommandManager.getInstance().executeCommand(macro);
-            }
+            CommandManager.getInstance().executeCommand(macro);
         }
     }
 
@@ -453,8 +408,10 @@ public class Surface {
         if (startGrh == targetGrh && !autoBlock && (mosaicWidth <= 1 && mosaicHeight <= 1))
             return;
 
-        Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-        Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
+        StrokeCommand stroke = CommandManager.getInstance().getStroke();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
         Map<BlockChangeCommand.TilePos, Boolean> oldBlocks = new HashMap<>();
         Map<BlockChangeCommand.TilePos, Boolean> newBlocks = new HashMap<>();
 
@@ -476,20 +433,20 @@ public class Surface {
                 targetGrhWithMosaic = (surfaceIndex + (offsetY * mosaicWidth) + offsetX);
             }
 
-            oldTiles.put(new BulkTileChangeCommand.TilePos(currX, currY),
-                    startGrh);
-            newTiles.put(new BulkTileChangeCommand.TilePos(currX, currY),
-                    targetGrhWithMosaic);
+            if (stroke != null)
+                stroke.setGrh(layer, currX, currY, targetGrhWithMosaic);
+            else
+                delta.add(field, tiles.index(currX, currY), startGrh, targetGrhWithMosaic);
 
             if (autoBlock && mode == 1) {
                 boolean currentBlock = mapData[currX][currY].getBlocked();
                 if (!currentBlock) {
-                    oldBlocks.put(
-                            new BlockChangeCommand.TilePos(currX, currY),
-                            false);
-                    newBlocks.put(
-                            new BlockChangeCommand.TilePos(currX, currY),
-                            true);
+                    if (stroke != null) {
+                        stroke.setBlocked(currX, currY, true);
+                    } else {
+                        oldBlocks.put(new BlockChangeCommand.TilePos(currX, currY), false);
+                        newBlocks.put(new BlockChangeCommand.TilePos(currX, currY), true);
+                    }
                 }
             }
 
@@ -508,12 +465,10 @@ public class Surface {
             }
         }
 
-        if (!oldTiles.isEmpty() || !oldBlocks.isEmpty()) {
+        if (!delta.isEmpty() || !oldBlocks.isEmpty()) {
             MacroCommand macro = new MacroCommand();
-            if (!oldTiles.isEmpty()) {
-                macro.addCommand(new BulkTileChangeCommand(
-                        context, layer,
-                        oldTiles, newTiles));
+            if (!delta.isEmpty()) {
+                macro.addCommand(new TileFieldsCommand(context, "history.command.bulk_tile", delta));
             }
             if (!oldBlocks.isEmpty()) {
                 macro.addCommand(
@@ -521,14 +476,7 @@ public class Surface {
                                 context, oldBlocks, newBlocks));
             }
 
-            // Bucket usually is a single action, but technically can be part of a batch if
-            // user clicks rapidly
-            if (isBatching && batchCommand != null) {
-                batchCommand.addCommand(macro);
-                macro.execute();
-            } else {
-                CommandManager.getInstance().executeCommand(macro);
-            }
+            CommandManager.getInstance().executeCommand(macro);
         }
     }
 
@@ -539,8 +487,9 @@ public class Surface {
         if (mapData == null)
             return;
 
-        Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-        Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
 
         // If we are filling with the "erase" graphic (0), acts like clear
         // But if mode is 1 (insert) use surfaceIndex.
@@ -553,17 +502,13 @@ public class Surface {
             for (int y = 0; y < mapData[0].length; y++) {
                 int currentGrh = mapData[x][y].getLayer(layer).getGrhIndex();
                 if (currentGrh != targetGrh) {
-                    BulkTileChangeCommand.TilePos pos = new BulkTileChangeCommand.TilePos(
-                            x, y);
-                    oldTiles.put(pos, currentGrh);
-                    newTiles.put(pos, targetGrh);
+                    delta.add(field, tiles.index(x, y), currentGrh, targetGrh);
                 }
             }
         }
 
-        if (!oldTiles.isEmpty()) {
-            BulkTileChangeCommand command = new BulkTileChangeCommand(
-                    context, layer, oldTiles, newTiles);
+        if (!delta.isEmpty()) {
+            TileFieldsCommand command = new TileFieldsCommand(context, "history.command.bulk_tile", delta);
             CommandManager.getInstance().executeCommand(command);
         }
     }
@@ -575,8 +520,9 @@ public class Surface {
         if (mapData == null)
             return;
 
-        Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-        Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
 
         int targetGrh = 0; // Clear implies 0
 
@@ -584,17 +530,13 @@ public class Surface {
             for (int y = 0; y < mapData[0].length; y++) {
                 int currentGrh = mapData[x][y].getLayer(layer).getGrhIndex();
                 if (currentGrh != targetGrh) {
-                    BulkTileChangeCommand.TilePos pos = new BulkTileChangeCommand.TilePos(
-                            x, y);
-                    oldTiles.put(pos, currentGrh);
-                    newTiles.put(pos, targetGrh);
+                    delta.add(field, tiles.index(x, y), currentGrh, targetGrh);
                 }
             }
         }
 
-        if (!oldTiles.isEmpty()) {
-            BulkTileChangeCommand command = new BulkTileChangeCommand(
-                    context, layer, oldTiles, newTiles);
+        if (!delta.isEmpty()) {
+            TileFieldsCommand command = new TileFieldsCommand(context, "history.command.bulk_tile", delta);
             CommandManager.getInstance().executeCommand(command);
         }
     }
@@ -615,8 +557,9 @@ public class Surface {
         if (mapData == null)
             return;
 
-        Map<BulkTileChangeCommand.TilePos, Integer> oldTiles = new HashMap<>();
-        Map<BulkTileChangeCommand.TilePos, Integer> newTiles = new HashMap<>();
+        TileStore tiles = context.getTiles();
+        int field = TileFieldsCommand.layerField(layer);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
 
         // If filtering (fill=true), use selected surface, else use 0 (empty)
         int targetGrh = fill ? surfaceIndex : 0;
@@ -645,19 +588,15 @@ public class Surface {
                     if (!bordersOnly || isBorder) {
                         int currentGrh = mapData[x][y].getLayer(layer).getGrhIndex();
                         if (currentGrh != targetGrh) {
-                            BulkTileChangeCommand.TilePos pos = new BulkTileChangeCommand.TilePos(
-                                    x, y);
-                            oldTiles.put(pos, currentGrh);
-                            newTiles.put(pos, targetGrh);
+                            delta.add(field, tiles.index(x, y), currentGrh, targetGrh);
                         }
                     }
                 }
             }
         }
 
-        if (!oldTiles.isEmpty()) {
-            BulkTileChangeCommand command = new BulkTileChangeCommand(
-                    context, layer, oldTiles, newTiles);
+        if (!delta.isEmpty()) {
+            TileFieldsCommand command = new TileFieldsCommand(context, "history.command.bulk_tile", delta);
             CommandManager.getInstance().executeCommand(command);
         }
     }
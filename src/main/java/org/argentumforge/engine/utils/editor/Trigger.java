@@ -2,6 +2,7 @@ package org.argentumforge.engine.utils.editor;
 
 import org.argentumforge.engine.utils.MapContext;
 import org.argentumforge.engine.utils.editor.commands.CommandManager;
+import org.argentumforge.engine.utils.editor.commands.StrokeCommand;
 import org.argentumforge.engine.utils.editor.commands.TriggerChangeCommand;
 import java.util.Map;
 import java.util.HashMap;
@@ -40,6 +41,7 @@ public class Trigger {
         if (!isActive || mapData == null)
             return;
 
+        StrokeCommand stroke = CommandManager.getInstance().getStroke();
         Map<TriggerChangeCommand.TilePos, Integer> oldStates = new HashMap<>();
         Map<TriggerChangeCommand.TilePos, Integer> newStates = new HashMap<>();
 
@@ -61,10 +63,14 @@ public class Trigger {
                     // Aplicar trigger mediante comando (soporta undo/redo y dirty flag)
                     int oldTrigger = mapData[i][j].getTrigger();
                     if (oldTrigger != selectedTriggerId) {
-                        TriggerChangeCommand.TilePos pos = new TriggerChangeCommand.TilePos(
-                                i, j);
-                        oldStates.put(pos, oldTrigger);
-                        newStates.put(pos, selectedTriggerId);
+                        if (stroke != null) {
+                            stroke.setTrigger(i, j, selectedTriggerId);
+                        } else {
+                            TriggerChangeCommand.TilePos pos = new TriggerChangeCommand.TilePos(
+                                    i, j);
+                            oldStates.put(pos, oldTrigger);
+                            newStates.put(pos, selectedTriggerId);
+                        }
                     }
                 }
             }
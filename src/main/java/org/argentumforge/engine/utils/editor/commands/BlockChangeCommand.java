@@ -63,4 +63,10 @@ public class BlockChangeCommand extends AbstractCommand {
         }
         return new int[] { minX, minY, maxX, maxY };
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        return CommandHistory.COMMAND_BYTES
+                + CommandHistory.MAP_ENTRY_BYTES * (oldStates.size() + newStates.size());
+    }
 }
@@ -63,17 +63,16 @@ public class BulkEntityMoveCommand extends AbstractCommand {
     }
 
     private void updateSelectionState(boolean forward) {
-        List<Selection.SelectedEntity> sel = Selection.getInstance().getSelectedEntities();
+        Selection selection = Selection.getInstance();
         for (MoveData m : moves) {
             int oldX = forward ? m.srcX : m.destX;
             int newX = forward ? m.destX : m.srcX;
             int oldY = forward ? m.srcY : m.destY;
             int newY = forward ? m.destY : m.srcY;
 
-            for (Selection.SelectedEntity se : sel) {
-                if (se.x == oldX && se.y == oldY && se.type == m.type && se.id == m.id) {
-                    se.x = newX;
-                    se.y = newY;
+            for (Selection.SelectedEntity se : selection.getSelectedAt(oldX, oldY)) {
+                if (se.type == m.type && se.id == m.id) {
+                    selection.moveEntity(se, newX, newY);
                     break;
                 }
             }
@@ -97,4 +96,12 @@ public class BulkEntityMoveCommand extends AbstractCommand {
         }
         return new int[] { minX, minY, maxX, maxY };
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        long bytes = CommandHistory.COMMAND_BYTES + 48L * moves.size();
+        for (MoveEntityCommand command : subCommands)
+            bytes += 8 + command.getEstimatedBytes();
+        return bytes;
+    }
 }
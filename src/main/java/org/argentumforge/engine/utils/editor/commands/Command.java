@@ -30,4 +30,15 @@ public interface Command {
     default int[] getAffectedBounds() {
         return null;
     }
+
+    /**
+     * Estima la memoria que retiene el comando mientras está en el historial.
+     * Los comandos que guardan muchos tiles deben sobrescribirlo para que
+     * {@link CommandHistory} pueda acotar el historial por bytes.
+     *
+     * @return Tamaño aproximado en bytes.
+     */
+    default long getEstimatedBytes() {
+        return CommandHistory.COMMAND_BYTES;
+    }
 }
@@ -0,0 +1,167 @@
+package org.argentumforge.engine.utils.editor.commands;
+
+import java.util.Arrays;
+
+/**
+ * Pila de comandos del historial (deshacer o rehacer) acotada por memoria.
+ * <p>
+ * Es un buffer circular: apilar y desapilar por el tope, y descartar los
+ * comandos más viejos por el fondo, cuestan O(1) sin desplazar elementos. En
+ * lugar de limitar la cantidad de pasos se limita la suma de
+ * {@link Command#getEstimatedBytes()}: cuando se supera el presupuesto se
+ * descartan los comandos más antiguos, pero siempre se conserva el último
+ * apilado aunque por sí solo lo exceda.
+ * <p>
+ * El tamaño de cada comando se toma al apilarlo, así que los comandos no deben
+ * crecer una vez entregados al historial.
+ */
+public final class CommandHistory {
+
+    /** Presupuesto por defecto del historial de deshacer de cada mapa. */
+    public static final long DEFAULT_BUDGET = 128L * 1024 * 1024;
+
+    /** Costo aproximado de un comando sin datos propios (objeto y referencias). */
+    public static final long COMMAND_BYTES = 64;
+
+    /**
+     * Costo aproximado de una entrada de {@code HashMap} con clave y valor en caja,
+     * para los comandos que aún guardan sus cambios en mapas.
+     */
+    public static final long MAP_ENTRY_BYTES = 80;
+
+    private Command[] items = new Command[16];
+    private long[] sizes = new long[16];
+    /** Posición del comando más antiguo. */
+    private int head;
+    private int count;
+    private long bytes;
+    private long budget;
+    /** Total de comandos descartados por el fondo desde la creación. */
+    private long evicted;
+
+    public CommandHistory() {
+        this(Long.MAX_VALUE);
+    }
+
+    public CommandHistory(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Apila un comando y descarta los más antiguos si se superó el presupuesto.
+     *
+     * @return Cantidad de comandos descartados por el fondo.
+     */
+    public int push(Command command) {
+        if (count == items.length)
+            grow();
+        int slot = (head + count) % items.length;
+        long size = Math.max(1, command.getEstimatedBytes());
+        items[slot] = command;
+        sizes[slot] = size;
+        count++;
+        bytes += size;
+        return trim();
+    }
+
+    /**
+     * @return El comando del tope, o {@code null} si está vacía.
+     */
+    public Command pop() {
+        if (count == 0)
+            return null;
+        int slot = (head + count - 1) % items.length;
+        Command command = items[slot];
+        bytes -= sizes[slot];
+        items[slot] = null;
+        count--;
+        return command;
+    }
+
+    /**
+     * @return El comando del tope sin quitarlo, o {@code null} si está vacía.
+     */
+    public Command peek() {
+        return count == 0 ? null : items[(head + count - 1) % items.length];
+    }
+
+    /**
+     * @param i Posición desde el fondo: 0 es el comando más antiguo y
+     *          {@code size() - 1} el del tope.
+     */
+    public Command get(int i) {
+        if (i < 0 || i >= count)
+            throw new IndexOutOfBoundsException("Índice " + i + " fuera de rango (" + count + ")");
+        return items[(head + i) % items.length];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(items, null);
+        head = 0;
+        count = 0;
+        bytes = 0;
+    }
+
+    /**
+     * @return Memoria estimada que retienen los comandos apilados.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Total de comandos descartados por falta de presupuesto desde que se
+     *         creó la pila. Permite ajustar posiciones guardadas de antemano.
+     */
+    public long getEvictedCount() {
+        return evicted;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Cambia el presupuesto, descartando comandos antiguos si hace falta.
+     *
+     * @return Cantidad de comandos descartados por el fondo.
+     */
+    public int setBudget(long budget) {
+        this.budget = budget;
+        return trim();
+    }
+
+    private int trim() {
+        int removed = 0;
+        while (bytes > budget && count > 1) {
+            bytes -= sizes[head];
+            items[head] = null;
+            head = (head + 1) % items.length;
+            count--;
+            removed++;
+        }
+        evicted += removed;
+        return removed;
+    }
+
+    private void grow() {
+        Command[] grownItems = new Command[items.length * 2];
+        long[] grownSizes = new long[items.length * 2];
+        for (int i = 0; i < count; i++) {
+            int slot = (head + i) % items.length;
+            grownItems[i] = items[slot];
+            grownSizes[i] = sizes[slot];
+        }
+        items = grownItems;
+        sizes = grownSizes;
+        head = 0;
+    }
+}
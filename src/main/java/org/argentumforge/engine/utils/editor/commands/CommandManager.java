@@ -1,17 +1,18 @@
 package org.argentumforge.engine.utils.editor.commands;
 
-import java.util.Stack;
 import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.editor.EditJournal;
 
 /**
  * Gestor de comandos que implementa la lógica de Deshacer/Rehacer.
- * Mantiene dos pilas para rastrear el historial de acciones del usuario.
+ * Mantiene dos pilas para rastrear el historial de acciones del usuario; la de
+ * deshacer está acotada por memoria (ver {@link CommandHistory}).
  */
 public class CommandManager {
 
     private static CommandManager instance;
-    private static final int MAX_STACK_SIZE = 50;
     private Command hoveredCommand = null;
+    private StrokeCommand stroke;
 
     private CommandManager() {
     }
@@ -30,15 +31,22 @@ public class CommandManager {
      * @param command El comando a ejecutar.
      */
     public void executeCommand(Command command) {
-        command.execute();
+        // Lo que escribe los mismos campos que el trazo abierto va en un paso aparte
+        if (stroke != null && !StrokeCommand.canNest(command))
+            endStroke();
+
         MapContext context = org.argentumforge.engine.utils.GameData.getActiveContext();
+        EditJournal journal = context != null ? context.getJournal() : null;
+        command.execute();
         if (context != null) {
-            Stack<Command> undoStack = context.getUndoStack();
-            undoStack.push(command);
-            context.getRedoStack().clear();
-
-            if (undoStack.size() > MAX_STACK_SIZE) {
-                undoStack.remove(0);
+            journal.record(command.getAffectedBounds());
+            StrokeCommand open = getStroke();
+            if (open != null) {
+                // Durante un trazo, el comando pasa a formar parte del mismo paso
+                open.addNested(command);
+            } else {
+                context.getRedoStack().clear();
+                pushUndo(context, command);
             }
         }
 
@@ -46,16 +54,60 @@ public class CommandManager {
         org.argentumforge.engine.utils.MapManager.markAsModified();
     }
 
+    /**
+     * Abre un trazo sobre el mapa activo: hasta {@link #endStroke()}, las
+     * herramientas de pincel escriben a través de {@link #getStroke()} y todo
+     * queda como un único paso del historial.
+     */
+    public void beginStroke() {
+        endStroke();
+        MapContext context = org.argentumforge.engine.utils.GameData.getActiveContext();
+        if (context != null && context.getTiles() != null)
+            stroke = new StrokeCommand(context);
+    }
+
+    /**
+     * @return El trazo abierto sobre el mapa activo, o {@code null} si no hay
+     *         ninguno.
+     */
+    public StrokeCommand getStroke() {
+        if (stroke != null && stroke.getContext() == org.argentumforge.engine.utils.GameData.getActiveContext())
+            return stroke;
+        return null;
+    }
+
+    /**
+     * Cierra el trazo abierto y lo apila en el historial si cambió algo. No hace
+     * nada si no hay un trazo abierto.
+     */
+    public void endStroke() {
+        StrokeCommand closing = stroke;
+        if (closing == null)
+            return;
+        stroke = null;
+        if (!closing.commit())
+            return;
+
+        MapContext context = closing.getContext();
+        context.getJournal().record(closing.getAffectedBounds());
+        context.getRedoStack().clear();
+        pushUndo(context, closing);
+        context.setModified(true);
+        org.argentumforge.engine.utils.GameData.updateWindowTitle();
+    }
+
     /**
      * Deshace la última acción realizada.
      */
     public void undo() {
+        endStroke();
         MapContext context = org.argentumforge.engine.utils.GameData.getActiveContext();
         if (context != null) {
-            Stack<Command> undoStack = context.getUndoStack();
+            CommandHistory undoStack = context.getUndoStack();
             if (!undoStack.isEmpty()) {
                 Command command = undoStack.pop();
                 command.undo();
+                context.getJournal().record(command.getAffectedBounds());
                 context.getRedoStack().push(command);
 
                 // Marcar el mapa como modificado
@@ -68,13 +120,15 @@ public class CommandManager {
      * Rehace la última acción deshecha.
      */
     public void redo() {
+        endStroke();
         MapContext context = org.argentumforge.engine.utils.GameData.getActiveContext();
         if (context != null) {
-            Stack<Command> redoStack = context.getRedoStack();
+            CommandHistory redoStack = context.getRedoStack();
             if (!redoStack.isEmpty()) {
                 Command command = redoStack.pop();
                 command.execute();
-                context.getUndoStack().push(command);
+                context.getJournal().record(command.getAffectedBounds());
+                pushUndo(context, command);
 
                 // Marcar el mapa como modificado
                 org.argentumforge.engine.utils.MapManager.markAsModified();
@@ -82,6 +136,13 @@ public class CommandManager {
         }
     }
 
+    private void pushUndo(MapContext context, Command command) {
+        // Los comandos descartados por el fondo desplazan el punto guardado
+        int evicted = context.getUndoStack().push(command);
+        if (evicted > 0)
+            context.setSavedUndoStackSize(context.getSavedUndoStackSize() - evicted);
+    }
+
     public boolean canUndo() {
         MapContext context = org.argentumforge.engine.utils.GameData.getActiveContext();
         return context != null && !context.getUndoStack().isEmpty();
@@ -97,6 +158,7 @@ public class CommandManager {
      * Útil al cargar un mapa nuevo.
      */
     public void clearHistory() {
+        endStroke();
         MapContext context = org.argentumforge.engine.utils.GameData.getActiveContext();
         if (context != null) {
             context.getUndoStack().clear();
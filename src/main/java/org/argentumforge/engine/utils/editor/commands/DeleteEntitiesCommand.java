@@ -53,4 +53,12 @@ public class DeleteEntitiesCommand extends AbstractCommand {
             commands.get(i).undo();
         }
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        long bytes = CommandHistory.COMMAND_BYTES;
+        for (Command command : commands)
+            bytes += 8 + command.getEstimatedBytes();
+        return bytes;
+    }
 }
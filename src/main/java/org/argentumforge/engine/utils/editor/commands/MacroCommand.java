@@ -67,4 +67,12 @@ public class MacroCommand implements Command {
             return null;
         return new int[] { minX, minY, maxX, maxY };
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        long bytes = CommandHistory.COMMAND_BYTES;
+        for (Command command : commands)
+            bytes += 8 + command.getEstimatedBytes();
+        return bytes;
+    }
 }
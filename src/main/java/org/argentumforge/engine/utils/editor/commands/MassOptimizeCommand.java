@@ -130,4 +130,11 @@ public class MassOptimizeCommand extends AbstractCommand {
             org.argentumforge.engine.utils.GameData.initGrh(data.getObjGrh(), this.objGrhIndex, true);
         }
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        // Cada entrada retiene además un TileState con su arreglo de capas
+        return CommandHistory.COMMAND_BYTES
+                + (CommandHistory.MAP_ENTRY_BYTES + 96) * (beforeStates.size() + afterStates.size());
+    }
 }
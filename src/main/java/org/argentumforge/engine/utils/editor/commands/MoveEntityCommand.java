@@ -57,16 +57,12 @@ public class MoveEntityCommand extends AbstractCommand {
             mapData[x2][y2].setNpcIndex(id);
             if (id > 0 && AssetRegistry.npcs.containsKey(id)) {
                 NpcData data = AssetRegistry.npcs.get(id);
-                var charList = context.getCharList();
-                for (int i = 1; i < charList.length; i++) {
-                    if (!charList[i].isActive()) {
-                        // TODO: Character.makeChar likely still uses static GameData or needs
-                        // refactoring.
-                        // For now we assume it works or we should refactor it later.
-                        Character.makeChar(i, data.getBody(), data.getHead(), Direction.DOWN, x2, y2, 0, 0, 0);
-                        break;
-                    }
-                }
+                int charIndex = context.getCharList().nextOpen();
+                // TODO: Character.makeChar likely still uses static GameData or needs
+                // refactoring.
+                // For now we assume it works or we should refactor it later.
+                if (charIndex > 0)
+                    Character.makeChar(charIndex, data.getBody(), data.getHead(), Direction.DOWN, x2, y2, 0, 0, 0);
             }
         } else if (type == Selection.EntityType.OBJECT) {
             // Obtener datos del origen
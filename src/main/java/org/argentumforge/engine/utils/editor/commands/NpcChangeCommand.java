@@ -55,12 +55,9 @@ public class NpcChangeCommand extends AbstractCommand {
         // Create nueva visual si corresponde
         if (npcIndex > 0 && AssetRegistry.npcs.containsKey(npcIndex)) {
             NpcData data = AssetRegistry.npcs.get(npcIndex);
-            for (short i = 1; i < charList.length; i++) {
-                if (!charList[i].isActive()) {
-                    Character.makeChar(i, data.getBody(), data.getHead(), Direction.DOWN, x, y, 0, 0, 0);
-                    break;
-                }
-            }
+            int charIndex = charList.nextOpen();
+            if (charIndex > 0)
+                Character.makeChar(charIndex, data.getBody(), data.getHead(), Direction.DOWN, x, y, 0, 0, 0);
         }
     }
 
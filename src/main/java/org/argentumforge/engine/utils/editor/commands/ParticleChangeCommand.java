@@ -41,4 +41,10 @@ public class ParticleChangeCommand extends AbstractCommand {
             mapData[entry.getKey().x][entry.getKey().y].setParticleIndex(entry.getValue());
         }
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        return CommandHistory.COMMAND_BYTES
+                + CommandHistory.MAP_ENTRY_BYTES * (oldStates.size() + newStates.size());
+    }
 }
@@ -153,4 +153,12 @@ public class PasteEntitiesCommand extends AbstractCommand {
             commands.get(i).undo();
         }
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        long bytes = CommandHistory.COMMAND_BYTES;
+        for (Command command : commands)
+            bytes += 8 + command.getEstimatedBytes();
+        return bytes;
+    }
 }
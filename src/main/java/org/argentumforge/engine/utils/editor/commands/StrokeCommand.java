@@ -0,0 +1,186 @@
+package org.argentumforge.engine.utils.editor.commands;
+
+import org.argentumforge.engine.utils.MapContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Trazo de pincel completo (desde que se aprieta el botón hasta que se suelta)
+ * registrado como un único paso del historial.
+ * <p>
+ * Mientras el trazo está abierto las herramientas escriben a través de
+ * {@link #setGrh}, {@link #setBlocked}, {@link #setTrigger} y
+ * {@link #setParticle}: el cambio se aplica de inmediato y solo la primera
+ * escritura de cada tile y campo guarda el valor anterior en un arreglo
+ * primitivo. Al cerrarse ({@link #commit()}) se compacta en tripletas
+ * {clave, valor anterior, valor final}, descartando los tiles que terminaron
+ * igual que al principio; la última escritura de cada tile es la que queda.
+ * <p>
+ * Los comandos que se ejecutan durante el trazo por otras vías (NPCs,
+ * objetos, traslados) se anidan y se deshacen antes que los tiles. Los que
+ * escriben los campos que registra el trazo no pueden anidarse ({@link #canNest}):
+ * al rehacer pisarían las escrituras posteriores del pincel, así que
+ * {@link CommandManager} cierra el trazo antes de ejecutarlos.
+ */
+public class StrokeCommand extends TileFieldsCommand {
+
+    private static final int FIELD_COUNT = FIELD_PARTICLE + 1;
+
+    private final int tileCount;
+
+    // Estado de grabación, se libera en commit()
+    private int[][] before = new int[FIELD_COUNT][];
+    private BitSet[] touched = new BitSet[FIELD_COUNT];
+    private int[] keys = new int[256];
+    private int keyCount;
+
+    private final List<Command> nested = new ArrayList<>();
+
+    public StrokeCommand(MapContext context) {
+        super(context, "history.command.stroke");
+        this.tileCount = tiles.size();
+    }
+
+    /**
+     * Cambia el gráfico de una capa de superficie (1-4).
+     */
+    public void setGrh(int layer, int x, int y, int grhIndex) {
+        set(layerField(layer), tiles.index(x, y), grhIndex);
+    }
+
+    public void setBlocked(int x, int y, boolean blocked) {
+        set(FIELD_BLOCKED, tiles.index(x, y), blocked ? 1 : 0);
+    }
+
+    public void setTrigger(int x, int y, int trigger) {
+        set(FIELD_TRIGGER, tiles.index(x, y), trigger);
+    }
+
+    public void setParticle(int x, int y, int particleIndex) {
+        set(FIELD_PARTICLE, tiles.index(x, y), particleIndex);
+    }
+
+    /**
+     * @return {@code false} si {@code command} escribe capas, bloqueos, triggers o
+     *         partículas (directamente o dentro de un {@link MacroCommand}).
+     */
+    static boolean canNest(Command command) {
+        if (command instanceof MacroCommand) {
+            for (Command child : ((MacroCommand) command).getCommands()) {
+                if (!canNest(child))
+                    return false;
+            }
+            return true;
+        }
+        return !(command instanceof TileFieldsCommand || command instanceof TileChangeCommand
+                || command instanceof SurfaceChangeCommand || command instanceof BlockChangeCommand
+                || command instanceof TriggerChangeCommand || command instanceof ParticleChangeCommand
+                || command instanceof MassOptimizeCommand);
+    }
+
+    /**
+     * Agrega un comando ya ejecutado durante el trazo.
+     */
+    void addNested(Command command) {
+        nested.add(command);
+    }
+
+    /**
+     * Cierra el trazo y compacta los cambios registrados.
+     *
+     * @return {@code true} si el trazo dejó algún cambio.
+     */
+    boolean commit() {
+        if (deltas != null)
+            return !isEmpty();
+
+        int[] packed = new int[keyCount * 3];
+        int length = 0;
+        for (int k = 0; k < keyCount; k++) {
+            int field = keys[k] / tileCount;
+            int index = keys[k] % tileCount;
+            int oldValue = before[field][index];
+            int newValue = read(field, index);
+            if (oldValue != newValue) {
+                packed[length++] = key(field, index);
+                packed[length++] = oldValue;
+                packed[length++] = newValue;
+            }
+        }
+        deltas = Arrays.copyOf(packed, length);
+        before = null;
+        touched = null;
+        keys = null;
+        return !isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return (deltas == null ? keyCount == 0 : deltas.length == 0) && nested.isEmpty();
+    }
+
+    @Override
+    public void execute() {
+        super.execute();
+        for (Command command : nested)
+            command.execute();
+    }
+
+    @Override
+    public void undo() {
+        for (int i = nested.size() - 1; i >= 0; i--)
+            nested.get(i).undo();
+        super.undo();
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        long bytes = CommandHistory.COMMAND_BYTES + 16 + 4L * (deltas == null ? keyCount * 3 : deltas.length);
+        for (Command command : nested)
+            bytes += 8 + command.getEstimatedBytes();
+        return bytes;
+    }
+
+    @Override
+    public int[] getAffectedBounds() {
+        int[] bounds = deltas == null ? null : super.getAffectedBounds();
+        for (Command command : nested) {
+            int[] other = command.getAffectedBounds();
+            if (other == null)
+                continue;
+            if (bounds == null) {
+                bounds = other.clone();
+            } else {
+                bounds[0] = Math.min(bounds[0], other[0]);
+                bounds[1] = Math.min(bounds[1], other[1]);
+                bounds[2] = Math.max(bounds[2], other[2]);
+                bounds[3] = Math.max(bounds[3], other[3]);
+            }
+        }
+        return bounds;
+    }
+
+    private void set(int field, int index, int value) {
+        if (deltas != null)
+            throw new IllegalStateException("El trazo ya fue cerrado");
+
+        if (before[field] == null) {
+            before[field] = new int[tileCount];
+            touched[field] = new BitSet(tileCount);
+        }
+        if (!touched[field].get(index)) {
+            touched[field].set(index);
+            before[field][index] = read(field, index);
+            if (keyCount == keys.length)
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            keys[keyCount++] = field * tileCount + index;
+        }
+        write(field, index, value);
+    }
+
+    private int read(int field, int index) {
+        return read(tiles, field, index);
+    }
+}
@@ -0,0 +1,190 @@
+package org.argentumforge.engine.utils.editor.commands;
+
+import org.argentumforge.engine.i18n.I18n;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.TileStore;
+
+import java.util.Arrays;
+
+/**
+ * Cambios sobre campos primitivos de los tiles (capas 1-4, bloqueo, trigger y
+ * partícula) guardados como tripletas {clave, valor anterior, valor nuevo} en
+ * un único {@code int[]}.
+ * <p>
+ * La clave combina el campo y el índice plano del tile ({@link #key}). Rehacer
+ * aplica las tripletas en orden y deshacer en orden inverso, así que una misma
+ * clave puede aparecer más de una vez.
+ */
+public class TileFieldsCommand extends AbstractCommand {
+
+    /** Campos 0-3: capas de superficie 1-4 ({@link #layerField}). */
+    public static final int FIELD_BLOCKED = 4;
+    public static final int FIELD_TRIGGER = 5;
+    public static final int FIELD_PARTICLE = 6;
+
+    private static final int FIELD_SHIFT = 24;
+    private static final int INDEX_MASK = (1 << FIELD_SHIFT) - 1;
+
+    /**
+     * Buffer creciente de tripletas, para armar el comando (o parte de él) sin
+     * objetos por tile. No es thread-safe: cada hilo llena el suyo.
+     */
+    public static final class Buffer {
+        private int[] data = new int[3 * 64];
+        private int length;
+
+        public void add(int field, int index, int oldValue, int newValue) {
+            if (length + 3 > data.length)
+                data = Arrays.copyOf(data, data.length * 2);
+            data[length++] = key(field, index);
+            data[length++] = oldValue;
+            data[length++] = newValue;
+        }
+
+        /**
+         * Agrega al final todas las tripletas de otro buffer.
+         */
+        public void addAll(Buffer other) {
+            if (length + other.length > data.length)
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + other.length));
+            System.arraycopy(other.data, 0, data, length, other.length);
+            length += other.length;
+        }
+
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        /**
+         * @return Cantidad de cambios registrados.
+         */
+        public int size() {
+            return length / 3;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, length);
+        }
+    }
+
+    private final String nameKey;
+    protected final TileStore tiles;
+    /** Tripletas {clave, anterior, nuevo}. */
+    protected int[] deltas;
+
+    public TileFieldsCommand(MapContext context, String nameKey, Buffer changes) {
+        this(context, nameKey);
+        this.deltas = changes.toArray();
+    }
+
+    protected TileFieldsCommand(MapContext context, String nameKey) {
+        super(context);
+        this.nameKey = nameKey;
+        this.tiles = context.getTiles();
+        if (tiles.size() > INDEX_MASK)
+            throw new IllegalArgumentException("Mapa demasiado grande: " + tiles.size() + " tiles");
+    }
+
+    /**
+     * @return El campo que corresponde a una capa de superficie (1-4).
+     */
+    public static int layerField(int layer) {
+        return layer - 1;
+    }
+
+    static int key(int field, int index) {
+        return (field << FIELD_SHIFT) | index;
+    }
+
+    @Override
+    public String getName() {
+        return I18n.INSTANCE.get(nameKey);
+    }
+
+    /**
+     * @return Cantidad de cambios que aplica el comando.
+     */
+    public int getChangeCount() {
+        return deltas.length / 3;
+    }
+
+    @Override
+    public void execute() {
+        for (int i = 0; i < deltas.length; i += 3)
+            write(deltas[i] >>> FIELD_SHIFT, deltas[i] & INDEX_MASK, deltas[i + 2]);
+    }
+
+    @Override
+    public void undo() {
+        for (int i = deltas.length - 3; i >= 0; i -= 3)
+            write(deltas[i] >>> FIELD_SHIFT, deltas[i] & INDEX_MASK, deltas[i + 1]);
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return CommandHistory.COMMAND_BYTES + 16 + 4L * deltas.length;
+    }
+
+    @Override
+    public int[] getAffectedBounds() {
+        if (deltas.length == 0)
+            return null;
+        int width = tiles.getWidth();
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (int i = 0; i < deltas.length; i += 3) {
+            int index = deltas[i] & INDEX_MASK;
+            int x = index % width;
+            int y = index / width;
+            if (x < minX)
+                minX = x;
+            if (x > maxX)
+                maxX = x;
+            if (y < minY)
+                minY = y;
+            if (y > maxY)
+                maxY = y;
+        }
+        return new int[] { minX, minY, maxX, maxY };
+    }
+
+    /**
+     * Lee el valor actual de un campo.
+     */
+    public static int read(TileStore tiles, int field, int index) {
+        switch (field) {
+            case FIELD_BLOCKED:
+                return tiles.isBlocked(index) ? 1 : 0;
+            case FIELD_TRIGGER:
+                return tiles.getTrigger(index);
+            case FIELD_PARTICLE:
+                return tiles.getParticleIndex(index);
+            default:
+                return tiles.getGrh(field + 1, index);
+        }
+    }
+
+    protected int read(int key) {
+        return read(tiles, key >>> FIELD_SHIFT, key & INDEX_MASK);
+    }
+
+    protected void write(int field, int index, int value) {
+        switch (field) {
+            case FIELD_BLOCKED:
+                tiles.setBlocked(index, value != 0);
+                break;
+            case FIELD_TRIGGER:
+                tiles.setTrigger(index, value);
+                break;
+            case FIELD_PARTICLE:
+                tiles.setParticleIndex(index, value);
+                break;
+            default:
+                if (tiles.getGrh(field + 1, index) != value)
+                    tiles.initGrh(field + 1, index, value, true);
+        }
+    }
+}
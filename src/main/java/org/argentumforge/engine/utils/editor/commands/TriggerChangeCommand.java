@@ -40,4 +40,10 @@ public class TriggerChangeCommand extends AbstractCommand {
             mapData[entry.getKey().x][entry.getKey().y].setTrigger(entry.getValue());
         }
     }
+
+    @Override
+    public long getEstimatedBytes() {
+        return CommandHistory.COMMAND_BYTES
+                + CommandHistory.MAP_ENTRY_BYTES * (oldStates.size() + newStates.size());
+    }
 }
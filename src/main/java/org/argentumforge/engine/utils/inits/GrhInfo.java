@@ -1,5 +1,7 @@
 package org.argentumforge.engine.utils.inits;
 
+import org.argentumforge.engine.utils.AnimationClock;
+
 /**
  * Estructura que gestiona el estado de una instancia de gráfico o animación.
  * <p>
@@ -7,10 +9,16 @@ package org.argentumforge.engine.utils.inits;
  * estado actual de un gráfico (Grh), como el frame actual, la velocidad de
  * animación y si está en reproducción.
  *
+ * <p>
+ * Las subclases pueden redirigir el estado a otro almacenamiento (ver
+ * {@link TileStore.SlotRef}); por eso {@link #update(float)} accede siempre a
+ * través de los getters/setters. Los tiles no avanzan un contador propio: lo
+ * toman de {@link AnimationClock} a través de {@link #advance(float)}.
+ *
  * @see GrhData
  * @see org.argentumforge.engine.renderer.Drawn
  */
-public final class GrhInfo {
+public class GrhInfo {
 
     private int grhIndex;
     private float frameCounter;
@@ -29,12 +37,12 @@ public final class GrhInfo {
     }
 
     public GrhInfo(GrhInfo other) {
-        this.grhIndex = other.grhIndex;
-        this.frameCounter = other.frameCounter;
-        this.speed = other.speed;
-        this.started = other.started;
-        this.loops = other.loops;
-        this.angle = other.angle;
+        this.grhIndex = other.getGrhIndex();
+        this.frameCounter = other.getFrameCounter();
+        this.speed = other.getSpeed();
+        this.started = other.isStarted();
+        this.loops = other.getLoops();
+        this.angle = other.getAngle();
     }
 
     public int getGrhIndex() {
@@ -85,32 +93,46 @@ public final class GrhInfo {
         this.angle = angle;
     }
 
+    /**
+     * Avanza la animación si está en reproducción y devuelve el contador de
+     * frames con el que debe dibujarse.
+     */
+    public float advance(float timer) {
+        if (isStarted())
+            update(timer);
+        return getFrameCounter();
+    }
+
     public void update(float timer) {
-        if (!started)
+        if (!isStarted())
             return;
 
-        // Check if animations are disabled
-        if (org.argentumforge.engine.game.Options.INSTANCE.getRenderSettings().isDisableAnimations()) {
+        // Animaciones desactivadas (se consulta una vez por frame en el reloj)
+        if (AnimationClock.INSTANCE.isPaused()) {
             return;
         }
 
-        org.argentumforge.engine.utils.inits.GrhData[] grhData = org.argentumforge.engine.utils.AssetRegistry.grhData;
+        org.argentumforge.engine.utils.inits.GrhTable grhData = org.argentumforge.engine.utils.AssetRegistry.grhData;
+        int index = getGrhIndex();
 
-        if (grhData == null || grhIndex >= grhData.length || grhData[grhIndex] == null)
+        if (grhData == null || index >= grhData.length() || grhData.get(index) == null)
             return;
 
-        float speedModifier = grhData[grhIndex].getNumFrames() / speed;
-        frameCounter += timer * speedModifier;
+        int numFrames = grhData.get(index).getNumFrames();
+        float speedModifier = numFrames / getSpeed();
+        float counter = getFrameCounter() + timer * speedModifier;
 
-        if (frameCounter > grhData[grhIndex].getNumFrames()) {
-            frameCounter = (frameCounter % grhData[grhIndex].getNumFrames()) + 1;
+        if (counter > numFrames) {
+            counter = (counter % numFrames) + 1;
+            int loops = getLoops();
             if (loops != -1) {
                 if (loops > 0)
-                    loops--;
+                    setLoops(loops - 1);
                 else
-                    started = false;
+                    setStarted(false);
             }
         }
+        setFrameCounter(counter);
     }
 
 }
@@ -0,0 +1,165 @@
+package org.argentumforge.engine.utils.inits;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Tabla de GRH indexada por número, respaldada opcionalmente por un
+ * {@link MappedGrhIndex}.
+ * <p>
+ * Cuando hay índice, cada {@link GrhData} se construye la primera vez que
+ * alguien lo pide con {@link #get(int)}; hasta entonces solo existe la entrada
+ * del archivo mapeado. Los recorridos masivos (atlas, tabla de rectángulos,
+ * precarga de texturas) usan los accesores primitivos ({@link #fileNum},
+ * {@link #sx}, {@link #frame}...), que leen del índice sin materializar nada.
+ * <p>
+ * Sin índice (formato Legacy, pruebas) la tabla envuelve un arreglo ya
+ * construido y se comporta igual que antes.
+ * <p>
+ * Varios hilos leen la tabla a la vez (render, precarga de mapas, minimapa): si
+ * dos materializan el mismo GRH, el primero en publicarlo gana y ambos reciben
+ * la misma instancia.
+ */
+public final class GrhTable {
+
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(GrhData[].class);
+
+    private final GrhData[] entries;
+    private final MappedGrhIndex index;
+
+    /**
+     * Envuelve un arreglo ya construido (sin materialización diferida).
+     */
+    public GrhTable(GrhData[] entries) {
+        this(entries, null);
+    }
+
+    private GrhTable(GrhData[] entries, MappedGrhIndex index) {
+        this.entries = entries;
+        this.index = index;
+    }
+
+    /**
+     * Crea una tabla diferida sobre {@code index}. La posición 0 queda con un
+     * {@link GrhData} vacío, como en el cargador clásico.
+     *
+     * @param length Cantidad de posiciones; debe cubrir {@link MappedGrhIndex#getMaxGrh()}.
+     */
+    public static GrhTable lazy(MappedGrhIndex index, int length) {
+        GrhData[] entries = new GrhData[Math.max(length, index.getMaxGrh() + 1)];
+        entries[0] = new GrhData();
+        return new GrhTable(entries, index);
+    }
+
+    /**
+     * @return Cantidad de posiciones (equivalente al {@code length} del arreglo).
+     */
+    public int length() {
+        return entries.length;
+    }
+
+    /**
+     * @return El GRH, construyéndolo desde el índice si es la primera vez, o
+     *         {@code null} si no existe.
+     * @throws ArrayIndexOutOfBoundsException Si {@code grh} está fuera de
+     *                                        {@code [0, length())}.
+     */
+    public GrhData get(int grh) {
+        GrhData data = (GrhData) ENTRIES.getAcquire(entries, grh);
+        if (data != null || index == null)
+            return data;
+        return materialize(grh);
+    }
+
+    private GrhData materialize(int grh) {
+        GrhData data = index.materialize(grh);
+        if (data == null)
+            return null;
+        GrhData previous = (GrhData) ENTRIES.compareAndExchangeRelease(entries, grh, null, data);
+        return previous != null ? previous : data;
+    }
+
+    /**
+     * @return {@code true} si el GRH existe, sin materializarlo.
+     */
+    public boolean contains(int grh) {
+        if (grh < 0 || grh >= entries.length)
+            return false;
+        if (ENTRIES.getAcquire(entries, grh) != null)
+            return true;
+        return index != null && index.contains(grh);
+    }
+
+    /**
+     * @return El GRH si ya está construido; {@code null} si hay que leerlo del
+     *         índice.
+     */
+    private GrhData built(int grh) {
+        GrhData data = (GrhData) ENTRIES.getAcquire(entries, grh);
+        if (data == null && index == null)
+            throw new IllegalArgumentException("GRH inexistente: " + grh);
+        return data;
+    }
+
+    // Los accesores primitivos requieren que contains(grh) sea verdadero
+
+    public int numFrames(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getNumFrames() : index.numFrames(grh);
+    }
+
+    /**
+     * @param frame Frame en base 1, como {@link GrhData#getFrame(int)}.
+     */
+    public int frame(int grh, int frame) {
+        GrhData data = built(grh);
+        return data != null ? data.getFrame(frame) : index.frame(grh, frame);
+    }
+
+    public int fileNum(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getFileNum() : index.fileNum(grh);
+    }
+
+    public int sx(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getsX() : index.sx(grh);
+    }
+
+    public int sy(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getsY() : index.sy(grh);
+    }
+
+    public int pixelWidth(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getPixelWidth() : index.pixelWidth(grh);
+    }
+
+    public int pixelHeight(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getPixelHeight() : index.pixelHeight(grh);
+    }
+
+    public float tileWidth(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getTileWidth() : (float) index.pixelWidth(grh) / 32;
+    }
+
+    public float tileHeight(int grh) {
+        GrhData data = built(grh);
+        return data != null ? data.getTileHeight() : (float) index.pixelHeight(grh) / 32;
+    }
+
+    /**
+     * @return Cantidad de GRH ya construidos (para diagnóstico y pruebas).
+     */
+    public int getMaterializedCount() {
+        int count = 0;
+        for (int i = 1; i < entries.length; i++) {
+            if (ENTRIES.getAcquire(entries, i) != null)
+                count++;
+        }
+        return count;
+    }
+}
@@ -3,133 +3,158 @@ package org.argentumforge.engine.utils.inits;
 /**
  * Representa los datos de una celda individual (tile) del mapa.
  * <p>
- * {@code MapData} almacena la información de las 4 capas de gráficos,
+ * {@code MapData} expone la información de las 4 capas de gráficos,
  * el índice del NPC u objeto presente, bloqueos, triggers, información
  * de traslados (exits) y el ítem depositado en el suelo.
+ * <p>
+ * Es una vista ligera sobre una celda de un {@link TileStore}: no guarda estado
+ * propio, todas las lecturas y escrituras van directo a los arreglos del
+ * almacén. Una instancia creada con el constructor sin argumentos usa un
+ * almacén propio de una sola celda (útil para copias temporales).
  *
  * @see GrhInfo
+ * @see TileStore
  */
 public final class MapData {
 
-    private final GrhInfo[] layer = new GrhInfo[5];
-    private int charIndex;
-    private GrhInfo objGrh;
-    private int npcIndex;
-    private boolean blocked;
-    private int trigger;
-    private int particleIndex;
+    private final TileStore store;
+    private final int index;
 
-    // Tile Exit
-    private int exitMap;
-    private int exitX;
-    private int exitY;
+    public MapData() {
+        this(new TileStore(1, 1), 0);
+    }
 
-    // Object Info
-    private int objIndex;
-    private int objAmount;
+    MapData(TileStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
 
-    public MapData() {
-        layer[1] = new GrhInfo();
-        layer[2] = new GrhInfo();
-        layer[3] = new GrhInfo();
-        layer[4] = new GrhInfo();
-        objGrh = new GrhInfo();
+    /**
+     * @return El almacén que respalda esta celda.
+     */
+    public TileStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return El índice plano de esta celda dentro de su almacén.
+     */
+    public int getIndex() {
+        return index;
     }
 
     public GrhInfo getLayer(int index) {
-        return layer[index];
+        return new TileStore.SlotRef(store, index, this.index);
     }
 
+    /**
+     * Copia el estado del {@link GrhInfo} recibido sobre la capa indicada.
+     */
     public void setLayer(int index, GrhInfo layer) {
-        this.layer[index] = layer;
+        copySlot(index, layer);
     }
 
     public int getCharIndex() {
-        return charIndex;
+        return store.getCharIndex(index);
     }
 
     public void setCharIndex(int charIndex) {
-        this.charIndex = charIndex;
+        store.setCharIndex(index, charIndex);
     }
 
     public GrhInfo getObjGrh() {
-        return objGrh;
+        return new TileStore.SlotRef(store, TileStore.OBJ_SLOT, index);
     }
 
+    /**
+     * Copia el estado del {@link GrhInfo} recibido sobre el gráfico del objeto.
+     */
     public void setObjGrh(GrhInfo objGrh) {
-        this.objGrh = objGrh;
+        copySlot(TileStore.OBJ_SLOT, objGrh);
     }
 
     public int getNpcIndex() {
-        return npcIndex;
+        return store.getNpcIndex(index);
     }
 
     public void setNpcIndex(int npcIndex) {
-        this.npcIndex = npcIndex;
+        store.setNpcIndex(index, npcIndex);
     }
 
     public boolean getBlocked() {
-        return blocked;
+        return store.isBlocked(index);
     }
 
     public void setBlocked(boolean blocked) {
-        this.blocked = blocked;
+        store.setBlocked(index, blocked);
     }
 
     public int getTrigger() {
-        return trigger;
+        return store.getTrigger(index);
     }
 
     public void setTrigger(int trigger) {
-        this.trigger = trigger;
+        store.setTrigger(index, trigger);
     }
 
     public int getExitMap() {
-        return exitMap;
+        return store.getExitMap(index);
     }
 
     public void setExitMap(int exitMap) {
-        this.exitMap = exitMap;
+        store.setExitMap(index, exitMap);
     }
 
     public int getExitX() {
-        return exitX;
+        return store.getExitX(index);
     }
 
     public void setExitX(int exitX) {
-        this.exitX = exitX;
+        store.setExitX(index, exitX);
     }
 
     public int getExitY() {
-        return exitY;
+        return store.getExitY(index);
     }
 
     public void setExitY(int exitY) {
-        this.exitY = exitY;
+        store.setExitY(index, exitY);
     }
 
     public int getObjIndex() {
-        return objIndex;
+        return store.getObjIndex(index);
     }
 
     public void setObjIndex(int objIndex) {
-        this.objIndex = objIndex;
+        store.setObjIndex(index, objIndex);
     }
 
     public int getObjAmount() {
-        return objAmount;
+        return store.getObjAmount(index);
     }
 
     public void setObjAmount(int objAmount) {
-        this.objAmount = objAmount;
+        store.setObjAmount(index, objAmount);
     }
 
     public int getParticleIndex() {
-        return particleIndex;
+        return store.getParticleIndex(index);
     }
 
     public void setParticleIndex(int particleIndex) {
-        this.particleIndex = particleIndex;
+        store.setParticleIndex(index, particleIndex);
+    }
+
+    private void copySlot(int slot, GrhInfo source) {
+        if (source == null) {
+            store.setGrh(slot, index, 0);
+            store.setFrameCounter(slot, index, 1.0f);
+            store.setStarted(slot, index, false);
+            return;
+        }
+        store.setGrh(slot, index, source.getGrhIndex());
+        store.setFrameCounter(slot, index, source.getFrameCounter());
+        store.setStarted(slot, index, source.isStarted());
     }
 
 }
@@ -89,4 +89,21 @@ public final class MapProperties {
     public void setTerreno(String terreno) {
         Terreno = terreno;
     }
+
+    /**
+     * @return Una copia independiente de estas propiedades.
+     */
+    public MapProperties copy() {
+        MapProperties copy = new MapProperties();
+        copy.name = name;
+        copy.musicIndex = musicIndex;
+        copy.magiaSinEfecto = magiaSinEfecto;
+        copy.noEncriptarMP = noEncriptarMP;
+        copy.playerKiller = playerKiller;
+        copy.Restringir = Restringir;
+        copy.Backup = Backup;
+        copy.zona = zona;
+        copy.Terreno = Terreno;
+        return copy;
+    }
 }
@@ -0,0 +1,311 @@
+package org.argentumforge.engine.utils.inits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Índice de solo lectura sobre un {@code Graficos.ind} (formato 0.12+).
+ * <p>
+ * El archivo se mapea en memoria ({@link #map(Path)}) y se recorre una única
+ * vez para construir una tabla de desplazamientos (un {@code int} por GRH); no
+ * se copia al heap ni se crea ningún objeto por entrada. Los campos se leen del
+ * mapeo mediante accesores primitivos y un {@link GrhData} solo se construye
+ * cuando alguien lo pide con {@link #materialize(int)} (ver {@link GrhTable}).
+ * <p>
+ * El índice queda residente mientras el editor usa esos GRH, así que el mapeo
+ * también: en Windows el archivo no puede reemplazarse mientras el editor está
+ * abierto. {@link #read(Path)} copia el archivo a un buffer directo y lo cierra,
+ * para quien necesite liberarlo enseguida.
+ * <p>
+ * Formato de cada registro (little-endian): {@code int grh}, {@code short
+ * numFrames} y luego, si es animado, {@code int frames[numFrames]} +
+ * {@code float speed}; si es estático, {@code int fileNum} + {@code short sX, sY,
+ * pixelWidth, pixelHeight}.
+ */
+public final class MappedGrhIndex {
+
+    /** Tamaño de la cabecera de texto opcional de los archivos .ind. */
+    public static final int HEADER_SIZE = 263;
+
+    private static final int MAX_GRH = 1000000;
+    private static final int MAX_COUNT = 2000000;
+    private static final int STATIC_RECORD_SIZE = 4 + 2 * 4;
+
+    private final ByteBuffer data;
+    private final int version;
+    private final int declaredCount;
+    private final boolean countWasLong;
+
+    /** Posición del campo numFrames de cada GRH; 0 si el GRH no existe. */
+    private int[] offsets;
+    private int maxGrh;
+    private int loadedCount;
+    private boolean truncated;
+
+    private MappedGrhIndex(ByteBuffer data, int version, int declaredCount, boolean countWasLong) {
+        this.data = data;
+        this.version = version;
+        this.declaredCount = declaredCount;
+        this.countWasLong = countWasLong;
+    }
+
+    /**
+     * Mapea el archivo en modo solo lectura. El canal se cierra enseguida; el
+     * mapeo se libera cuando el GC recolecta el buffer.
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Lee el archivo completo a un buffer directo (fuera del heap) y cierra el
+     * canal; el archivo no queda abierto ni mapeado.
+     */
+    public static ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Archivo demasiado grande: " + path);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Leer hasta llenar el buffer o llegar al final
+            }
+            return buffer.flip().order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Construye el índice en una pasada.
+     *
+     * @param data      Contenido del archivo (little-endian).
+     * @param hasHeader Si el archivo empieza con la cabecera de
+     *                  {@value #HEADER_SIZE} bytes.
+     * @return El índice, o {@code null} si la cabecera no corresponde al formato
+     *         0.12+ (versión/cuenta) y debe intentarse la carga legacy.
+     */
+    public static MappedGrhIndex parse(ByteBuffer data, boolean hasHeader) {
+        ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int pos = hasHeader ? HEADER_SIZE : 0;
+        if (buffer.limit() < pos + 8)
+            return null;
+
+        int version = buffer.getInt(pos);
+        int count = buffer.getInt(pos + 4);
+        pos += 8;
+
+        // Cuenta nula, negativa o absurda: probablemente formato Legacy (VB6 Integer)
+        if (count <= 0 || count > MAX_COUNT || count > buffer.limit())
+            return null;
+
+        // Si los 4 bytes siguientes son 0, la cuenta era un Long de 8 bytes (el
+        // primer índice de GRH nunca es 0)
+        boolean countWasLong = false;
+        if (buffer.limit() - pos >= 4 && buffer.getInt(pos) == 0) {
+            countWasLong = true;
+            pos += 4;
+        }
+
+        MappedGrhIndex index = new MappedGrhIndex(buffer, version, count, countWasLong);
+        index.build(pos);
+        return index;
+    }
+
+    private void build(int pos) {
+        int limit = data.limit();
+        offsets = new int[Math.min(declaredCount + 1001, MAX_GRH)];
+
+        while (loadedCount < declaredCount && limit - pos >= 4) {
+            int grh = data.getInt(pos);
+            if (grh <= 0)
+                break; // Fin de datos o basura
+
+            if (grh >= offsets.length) {
+                if (grh >= MAX_GRH) {
+                    truncated = true;
+                    break;
+                }
+                offsets = Arrays.copyOf(offsets, Math.min(Math.max(grh + 1000, offsets.length * 2), MAX_GRH));
+            }
+            pos += 4;
+
+            if (limit - pos < 2) {
+                truncated = true;
+                break;
+            }
+            int numFrames = data.getShort(pos);
+            int recordSize = numFrames > 1 ? numFrames * 4 + 4 : STATIC_RECORD_SIZE;
+            if (numFrames > 0 && limit - (pos + 2) < recordSize) {
+                truncated = true;
+                break;
+            }
+
+            offsets[grh] = pos;
+            maxGrh = Math.max(maxGrh, grh);
+            pos += 2;
+            if (numFrames <= 0)
+                continue;
+
+            pos += recordSize;
+            loadedCount++;
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Cantidad de registros declarada en la cabecera.
+     */
+    public int getDeclaredCount() {
+        return declaredCount;
+    }
+
+    public boolean isCountWasLong() {
+        return countWasLong;
+    }
+
+    /**
+     * @return Cantidad de registros válidos indexados.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * @return Mayor índice de GRH presente.
+     */
+    public int getMaxGrh() {
+        return maxGrh;
+    }
+
+    /**
+     * @return {@code true} si el archivo terminó en mitad de un registro.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public boolean contains(int grh) {
+        return grh > 0 && grh < offsets.length && offsets[grh] != 0;
+    }
+
+    public int numFrames(int grh) {
+        return data.getShort(offsets[grh]);
+    }
+
+    public boolean isAnimated(int grh) {
+        return numFrames(grh) > 1;
+    }
+
+    /**
+     * @param index Frame en base 1, como {@link GrhData#getFrame(int)}.
+     */
+    public int frame(int grh, int index) {
+        if (!isAnimated(grh))
+            return index == 1 && isStatic(grh) ? grh : 0;
+        return data.getInt(offsets[grh] + 2 + (index - 1) * 4);
+    }
+
+    public float speed(int grh) {
+        if (!isAnimated(grh))
+            return 0;
+        return data.getFloat(offsets[grh] + 2 + numFrames(grh) * 4);
+    }
+
+    /**
+     * @return {@code true} si el registro trae recorte propio (un solo frame).
+     *         Los registros sin frames no traen datos después de la cuenta.
+     */
+    private boolean isStatic(int grh) {
+        return numFrames(grh) == 1;
+    }
+
+    public int fileNum(int grh) {
+        return isStatic(grh) ? data.getInt(offsets[grh] + 2) : 0;
+    }
+
+    public int sx(int grh) {
+        return isStatic(grh) ? data.getShort(offsets[grh] + 6) : 0;
+    }
+
+    public int sy(int grh) {
+        return isStatic(grh) ? data.getShort(offsets[grh] + 8) : 0;
+    }
+
+    /**
+     * @return Ancho en píxeles; los GRH animados toman el de su primer frame.
+     */
+    public int pixelWidth(int grh) {
+        if (isAnimated(grh)) {
+            int first = frame(grh, 1);
+            return contains(first) && isStatic(first) ? pixelWidth(first) : 0;
+        }
+        return isStatic(grh) ? data.getShort(offsets[grh] + 10) : 0;
+    }
+
+    /**
+     * @return Alto en píxeles; los GRH animados toman el de su primer frame.
+     */
+    public int pixelHeight(int grh) {
+        if (isAnimated(grh)) {
+            int first = frame(grh, 1);
+            return contains(first) && isStatic(first) ? pixelHeight(first) : 0;
+        }
+        return isStatic(grh) ? data.getShort(offsets[grh] + 12) : 0;
+    }
+
+    /**
+     * Construye el {@link GrhData} equivalente al que arma el cargador clásico.
+     *
+     * @return {@code null} si el GRH no existe en el archivo.
+     */
+    public GrhData materialize(int grh) {
+        if (!contains(grh))
+            return null;
+
+        GrhData grhData = new GrhData();
+        int numFrames = numFrames(grh);
+        grhData.setNumFrames(numFrames);
+        if (numFrames <= 0)
+            return grhData;
+
+        int[] frames = new int[numFrames + 1];
+        for (int i = 1; i <= numFrames; i++)
+            frames[i] = frame(grh, i);
+        grhData.setFrames(frames);
+        grhData.setSpeed(speed(grh));
+        grhData.setFileNum(fileNum(grh));
+        grhData.setsX(sx(grh));
+        grhData.setsY(sy(grh));
+        grhData.setPixelWidth(pixelWidth(grh));
+        grhData.setPixelHeight(pixelHeight(grh));
+        grhData.setTileWidth((float) grhData.getPixelWidth() / 32);
+        grhData.setTileHeight((float) grhData.getPixelHeight() / 32);
+        return grhData;
+    }
+
+    /**
+     * Materializa todos los GRH en un arreglo indexado por número de GRH (la
+     * posición 0 queda con un {@link GrhData} vacío, como en el cargador clásico).
+     *
+     * @param extra Posiciones libres adicionales al final del arreglo.
+     */
+    public GrhData[] materializeAll(int extra) {
+        GrhData[] result = new GrhData[maxGrh + 1 + extra];
+        result[0] = new GrhData();
+        for (int grh = 1; grh <= maxGrh; grh++) {
+            if (offsets[grh] != 0)
+                result[grh] = materialize(grh);
+        }
+        return result;
+    }
+}
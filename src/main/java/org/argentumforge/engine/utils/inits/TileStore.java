@@ -0,0 +1,462 @@
+package org.argentumforge.engine.utils.inits;
+
+import org.argentumforge.engine.utils.AnimationClock;
+import org.argentumforge.engine.utils.AssetRegistry;
+
+import java.util.BitSet;
+
+/**
+ * Almacenamiento compacto (struct-of-arrays) de todas las celdas de un mapa.
+ * <p>
+ * En lugar de mantener un objeto {@link MapData} con cinco {@link GrhInfo} por
+ * tile, cada campo vive en un arreglo primitivo plano indexado por
+ * {@code y * width + x}. Un mapa de 101x101 pasa de ~70.000 objetos pequeños a
+ * una veintena de arreglos, lo que reduce la memoria por mapa abierto, la
+ * presión sobre el GC al cambiar de mapa y permite recorridos secuenciales
+ * amigables con la caché en el renderizado, el validador y el minimapa.
+ * <p>
+ * Los slots gráficos son: {@link #OBJ_SLOT} (gráfico del objeto en el suelo) y
+ * las capas 1 a 4. Los campos de 16 bits se almacenan como {@code short} y se
+ * leen sin signo, igual que en el formato binario de los .map/.inf.
+ * <p>
+ * {@link MapData} se mantiene como vista ligera sobre una celda para el código
+ * existente; los recorridos intensivos deben usar directamente los accesores
+ * primitivos de esta clase.
+ *
+ * @see MapData
+ * @see SlotRef
+ */
+public final class TileStore {
+
+    /** Slot del gráfico del objeto depositado en el suelo. */
+    public static final int OBJ_SLOT = 0;
+    /** Cantidad de slots gráficos (objeto + 4 capas). */
+    public static final int SLOT_COUNT = 5;
+
+    /** Lado (en tiles) de los bloques usados para rastrear cambios en las capas. */
+    public static final int CHUNK_SIZE = 16;
+    private static final int CHUNK_SHIFT = 4;
+
+    /** Velocidad fija con la que {@code GameData.initGrh} inicializa los tiles. */
+    private static final float TILE_SPEED = AnimationClock.TILE_SPEED;
+
+    private final int width;
+    private final int height;
+    private final int size;
+
+    // Slots gráficos (0 = objeto, 1..4 = capas)
+    private final int[][] grh = new int[SLOT_COUNT][];
+    private final float[][] frameCounter = new float[SLOT_COUNT][];
+    private final BitSet[] started = new BitSet[SLOT_COUNT];
+
+    private final BitSet blocked;
+    private final short[] trigger;
+    private final short[] particle;
+    private final short[] charIndex;
+    private final short[] npcIndex;
+    private final short[] exitMap;
+    private final short[] exitX;
+    private final short[] exitY;
+    private final short[] objIndex;
+    private final short[] objAmount;
+
+    // Bloques de CHUNK_SIZE x CHUNK_SIZE cuyas capas cambiaron desde la última
+    // vez que alguien los consumió (p.ej. la caché de geometría estática)
+    private final int chunksX;
+    private final int chunksY;
+    private final BitSet dirtyChunks;
+
+    /** Rejilla de vistas para el código heredado, creada bajo demanda. */
+    private MapData[][] grid;
+
+    /**
+     * @param width  Cantidad de columnas (incluyendo la columna 0).
+     * @param height Cantidad de filas (incluyendo la fila 0).
+     */
+    public TileStore(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            grh[slot] = new int[size];
+            frameCounter[slot] = new float[size];
+            java.util.Arrays.fill(frameCounter[slot], 1.0f);
+            started[slot] = new BitSet(size);
+        }
+
+        blocked = new BitSet(size);
+        trigger = new short[size];
+        particle = new short[size];
+        charIndex = new short[size];
+        npcIndex = new short[size];
+        exitMap = new short[size];
+        exitX = new short[size];
+        exitY = new short[size];
+        objIndex = new short[size];
+        objAmount = new short[size];
+
+        chunksX = (width + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+        chunksY = (height + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+        dirtyChunks = new BitSet(chunksX * chunksY);
+        dirtyChunks.set(0, chunksX * chunksY);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calcula el índice plano de una celda.
+     */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Devuelve la rejilla {@code [x][y]} de vistas {@link MapData} para el código
+     * que aún trabaja con el modelo de objetos. Se construye una sola vez.
+     */
+    public MapData[][] grid() {
+        if (grid == null) {
+            MapData[][] views = new MapData[width][height];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    views[x][y] = new MapData(this, index(x, y));
+                }
+            }
+            grid = views;
+        }
+        return grid;
+    }
+
+    public int getChunkCountX() {
+        return chunksX;
+    }
+
+    public int getChunkCountY() {
+        return chunksY;
+    }
+
+    /**
+     * Indica si alguna capa (1 a 4) del bloque cambió desde el último
+     * {@link #clearChunkDirty(int, int)}. Todos los bloques empiezan sucios.
+     */
+    public boolean isChunkDirty(int chunkX, int chunkY) {
+        return dirtyChunks.get(chunkY * chunksX + chunkX);
+    }
+
+    public void clearChunkDirty(int chunkX, int chunkY) {
+        dirtyChunks.clear(chunkY * chunksX + chunkX);
+    }
+
+    /**
+     * Marca todos los bloques como sucios (p.ej. tras perder la caché de texturas).
+     */
+    public void markAllChunksDirty() {
+        dirtyChunks.set(0, chunksX * chunksY);
+    }
+
+    private void markDirty(int slot, int index) {
+        if (slot == OBJ_SLOT)
+            return;
+        int x = index % width;
+        int y = index / width;
+        dirtyChunks.set((y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT));
+    }
+
+    /**
+     * Crea un cursor reutilizable sobre los slots gráficos de este almacén.
+     */
+    public SlotRef cursor() {
+        return new SlotRef(this, 1, 0);
+    }
+
+    // --- Slots gráficos ---
+
+    public int getGrh(int slot, int index) {
+        return grh[slot][index];
+    }
+
+    public void setGrh(int slot, int index, int grhIndex) {
+        grh[slot][index] = grhIndex;
+        markDirty(slot, index);
+    }
+
+    public float getFrameCounter(int slot, int index) {
+        return frameCounter[slot][index];
+    }
+
+    public void setFrameCounter(int slot, int index, float value) {
+        frameCounter[slot][index] = value;
+    }
+
+    public boolean isStarted(int slot, int index) {
+        return started[slot].get(index);
+    }
+
+    public void setStarted(int slot, int index, boolean value) {
+        started[slot].set(index, value);
+        markDirty(slot, index);
+    }
+
+    /**
+     * Equivalente primitivo de {@code GameData.initGrh}: asigna el gráfico,
+     * reinicia el contador de frames y arranca la animación si corresponde.
+     */
+    public void initGrh(int slot, int index, int grhIndex, boolean start) {
+        grh[slot][index] = grhIndex;
+        frameCounter[slot][index] = 1.0f;
+
+        boolean animated = false;
+        GrhTable data = AssetRegistry.grhData;
+        if (start && data != null && grhIndex > 0 && data.contains(grhIndex))
+            animated = data.numFrames(grhIndex) > 1;
+        started[slot].set(index, animated);
+        markDirty(slot, index);
+    }
+
+    // --- Campos de la celda ---
+
+    public boolean isBlocked(int index) {
+        return blocked.get(index);
+    }
+
+    public void setBlocked(int index, boolean value) {
+        blocked.set(index, value);
+    }
+
+    public int getTrigger(int index) {
+        return trigger[index] & 0xFFFF;
+    }
+
+    public void setTrigger(int index, int value) {
+        trigger[index] = (short) value;
+    }
+
+    /** El índice de partícula se lee con signo en el formato original. */
+    public int getParticleIndex(int index) {
+        return particle[index];
+    }
+
+    public void setParticleIndex(int index, int value) {
+        particle[index] = (short) value;
+    }
+
+    public int getCharIndex(int index) {
+        return charIndex[index] & 0xFFFF;
+    }
+
+    public void setCharIndex(int index, int value) {
+        charIndex[index] = (short) value;
+    }
+
+    public int getNpcIndex(int index) {
+        return npcIndex[index] & 0xFFFF;
+    }
+
+    public void setNpcIndex(int index, int value) {
+        npcIndex[index] = (short) value;
+    }
+
+    public int getExitMap(int index) {
+        return exitMap[index] & 0xFFFF;
+    }
+
+    public void setExitMap(int index, int value) {
+        exitMap[index] = (short) value;
+    }
+
+    public int getExitX(int index) {
+        return exitX[index] & 0xFFFF;
+    }
+
+    public void setExitX(int index, int value) {
+        exitX[index] = (short) value;
+    }
+
+    public int getExitY(int index) {
+        return exitY[index] & 0xFFFF;
+    }
+
+    public void setExitY(int index, int value) {
+        exitY[index] = (short) value;
+    }
+
+    public int getObjIndex(int index) {
+        return objIndex[index] & 0xFFFF;
+    }
+
+    public void setObjIndex(int index, int value) {
+        objIndex[index] = (short) value;
+    }
+
+    public int getObjAmount(int index) {
+        return objAmount[index] & 0xFFFF;
+    }
+
+    public void setObjAmount(int index, int value) {
+        objAmount[index] = (short) value;
+    }
+
+    /**
+     * Copia todos los campos de una celda (de este u otro almacén) sobre una celda
+     * de este almacén.
+     */
+    public void copyTile(TileStore src, int srcIndex, int dstIndex) {
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            grh[slot][dstIndex] = src.grh[slot][srcIndex];
+            frameCounter[slot][dstIndex] = src.frameCounter[slot][srcIndex];
+            started[slot].set(dstIndex, src.started[slot].get(srcIndex));
+            markDirty(slot, dstIndex);
+        }
+        blocked.set(dstIndex, src.blocked.get(srcIndex));
+        trigger[dstIndex] = src.trigger[srcIndex];
+        particle[dstIndex] = src.particle[srcIndex];
+        charIndex[dstIndex] = src.charIndex[srcIndex];
+        npcIndex[dstIndex] = src.npcIndex[srcIndex];
+        exitMap[dstIndex] = src.exitMap[srcIndex];
+        exitX[dstIndex] = src.exitX[srcIndex];
+        exitY[dstIndex] = src.exitY[srcIndex];
+        objIndex[dstIndex] = src.objIndex[srcIndex];
+        objAmount[dstIndex] = src.objAmount[srcIndex];
+    }
+
+    /**
+     * Copia independiente de todas las celdas (p.ej. para guardar el mapa en otro
+     * hilo mientras se sigue editando). La copia empieza con todos los bloques
+     * sucios y sin rejilla de vistas.
+     */
+    public TileStore copy() {
+        TileStore copy = new TileStore(width, height);
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            System.arraycopy(grh[slot], 0, copy.grh[slot], 0, size);
+            System.arraycopy(frameCounter[slot], 0, copy.frameCounter[slot], 0, size);
+            copy.started[slot].or(started[slot]);
+        }
+        copy.blocked.or(blocked);
+        System.arraycopy(trigger, 0, copy.trigger, 0, size);
+        System.arraycopy(particle, 0, copy.particle, 0, size);
+        System.arraycopy(charIndex, 0, copy.charIndex, 0, size);
+        System.arraycopy(npcIndex, 0, copy.npcIndex, 0, size);
+        System.arraycopy(exitMap, 0, copy.exitMap, 0, size);
+        System.arraycopy(exitX, 0, copy.exitX, 0, size);
+        System.arraycopy(exitY, 0, copy.exitY, 0, size);
+        System.arraycopy(objIndex, 0, copy.objIndex, 0, size);
+        System.arraycopy(objAmount, 0, copy.objAmount, 0, size);
+        return copy;
+    }
+
+    /**
+     * {@link GrhInfo} que lee y escribe directamente sobre un slot de un
+     * {@link TileStore}. Se usa como vista para el código heredado y como cursor
+     * reutilizable en los recorridos de renderizado ({@link #at(int, int)}).
+     * <p>
+     * Los tiles siempre se inicializan con velocidad 0.4 y animación en bucle,
+     * por lo que velocidad, ángulo y cantidad de loops no se almacenan, y el
+     * frame de los animados sale de {@link AnimationClock}.
+     */
+    public static final class SlotRef extends GrhInfo {
+
+        private final TileStore store;
+        private int slot;
+        private int index;
+
+        SlotRef(TileStore store, int slot, int index) {
+            this.store = store;
+            this.slot = slot;
+            this.index = index;
+        }
+
+        /**
+         * Reposiciona el cursor sobre otro slot/celda del mismo almacén.
+         */
+        public SlotRef at(int slot, int index) {
+            this.slot = slot;
+            this.index = index;
+            return this;
+        }
+
+        @Override
+        public int getGrhIndex() {
+            return store.grh[slot][index];
+        }
+
+        @Override
+        public void setGrhIndex(int grhIndex) {
+            store.setGrh(slot, index, grhIndex);
+        }
+
+        @Override
+        public float getFrameCounter() {
+            return store.frameCounter[slot][index];
+        }
+
+        @Override
+        public void setFrameCounter(float frameCounter) {
+            store.frameCounter[slot][index] = frameCounter;
+        }
+
+        @Override
+        public boolean isStarted() {
+            return store.started[slot].get(index);
+        }
+
+        @Override
+        public void setStarted(boolean started) {
+            store.setStarted(slot, index, started);
+        }
+
+        @Override
+        public int getLoops() {
+            return isStarted() ? -1 : 0;
+        }
+
+        @Override
+        public void setLoops(int loops) {
+            // Los tiles animados siempre se repiten indefinidamente
+        }
+
+        @Override
+        public float getSpeed() {
+            return TILE_SPEED;
+        }
+
+        /**
+         * Los tiles animados toman el frame del reloj compartido; su contador
+         * propio queda como desfase y no se escribe en cada frame.
+         */
+        @Override
+        public float advance(float timer) {
+            float frameCounter = getFrameCounter();
+            return isStarted() ? AnimationClock.INSTANCE.sample(getGrhIndex(), frameCounter) : frameCounter;
+        }
+
+        @Override
+        public void setSpeed(float speed) {
+            // Velocidad fija para tiles
+        }
+
+        @Override
+        public float getAngle() {
+            return 0.0f;
+        }
+
+        @Override
+        public void setAngle(float angle) {
+            // Los tiles no rotan
+        }
+    }
+}
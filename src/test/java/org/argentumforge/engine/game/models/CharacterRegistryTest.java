@@ -0,0 +1,91 @@
+package org.argentumforge.engine.game.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CharacterRegistryTest {
+
+    @Test
+    @DisplayName("Should hand out ascending indices and reuse released ones first")
+    void shouldReuseReleasedIndices() {
+        // Arrange
+        CharacterRegistry registry = new CharacterRegistry();
+        for (int i = 0; i < 5; i++)
+            registry.allocate();
+
+        // Act
+        registry.release(2);
+        int reused = registry.allocate();
+        int fresh = registry.allocate();
+
+        // Assert
+        assertThat(reused).isEqualTo(2);
+        assertThat(fresh).isEqualTo(6);
+        assertThat(registry.size()).isEqualTo(6);
+        assertThat(registry.get(2).isActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave skipped indices free when activating a specific slot")
+    void shouldActivateSpecificSlot() {
+        // Arrange
+        CharacterRegistry registry = new CharacterRegistry();
+
+        // Act
+        Character user = registry.activate(300);
+
+        // Assert: slots below 300 are free and handed out in ascending order
+        assertThat(user.isActive()).isTrue();
+        assertThat(registry.activate(300)).isSameAs(user);
+        assertThat(registry.get(1)).isNull();
+        assertThat(registry.allocate()).isEqualTo(1);
+        assertThat(registry.allocate()).isEqualTo(2);
+        assertThat(registry.getLastIndex()).isEqualTo(300);
+        assertThatThrownBy(() -> registry.activate(CharacterRegistry.CAPACITY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should visit only live characters and track the last index")
+    void shouldIterateLiveCharacters() {
+        // Arrange
+        CharacterRegistry registry = new CharacterRegistry();
+        registry.activate(4);
+        registry.activate(9);
+        registry.activate(7);
+
+        // Act
+        registry.release(9);
+        List<Integer> visited = new ArrayList<>();
+        registry.forEach((character, index) -> visited.add(index));
+
+        // Assert
+        assertThat(visited).containsExactly(4, 7);
+        assertThat(registry.getLastIndex()).isEqualTo(7);
+        assertThat(registry.get(9)).isNull();
+        assertThat(registry.nextOpen()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should return to an empty state after clear")
+    void shouldClear() {
+        // Arrange
+        CharacterRegistry registry = new CharacterRegistry();
+        registry.activate(12).getPos().setX(50);
+
+        // Act
+        registry.clear();
+
+        // Assert: recycled characters come back reset
+        assertThat(registry.size()).isZero();
+        assertThat(registry.getLastIndex()).isZero();
+        assertThat(registry.allocate()).isEqualTo(1);
+        assertThat(registry.get(1).getPos().getX()).isZero();
+    }
+}
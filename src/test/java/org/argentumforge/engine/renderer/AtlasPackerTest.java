@@ -0,0 +1,78 @@
+package org.argentumforge.engine.renderer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AtlasPackerTest {
+
+    @Test
+    @DisplayName("Should place rectangles inside the page without overlapping")
+    void shouldPackWithoutOverlap() {
+        // Arrange
+        AtlasPacker packer = new AtlasPacker(256, 1);
+        List<int[]> placed = new ArrayList<>();
+        int[] out = new int[3];
+
+        // Act
+        for (int i = 0; i < 40; i++) {
+            int w = 16 + (i * 7) % 48;
+            int h = 16 + (i * 13) % 40;
+            assertThat(packer.insert(w, h, out)).isTrue();
+            placed.add(new int[] { out[0], out[1] - 1, out[2] - 1, w + 2, h + 2 });
+        }
+
+        // Assert
+        for (int i = 0; i < placed.size(); i++) {
+            int[] a = placed.get(i);
+            assertThat(a[1]).isGreaterThanOrEqualTo(0);
+            assertThat(a[2]).isGreaterThanOrEqualTo(0);
+            assertThat(a[1] + a[3]).isLessThanOrEqualTo(256);
+            assertThat(a[2] + a[4]).isLessThanOrEqualTo(256);
+            for (int j = i + 1; j < placed.size(); j++) {
+                int[] b = placed.get(j);
+                boolean overlap = a[0] == b[0]
+                        && a[1] < b[1] + b[3] && b[1] < a[1] + a[3]
+                        && a[2] < b[2] + b[4] && b[2] < a[2] + a[4];
+                assertThat(overlap).as("rect %d overlaps rect %d", i, j).isFalse();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should open a new page when the current one is full")
+    void shouldOpenNewPageWhenFull() {
+        // Arrange
+        AtlasPacker packer = new AtlasPacker(64, 0);
+        int[] out = new int[3];
+
+        // Act
+        for (int i = 0; i < 5; i++)
+            packer.insert(32, 32, out);
+
+        // Assert
+        assertThat(packer.getPageCount()).isEqualTo(2);
+        assertThat(out[0]).isEqualTo(1);
+        assertThat(out[1]).isZero();
+        assertThat(out[2]).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject rectangles larger than a page")
+    void shouldRejectOversizedRectangles() {
+        // Arrange
+        AtlasPacker packer = new AtlasPacker(64, 1);
+        int[] out = new int[3];
+
+        // Act
+        boolean inserted = packer.insert(63, 10, out);
+
+        // Assert
+        assertThat(inserted).isFalse();
+        assertThat(packer.getPageCount()).isZero();
+    }
+}
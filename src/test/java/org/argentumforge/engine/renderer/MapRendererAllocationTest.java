@@ -0,0 +1,203 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.Engine;
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.scenes.Camera;
+import org.argentumforge.engine.utils.AssetRegistry;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class MapRendererAllocationTest {
+
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 100;
+
+    private final HeadlessBatch batch = new HeadlessBatch();
+    private BatchRenderer previousBatch;
+    private GrhTable previousGrhData;
+
+    @BeforeEach
+    void setUp() {
+        previousBatch = Engine.batch;
+        previousGrhData = AssetRegistry.grhData;
+        Engine.batch = batch;
+        // Export mode keeps the static chunk cache, atlas and instancing (all GL) out of the pass
+        batch.setExportProjection(4096, 4096);
+        AssetRegistry.grhData = grhTable();
+        Map<Integer, Texture> textures = new HashMap<>();
+        for (int fileNum = 1; fileNum <= 3; fileNum++)
+            textures.put(fileNum, new FakeTexture(fileNum));
+        Surface.INSTANCE.useTextures(textures, new FakeTexture(99));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Surface.INSTANCE.useTextures(null, null);
+        AssetRegistry.grhData = previousGrhData;
+        Engine.batch = previousBatch;
+        batch.free();
+    }
+
+    @Test
+    @DisplayName("Should not allocate heap memory per frame once a full map pass is warmed up")
+    void shouldNotAllocatePerRenderPass() {
+        // Arrange
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeThat(bean).isInstanceOf(com.sun.management.ThreadMXBean.class);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        MapContext context = newContext();
+        Camera camera = new Camera();
+        camera.update(50, 50);
+        MapRenderer renderer = new MapRenderer(camera);
+        for (int i = 0; i < WARMUP_FRAMES; i++)
+            renderFrame(renderer, context);
+        long threadId = Thread.currentThread().getId();
+
+        // Act
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++)
+            renderFrame(renderer, context);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert
+        assertThat(batch.getLastQuads()).isPositive();
+        assertThat(allocated / MEASURED_FRAMES).isZero();
+    }
+
+    private void renderFrame(MapRenderer renderer, MapContext context) {
+        batch.beginFrame();
+        batch.begin();
+        renderer.render(context, 0, 0);
+        batch.end();
+    }
+
+    /**
+     * Every tile has ground; the rest of the layers, objects and overlays are
+     * scattered so every pass of the renderer has work.
+     */
+    private static MapContext newContext() {
+        TileStore tiles = new TileStore(101, 101);
+        for (int idx = 0; idx < tiles.size(); idx++) {
+            tiles.initGrh(1, idx, 1 + idx % 4, false);
+            if (idx % 3 == 0)
+                tiles.initGrh(2, idx, 6, true);
+            if (idx % 7 == 0)
+                tiles.initGrh(TileStore.OBJ_SLOT, idx, idx % 14 == 0 ? 5 : 2, false);
+            if (idx % 11 == 0)
+                tiles.initGrh(3, idx, 5, false);
+            if (idx % 5 == 0)
+                tiles.setBlocked(idx, true);
+            if (idx % 13 == 0)
+                tiles.setExitMap(idx, 2);
+        }
+        return new MapContext("Mapa1.map", tiles, new MapProperties(), new CharacterRegistry());
+    }
+
+    /**
+     * GRH 1-4 are 32x32 tiles on two files, GRH 5 is a 64x64 graphic and GRH 6
+     * animates GRH 1 and 2.
+     */
+    private static GrhTable grhTable() {
+        GrhData[] entries = new GrhData[7];
+        entries[0] = new GrhData();
+        for (int grh = 1; grh <= 5; grh++) {
+            int size = grh == 5 ? 64 : 32;
+            GrhData data = new GrhData();
+            data.setNumFrames(1);
+            data.setFrames(new int[] { 0, grh });
+            data.setFileNum(grh == 5 ? 3 : 1 + grh % 2);
+            data.setsX((grh - 1) * 32);
+            data.setPixelWidth(size);
+            data.setPixelHeight(size);
+            data.setTileWidth(size / 32f);
+            data.setTileHeight(size / 32f);
+            entries[grh] = data;
+        }
+        GrhData animated = new GrhData();
+        animated.setNumFrames(2);
+        animated.setFrames(new int[] { 0, 1, 2 });
+        animated.setSpeed(200f);
+        entries[6] = animated;
+        return new GrhTable(entries);
+    }
+
+    /**
+     * Batch without GL objects: each flush sorts and copies the queued quads
+     * the way the real one uploads them.
+     */
+    private static final class HeadlessBatch extends BatchRenderer {
+        private long target;
+        private int targetQuads;
+        private int lastQuads;
+
+        HeadlessBatch() {
+            super(1000);
+        }
+
+        @Override
+        public void end() {
+            QuadBuffer quads = getQuads();
+            int count = quads.size();
+            if (count == 0)
+                return;
+            if (count > targetQuads) {
+                MemoryUtil.nmemFree(target);
+                targetQuads = count * 2;
+                target = MemoryUtil.nmemAllocChecked((long) targetQuads * QuadBuffer.QUAD_SIZE_BYTES);
+            }
+            quads.sort();
+            quads.copyTo(target);
+            lastQuads = count;
+        }
+
+        int getLastQuads() {
+            return lastQuads;
+        }
+
+        void free() {
+            MemoryUtil.nmemFree(target);
+            getQuads().free();
+        }
+    }
+
+    private static final class FakeTexture extends Texture {
+        private final int id;
+
+        FakeTexture(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public int getTex_width() {
+            return 512;
+        }
+
+        @Override
+        public int getTex_height() {
+            return 512;
+        }
+    }
+}
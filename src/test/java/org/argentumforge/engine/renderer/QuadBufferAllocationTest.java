@@ -0,0 +1,112 @@
+package org.argentumforge.engine.renderer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class QuadBufferAllocationTest {
+
+    private static final int QUADS_PER_FRAME = 20_000;
+
+    private final QuadBuffer buffer = new QuadBuffer(1000);
+
+    @AfterEach
+    void tearDown() {
+        buffer.free();
+    }
+
+    @Test
+    @DisplayName("Should not allocate heap memory per frame once warmed up")
+    void shouldNotAllocatePerFrame() {
+        // Arrange
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeThat(bean).isInstanceOf(com.sun.management.ThreadMXBean.class);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long target = MemoryUtil.nmemAllocChecked((long) QUADS_PER_FRAME * QuadBuffer.QUAD_SIZE_BYTES);
+        try {
+            for (int i = 0; i < 50; i++)
+                simulateFrame(target);
+            long threadId = Thread.currentThread().getId();
+
+            // Act
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100; i++)
+                simulateFrame(target);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            // Assert
+            assertThat(allocated / 100).isZero();
+        } finally {
+            MemoryUtil.nmemFree(target);
+        }
+    }
+
+    @Test
+    @DisplayName("Should pack colors in R, G, B, A memory order")
+    void shouldPackColorsInMemoryOrder() {
+        // Arrange
+        int quad = buffer.add(null, false, 0);
+
+        // Act
+        buffer.putVertex(quad, 0, 1f, 2f, 0f, 0f, QuadBuffer.packColor(1f, 0.5f, 0f, 1f));
+
+        // Assert
+        long color = buffer.address() + QuadBuffer.COLOR_OFFSET;
+        assertThat(MemoryUtil.memGetByte(color) & 0xFF).isEqualTo(255);
+        assertThat(MemoryUtil.memGetByte(color + 1) & 0xFF).isEqualTo(128);
+        assertThat(MemoryUtil.memGetByte(color + 2) & 0xFF).isZero();
+        assertThat(MemoryUtil.memGetByte(color + 3) & 0xFF).isEqualTo(255);
+        assertThat(MemoryUtil.memGetFloat(buffer.address() + 4)).isEqualTo(2f);
+    }
+
+    @Test
+    @DisplayName("Should copy quads in texture order while keeping submission order inside a group")
+    void shouldCopyQuadsInSortedOrder() {
+        // Arrange
+        long[] keys = { 7, 3, 7, 3 };
+        for (int i = 0; i < keys.length; i++) {
+            int quad = buffer.add(null, false, keys[i]);
+            buffer.putVertex(quad, 0, i, 0f, 0f, 0f, 0);
+        }
+        long target = MemoryUtil.nmemAllocChecked((long) keys.length * QuadBuffer.QUAD_SIZE_BYTES);
+
+        try {
+            // Act
+            buffer.sort();
+            buffer.copyTo(target);
+
+            // Assert
+            float[] xs = new float[keys.length];
+            for (int i = 0; i < keys.length; i++)
+                xs[i] = MemoryUtil.memGetFloat(target + (long) i * QuadBuffer.QUAD_SIZE_BYTES);
+            assertThat(xs).containsExactly(1f, 3f, 0f, 2f);
+        } finally {
+            MemoryUtil.nmemFree(target);
+        }
+    }
+
+    private void simulateFrame(long target) {
+        buffer.clear();
+        int color = QuadBuffer.packColor(1f, 1f, 1f, 1f);
+        for (int i = 0; i < QUADS_PER_FRAME; i++) {
+            int quad = buffer.add(null, (i & 1) == 0, ((long) (i / 500) << 33) | (i % 17));
+            float x = i % 64;
+            float y = i / 64f;
+            buffer.putVertex(quad, 0, x, y + 1, 0f, 1f, color);
+            buffer.putVertex(quad, 1, x, y, 0f, 0f, color);
+            buffer.putVertex(quad, 2, x + 1, y, 1f, 0f, color);
+            buffer.putVertex(quad, 3, x + 1, y + 1, 1f, 1f, color);
+        }
+        buffer.sort();
+        buffer.copyTo(target);
+    }
+}
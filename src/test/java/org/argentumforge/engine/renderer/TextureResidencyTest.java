@@ -0,0 +1,39 @@
+package org.argentumforge.engine.renderer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextureResidencyTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    @DisplayName("Should evict least recently used textures first, larger ones on ties, down to the low watermark")
+    void shouldEvictLeastRecentlyUsedFirst() {
+        // Arrange: 40 MB resident over a 30 MB budget, so it must drop to 27 MB
+        int[] lastUsed = { 90, 10, 50, 10, 95 };
+        long[] bytes = { 8 * MB, 4 * MB, 8 * MB, 8 * MB, 12 * MB };
+
+        // Act
+        int[] victims = TextureResidency.selectVictims(lastUsed, bytes, 100, 30 * MB);
+
+        // Assert
+        assertThat(victims).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Should never evict textures used in the last frames, even when over budget")
+    void shouldKeepTexturesInViewport() {
+        // Arrange: everything was drawn in the current or previous frame
+        int[] lastUsed = { 100, 99, 98, 10 };
+        long[] bytes = { 16 * MB, 16 * MB, 16 * MB, 1 * MB };
+
+        // Act
+        int[] victims = TextureResidency.selectVictims(lastUsed, bytes, 100, 8 * MB);
+
+        // Assert
+        assertThat(victims).containsExactly(3);
+    }
+}
@@ -0,0 +1,110 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TileChunkCacheTest {
+
+    @Test
+    @DisplayName("Should place single-tile quads on the tile grid")
+    void shouldPlaceSingleTileQuads() {
+        // Arrange
+        GrhData data = grh(32, 32);
+
+        // Act
+        float wx = TileChunkCache.worldX(data, 7);
+        float wy = TileChunkCache.worldY(data, 3);
+
+        // Assert
+        assertThat(wx).isEqualTo(224f);
+        assertThat(wy).isEqualTo(96f);
+    }
+
+    @Test
+    @DisplayName("Should center wide graphics on the column and grow tall ones upwards")
+    void shouldCenterMultiTileQuads() {
+        // Arrange
+        GrhData data = grh(96, 128);
+
+        // Act
+        float wx = TileChunkCache.worldX(data, 7);
+        float wy = TileChunkCache.worldY(data, 10);
+
+        // Assert
+        assertThat(wx).isEqualTo(224f - 48 + 16);
+        assertThat(wy).isEqualTo(320f - 128 + 32);
+    }
+
+    @Test
+    @DisplayName("Should only invalidate the chunk of an edited baked layer")
+    void shouldInvalidateEditedChunk() {
+        // Arrange
+        TileStore tiles = new TileStore(40, 40);
+        clearAll(tiles);
+
+        // Act
+        tiles.setGrh(TileChunkCache.FIRST_LAYER, tiles.index(20, 5), 10);
+        tiles.setGrh(TileChunkCache.LAST_LAYER, tiles.index(3, 35), 11);
+
+        // Assert
+        assertThat(tiles.getChunkCountX()).isEqualTo(3);
+        assertThat(tiles.getChunkCountY()).isEqualTo(3);
+        assertThat(tiles.isChunkDirty(1, 0)).isTrue();
+        assertThat(tiles.isChunkDirty(0, 2)).isTrue();
+        assertThat(tiles.isChunkDirty(0, 0)).isFalse();
+        assertThat(tiles.isChunkDirty(1, 1)).isFalse();
+        assertThat(tiles.isChunkDirty(2, 2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not invalidate chunks for object graphics, which are never baked")
+    void shouldIgnoreObjectWrites() {
+        // Arrange
+        TileStore tiles = new TileStore(40, 40);
+        clearAll(tiles);
+
+        // Act
+        tiles.setGrh(TileStore.OBJ_SLOT, tiles.index(20, 5), 10);
+
+        // Assert
+        assertThat(tiles.isChunkDirty(1, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should start with every chunk pending and rebake all of them on request")
+    void shouldRebakeAllChunks() {
+        // Arrange
+        TileStore tiles = new TileStore(40, 40);
+        assertThat(tiles.isChunkDirty(2, 2)).isTrue();
+        clearAll(tiles);
+
+        // Act
+        tiles.markAllChunksDirty();
+
+        // Assert
+        for (int cy = 0; cy < tiles.getChunkCountY(); cy++) {
+            for (int cx = 0; cx < tiles.getChunkCountX(); cx++)
+                assertThat(tiles.isChunkDirty(cx, cy)).isTrue();
+        }
+    }
+
+    private static GrhData grh(int pixelWidth, int pixelHeight) {
+        GrhData data = new GrhData();
+        data.setPixelWidth(pixelWidth);
+        data.setPixelHeight(pixelHeight);
+        data.setTileWidth((float) pixelWidth / 32);
+        data.setTileHeight((float) pixelHeight / 32);
+        return data;
+    }
+
+    private static void clearAll(TileStore tiles) {
+        for (int cy = 0; cy < tiles.getChunkCountY(); cy++) {
+            for (int cx = 0; cx < tiles.getChunkCountX(); cx++)
+                tiles.clearChunkDirty(cx, cy);
+        }
+    }
+}
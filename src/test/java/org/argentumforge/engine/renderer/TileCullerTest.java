@@ -0,0 +1,142 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TileCullerTest {
+
+    private static final int ALL_PASSES = (1 << TileCuller.PASS_COUNT) - 1;
+
+    @Test
+    @DisplayName("Should keep, per row and pass, only the columns with something to draw")
+    void shouldCullSmallView() {
+        // Arrange
+        TileStore tiles = new TileStore(20, 20);
+        tiles.initGrh(1, tiles.index(3, 2), 10, false);
+        tiles.initGrh(1, tiles.index(5, 2), 11, false); // baked in the static cache
+        tiles.initGrh(2, tiles.index(4, 3), 12, false);
+        tiles.initGrh(TileStore.OBJ_SLOT, tiles.index(6, 3), 13, false);
+        tiles.setCharIndex(tiles.index(2, 4), 1);
+        tiles.initGrh(3, tiles.index(7, 4), 14, false);
+        tiles.initGrh(4, tiles.index(3, 4), 15, false);
+        tiles.setBlocked(tiles.index(2, 2), true);
+        tiles.setBlocked(tiles.index(7, 2), true);
+        tiles.setExitMap(tiles.index(6, 4), 2);
+        tiles.initGrh(1, tiles.index(9, 3), 16, false); // outside the view
+        TileCuller culler = new TileCuller();
+        TileCuller.View view = new TileCuller.View(2, 2, 8, 4, 100, 50, 32);
+
+        // Act
+        culler.cull(view, tiles, ALL_PASSES, (grid, layer, x, y, idx) -> x == 5 && y == 2);
+
+        // Assert
+        assertThat(columns(culler, TileCuller.PASS_GROUND, 2)).containsExactly(3);
+        assertThat(columns(culler, TileCuller.PASS_GROUND, 3)).isEmpty();
+        assertThat(columns(culler, TileCuller.PASS_LAYER2, 3)).containsExactly(4);
+        assertThat(columns(culler, TileCuller.PASS_OBJECTS, 3)).containsExactly(6);
+        assertThat(columns(culler, TileCuller.PASS_UPPER, 3)).containsExactly(6);
+        assertThat(columns(culler, TileCuller.PASS_UPPER, 4)).containsExactly(2, 7);
+        assertThat(columns(culler, TileCuller.PASS_ROOF, 4)).containsExactly(3);
+        assertThat(columns(culler, TileCuller.PASS_BLOCKS, 2)).containsExactly(2, 7);
+        assertThat(columns(culler, TileCuller.PASS_EXITS, 4)).containsExactly(6);
+        assertThat(view.screenX(4)).isEqualTo(164);
+        assertThat(view.screenY(3)).isEqualTo(82);
+    }
+
+    @Test
+    @DisplayName("Should only fill the requested passes")
+    void shouldSkipPassesNotRequested() {
+        // Arrange
+        TileStore tiles = new TileStore(10, 10);
+        tiles.initGrh(1, tiles.index(1, 1), 10, false);
+        tiles.setBlocked(tiles.index(1, 1), true);
+        TileCuller culler = new TileCuller();
+
+        // Act
+        culler.cull(new TileCuller.View(0, 0, 9, 9, 0, 0, 32), tiles, 1 << TileCuller.PASS_BLOCKS,
+                (grid, layer, x, y, idx) -> false);
+
+        // Assert
+        assertThat(culler.count(TileCuller.PASS_GROUND, 1)).isZero();
+        assertThat(culler.count(TileCuller.PASS_BLOCKS, 1)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should produce the same lists as a plain scan when the rows are culled in parallel")
+    void shouldCullLargeViewInParallel() {
+        // Arrange: a view above the parallel threshold with scattered content
+        TileStore tiles = new TileStore(101, 101);
+        Random random = new Random(7);
+        for (int idx = 0; idx < tiles.size(); idx++) {
+            if (random.nextInt(3) == 0)
+                tiles.initGrh(1 + random.nextInt(4), idx, 1 + random.nextInt(100), false);
+            if (random.nextInt(5) == 0)
+                tiles.setBlocked(idx, true);
+            if (random.nextInt(9) == 0)
+                tiles.initGrh(TileStore.OBJ_SLOT, idx, 1 + random.nextInt(100), false);
+        }
+        TileCuller.View view = new TileCuller.View(1, 1, 100, 100, 0, 0, 32);
+        assertThat(100 * 100).isGreaterThanOrEqualTo(TileCuller.PARALLEL_THRESHOLD);
+        TileCuller culler = new TileCuller();
+
+        // Act
+        culler.cull(view, tiles, ALL_PASSES, (grid, layer, x, y, idx) -> (x + y) % 7 == 0);
+
+        // Assert
+        for (int y = 1; y <= 100; y++) {
+            List<Integer> ground = new ArrayList<>();
+            List<Integer> upper = new ArrayList<>();
+            List<Integer> blocks = new ArrayList<>();
+            for (int x = 1; x <= 100; x++) {
+                int idx = tiles.index(x, y);
+                if (tiles.getGrh(1, idx) != 0 && (x + y) % 7 != 0)
+                    ground.add(x);
+                if (tiles.getGrh(TileStore.OBJ_SLOT, idx) > 0 || tiles.getGrh(3, idx) != 0)
+                    upper.add(x);
+                if (tiles.isBlocked(idx))
+                    blocks.add(x);
+            }
+            assertThat(columns(culler, TileCuller.PASS_GROUND, y)).as("ground row %d", y).isEqualTo(ground);
+            assertThat(columns(culler, TileCuller.PASS_UPPER, y)).as("upper row %d", y).isEqualTo(upper);
+            assertThat(columns(culler, TileCuller.PASS_BLOCKS, y)).as("blocks row %d", y).isEqualTo(blocks);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cull again with the same view instance after the camera moves")
+    void shouldReuseViewAcrossFrames() {
+        // Arrange
+        TileStore tiles = new TileStore(101, 101);
+        tiles.initGrh(1, tiles.index(10, 10), 10, false);
+        tiles.initGrh(1, tiles.index(90, 90), 11, false);
+        TileCuller culler = new TileCuller();
+        TileCuller.View view = new TileCuller.View();
+        int ground = 1 << TileCuller.PASS_GROUND;
+
+        // Act: the second frame moves the view and goes through the parallel bands
+        culler.cull(view.set(5, 5, 20, 20, 0, 0, 32), tiles, ground, (grid, layer, x, y, idx) -> false);
+        List<Integer> firstFrame = columns(culler, TileCuller.PASS_GROUND, 10);
+        culler.cull(view.set(1, 1, 100, 100, 0, 0, 32), tiles, ground, (grid, layer, x, y, idx) -> false);
+
+        // Assert
+        assertThat(firstFrame).containsExactly(10);
+        assertThat(columns(culler, TileCuller.PASS_GROUND, 10)).containsExactly(10);
+        assertThat(columns(culler, TileCuller.PASS_GROUND, 90)).containsExactly(90);
+        assertThat(culler.getView()).isSameAs(view);
+        assertThat(view.screenX(90)).isEqualTo(89 * 32);
+    }
+
+    private static List<Integer> columns(TileCuller culler, int pass, int y) {
+        List<Integer> columns = new ArrayList<>();
+        for (int i = 0; i < culler.count(pass, y); i++)
+            columns.add(culler.column(pass, y, i));
+        return columns;
+    }
+}
@@ -0,0 +1,66 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TileInstanceRendererTest {
+
+    @Test
+    @DisplayName("Should read back every instance field the way the vertex attributes decode it")
+    void shouldRoundTripInstanceLayout() {
+        // Arrange
+        int[][] tiles = { { 1, 1 }, { 99, 3 }, { 255, 1024 }, { 65535, 65535 } };
+        ByteBuffer staging = ByteBuffer.allocate(tiles.length * 12).order(ByteOrder.nativeOrder());
+
+        // Act
+        for (int i = 0; i < tiles.length; i++) {
+            staging.putInt(TileInstanceRenderer.packTilePos(tiles[i][0], tiles[i][1]))
+                    .putInt(TileInstanceRenderer.packRect(1000 + i, i % 2 == 1))
+                    .putInt(QuadBuffer.packColor(1f, 0.5f, 0f, 0.25f));
+        }
+
+        // Assert
+        for (int i = 0; i < tiles.length; i++) {
+            int o = i * 12;
+            // iTile: uvec2 from two GL_UNSIGNED_SHORT
+            assertThat(staging.getShort(o) & 0xFFFF).isEqualTo(tiles[i][0]);
+            assertThat(staging.getShort(o + 2) & 0xFFFF).isEqualTo(tiles[i][1]);
+            // iRect: GRH in the low bits, atlas source in the sign bit
+            int rect = staging.getInt(o + 4);
+            assertThat(rect & 0x7FFFFFFF).isEqualTo(1000 + i);
+            assertThat(rect < 0).isEqualTo(i % 2 == 1);
+            // iColor: four normalized GL_UNSIGNED_BYTE in RGBA order
+            assertThat(staging.get(o + 8) & 0xFF).isEqualTo(255);
+            assertThat(staging.get(o + 9) & 0xFF).isEqualTo(128);
+            assertThat(staging.get(o + 10) & 0xFF).isEqualTo(0);
+            assertThat(staging.get(o + 11) & 0xFF).isEqualTo(64);
+        }
+    }
+
+    @Test
+    @DisplayName("Should place exported instances where the baked and batch paths draw the tile")
+    void shouldMatchBatchPlacement() {
+        // Arrange
+        GrhData wide = new GrhData();
+        wide.setPixelWidth(96);
+        wide.setPixelHeight(128);
+        wide.setTileWidth(3f);
+        wide.setTileHeight(4f);
+
+        // Act: the shader adds the per-GRH offset of the table to tile * 32
+        float offsetX = TileChunkCache.worldX(wide, 0);
+        float offsetY = TileChunkCache.worldY(wide, 0);
+
+        // Assert
+        assertThat(12 * 32 + offsetX).isEqualTo(TileChunkCache.worldX(wide, 12));
+        assertThat(40 * 32 + offsetY).isEqualTo(TileChunkCache.worldY(wide, 40));
+        assertThat(offsetX).isEqualTo(-32f);
+        assertThat(offsetY).isEqualTo(-96f);
+    }
+}
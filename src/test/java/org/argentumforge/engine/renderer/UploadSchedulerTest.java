@@ -0,0 +1,87 @@
+package org.argentumforge.engine.renderer;
+
+import org.argentumforge.engine.utils.AssetRegistry;
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadSchedulerTest {
+
+    private static final int ALL_LAYERS = 0b11111;
+
+    @AfterEach
+    void resetGrhData() {
+        AssetRegistry.grhData = null;
+    }
+
+    @Test
+    @DisplayName("Should upload on-screen textures first, then by distance to the camera, then the rest")
+    void shouldUploadByPriority() {
+        // Arrange: GRH n uses file n; file 3 is near the camera, file 2 farther away
+        AssetRegistry.grhData = grhData(5);
+        TileStore tiles = new TileStore(20, 20);
+        tiles.initGrh(1, tiles.index(15, 15), 2, false);
+        tiles.initGrh(2, tiles.index(11, 10), 3, false);
+        UploadScheduler scheduler = new UploadScheduler();
+        for (int fileNum = 1; fileNum <= 4; fileNum++)
+            scheduler.add(data("" + fileNum, 32), fileNum);
+        List<String> order = new ArrayList<>();
+
+        // Act
+        scheduler.focus(tiles, 10, 10, ALL_LAYERS);
+        scheduler.dispatch(fileNum -> fileNum == 4, d -> order.add(d.fileName));
+
+        // Assert
+        assertThat(order).containsExactly("4", "3", "2", "1");
+        assertThat(scheduler.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ignore hidden layers when ranking and respect the byte budget")
+    void shouldSkipHiddenLayersAndRespectBudget() {
+        // Arrange: 1024x1024 sheets are 4 MB each, so only four fit in a frame
+        AssetRegistry.grhData = grhData(8);
+        TileStore tiles = new TileStore(20, 20);
+        tiles.initGrh(4, tiles.index(10, 10), 7, false);
+        UploadScheduler scheduler = new UploadScheduler();
+        for (int fileNum = 1; fileNum <= 7; fileNum++)
+            scheduler.add(data("" + fileNum, 1024), fileNum);
+        List<String> order = new ArrayList<>();
+
+        // Act: roofs (layer 4) hidden
+        scheduler.focus(tiles, 10, 10, ALL_LAYERS & ~(1 << 4));
+        int uploaded = scheduler.dispatch(fileNum -> false, d -> order.add(d.fileName));
+
+        // Assert: file 7 is only on a hidden layer, so it keeps its arrival order
+        assertThat(uploaded).isEqualTo(4);
+        assertThat(order).containsExactly("1", "2", "3", "4");
+        assertThat(scheduler.size()).isEqualTo(3);
+    }
+
+    private static GrhTable grhData(int count) {
+        GrhData[] grhData = new GrhData[count];
+        for (int i = 1; i < count; i++) {
+            grhData[i] = new GrhData();
+            grhData[i].setNumFrames(1);
+            grhData[i].setFileNum(i);
+            grhData[i].setFrames(new int[] { 0, i });
+        }
+        return new GrhTable(grhData);
+    }
+
+    private static Texture.TextureData data(String fileName, int size) {
+        Texture.TextureData data = new Texture.TextureData();
+        data.fileName = fileName;
+        data.width = size;
+        data.height = size;
+        return data;
+    }
+}
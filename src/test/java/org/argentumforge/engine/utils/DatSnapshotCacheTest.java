@@ -0,0 +1,115 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.utils.inits.NpcData;
+import org.argentumforge.engine.utils.inits.ObjData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatSnapshotCacheTest {
+
+    private static final String NPCS = """
+            [NPC1]
+            Name=Guardia de Ullathorpe
+            Head=5
+            Body=21
+
+            [NPC2]
+            Name=Lobo
+            Body=8
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should restore the parsed records from a snapshot")
+    void shouldRoundTripNpcs() throws IOException {
+        // Arrange
+        Path source = Files.writeString(tempDir.resolve("NPCs.dat"), NPCS, StandardCharsets.ISO_8859_1);
+        Path snapshot = tempDir.resolve("npcs.bin");
+        IntObjectTable<NpcData> parsed = ResourceLoader.parseNpcs(source);
+        DatSnapshotCache.write(snapshot, parsed.values(), ResourceLoader.NPC_CODEC, DatSnapshotCache.Stamp.of(source),
+                source);
+
+        // Act
+        IntObjectTable<NpcData> cached = DatSnapshotCache.read(source, snapshot, ResourceLoader.NPC_CODEC);
+
+        // Assert
+        assertThat(cached.keys()).containsExactly(1, 2);
+        assertThat(cached.get(1).getName()).isEqualTo("Guardia de Ullathorpe");
+        assertThat(cached.get(1).getHead()).isEqualTo(5);
+        assertThat(cached.get(2).getBody()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the snapshot when the source content changes")
+    void shouldInvalidateOnContentChange() throws IOException {
+        // Arrange
+        Path source = Files.writeString(tempDir.resolve("NPCs.dat"), NPCS, StandardCharsets.ISO_8859_1);
+        Path snapshot = tempDir.resolve("npcs.bin");
+        DatSnapshotCache.write(snapshot, ResourceLoader.parseNpcs(source).values(), ResourceLoader.NPC_CODEC,
+                DatSnapshotCache.Stamp.of(source), source);
+        FileTime modified = Files.getLastModifiedTime(source);
+
+        // Same size and mtime would hide the edit, so the mtime is moved forward
+        Files.writeString(source, NPCS.replace("Lobo", "Oso "), StandardCharsets.ISO_8859_1);
+        Files.setLastModifiedTime(source, FileTime.fromMillis(modified.toMillis() + 2000));
+
+        // Act
+        IntObjectTable<NpcData> cached = DatSnapshotCache.read(source, snapshot, ResourceLoader.NPC_CODEC);
+
+        // Assert
+        assertThat(cached).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep using the snapshot when only the modification time changed")
+    void shouldAcceptTouchedSourceWithSameContent() throws IOException {
+        // Arrange
+        Path source = Files.writeString(tempDir.resolve("OBJ.dat"), "[OBJ1]\nName=Manzana\nGrhIndex=512\nObjType=1\n",
+                StandardCharsets.ISO_8859_1);
+        Path snapshot = tempDir.resolve("objs.bin");
+        DatSnapshotCache.write(snapshot, ResourceLoader.parseObjs(source).values(), ResourceLoader.OBJ_CODEC,
+                DatSnapshotCache.Stamp.of(source), source);
+        Files.setLastModifiedTime(source,
+                FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 60_000));
+
+        // Act
+        IntObjectTable<ObjData> cached = DatSnapshotCache.read(source, snapshot, ResourceLoader.OBJ_CODEC);
+        // The header is rewritten in the background; wait for it before the directory is removed
+        DatSnapshotCache.lastWrite().join();
+
+        // Assert
+        assertThat(cached.keys()).containsExactly(1);
+        assertThat(cached.get(1).getGrhIndex()).isEqualTo(512);
+        assertThat(cached.get(1).getType()).isEqualTo(1);
+        assertThat(DatSnapshotCache.read(source, snapshot, ResourceLoader.OBJ_CODEC).keys()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Should not write a snapshot when the source changed after it was stamped")
+    void shouldSkipWriteWhenSourceChangedWhileParsing() throws IOException {
+        // Arrange
+        Path source = Files.writeString(tempDir.resolve("NPCs.dat"), NPCS, StandardCharsets.ISO_8859_1);
+        Path snapshot = tempDir.resolve("npcs.bin");
+        DatSnapshotCache.Stamp stamp = DatSnapshotCache.Stamp.of(source);
+        IntObjectTable<NpcData> parsed = ResourceLoader.parseNpcs(source);
+        Files.writeString(source, NPCS + "\n[NPC3]\nName=Oso\n", StandardCharsets.ISO_8859_1);
+
+        // Act
+        DatSnapshotCache.writeAsync(snapshot, parsed, ResourceLoader.NPC_CODEC, stamp, source).join();
+
+        // Assert
+        assertThat(snapshot).doesNotExist();
+        assertThat(DatSnapshotCache.read(source, snapshot, ResourceLoader.NPC_CODEC)).isNull();
+    }
+}
@@ -0,0 +1,143 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.utils.inits.ObjData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.tinylog.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntObjectTableTest {
+
+    @Test
+    @DisplayName("Should behave like a map for the operations the registry uses")
+    void shouldStoreAndRemoveValues() {
+        // Arrange
+        IntObjectTable<String> table = new IntObjectTable<>(2);
+
+        // Act
+        table.put(7, "seven");
+        table.put(3, "three");
+        table.put(40, "forty");
+        String replaced = table.put(7, "SEVEN");
+        String removed = table.remove(3);
+
+        // Assert
+        assertThat(replaced).isEqualTo("seven");
+        assertThat(removed).isEqualTo("three");
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.get(7)).isEqualTo("SEVEN");
+        assertThat(table.get(3)).isNull();
+        assertThat(table.get(-1)).isNull();
+        assertThat(table.get(1000)).isNull();
+        assertThat(table.containsKey(40)).isTrue();
+        assertThat(table.firstKey()).isEqualTo(7);
+        assertThat(table.keys()).containsExactly(7, 40);
+        assertThat(table.values()).containsExactly("SEVEN", "forty");
+    }
+
+    @Test
+    @DisplayName("Should reject IDs outside the supported range")
+    void shouldRejectOutOfRangeKeys() {
+        // Arrange
+        IntObjectTable<String> table = new IntObjectTable<>();
+
+        // Act & Assert
+        assertThatThrownBy(() -> table.put(-1, "x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.put(IntObjectTable.MAX_KEY + 1, "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(table.isEmpty()).isTrue();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: full-map scan with boxed HashMaps vs dense tables")
+    void benchmarkFullMapScan() {
+        // Arrange: a 100x100 map whose ground and objects reference typical ID ranges
+        Random random = new Random(42);
+        int tiles = 100 * 100;
+        int[] groundGrh = new int[tiles];
+        int[] objIndex = new int[tiles];
+        for (int i = 0; i < tiles; i++) {
+            groundGrh[i] = 1 + random.nextInt(20_000);
+            objIndex[i] = random.nextInt(4) == 0 ? 1 + random.nextInt(1_500) : 0;
+        }
+
+        Map<Integer, Integer> colorMap = new HashMap<>();
+        int[] colorTable = new int[20_001];
+        for (int grh = 1; grh <= 20_000; grh += 2) {
+            int color = 0xFF000000 | grh;
+            colorMap.put(grh, color);
+            colorTable[grh] = color;
+        }
+
+        Map<Integer, ObjData> objMap = new HashMap<>();
+        IntObjectTable<ObjData> objTable = new IntObjectTable<>();
+        for (int number = 1; number <= 1_500; number++) {
+            ObjData obj = new ObjData(number);
+            obj.setType(number % 8);
+            objMap.put(number, obj);
+            objTable.put(number, obj);
+        }
+
+        int rounds = 300;
+        for (int i = 0; i < rounds; i++) {
+            scanBoxed(groundGrh, objIndex, colorMap, objMap);
+            scanDense(groundGrh, objIndex, colorTable, objTable);
+        }
+
+        // Act
+        long boxedStart = System.nanoTime();
+        long boxedSum = 0;
+        for (int i = 0; i < rounds; i++)
+            boxedSum += scanBoxed(groundGrh, objIndex, colorMap, objMap);
+        long boxedNanos = System.nanoTime() - boxedStart;
+
+        long denseStart = System.nanoTime();
+        long denseSum = 0;
+        for (int i = 0; i < rounds; i++)
+            denseSum += scanDense(groundGrh, objIndex, colorTable, objTable);
+        long denseNanos = System.nanoTime() - denseStart;
+
+        Logger.info("Full-map scan ({} tiles, {} rounds):", tiles, rounds);
+        Logger.info("  HashMap<Integer, ...>      : {} us/scan", boxedNanos / rounds / 1_000);
+        Logger.info("  int[] + IntObjectTable     : {} us/scan", denseNanos / rounds / 1_000);
+
+        // Assert
+        assertThat(denseSum).isEqualTo(boxedSum);
+    }
+
+    /** Previous lookups: containsKey + get on the color map and get on the objects. */
+    private static long scanBoxed(int[] groundGrh, int[] objIndex, Map<Integer, Integer> colors,
+            Map<Integer, ObjData> objs) {
+        long sum = 0;
+        for (int i = 0; i < groundGrh.length; i++) {
+            if (colors.containsKey(groundGrh[i]))
+                sum += colors.get(groundGrh[i]);
+            ObjData obj = objs.get(objIndex[i]);
+            if (obj != null)
+                sum += obj.getType();
+        }
+        return sum;
+    }
+
+    private static long scanDense(int[] groundGrh, int[] objIndex, int[] colors, IntObjectTable<ObjData> objs) {
+        long sum = 0;
+        for (int i = 0; i < groundGrh.length; i++) {
+            int grh = groundGrh[i];
+            int color = grh < colors.length ? colors[grh] : AssetRegistry.NO_MINIMAP_COLOR;
+            if (color != AssetRegistry.NO_MINIMAP_COLOR)
+                sum += color;
+            ObjData obj = objs.get(objIndex[i]);
+            if (obj != null)
+                sum += obj.getType();
+        }
+        return sum;
+    }
+}
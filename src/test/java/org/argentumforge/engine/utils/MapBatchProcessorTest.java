@@ -0,0 +1,102 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.utils.MapBatchProcessor.Operation;
+import org.argentumforge.engine.utils.MapManager.MapFormatType;
+import org.argentumforge.engine.utils.MapManager.MapSaveOptions;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MapBatchProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should convert a directory of maps to V1 without an active context")
+    void shouldConvertDirectory() throws IOException {
+        // Arrange
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        Path output = tempDir.resolve("out");
+        for (int map = 1; map <= 3; map++)
+            writeSampleMap(input.resolve("Mapa" + map + ".map"), map, MapSaveOptions.extended());
+        MapBatchProcessor processor = new MapBatchProcessor(Operation.CONVERT, MapSaveOptions.v1Legacy(), output,
+                2);
+
+        // Act
+        MapBatchProcessor.Report report = processor.run(input);
+
+        // Assert
+        assertThat(report.getProcessed()).isEqualTo(3);
+        assertThat(report.isClean()).isTrue();
+
+        MapContext converted = MapManager.readMap(output.resolve("Mapa2.map").toString(), null);
+        TileStore tiles = converted.getTiles();
+        int idx = tiles.index(10, 20);
+        assertThat(converted.getSaveOptions().getFormatType()).isEqualTo(MapFormatType.V1_LEGACY);
+        assertThat(tiles.getGrh(1, idx)).isEqualTo(1002);
+        assertThat(tiles.getGrh(2, idx)).isEqualTo(2002);
+        assertThat(tiles.isBlocked(idx)).isTrue();
+        assertThat(tiles.getObjIndex(idx)).isEqualTo(12);
+        assertThat(converted.getMapProperties().getName()).isEqualTo("Sample 2");
+    }
+
+    @Test
+    @DisplayName("Should report validation problems and fail empty or truncated maps instead of reading them as empty")
+    void shouldReportProblems() throws IOException {
+        // Arrange
+        Path input = Files.createDirectories(tempDir.resolve("in"));
+        MapContext broken = writeSampleMap(input.resolve("Mapa1.map"), 1, MapSaveOptions.standard());
+        TileStore tiles = broken.getTiles();
+        int idx = tiles.index(5, 5);
+        tiles.setExitMap(idx, 2);
+        tiles.setExitX(idx, 300);
+        tiles.setExitY(idx, 300);
+        // The sample tile (10, 20) is blocked and already holds an object
+        tiles.setNpcIndex(tiles.index(10, 20), 500);
+        MapManager.writeMap(broken, input.resolve("Mapa1.map").toString(), MapSaveOptions.standard());
+        byte[] complete = Files.readAllBytes(input.resolve("Mapa1.map"));
+        Files.createDirectory(input.resolve("Mapa2.map"));
+        Files.write(input.resolve("Mapa3.MAP"), new byte[0]);
+        Files.write(input.resolve("Mapa4.map"), Arrays.copyOf(complete, complete.length / 2));
+        MapBatchProcessor processor = new MapBatchProcessor(Operation.VALIDATE, null, null, 4);
+
+        // Act
+        MapBatchProcessor.Report report = processor.run(input);
+
+        // Assert: directories are skipped; the NPC is found without a character list
+        assertThat(report.getProcessed()).isEqualTo(3);
+        assertThat(report.getResults().get(0).getErrors()).isEqualTo(1);
+        assertThat(report.getResults().get(0).getWarnings()).isEqualTo(2);
+        assertThat(report.getResults().get(1).isSuccess()).isFalse();
+        assertThat(report.getResults().get(2).isSuccess()).isFalse();
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.format()).contains("Mapa1.map", "Mapa3.MAP", "Mapa4.map");
+    }
+
+    private static MapContext writeSampleMap(Path file, int seed, MapSaveOptions options) throws IOException {
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        int idx = tiles.index(10, 20);
+        tiles.initGrh(1, idx, 1000 + seed, true);
+        tiles.initGrh(2, idx, 2000 + seed, true);
+        tiles.setBlocked(idx, true);
+        tiles.setObjIndex(idx, 10 + seed);
+        tiles.setObjAmount(idx, 1);
+
+        MapProperties properties = new MapProperties();
+        properties.setName("Sample " + seed);
+        MapContext context = new MapContext(file.toString(), tiles, properties, new CharacterRegistry());
+        MapManager.writeMap(context, file.toString(), options);
+        return context;
+    }
+}
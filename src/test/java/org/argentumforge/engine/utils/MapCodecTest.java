@@ -0,0 +1,229 @@
+package org.argentumforge.engine.utils;
+
+import com.sun.management.ThreadMXBean;
+import org.argentumforge.engine.utils.MapManager.MapFormatType;
+import org.argentumforge.engine.utils.MapManager.MapSaveOptions;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class MapCodecTest {
+
+    /** Directory with the real .map files the benchmark measures. */
+    private static final String CORPUS_PROPERTY = "argentumforge.benchmark.maps";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should round-trip every supported layout through a file")
+    void shouldRoundTripAllLayouts() throws IOException {
+        // Arrange
+        TileStore original = sampleMap(7);
+        MapCodec codec = MapCodec.get();
+
+        for (MapSaveOptions options : List.of(MapSaveOptions.standard(), MapSaveOptions.v1Legacy(),
+                MapSaveOptions.aoLibre(), MapSaveOptions.extended())) {
+            Path file = tempDir.resolve("Mapa" + options.getVersion() + options.isUseLongIndices()
+                    + options.getFormatType() + ".map");
+
+            // Act
+            codec.write(file, original, options);
+            ByteBuffer data = codec.readFile(file);
+            MapSaveOptions detected = MapManager.detectSaveOptions(data);
+            TileStore decoded = codec.decode(data, detected);
+
+            // Assert
+            assertThat(data.remaining()).isEqualTo(MapCodec.encodedSize(original, options));
+            assertThat(detected.getFormatType()).isEqualTo(options.getFormatType());
+            assertThat(detected.isUseLongIndices()).isEqualTo(options.isUseLongIndices());
+            assertSameTiles(decoded, original, options.getFormatType() != MapFormatType.V1_LEGACY);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep indices above 65535 only in long-index layouts")
+    void shouldPreserveLongIndices() {
+        // Arrange
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        int idx = tiles.index(50, 50);
+        tiles.initGrh(1, idx, 70_000, true);
+        tiles.initGrh(3, idx, 65_535, true);
+        MapCodec codec = MapCodec.get();
+
+        // Act
+        TileStore extended = codec.decode(codec.encode(tiles, MapSaveOptions.extended(), MapCodec.headerMetadata()),
+                MapSaveOptions.extended());
+        TileStore standard = codec.decode(codec.encode(tiles, MapSaveOptions.standard(), MapCodec.headerMetadata()),
+                MapSaveOptions.standard());
+
+        // Assert
+        assertThat(extended.getGrh(1, idx)).isEqualTo(70_000);
+        assertThat(extended.getGrh(3, idx)).isEqualTo(65_535);
+        assertThat(standard.getGrh(1, idx)).isEqualTo(70_000 & 0xFFFF);
+        assertThat(standard.getGrh(3, idx)).isEqualTo(65_535);
+    }
+
+    @Test
+    @DisplayName("Should leave the missing tiles empty when the file is truncated")
+    void shouldDecodeTruncatedMap() {
+        // Arrange
+        TileStore original = sampleMap(3);
+        MapCodec codec = MapCodec.get();
+        ByteBuffer full = codec.encode(original, MapSaveOptions.standard(), MapCodec.headerMetadata());
+        ByteBuffer truncated = full.duplicate().limit(full.limit() / 2);
+
+        // Act
+        TileStore decoded = codec.decode(truncated, MapSaveOptions.standard());
+
+        // Assert
+        int first = decoded.index(1, 1);
+        int last = decoded.index(100, 100);
+        assertThat(decoded.getGrh(1, first)).isEqualTo(original.getGrh(1, first));
+        assertThat(decoded.getGrh(1, last)).isZero();
+        assertThat(truncated.position()).isZero();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: decode and encode throughput and allocations per map on real maps")
+    void benchmarkCodec() throws IOException {
+        // Arrange: the real .map files of a client, grouped by detected layout
+        String corpusDir = System.getProperty(CORPUS_PROPERTY);
+        assumeThat(corpusDir).as("directory with real .map files (-P%s=<dir>)", "benchmarkMaps").isNotNull();
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeThat(bean).isInstanceOf(ThreadMXBean.class);
+        ThreadMXBean threads = (ThreadMXBean) bean;
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        MapCodec codec = MapCodec.get();
+        byte[] metadata = MapCodec.headerMetadata();
+        Map<String, List<ByteBuffer>> corpus = new TreeMap<>();
+        Map<String, MapSaveOptions> layouts = new HashMap<>();
+        try (Stream<Path> files = Files.list(Path.of(corpusDir))) {
+            for (Path file : files.filter(MapCodecTest::isMapFile).sorted().toList()) {
+                ByteBuffer data = codec.readFile(file);
+                ByteBuffer copy = ByteBuffer.allocate(data.remaining()).put(data).flip();
+                MapSaveOptions options = MapManager.detectSaveOptions(copy);
+                String layout = MapBatchProcessor.describe(options);
+                layouts.putIfAbsent(layout, options);
+                corpus.computeIfAbsent(layout, k -> new ArrayList<>()).add(copy);
+            }
+        }
+        assumeThat(corpus).as("no .map files in %s", corpusDir).isNotEmpty();
+        int rounds = 40;
+
+        for (Map.Entry<String, List<ByteBuffer>> entry : corpus.entrySet()) {
+            MapSaveOptions options = layouts.get(entry.getKey());
+            ByteBuffer[] encoded = entry.getValue().toArray(ByteBuffer[]::new);
+            TileStore[] maps = new TileStore[encoded.length];
+            long corpusBytes = 0;
+            for (int i = 0; i < encoded.length; i++) {
+                maps[i] = codec.decode(encoded[i], options);
+                corpusBytes += encoded[i].remaining();
+            }
+
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < maps.length; i++) {
+                    codec.decode(encoded[i], options);
+                    codec.encode(maps[i], options, metadata);
+                }
+            }
+
+            // Act
+            long allocStart = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < maps.length; i++)
+                    checksum += codec.decode(encoded[i], options).getGrh(1, 5050);
+            }
+            long decodeNanos = System.nanoTime() - start;
+            long decodeAlloc = threads.getCurrentThreadAllocatedBytes() - allocStart;
+
+            allocStart = threads.getCurrentThreadAllocatedBytes();
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < maps.length; i++)
+                    checksum += codec.encode(maps[i], options, metadata).remaining();
+            }
+            long encodeNanos = System.nanoTime() - start;
+            long encodeAlloc = threads.getCurrentThreadAllocatedBytes() - allocStart;
+
+            double megabytes = corpusBytes * rounds / (1024.0 * 1024.0);
+            int mapCount = maps.length * rounds;
+            Logger.info("{}: {} maps, {} bytes/map", entry.getKey(), maps.length, corpusBytes / maps.length);
+            Logger.info("  decode: {} MB/s, {} bytes allocated/map (TileStore included)",
+                    (long) (megabytes / (decodeNanos / 1e9)), decodeAlloc / mapCount);
+            Logger.info("  encode: {} MB/s, {} bytes allocated/map", (long) (megabytes / (encodeNanos / 1e9)),
+                    encodeAlloc / mapCount);
+
+            // Assert: encoding reuses the thread buffer instead of allocating one per map
+            assertThat(checksum).isPositive();
+            assertThat(encodeAlloc / mapCount).isLessThan(1024);
+        }
+    }
+
+    private static boolean isMapFile(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".map");
+    }
+
+    /** Map with randomly placed layers, blocks, triggers and particles. */
+    private static TileStore sampleMap(int seed) {
+        Random random = new Random(seed);
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        int chance = 6;
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
+                int idx = tiles.index(x, y);
+                tiles.initGrh(1, idx, 1 + random.nextInt(30_000), true);
+                for (int layer = 2; layer <= 4; layer++) {
+                    if (random.nextInt(chance) == 0)
+                        tiles.initGrh(layer, idx, 1 + random.nextInt(30_000), true);
+                }
+                tiles.setBlocked(idx, random.nextInt(chance) == 0);
+                if (random.nextInt(chance * 2) == 0)
+                    tiles.setTrigger(idx, 1 + random.nextInt(8));
+                if (random.nextInt(chance * 4) == 0)
+                    tiles.setParticleIndex(idx, 1 + random.nextInt(200));
+            }
+        }
+        return tiles;
+    }
+
+    private static void assertSameTiles(TileStore actual, TileStore expected, boolean withParticles) {
+        for (int y = GameData.Y_MIN_MAP_SIZE; y <= GameData.Y_MAX_MAP_SIZE; y++) {
+            for (int x = GameData.X_MIN_MAP_SIZE; x <= GameData.X_MAX_MAP_SIZE; x++) {
+                int idx = expected.index(x, y);
+                for (int layer = 1; layer <= 4; layer++)
+                    assertThat(actual.getGrh(layer, idx)).as("layer %d at %d,%d", layer, x, y)
+                            .isEqualTo(expected.getGrh(layer, idx));
+                assertThat(actual.isBlocked(idx)).isEqualTo(expected.isBlocked(idx));
+                assertThat(actual.getTrigger(idx)).isEqualTo(expected.getTrigger(idx));
+                assertThat(actual.getParticleIndex(idx))
+                        .isEqualTo(withParticles ? expected.getParticleIndex(idx) : 0);
+            }
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package org.argentumforge.engine.utils;
 
+import org.argentumforge.engine.game.models.CharacterRegistry;
 import org.argentumforge.engine.utils.MapManager.MapSaveOptions;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.TileStore;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class MapManagerTest {
 
+    @TempDir
+    Path tempDir;
+
     @Test
     @DisplayName("Should create standard save options")
     void shouldCreateStandardSaveOptions() {
@@ -169,4 +181,64 @@ class MapManagerTest {
 
         assertThat(hasChanges).isFalse();
     }
+
+    @Test
+    @DisplayName("Should keep the previous .dat and .inf and leave no temp files when the .map rename fails")
+    void shouldKeepPreviousFilesWhenWriteFails() throws IOException {
+        // Arrange
+        Path mapFile = tempDir.resolve("Mapa1.map");
+        Path datFile = tempDir.resolve("Mapa1.dat");
+        Path infFile = tempDir.resolve("Mapa1.inf");
+        MapContext first = sampleContext(mapFile, 1000);
+        MapManager.writeMap(first, mapFile.toString(), MapSaveOptions.standard());
+        byte[] previousDat = Files.readAllBytes(datFile);
+        byte[] previousInf = Files.readAllBytes(infFile);
+
+        // A non-empty directory where the .map goes makes the last rename fail,
+        // after the .dat and .inf were already replaced
+        Files.delete(mapFile);
+        Files.createDirectories(mapFile.resolve("blocker"));
+        MapContext second = sampleContext(mapFile, 2000);
+        second.getMapProperties().setName("Renamed");
+        second.getTiles().setExitMap(second.getTiles().index(10, 10), 7);
+
+        // Act / Assert
+        assertThatThrownBy(() -> MapManager.writeMap(second, mapFile.toString(), MapSaveOptions.standard()))
+                .isInstanceOf(IOException.class);
+        assertThat(Files.readAllBytes(datFile)).isEqualTo(previousDat);
+        assertThat(Files.readAllBytes(infFile)).isEqualTo(previousInf);
+        assertThat(mapFile.resolve("blocker")).isDirectory();
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .noneMatch(name -> name.endsWith(".tmp") || name.endsWith(".bak"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should save a snapshot that is independent of later edits")
+    void shouldSaveIndependentSnapshot() throws IOException {
+        // Arrange
+        Path mapFile = tempDir.resolve("Mapa2.map");
+        MapContext context = sampleContext(mapFile, 1000);
+        TileStore snapshot = context.getTiles().copy();
+        int idx = snapshot.index(10, 20);
+
+        // Act: keep editing the live map after taking the snapshot
+        context.getTiles().initGrh(1, idx, 5555, true);
+        MapManager.writeMap(new MapContext(mapFile.toString(), snapshot, context.getMapProperties().copy(), null),
+                mapFile.toString(), MapSaveOptions.standard());
+
+        // Assert
+        MapContext saved = MapManager.readMap(mapFile.toString(), null);
+        assertThat(saved.getTiles().getGrh(1, idx)).isEqualTo(1000);
+        assertThat(saved.getTiles().isBlocked(idx)).isTrue();
+    }
+
+    private static MapContext sampleContext(Path file, int grh) {
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        int idx = tiles.index(10, 20);
+        tiles.initGrh(1, idx, grh, true);
+        tiles.setBlocked(idx, true);
+        return new MapContext(file.toString(), tiles, new MapProperties(), new CharacterRegistry());
+    }
 }
@@ -0,0 +1,93 @@
+package org.argentumforge.engine.utils;
+
+import org.argentumforge.engine.utils.inits.GrhData;
+import org.argentumforge.engine.utils.inits.GrhTable;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MapPrefetcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void resetGrhData() {
+        AssetRegistry.grhData = null;
+    }
+
+    @Test
+    @DisplayName("Should pick exit destinations first, then the adjacent map numbers")
+    void shouldCollectNeighbours() {
+        // Arrange
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        tiles.setExitMap(tiles.index(1, 50), 12);
+        tiles.setExitMap(tiles.index(2, 50), 12);
+        tiles.setExitMap(tiles.index(50, 1), 7);
+        tiles.setExitMap(tiles.index(50, 100), 10);
+
+        // Act
+        int[] neighbours = MapPrefetcher.neighbourMaps(tiles, 10, 4);
+        int[] limited = MapPrefetcher.neighbourMaps(tiles, 10, 2);
+
+        // Assert: duplicates and the current map are skipped
+        assertThat(neighbours).containsExactly(7, 12, 9, 11);
+        assertThat(limited).containsExactly(7, 12);
+    }
+
+    @Test
+    @DisplayName("Should change the stamp when a companion file is edited")
+    void shouldDetectCompanionChanges() throws IOException {
+        // Arrange
+        Path map = Files.write(tempDir.resolve("Mapa3.map"), new byte[] { 1, 0 });
+        Path inf = Files.write(tempDir.resolve("Mapa3.inf"), new byte[10]);
+        long before = MapPrefetcher.stamp(map.toString());
+
+        // Act
+        Files.setLastModifiedTime(inf, FileTime.fromMillis(Files.getLastModifiedTime(inf).toMillis() + 5_000));
+        long after = MapPrefetcher.stamp(map.toString());
+
+        // Assert
+        assertThat(MapPrefetcher.stamp(map.toString())).isEqualTo(after);
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should collect the file of static GRHs and every frame of animated ones")
+    void shouldCollectTextureFiles() {
+        // Arrange: GRH 1 is static (file 10); GRH 4 animates GRHs 2 and 3 (files 20, 30)
+        GrhData[] grhData = new GrhData[5];
+        grhData[1] = grh(10, 1, new int[] { 0, 1 });
+        grhData[2] = grh(20, 1, new int[] { 0, 2 });
+        grhData[3] = grh(30, 1, new int[] { 0, 3 });
+        grhData[4] = grh(0, 2, new int[] { 0, 2, 3 });
+        AssetRegistry.grhData = new GrhTable(grhData);
+        TileStore tiles = new TileStore(10, 10);
+        tiles.initGrh(1, tiles.index(2, 2), 1, false);
+        tiles.initGrh(3, tiles.index(5, 5), 4, false);
+
+        // Act
+        Set<Integer> fileNums = MapPrefetcher.collectFileNums(tiles);
+
+        // Assert
+        assertThat(fileNums).containsExactlyInAnyOrder(10, 20, 30);
+    }
+
+    private static GrhData grh(int fileNum, int numFrames, int[] frames) {
+        GrhData grh = new GrhData();
+        grh.setFileNum(fileNum);
+        grh.setNumFrames(numFrames);
+        grh.setFrames(frames);
+        return grh;
+    }
+}
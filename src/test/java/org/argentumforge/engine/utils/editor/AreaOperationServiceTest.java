@@ -0,0 +1,138 @@
+package org.argentumforge.engine.utils.editor;
+
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AreaOperationServiceTest {
+
+    private static final boolean[] LAYERS_1_AND_3 = { true, false, true, false };
+
+    @AfterEach
+    void restoreThreshold() {
+        AreaOperationService.parallelThreshold = AreaOperationService.PARALLEL_THRESHOLD;
+    }
+
+    @Test
+    @DisplayName("Should produce the same random fill for the same seed regardless of how the area is split")
+    void shouldReproduceRandomFillWithSeed() {
+        // Arrange: large enough to be processed in parallel bands
+        MapContext whole = newContext(400, 400);
+        MapContext split = newContext(400, 400);
+
+        // Act
+        int wholeCount = AreaOperationService.fillSurfaceRandom(whole, 0, 0, 399, 399, 7, LAYERS_1_AND_3, 0.3f, 42L);
+        int splitCount = 0;
+        for (int y = 0; y < 400; y += 50)
+            splitCount += AreaOperationService.fillSurfaceRandom(split, 0, y, 399, y + 49, 7, LAYERS_1_AND_3, 0.3f, 42L);
+
+        // Assert
+        assertThat(wholeCount).isPositive().isEqualTo(splitCount);
+        TileStore a = whole.getTiles();
+        TileStore b = split.getTiles();
+        for (int i = 0; i < a.size(); i++) {
+            assertThat(a.getGrh(1, i)).isEqualTo(b.getGrh(1, i));
+            assertThat(a.getGrh(2, i)).isZero();
+            assertThat(a.getGrh(3, i)).isEqualTo(b.getGrh(3, i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should produce the same tiles with parallel bands forced on and forced off")
+    void shouldMatchSequentialAndParallelBands() {
+        // Arrange: two identical maps with scattered content
+        MapContext sequential = newContext(101, 101);
+        MapContext parallel = newContext(101, 101);
+        scatter(sequential.getTiles(), 5L);
+        scatter(parallel.getTiles(), 5L);
+
+        // Act
+        AreaOperationService.parallelThreshold = Integer.MAX_VALUE;
+        int[] sequentialCounts = applyOperations(sequential);
+        AreaOperationService.parallelThreshold = 0;
+        int[] parallelCounts = applyOperations(parallel);
+
+        // Assert
+        assertThat(sequentialCounts).containsExactly(parallelCounts);
+        assertThat(sequentialCounts).allMatch(count -> count > 0);
+        TileStore a = sequential.getTiles();
+        TileStore b = parallel.getTiles();
+        for (int i = 0; i < a.size(); i++) {
+            for (int layer = 1; layer <= 4; layer++)
+                assertThat(a.getGrh(layer, i)).as("layer %d at %d", layer, i).isEqualTo(b.getGrh(layer, i));
+            assertThat(a.isBlocked(i)).as("blocked at %d", i).isEqualTo(b.isBlocked(i));
+            assertThat(a.getTrigger(i)).as("trigger at %d", i).isEqualTo(b.getTrigger(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should run a whole-map operation through the parallel bands at the default threshold")
+    void shouldRunWholeMapInParallel() {
+        // Arrange
+        MapContext context = newContext(101, 101);
+        MapContext reference = newContext(101, 101);
+        scatter(context.getTiles(), 9L);
+        scatter(reference.getTiles(), 9L);
+
+        // Act
+        int bands = AreaOperationService.bandCount(100, 100);
+        int count = AreaOperationService.invertBlocks(context, 1, 1, 100, 100);
+        AreaOperationService.parallelThreshold = Integer.MAX_VALUE;
+        int referenceCount = AreaOperationService.invertBlocks(reference, 1, 1, 100, 100);
+
+        // Assert
+        assertThat(bands).isGreaterThan(1);
+        assertThat(count).isEqualTo(100 * 100).isEqualTo(referenceCount);
+        TileStore a = context.getTiles();
+        TileStore b = reference.getTiles();
+        for (int i = 0; i < a.size(); i++)
+            assertThat(a.isBlocked(i)).as("blocked at %d", i).isEqualTo(b.isBlocked(i));
+    }
+
+    @Test
+    @DisplayName("Should clip the area to the map and only count changed tiles")
+    void shouldClipAndCountChanges() {
+        // Arrange
+        MapContext context = newContext(101, 101);
+        TileStore tiles = context.getTiles();
+        tiles.setBlocked(tiles.index(0, 0), true);
+
+        // Act
+        int count = AreaOperationService.fillBlocks(context, -10, -10, 9, 0);
+
+        // Assert
+        assertThat(count).isEqualTo(9);
+        assertThat(tiles.isBlocked(tiles.index(9, 0))).isTrue();
+        assertThat(tiles.isBlocked(tiles.index(10, 0))).isFalse();
+    }
+
+    private static int[] applyOperations(MapContext context) {
+        return new int[] {
+                AreaOperationService.fillSurfaceRandom(context, 3, 2, 97, 98, 7, LAYERS_1_AND_3, 0.4f, 42L),
+                AreaOperationService.clearSurface(context, 10, 10, 60, 90, new boolean[] { false, true, false, false }),
+                AreaOperationService.invertBlocks(context, 0, 0, 100, 100),
+                AreaOperationService.fillTriggers(context, 20, 5, 80, 95, 3) };
+    }
+
+    private static void scatter(TileStore tiles, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < tiles.size(); i++) {
+            tiles.initGrh(1 + random.nextInt(4), i, 1 + random.nextInt(50), false);
+            tiles.setBlocked(i, random.nextInt(3) == 0);
+            if (random.nextInt(4) == 0)
+                tiles.setTrigger(i, 3);
+        }
+    }
+
+    private static MapContext newContext(int width, int height) {
+        return new MapContext("Mapa1.map", new TileStore(width, height), new MapProperties(), new CharacterRegistry());
+    }
+}
@@ -0,0 +1,163 @@
+package org.argentumforge.engine.utils.editor;
+
+import org.argentumforge.engine.game.Options;
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.utils.AssetRegistry;
+import org.argentumforge.engine.utils.GameData;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.NpcData;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EditJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final int NPC = 42;
+
+    private boolean autoSaveEnabled;
+
+    @BeforeEach
+    void setUp() {
+        // The journal records and flushes regardless of the autosave setting
+        autoSaveEnabled = Options.INSTANCE.isAutoSaveEnabled();
+        Options.INSTANCE.setAutoSaveEnabled(false);
+        AssetRegistry.npcs.put(NPC, new NpcData(NPC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Options.INSTANCE.setAutoSaveEnabled(autoSaveEnabled);
+        AssetRegistry.npcs.remove(NPC);
+    }
+
+    @Test
+    @DisplayName("Should replay recorded tile changes onto a freshly loaded map")
+    void shouldReplayRecordedChanges() throws IOException {
+        // Arrange
+        MapContext edited = newContext();
+        TileStore tiles = edited.getTiles();
+        EditJournal journal = edited.getJournal();
+        int painted = tiles.index(10, 10);
+        int blocked = tiles.index(50, 60);
+
+        tiles.initGrh(2, painted, 1234, true);
+        tiles.setExitMap(painted, 7);
+        tiles.setExitX(painted, 40);
+        tiles.setExitY(painted, 41);
+        journal.record(new int[] { 10, 10, 10, 10 });
+
+        tiles.setBlocked(blocked, true);
+        tiles.setTrigger(blocked, 3);
+        tiles.setObjIndex(blocked, 12);
+        tiles.setObjAmount(blocked, 100);
+        tiles.setNpcIndex(blocked, NPC);
+        journal.record(null);
+
+        byte[] data = concat(journal.header(), journal.takePending());
+        MapContext reopened = newContext();
+
+        // Act
+        int restored = EditJournal.replay(reopened, data);
+
+        // Assert
+        TileStore recovered = reopened.getTiles();
+        assertThat(restored).isEqualTo(2);
+        assertThat(recovered.getGrh(2, painted)).isEqualTo(1234);
+        assertThat(recovered.getExitMap(painted)).isEqualTo(7);
+        assertThat(recovered.getExitX(painted)).isEqualTo(40);
+        assertThat(recovered.getExitY(painted)).isEqualTo(41);
+        assertThat(recovered.isBlocked(blocked)).isTrue();
+        assertThat(recovered.getTrigger(blocked)).isEqualTo(3);
+        assertThat(recovered.getObjIndex(blocked)).isEqualTo(12);
+        assertThat(recovered.getObjAmount(blocked)).isEqualTo(100);
+        assertThat(recovered.getNpcIndex(blocked)).isEqualTo(NPC);
+        int charIndex = recovered.getCharIndex(blocked);
+        assertThat(charIndex).isPositive();
+        assertThat(reopened.getCharList().get(charIndex).getPos().getX()).isEqualTo(50);
+        assertThat(reopened.getCharList().get(charIndex).getPos().getY()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Should only diff the chunks a command reports as affected")
+    void shouldDiffOnlyDirtyChunks() throws IOException {
+        // Arrange
+        MapContext edited = newContext();
+        TileStore tiles = edited.getTiles();
+        EditJournal journal = edited.getJournal();
+        int inside = tiles.index(10, 10);
+        int outside = tiles.index(90, 90);
+        tiles.setTrigger(inside, 1);
+        tiles.setTrigger(outside, 2);
+
+        // Act
+        journal.record(new int[] { 10, 10, 10, 10 });
+        byte[] first = journal.takePending();
+        journal.record(null);
+        byte[] second = journal.takePending();
+        journal.record(null);
+        byte[] third = journal.takePending();
+
+        // Assert: the untouched chunk is picked up by the next full scan, then
+        // nothing is left to record
+        MapContext reopened = newContext();
+        assertThat(EditJournal.replay(reopened, concat(journal.header(), first))).isEqualTo(1);
+        assertThat(reopened.getTiles().getTrigger(outside)).isZero();
+        assertThat(EditJournal.replay(reopened, concat(journal.header(), second))).isEqualTo(1);
+        assertThat(reopened.getTiles().getTrigger(outside)).isEqualTo(2);
+        assertThat(third).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop replaying at a torn batch at the end of the file")
+    void shouldIgnoreTornTail() throws IOException {
+        // Arrange
+        MapContext edited = newContext();
+        TileStore tiles = edited.getTiles();
+        EditJournal journal = edited.getJournal();
+        int idx = tiles.index(5, 5);
+        tiles.setTrigger(idx, 4);
+        journal.record(null);
+        byte[] complete = journal.takePending();
+        tiles.setTrigger(idx, 6);
+        journal.record(null);
+        byte[] second = journal.takePending();
+        byte[] torn = Arrays.copyOf(second, second.length - 1);
+
+        MapContext reopened = newContext();
+
+        // Act
+        int restored = EditJournal.replay(reopened, concat(journal.header(), concat(complete, torn)));
+
+        // Assert
+        assertThat(restored).isEqualTo(1);
+        assertThat(reopened.getTiles().getTrigger(idx)).isEqualTo(4);
+    }
+
+    private MapContext newContext() throws IOException {
+        Path map = tempDir.resolve("Mapa1.map");
+        if (!Files.exists(map))
+            Files.write(map, new byte[] { 1, 2, 3 });
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        return new MapContext(map.toString(), tiles, new MapProperties(), new CharacterRegistry());
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
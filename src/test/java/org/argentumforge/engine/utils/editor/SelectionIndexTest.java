@@ -0,0 +1,52 @@
+package org.argentumforge.engine.utils.editor;
+
+import org.argentumforge.engine.utils.editor.Selection.EntityType;
+import org.argentumforge.engine.utils.editor.Selection.SelectedEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SelectionIndexTest {
+
+    @Test
+    @DisplayName("Should track several entities on the same tile and clear the bit with the last one")
+    void shouldTrackEntitiesPerTile() {
+        // Arrange
+        SelectionIndex index = new SelectionIndex(101, 101);
+        SelectedEntity tile = new SelectedEntity(EntityType.TILE, 0, 40, 7);
+        SelectedEntity npc = new SelectedEntity(EntityType.NPC, 12, 40, 7);
+
+        // Act
+        index.add(tile);
+        index.add(npc);
+        index.remove(tile);
+
+        // Assert
+        assertThat(index.contains(40, 7)).isTrue();
+        assertThat(index.get(40, 7)).containsExactly(npc);
+        assertThat(index.contains(41, 7)).isFalse();
+
+        index.remove(npc);
+        assertThat(index.contains(40, 7)).isFalse();
+        assertThat(index.get(40, 7)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should grow to fit entities outside the initial grid")
+    void shouldGrowForOutOfRangeEntities() {
+        // Arrange
+        SelectionIndex index = new SelectionIndex(10, 10);
+        SelectedEntity inside = new SelectedEntity(EntityType.OBJECT, 3, 9, 9);
+        SelectedEntity outside = new SelectedEntity(EntityType.OBJECT, 4, 150, 20);
+
+        // Act
+        index.add(inside);
+        index.add(outside);
+
+        // Assert
+        assertThat(index.get(9, 9)).containsExactly(inside);
+        assertThat(index.get(150, 20)).containsExactly(outside);
+        assertThat(index.contains(-1, 0)).isFalse();
+    }
+}
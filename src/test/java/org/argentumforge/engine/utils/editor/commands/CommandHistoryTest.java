@@ -0,0 +1,126 @@
+package org.argentumforge.engine.utils.editor.commands;
+
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.utils.GameData;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandHistoryTest {
+
+    @Test
+    @DisplayName("Should evict the oldest commands once the byte budget is exceeded")
+    void shouldEvictOldestByBytes() {
+        // Arrange
+        CommandHistory history = new CommandHistory(300);
+        Command first = sized(100);
+        Command second = sized(100);
+        Command third = sized(100);
+
+        // Act
+        history.push(first);
+        history.push(second);
+        history.push(third);
+        int evicted = history.push(sized(150));
+
+        // Assert
+        assertThat(evicted).isEqualTo(2);
+        assertThat(history.size()).isEqualTo(2);
+        assertThat(history.get(0)).isSameAs(third);
+        assertThat(history.getBytes()).isEqualTo(250);
+        assertThat(history.getEvictedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep LIFO order across wrap-around and growth")
+    void shouldKeepOrderAcrossWrapAround() {
+        // Arrange
+        CommandHistory history = new CommandHistory(10 * 64);
+        Command[] pushed = new Command[40];
+
+        // Act: the budget keeps the ring at 10 entries while the head moves
+        for (int i = 0; i < pushed.length; i++) {
+            pushed[i] = sized(64);
+            history.push(pushed[i]);
+        }
+        history.setBudget(Long.MAX_VALUE);
+        for (int i = 0; i < 30; i++)
+            history.push(sized(64));
+
+        // Assert
+        assertThat(history.size()).isEqualTo(40);
+        assertThat(history.get(0)).isSameAs(pushed[30]);
+        for (int i = 0; i < 30; i++)
+            history.pop();
+        assertThat(history.pop()).isSameAs(pushed[39]);
+        assertThat(history.peek()).isSameAs(pushed[38]);
+    }
+
+    @Test
+    @DisplayName("Should keep a single command larger than the whole budget")
+    void shouldKeepOversizedCommand() {
+        // Arrange
+        CommandHistory history = new CommandHistory(100);
+        history.push(sized(50));
+        Command huge = sized(1000);
+
+        // Act
+        history.push(huge);
+
+        // Assert
+        assertThat(history.size()).isEqualTo(1);
+        assertThat(history.peek()).isSameAs(huge);
+    }
+
+    @Test
+    @DisplayName("Should apply and revert packed tile deltas")
+    void shouldApplyAndRevertPackedDeltas() {
+        // Arrange
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        MapContext context = new MapContext("Mapa1.map", tiles, new MapProperties(), new CharacterRegistry());
+        tiles.initGrh(2, tiles.index(3, 4), 7, false);
+        TileFieldsCommand.Buffer delta = new TileFieldsCommand.Buffer();
+        delta.add(TileFieldsCommand.layerField(2), tiles.index(3, 4), 7, 100);
+        delta.add(TileFieldsCommand.layerField(2), tiles.index(90, 12), 0, 200);
+        TileFieldsCommand command = new TileFieldsCommand(context, "history.command.bulk_tile", delta);
+
+        // Act
+        command.execute();
+
+        // Assert
+        assertThat(tiles.getGrh(2, tiles.index(3, 4))).isEqualTo(100);
+        assertThat(tiles.getGrh(2, tiles.index(90, 12))).isEqualTo(200);
+        assertThat(command.getAffectedBounds()).containsExactly(3, 4, 90, 12);
+        assertThat(command.getEstimatedBytes()).isLessThan(CommandHistory.COMMAND_BYTES + 64);
+
+        command.undo();
+        assertThat(tiles.getGrh(2, tiles.index(3, 4))).isEqualTo(7);
+        assertThat(tiles.getGrh(2, tiles.index(90, 12))).isZero();
+    }
+
+    private static Command sized(long bytes) {
+        return new Command() {
+            @Override
+            public void execute() {
+            }
+
+            @Override
+            public void undo() {
+            }
+
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public long getEstimatedBytes() {
+                return bytes;
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package org.argentumforge.engine.utils.editor.commands;
+
+import org.argentumforge.engine.game.models.CharacterRegistry;
+import org.argentumforge.engine.utils.GameData;
+import org.argentumforge.engine.utils.MapContext;
+import org.argentumforge.engine.utils.inits.MapProperties;
+import org.argentumforge.engine.utils.inits.TileStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StrokeCommandTest {
+
+    @Test
+    @DisplayName("Should keep the last write per tile and undo to the first value")
+    void shouldCoalesceWritesPerTile() {
+        // Arrange
+        MapContext context = newContext();
+        TileStore tiles = context.getTiles();
+        int idx = tiles.index(10, 10);
+        tiles.initGrh(1, idx, 5, false);
+        StrokeCommand stroke = new StrokeCommand(context);
+
+        // Act: the brush passes over the same tile several times
+        stroke.setGrh(1, 10, 10, 6);
+        stroke.setGrh(1, 10, 10, 7);
+        stroke.setTrigger(10, 10, 2);
+        stroke.setBlocked(11, 10, true);
+        boolean changed = stroke.commit();
+
+        // Assert
+        assertThat(changed).isTrue();
+        assertThat(tiles.getGrh(1, idx)).isEqualTo(7);
+        assertThat(stroke.getAffectedBounds()).containsExactly(10, 10, 11, 10);
+
+        stroke.undo();
+        assertThat(tiles.getGrh(1, idx)).isEqualTo(5);
+        assertThat(tiles.getTrigger(idx)).isZero();
+        assertThat(tiles.isBlocked(tiles.index(11, 10))).isFalse();
+
+        stroke.execute();
+        assertThat(tiles.getGrh(1, idx)).isEqualTo(7);
+        assertThat(tiles.getTrigger(idx)).isEqualTo(2);
+        assertThat(tiles.isBlocked(tiles.index(11, 10))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should drop tiles that end the stroke with their original value")
+    void shouldDropNoOpChanges() {
+        // Arrange
+        MapContext context = newContext();
+        StrokeCommand stroke = new StrokeCommand(context);
+
+        // Act
+        stroke.setParticle(20, 20, 3);
+        stroke.setParticle(20, 20, 0);
+        boolean changed = stroke.commit();
+
+        // Assert
+        assertThat(changed).isFalse();
+        assertThat(stroke.isEmpty()).isTrue();
+        assertThat(stroke.getAffectedBounds()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not nest commands that write the fields the stroke records")
+    void shouldRefuseToNestTileFieldWrites() {
+        // Arrange
+        MapContext context = newContext();
+        TileFieldsCommand.Buffer changes = new TileFieldsCommand.Buffer();
+        changes.add(TileFieldsCommand.FIELD_TRIGGER, context.getTiles().index(5, 5), 0, 1);
+        TileFieldsCommand fill = new TileFieldsCommand(context, "history.command.bulk_tile", changes);
+        MacroCommand propertiesOnly = new MacroCommand();
+        propertiesOnly.addCommand(new MapPropertiesChangeCommand(context, new MapProperties(), new MapProperties()));
+        MacroCommand withFill = new MacroCommand();
+        withFill.addCommand(propertiesOnly);
+        withFill.addCommand(fill);
+
+        // Act & Assert
+        assertThat(StrokeCommand.canNest(fill)).isFalse();
+        assertThat(StrokeCommand.canNest(new StrokeCommand(context))).isFalse();
+        assertThat(StrokeCommand.canNest(withFill)).isFalse();
+        assertThat(StrokeCommand.canNest(propertiesOnly)).isTrue();
+    }
+
+    private static MapContext newContext() {
+        TileStore tiles = new TileStore(GameData.X_MAX_MAP_SIZE + 1, GameData.Y_MAX_MAP_SIZE + 1);
+        return new MapContext("Mapa1.map", tiles, new MapProperties(), new CharacterRegistry());
+    }
+}
@@ -0,0 +1,113 @@
+package org.argentumforge.engine.utils.inits;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GrhTableTest {
+
+    @Test
+    @DisplayName("Should read primitive fields from the index without building any GrhData")
+    void shouldReadPrimitivesWithoutMaterializing() {
+        // Arrange
+        GrhTable table = GrhTable.lazy(index(), 20);
+
+        // Act
+        int fileNum = table.fileNum(2);
+        int width = table.pixelWidth(3);
+        int frames = table.numFrames(3);
+        int secondFrame = table.frame(3, 2);
+        float tileHeight = table.tileHeight(1);
+
+        // Assert
+        assertThat(fileNum).isEqualTo(102);
+        assertThat(width).isEqualTo(32);
+        assertThat(frames).isEqualTo(2);
+        assertThat(secondFrame).isEqualTo(2);
+        assertThat(tileHeight).isEqualTo(2f);
+        assertThat(table.contains(3)).isTrue();
+        assertThat(table.contains(4)).isFalse();
+        assertThat(table.length()).isEqualTo(20);
+        assertThat(table.getMaterializedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should build a GrhData on first access and return the same instance afterwards")
+    void shouldMaterializeOnFirstAccess() {
+        // Arrange
+        GrhTable table = GrhTable.lazy(index(), 20);
+
+        // Act
+        GrhData first = table.get(3);
+        GrhData again = table.get(3);
+
+        // Assert
+        assertThat(first).isSameAs(again);
+        assertThat(first.getNumFrames()).isEqualTo(2);
+        assertThat(first.getFrame(1)).isEqualTo(1);
+        assertThat(first.getPixelHeight()).isEqualTo(64);
+        assertThat(table.get(0)).isNotNull();
+        assertThat(table.get(4)).isNull();
+        assertThat(table.getMaterializedCount()).isEqualTo(1);
+        // Once built, primitive reads come from the GrhData
+        assertThat(table.pixelHeight(3)).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("Should hand every thread the same GrhData when they race to build it")
+    void shouldPublishOneInstancePerGrh() {
+        // Arrange
+        GrhTable table = GrhTable.lazy(index(), 20);
+        Set<GrhData> seen = ConcurrentHashMap.newKeySet();
+
+        // Act
+        IntStream.range(0, 10_000).parallel().forEach(i -> seen.add(table.get(1 + i % 3)));
+
+        // Assert
+        assertThat(seen).hasSize(3);
+        assertThat(table.getMaterializedCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should behave like the wrapped array when there is no index")
+    void shouldWrapPrebuiltArray() {
+        // Arrange
+        GrhData[] entries = new GrhData[4];
+        entries[2] = new GrhData();
+        entries[2].setNumFrames(1);
+        entries[2].setFileNum(55);
+        entries[2].setFrames(new int[] { 0, 2 });
+
+        // Act
+        GrhTable table = new GrhTable(entries);
+
+        // Assert
+        assertThat(table.get(2)).isSameAs(entries[2]);
+        assertThat(table.get(1)).isNull();
+        assertThat(table.contains(1)).isFalse();
+        assertThat(table.fileNum(2)).isEqualTo(55);
+        assertThat(table.frame(2, 1)).isEqualTo(2);
+    }
+
+    /**
+     * GRH 1 and 2 are static (files 101 and 102, 32x64); GRH 3 animates them.
+     */
+    private static MappedGrhIndex index() {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 2 * 18 + 4 + 2 + 2 * 4 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(1).putInt(3);
+        for (int grh = 1; grh <= 2; grh++) {
+            buffer.putInt(grh).putShort((short) 1).putInt(100 + grh);
+            buffer.putShort((short) (grh * 32)).putShort((short) 0).putShort((short) 32).putShort((short) 64);
+        }
+        buffer.putInt(3).putShort((short) 2).putInt(1).putInt(2).putFloat(100f);
+        buffer.flip();
+        return MappedGrhIndex.parse(buffer, false);
+    }
+}
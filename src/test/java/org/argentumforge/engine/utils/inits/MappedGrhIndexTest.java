@@ -0,0 +1,234 @@
+package org.argentumforge.engine.utils.inits;
+
+import org.argentumforge.engine.utils.BinaryDataReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class MappedGrhIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should expose static and animated GRH fields through primitive accessors")
+    void shouldReadGrhFields() throws IOException {
+        // Arrange
+        Path file = writeIndex(tempDir.resolve("Graficos.ind"), 10, true);
+
+        // Act
+        MappedGrhIndex index = MappedGrhIndex.parse(MappedGrhIndex.read(file), true);
+
+        // Assert
+        assertThat(index).isNotNull();
+        assertThat(index.getLoadedCount()).isEqualTo(10);
+        assertThat(index.getMaxGrh()).isEqualTo(10);
+        assertThat(index.isTruncated()).isFalse();
+
+        assertThat(index.fileNum(3)).isEqualTo(103);
+        assertThat(index.sx(3)).isEqualTo(96);
+        assertThat(index.sy(3)).isEqualTo(3);
+        assertThat(index.pixelWidth(3)).isEqualTo(32);
+        assertThat(index.pixelHeight(3)).isEqualTo(64);
+        assertThat(index.frame(3, 1)).isEqualTo(3);
+
+        // Every tenth GRH animates the two previous ones
+        assertThat(index.numFrames(10)).isEqualTo(2);
+        assertThat(index.frame(10, 1)).isEqualTo(8);
+        assertThat(index.frame(10, 2)).isEqualTo(9);
+        assertThat(index.speed(10)).isEqualTo(200f);
+        assertThat(index.pixelHeight(10)).isEqualTo(64);
+        assertThat(index.contains(11)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should materialize the same GrhData the classic loader builds")
+    void shouldMaterializeGrhData() throws IOException {
+        // Arrange
+        Path file = writeIndex(tempDir.resolve("Graficos.ind"), 20, false);
+        MappedGrhIndex index = MappedGrhIndex.parse(MappedGrhIndex.read(file), false);
+
+        // Act
+        GrhData[] grhs = index.materializeAll(0);
+
+        // Assert
+        assertThat(grhs).hasSize(21);
+        assertThat(grhs[5].getFileNum()).isEqualTo(105);
+        assertThat(grhs[5].getTileHeight()).isEqualTo(2f);
+        assertThat(grhs[5].getFrame(1)).isEqualTo(5);
+        assertThat(grhs[20].getNumFrames()).isEqualTo(2);
+        assertThat(grhs[20].getFrame(2)).isEqualTo(19);
+        assertThat(grhs[20].getPixelWidth()).isEqualTo(32);
+    }
+
+    @Test
+    @DisplayName("Should return null for files without a version/count header")
+    void shouldRejectLegacyFormat() {
+        // Arrange
+        ByteBuffer legacy = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        legacy.putInt(0, 0).putInt(4, 0);
+
+        // Act
+        MappedGrhIndex index = MappedGrhIndex.parse(legacy, false);
+
+        // Assert
+        assertThat(index).isNull();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: lazy GRH table vs byte[] + GrhData loader (time and heap)")
+    void benchmarkAgainstClassicLoader() throws IOException {
+        // Arrange
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeThat(bean).isInstanceOf(com.sun.management.ThreadMXBean.class);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        int count = 150_000;
+        Path file = writeIndex(tempDir.resolve("Graficos.ind"), count, true);
+        for (int i = 0; i < 5; i++) {
+            loadClassic(file, count);
+            MappedGrhIndex.parse(MappedGrhIndex.read(file), true).materializeAll(0);
+            loadLazy(file, count);
+        }
+
+        // Act
+        long classicBytes = threads.getThreadAllocatedBytes(threadId);
+        long classicStart = System.nanoTime();
+        GrhData[] classic = loadClassic(file, count);
+        long classicNanos = System.nanoTime() - classicStart;
+        classicBytes = threads.getThreadAllocatedBytes(threadId) - classicBytes;
+
+        long indexBytes = threads.getThreadAllocatedBytes(threadId);
+        long indexStart = System.nanoTime();
+        MappedGrhIndex index = MappedGrhIndex.parse(MappedGrhIndex.read(file), true);
+        long indexNanos = System.nanoTime() - indexStart;
+        indexBytes = threads.getThreadAllocatedBytes(threadId) - indexBytes;
+
+        long mappedBytes = threads.getThreadAllocatedBytes(threadId);
+        long mappedStart = System.nanoTime();
+        GrhData[] mapped = index.materializeAll(0);
+        long mappedNanos = System.nanoTime() - mappedStart + indexNanos;
+        mappedBytes = threads.getThreadAllocatedBytes(threadId) - mappedBytes + indexBytes;
+
+        // What the editor does at startup: GrhData only for the GRHs it touches
+        long lazyBytes = threads.getThreadAllocatedBytes(threadId);
+        long lazyStart = System.nanoTime();
+        GrhTable table = loadLazy(file, count);
+        long lazyNanos = System.nanoTime() - lazyStart;
+        lazyBytes = threads.getThreadAllocatedBytes(threadId) - lazyBytes;
+
+        Logger.info("Graficos.ind with {} GRHs ({} KB):", count, Files.size(file) / 1024);
+        Logger.info("  byte[] + GrhData : {} ms, {} KB allocated", classicNanos / 1_000_000, classicBytes / 1024);
+        Logger.info("  direct index     : {} ms, {} KB allocated", indexNanos / 1_000_000, indexBytes / 1024);
+        Logger.info("  index + GrhData  : {} ms, {} KB allocated", mappedNanos / 1_000_000, mappedBytes / 1024);
+        Logger.info("  lazy table + scan: {} ms, {} KB allocated, {} GrhData built", lazyNanos / 1_000_000,
+                lazyBytes / 1024, table.getMaterializedCount());
+
+        // Assert
+        assertThat(mapped[count].getFrame(2)).isEqualTo(classic[count].getFrame(2));
+        assertThat(mapped[count - 1].getsX()).isEqualTo(classic[count - 1].getsX());
+        // The index only keeps the offset table (one int per GRH)
+        assertThat(indexBytes).isLessThan(classicBytes / 4);
+        // The file is read off-heap, so materializing skips the byte[] copy
+        assertThat(mappedBytes).isLessThan(classicBytes);
+        // Only the touched GRHs are built
+        assertThat(table.getMaterializedCount()).isEqualTo(count / 50);
+        assertThat(lazyBytes).isLessThan(classicBytes / 4);
+    }
+
+    /**
+     * Writes a 0.12+ Graficos.ind where GRH {@code i} is static except every
+     * tenth one, which animates the two previous GRHs.
+     */
+    private static Path writeIndex(Path file, int count, boolean withHeader) throws IOException {
+        int header = withHeader ? MappedGrhIndex.HEADER_SIZE : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(header + 8 + count * 18).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < header; i++)
+            buffer.put((byte) 'A');
+        buffer.putInt(1).putInt(count);
+
+        for (int grh = 1; grh <= count; grh++) {
+            buffer.putInt(grh);
+            if (grh % 10 == 0) {
+                buffer.putShort((short) 2).putInt(grh - 2).putInt(grh - 1).putFloat(200f);
+            } else {
+                buffer.putShort((short) 1).putInt(100 + grh);
+                buffer.putShort((short) ((grh * 32) % 4096)).putShort((short) grh).putShort((short) 32)
+                        .putShort((short) 64);
+            }
+        }
+        buffer.flip();
+        Files.write(file, java.util.Arrays.copyOf(buffer.array(), buffer.limit()));
+        return file;
+    }
+
+    /**
+     * Lazy table plus one primitive pass over every GRH (like the atlas layout)
+     * and a GrhData for one GRH in fifty (like the GRHs of an open map).
+     */
+    private static GrhTable loadLazy(Path file, int count) throws IOException {
+        GrhTable table = GrhTable.lazy(MappedGrhIndex.parse(MappedGrhIndex.read(file), true), count + 1001);
+        long checksum = 0;
+        for (int grh = 1; grh < table.length(); grh++) {
+            if (table.contains(grh))
+                checksum += table.fileNum(grh) + table.pixelWidth(grh);
+        }
+        for (int grh = 1; grh <= count; grh += 50)
+            checksum += table.get(grh).getNumFrames();
+        assertThat(checksum).isPositive();
+        return table;
+    }
+
+    /** Copy of the previous loader: reads the whole file and builds a GrhData per entry. */
+    private static GrhData[] loadClassic(Path file, int count) throws IOException {
+        BinaryDataReader reader = new BinaryDataReader();
+        reader.init(Files.readAllBytes(file));
+        reader.skipBytes(MappedGrhIndex.HEADER_SIZE + 8);
+
+        GrhData[] grhs = new GrhData[count + 1001];
+        grhs[0] = new GrhData();
+        for (int loaded = 0; loaded < count && reader.hasRemaining(); loaded++) {
+            int grh = reader.readInt();
+            GrhData data = new GrhData();
+            grhs[grh] = data;
+            data.setNumFrames(reader.readShort());
+            data.setFrames(new int[data.getNumFrames() + 1]);
+            if (data.getNumFrames() > 1) {
+                for (int i = 1; i <= data.getNumFrames(); i++)
+                    data.setFrame(i, reader.readInt());
+                data.setSpeed(reader.readFloat());
+                GrhData first = grhs[data.getFrame(1)];
+                data.setPixelWidth(first.getPixelWidth());
+                data.setPixelHeight(first.getPixelHeight());
+                data.setTileWidth(first.getTileWidth());
+                data.setTileHeight(first.getTileHeight());
+            } else {
+                data.setFileNum(reader.readInt());
+                data.setsX(reader.readShort());
+                data.setsY(reader.readShort());
+                data.setPixelWidth(reader.readShort());
+                data.setPixelHeight(reader.readShort());
+                data.setTileWidth((float) data.getPixelWidth() / 32);
+                data.setTileHeight((float) data.getPixelHeight() / 32);
+                data.setFrame(1, grh);
+            }
+        }
+        return grhs;
+    }
+}
@@ -0,0 +1,67 @@
+package org.argentumforge.engine.utils.inits;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TileStoreTest {
+
+    @Test
+    @DisplayName("Should read and write tile fields through MapData views")
+    void shouldShareStateWithMapDataViews() {
+        // Arrange
+        TileStore tiles = new TileStore(101, 101);
+        MapData tile = tiles.grid()[10][20];
+
+        // Act
+        tile.setBlocked(true);
+        tile.setTrigger(6);
+        tile.setExitMap(42);
+        tile.getLayer(2).setGrhIndex(1234);
+
+        // Assert
+        int idx = tiles.index(10, 20);
+        assertThat(tiles.isBlocked(idx)).isTrue();
+        assertThat(tiles.getTrigger(idx)).isEqualTo(6);
+        assertThat(tiles.getExitMap(idx)).isEqualTo(42);
+        assertThat(tiles.getGrh(2, idx)).isEqualTo(1234);
+        assertThat(tiles.isBlocked(tiles.index(20, 10))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep unsigned 16-bit values and signed particle index")
+    void shouldPreserveShortRanges() {
+        // Arrange
+        TileStore tiles = new TileStore(101, 101);
+        int idx = tiles.index(1, 1);
+
+        // Act
+        tiles.setObjIndex(idx, 65000);
+        tiles.setParticleIndex(idx, -3);
+
+        // Assert
+        assertThat(tiles.getObjIndex(idx)).isEqualTo(65000);
+        assertThat(tiles.getParticleIndex(idx)).isEqualTo(-3);
+    }
+
+    @Test
+    @DisplayName("Should copy a tile between stores")
+    void shouldCopyTileBetweenStores() {
+        // Arrange
+        TileStore source = new TileStore(101, 101);
+        int srcIdx = source.index(5, 5);
+        source.setGrh(TileStore.OBJ_SLOT, srcIdx, 77);
+        source.setGrh(3, srcIdx, 88);
+        source.setObjAmount(srcIdx, 10);
+        MapData scratch = new MapData();
+
+        // Act
+        scratch.getStore().copyTile(source, srcIdx, scratch.getIndex());
+
+        // Assert
+        assertThat(scratch.getObjGrh().getGrhIndex()).isEqualTo(77);
+        assertThat(scratch.getLayer(3).getGrhIndex()).isEqualTo(88);
+        assertThat(scratch.getObjAmount()).isEqualTo(10);
+    }
+}